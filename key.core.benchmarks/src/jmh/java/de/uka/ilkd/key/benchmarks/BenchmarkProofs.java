@@ -0,0 +1,128 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.abstraction.KeYJavaType;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.IObserverFunction;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.ProofInputException;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.speclang.Contract;
+import de.uka.ilkd.key.strategy.StrategyProperties;
+import de.uka.ilkd.key.util.KeYTypeUtil;
+
+/**
+ * Creates the proofs the benchmarks operate on. All proofs are obtained deterministically from
+ * the examples of {@code key.core.example}, so that the results of different runs are comparable.
+ */
+final class BenchmarkProofs {
+    /** system property pointing to the example sources, set by the build */
+    static final String EXAMPLE_PROPERTY = "key.benchmarks.example";
+
+    /** number of automatic steps after which the goal of an open proof is taken */
+    static final int OPEN_PROOF_STEPS = 60;
+
+    /** maximal number of automatic steps of a closed proof */
+    static final int CLOSED_PROOF_STEPS = 10000;
+
+    private BenchmarkProofs() {
+    }
+
+    /**
+     * Loads the example sources.
+     *
+     * @return the environment of the example sources
+     * @throws ProblemLoaderException if loading fails
+     */
+    static KeYEnvironment<?> loadExample() throws ProblemLoaderException {
+        File location =
+            new File(System.getProperty(EXAMPLE_PROPERTY, "../key.core.example/example"));
+        return KeYEnvironment.load(location, null, null, null);
+    }
+
+    /**
+     * Creates a proof for the first contract (in the order of their names) of the example and runs
+     * the automatic mode on it.
+     *
+     * @param env the environment of the example
+     * @param maxSteps the maximal number of automatic rule applications
+     * @return the proof
+     * @throws ProofInputException if the proof obligation cannot be created
+     */
+    static Proof createProof(KeYEnvironment<?> env, int maxSteps) throws ProofInputException {
+        final Contract contract = firstContract(env);
+        final Proof proof =
+            env.createProof(contract.createProofObl(env.getInitConfig(), contract));
+        final StrategyProperties sp =
+            proof.getSettings().getStrategySettings().getActiveStrategyProperties();
+        sp.setProperty(StrategyProperties.METHOD_OPTIONS_KEY, StrategyProperties.METHOD_CONTRACT);
+        sp.setProperty(StrategyProperties.OSS_OPTIONS_KEY, StrategyProperties.OSS_ON);
+        sp.setProperty(StrategyProperties.STOPMODE_OPTIONS_KEY,
+            StrategyProperties.STOPMODE_NONCLOSE);
+        proof.getSettings().getStrategySettings().setActiveStrategyProperties(sp);
+        proof.getSettings().getStrategySettings().setMaxSteps(maxSteps);
+        proof.setActiveStrategy(
+            proof.getServices().getProfile().getDefaultStrategyFactory().create(proof, sp));
+        env.getUi().getProofControl().startAndWaitForAutoMode(proof);
+        return proof;
+    }
+
+    /**
+     * @param proof an open proof
+     * @return the first open goal of the proof
+     */
+    static Goal firstOpenGoal(Proof proof) {
+        if (proof.closed()) {
+            throw new IllegalStateException("Proof " + proof.name() + " is already closed");
+        }
+        return proof.openGoals().head();
+    }
+
+    /**
+     * @param sequent a sequent
+     * @return all subterms of the formulas of the sequent in depth-first order
+     */
+    static List<Term> subterms(Sequent sequent) {
+        final List<Term> result = new ArrayList<>();
+        for (SequentFormula sf : sequent) {
+            collect(sf.formula(), result::add);
+        }
+        return result;
+    }
+
+    private static void collect(Term term, Consumer<Term> consumer) {
+        consumer.accept(term);
+        for (Term sub : term.subs()) {
+            collect(sub, consumer);
+        }
+    }
+
+    private static Contract firstContract(KeYEnvironment<?> env) {
+        final List<Contract> contracts = new ArrayList<>();
+        for (KeYJavaType type : env.getJavaInfo().getAllKeYJavaTypes()) {
+            if (!KeYTypeUtil.isLibraryClass(type)) {
+                for (IObserverFunction target : env.getSpecificationRepository()
+                        .getContractTargets(type)) {
+                    for (Contract contract : env.getSpecificationRepository().getContracts(type,
+                        target)) {
+                        contracts.add(contract);
+                    }
+                }
+            }
+        }
+        return contracts.stream().min(Comparator.comparing(Contract::getName)).orElseThrow(
+            () -> new IllegalStateException("No contracts found in the example sources"));
+    }
+}
@@ -0,0 +1,53 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.ProofSaver;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A closed proof of the example together with its saved representation.
+ */
+@State(Scope.Benchmark)
+public class ClosedProofState {
+    KeYEnvironment<?> env;
+    Proof proof;
+    Path proofFile;
+    /** content of the saved proof file */
+    String proofText;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        env = BenchmarkProofs.loadExample();
+        proof = BenchmarkProofs.createProof(env, BenchmarkProofs.CLOSED_PROOF_STEPS);
+        if (!proof.closed()) {
+            throw new IllegalStateException("Proof " + proof.name() + " could not be closed");
+        }
+        proofFile = Files.createTempFile("key-benchmark", ".proof");
+        final String error = new ProofSaver(proof, proofFile.toFile()).save();
+        if (error != null) {
+            throw new IOException(error);
+        }
+        proofText = Files.readString(proofFile, StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        proof.dispose();
+        env.dispose();
+        Files.deleteIfExists(proofFile);
+    }
+}
@@ -0,0 +1,136 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import org.key_project.util.collection.DefaultImmutableMap;
+import org.key_project.util.collection.DefaultImmutableSet;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the list-based {@link DefaultImmutableSet} and {@link DefaultImmutableMap} with the
+ * hash array mapped tries created by {@link DefaultImmutableSet#nilHashSet()} and
+ * {@link DefaultImmutableMap#nilHashMap()} for growing sizes, to find the size from which on the
+ * tries are faster.
+ */
+@State(Scope.Benchmark)
+public class ImmutableCollectionsBenchmark {
+    @Param({ "2", "4", "8", "16", "32", "64", "128", "512" })
+    public int size;
+
+    private String[] elements;
+    private ImmutableSet<String> listSet;
+    private ImmutableSet<String> hashSet;
+    private ImmutableMap<String, String> listMap;
+    private ImmutableMap<String, String> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        elements = new String[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = "element" + i;
+        }
+        listSet = DefaultImmutableSet.nil();
+        hashSet = DefaultImmutableSet.nilHashSet();
+        listMap = DefaultImmutableMap.nilMap();
+        hashMap = DefaultImmutableMap.nilHashMap();
+        for (String element : elements) {
+            listSet = listSet.add(element);
+            hashSet = hashSet.add(element);
+            listMap = listMap.put(element, element);
+            hashMap = hashMap.put(element, element);
+        }
+    }
+
+    @Benchmark
+    public ImmutableSet<String> buildListSet() {
+        return build(DefaultImmutableSet.nil());
+    }
+
+    @Benchmark
+    public ImmutableSet<String> buildHashSet() {
+        return build(DefaultImmutableSet.nilHashSet());
+    }
+
+    private ImmutableSet<String> build(ImmutableSet<String> set) {
+        for (String element : elements) {
+            set = set.add(element);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public int containsListSet() {
+        return countContained(listSet);
+    }
+
+    @Benchmark
+    public int containsHashSet() {
+        return countContained(hashSet);
+    }
+
+    private int countContained(ImmutableSet<String> set) {
+        int result = 0;
+        for (String element : elements) {
+            if (set.contains(element)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public ImmutableSet<String> unionListSet() {
+        return listSet.union(listSet.remove(elements[0]).add("other"));
+    }
+
+    @Benchmark
+    public ImmutableSet<String> unionHashSet() {
+        return hashSet.union(hashSet.remove(elements[0]).add("other"));
+    }
+
+    @Benchmark
+    public ImmutableMap<String, String> putListMap() {
+        return put(DefaultImmutableMap.nilMap());
+    }
+
+    @Benchmark
+    public ImmutableMap<String, String> putHashMap() {
+        return put(DefaultImmutableMap.nilHashMap());
+    }
+
+    private ImmutableMap<String, String> put(ImmutableMap<String, String> map) {
+        for (String element : elements) {
+            map = map.put(element, element);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int getListMap() {
+        return countMapped(listMap);
+    }
+
+    @Benchmark
+    public int getHashMap() {
+        return countMapped(hashMap);
+    }
+
+    private int countMapped(ImmutableMap<String, String> map) {
+        int result = 0;
+        for (String element : elements) {
+            if (map.get(element) != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
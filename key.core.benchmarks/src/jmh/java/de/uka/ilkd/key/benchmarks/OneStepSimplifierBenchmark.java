@@ -0,0 +1,70 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.PosInTerm;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.util.MiscTools;
+
+import org.key_project.util.collection.ImmutableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the application of the {@link OneStepSimplifier} to the first simplifiable formula of
+ * an open goal (including the split of the goal). The application is pruned after each
+ * invocation.
+ */
+@State(Scope.Benchmark)
+public class OneStepSimplifierBenchmark {
+    private Proof proof;
+    private Node node;
+    private Goal goal;
+    private PosInOccurrence pio;
+    private OneStepSimplifier simplifier;
+
+    @Setup(Level.Trial)
+    public void setUp(OpenGoalState state) {
+        proof = state.proof;
+        goal = state.goal;
+        node = goal.node();
+        simplifier = MiscTools.findOneStepSimplifier(proof);
+        if (simplifier == null) {
+            throw new IllegalStateException("No one step simplifier in the profile");
+        }
+        OneStepSimplifier.refreshOSS(proof);
+        for (SequentFormula sf : goal.sequent()) {
+            final PosInOccurrence candidate = new PosInOccurrence(sf, PosInTerm.getTopLevel(),
+                goal.sequent().antecedent().contains(sf));
+            if (simplifier.isApplicable(goal, candidate)) {
+                pio = candidate;
+                break;
+            }
+        }
+        if (pio == null) {
+            throw new IllegalStateException("No simplifiable formula in the open goal");
+        }
+    }
+
+    @Benchmark
+    public ImmutableList<Goal> apply() {
+        return goal.apply(simplifier.createApp(pio, proof.getServices()));
+    }
+
+    @TearDown(Level.Invocation)
+    public void prune() {
+        proof.pruneProof(node);
+        goal = proof.getOpenGoal(node);
+    }
+}
@@ -0,0 +1,41 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * An open proof of the example after {@link BenchmarkProofs#OPEN_PROOF_STEPS} automatic steps,
+ * i.e., a goal whose sequent has been partially symbolically executed and simplified.
+ */
+@State(Scope.Benchmark)
+public class OpenGoalState {
+    KeYEnvironment<?> env;
+    Proof proof;
+    Goal goal;
+    Services services;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        env = BenchmarkProofs.loadExample();
+        proof = BenchmarkProofs.createProof(env, BenchmarkProofs.OPEN_PROOF_STEPS);
+        goal = BenchmarkProofs.firstOpenGoal(proof);
+        services = proof.getServices();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        proof.dispose();
+        env.dispose();
+    }
+}
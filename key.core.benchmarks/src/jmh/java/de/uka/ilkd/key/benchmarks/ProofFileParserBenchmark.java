@@ -0,0 +1,50 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.net.URI;
+
+import de.uka.ilkd.key.nparser.ProofReplayer;
+import de.uka.ilkd.key.proof.io.IntermediatePresentationProofFileParser;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the {@link IntermediatePresentationProofFileParser} on the proof section of a saved
+ * closed proof of the example. The problem header is not parsed.
+ */
+@State(Scope.Benchmark)
+public class ProofFileParserBenchmark {
+    private static final String PROOF_KEYWORD = "\\proof {";
+
+    private String proofSection;
+    private int startLine;
+    private URI source;
+
+    @Setup(Level.Trial)
+    public void setUp(ClosedProofState state) {
+        final int start = state.proofText.indexOf(PROOF_KEYWORD);
+        if (start < 0) {
+            throw new IllegalStateException("Saved proof does not contain a proof section");
+        }
+        // the replayer expects the input right behind the \proof keyword
+        final int offset = start + PROOF_KEYWORD.length() - 1;
+        proofSection = state.proofText.substring(offset);
+        startLine = (int) state.proofText.substring(0, offset).lines().count();
+        source = state.proofFile.toUri();
+    }
+
+    @Benchmark
+    public IntermediatePresentationProofFileParser.Result parse(ClosedProofState state) {
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(state.proof);
+        ProofReplayer.run(CharStreams.fromString(proofSection), parser, startLine, source);
+        return parser.getResult();
+    }
+}
@@ -0,0 +1,24 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import de.uka.ilkd.key.proof.io.ProofSaver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures {@link ProofSaver} on a closed proof of the example. The proof is written into memory
+ * to exclude the file system.
+ */
+public class ProofSaverBenchmark {
+    @Benchmark
+    public int save(ClosedProofState state) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(state.proofText.length());
+        new ProofSaver(state.proof, state.proofFile.toFile()).save(out);
+        return out.size();
+    }
+}
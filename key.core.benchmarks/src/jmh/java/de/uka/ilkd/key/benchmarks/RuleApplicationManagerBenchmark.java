@@ -0,0 +1,34 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.strategy.AutomatedRuleApplicationManager;
+import de.uka.ilkd.key.strategy.QueueRuleApplicationManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the queue operations of the {@link QueueRuleApplicationManager}: filling the queue with
+ * all rule applications of an open goal and selecting the cheapest one.
+ */
+@State(Scope.Benchmark)
+public class RuleApplicationManagerBenchmark {
+    private AutomatedRuleApplicationManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp(OpenGoalState state) {
+        manager = state.goal.getRuleAppManager();
+    }
+
+    @Benchmark
+    public RuleApp rebuildQueueAndPeek() {
+        manager.clearCache();
+        return manager.peekNext();
+    }
+}
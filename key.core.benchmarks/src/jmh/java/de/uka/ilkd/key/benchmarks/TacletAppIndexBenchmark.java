@@ -0,0 +1,59 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.proof.NewRuleListener;
+import de.uka.ilkd.key.proof.TacletAppIndex;
+import de.uka.ilkd.key.proof.rulefilter.AnyRuleSetTacletFilter;
+import de.uka.ilkd.key.rule.RuleApp;
+
+import org.key_project.util.collection.ImmutableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the (re-)computation of the {@link TacletAppIndex} of an open goal, once reusing the
+ * term taclet app index caches of the proof and once from scratch.
+ */
+@State(Scope.Benchmark)
+public class TacletAppIndexBenchmark {
+    private TacletAppIndex index;
+    private int reported;
+
+    @Setup(Level.Trial)
+    public void setUp(OpenGoalState state) {
+        index = new TacletAppIndex(state.goal.indexOfTaclets(), state.goal, state.services);
+        index.setRuleFilter(AnyRuleSetTacletFilter.INSTANCE);
+        index.setNewRuleListener(new NewRuleListener() {
+            @Override
+            public void ruleAdded(RuleApp rule, PosInOccurrence pos) {
+                reported++;
+            }
+
+            @Override
+            public void rulesAdded(ImmutableList<? extends RuleApp> rules, PosInOccurrence pos) {
+                reported += rules.size();
+            }
+        });
+    }
+
+    @Benchmark
+    public int rebuildWithCache() {
+        index.clearIndexes();
+        index.fillCache();
+        return reported;
+    }
+
+    @Benchmark
+    public int rebuildWithoutCache() {
+        index.clearAndDetachCache();
+        index.fillCache();
+        return reported;
+    }
+}
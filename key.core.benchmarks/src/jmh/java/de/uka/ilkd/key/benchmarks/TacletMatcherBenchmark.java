@@ -0,0 +1,64 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link VMTacletMatcher#matchFind} of the find taclets of an open goal against the
+ * subterms of its sequent. Only pairs whose top level operators may match are considered (as the
+ * taclet index would do).
+ */
+@State(Scope.Benchmark)
+public class TacletMatcherBenchmark {
+    private final List<FindTaclet> taclets = new ArrayList<>();
+    private final List<Term> terms = new ArrayList<>();
+    private OpenGoalState state;
+
+    @Setup(Level.Trial)
+    public void setUp(OpenGoalState state) {
+        this.state = state;
+        final Goal goal = state.goal;
+        for (NoPosTacletApp app : goal.indexOfTaclets().allNoPosTacletApps()) {
+            if (app.taclet() instanceof FindTaclet ft
+                    && ft.getMatcher() instanceof VMTacletMatcher) {
+                taclets.add(ft);
+            }
+        }
+        // the taclet index is a hash set, fix the order for reproducibility
+        taclets.sort(Comparator.comparing(t -> t.name().toString()));
+        terms.addAll(BenchmarkProofs.subterms(goal.sequent()));
+    }
+
+    @Benchmark
+    public void matchFind(Blackhole bh) {
+        for (FindTaclet taclet : taclets) {
+            final Term find = taclet.find();
+            final boolean anyOp = find.op() instanceof SchemaVariable;
+            for (Term term : terms) {
+                if (anyOp || find.op() == term.op()) {
+                    bh.consume(taclet.getMatcher().matchFind(term,
+                        MatchConditions.EMPTY_MATCHCONDITIONS, state.services));
+                }
+            }
+        }
+    }
+}
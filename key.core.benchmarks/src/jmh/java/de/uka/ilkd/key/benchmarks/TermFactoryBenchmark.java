@@ -0,0 +1,63 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link TermFactory#createTerm} by rebuilding the formulas of an open goal bottom-up,
+ * once with the caching factory of the services and once without cache.
+ */
+@State(Scope.Benchmark)
+public class TermFactoryBenchmark {
+    private final List<Term> formulas = new ArrayList<>();
+    private TermFactory cachingFactory;
+    private TermFactory plainFactory;
+
+    @Setup(Level.Trial)
+    public void setUp(OpenGoalState state) {
+        for (SequentFormula sf : state.goal.sequent()) {
+            formulas.add(sf.formula());
+        }
+        cachingFactory = state.services.getTermFactory();
+        plainFactory = new TermFactory();
+    }
+
+    @Benchmark
+    public Term createTermsCached() {
+        return rebuildAll(cachingFactory);
+    }
+
+    @Benchmark
+    public Term createTermsUncached() {
+        return rebuildAll(plainFactory);
+    }
+
+    private Term rebuildAll(TermFactory tf) {
+        Term last = null;
+        for (Term formula : formulas) {
+            last = rebuild(formula, tf);
+        }
+        return last;
+    }
+
+    private static Term rebuild(Term term, TermFactory tf) {
+        final Term[] subs = new Term[term.arity()];
+        for (int i = 0; i < subs.length; i++) {
+            subs[i] = rebuild(term.sub(i), tf);
+        }
+        return tf.createTerm(term.op(), subs, term.boundVars(), term.getLabels());
+    }
+}
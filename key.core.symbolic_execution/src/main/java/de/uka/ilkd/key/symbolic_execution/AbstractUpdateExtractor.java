@@ -22,6 +22,7 @@ import de.uka.ilkd.key.prover.impl.ApplyStrategyInfo;
 import de.uka.ilkd.key.strategy.StrategyProperties;
 import de.uka.ilkd.key.symbolic_execution.model.impl.ExecutionAllArrayIndicesVariable;
 import de.uka.ilkd.key.symbolic_execution.object_model.ISymbolicLayout;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionSideProofUtil;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
 
@@ -1113,17 +1114,17 @@ public abstract class AbstractUpdateExtractor {
             updateLayoutTerm = tb.apply(additionalUpdate, updateLayoutTerm);
         }
         // New OneStepSimplifier is required because it has an internal state and the default
-        // instance can't be used parallel.
-        final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                .cloneProofEnvironmentWithOwnOneStepSimplifier(getProof(), true);
+        // instance can't be used parallel. It is taken from the pool of the proof.
+        final SideProofService sideProofService = SideProofService.get(getProof());
+        final ProofEnvironment sideProofEnv = sideProofService.acquireEnvironment(true);
         Sequent sequent = SymbolicExecutionUtil.createSequentToProveWithNewSuccedent(node,
             modalityPio, layoutCondition, updateLayoutTerm, null, false);
         // Instantiate and run proof
-        ApplyStrategyInfo info =
-            SymbolicExecutionSideProofUtil.startSideProof(getProof(), sideProofEnv, sequent,
-                StrategyProperties.METHOD_CONTRACT, StrategyProperties.LOOP_INVARIANT,
-                StrategyProperties.QUERY_ON, StrategyProperties.SPLITTING_NORMAL);
+        ApplyStrategyInfo info = null;
         try {
+            info = SymbolicExecutionSideProofUtil.startSideProof(getProof(), sideProofEnv,
+                sequent, StrategyProperties.METHOD_CONTRACT, StrategyProperties.LOOP_INVARIANT,
+                StrategyProperties.QUERY_ON, StrategyProperties.SPLITTING_NORMAL);
             if (!info.getProof().closed()) {
                 @SuppressWarnings("unchecked")
                 Map<Term, Set<Goal>>[] paramValueMap = new Map[locations.size()];
@@ -1236,6 +1237,7 @@ public abstract class AbstractUpdateExtractor {
                 "Layout computation on node " + node.serialNr() + " with layout term "
                     + ProofSaver.printAnything(layoutTerm, getServices()) + ".",
                 info);
+            sideProofService.releaseEnvironment(sideProofEnv, true);
         }
     }
 
@@ -413,18 +413,35 @@ public class ExecutionVariableExtractor extends AbstractUpdateExtractor {
          * {@inheritDoc}
          */
         @Override
-        public synchronized IExecutionValue[] getValues() throws ProofInputException {
-            if (values != null) {
+        public IExecutionValue[] getValues() throws ProofInputException {
+            // The values of all state variables are computed by the same side proof
+            synchronized (ExecutionVariableExtractor.this) {
+                if (values == null) {
+                    computeStateValues();
+                }
                 return values;
             }
-            // Compute values
-            Set<ExecutionVariableValuePair> pairs =
-                computeVariableValuePairs(getAdditionalCondition(), layoutTerm,
-                    currentLocations, true, simplifyConditions);
-            if (pairs == null) {
-                // Something went wrong, values are not available.
-                return new IExecutionValue[0];
-            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Term createSelectTerm() {
+            return SymbolicExecutionUtil.createSelectTerm(this);
+        }
+    }
+
+    /**
+     * Computes the values of all state variables in one side proof. State variables without
+     * values in the side proof result have no values, so the side proof is performed at most once.
+     *
+     * @throws ProofInputException Occurred Exception.
+     */
+    private void computeStateValues() throws ProofInputException {
+        Set<ExecutionVariableValuePair> pairs = computeVariableValuePairs(additionalCondition,
+            layoutTerm, currentLocations, true, simplifyConditions);
+        if (pairs != null) {
             // Analyze tree structure of pairs
             Map<LocationDef, List<ExecutionVariableValuePair>> topVariables =
                 new LinkedHashMap<>();
@@ -435,23 +452,19 @@ public class ExecutionVariableExtractor extends AbstractUpdateExtractor {
             for (List<ExecutionVariableValuePair> pairsList : topVariables.values()) {
                 ExecutionVariableValuePair firstPair = pairsList.get(0);
                 List<IExecutionValue> values = new LinkedList<>();
-                StateExecutionVariable variable =
-                    allStateVariables.get(new LocationDef(
-                        firstPair.getProgramVariable(), firstPair.getArrayIndex()));
+                StateExecutionVariable variable = allStateVariables.get(
+                    new LocationDef(firstPair.getProgramVariable(), firstPair.getArrayIndex()));
                 assert variable != null;
                 createValues(variable, pairsList, firstPair, childrenInfo, values,
                     ImmutableSLList.nil());
                 variable.values = values.toArray(new IExecutionValue[0]);
             }
-            return values;
         }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public Term createSelectTerm() {
-            return SymbolicExecutionUtil.createSelectTerm(this);
+        // Something went wrong if no pairs are available, values are not available then.
+        for (StateExecutionVariable variable : allStateVariables.values()) {
+            if (variable.values == null) {
+                variable.values = new IExecutionValue[0];
+            }
         }
     }
 
@@ -21,6 +21,7 @@ import de.uka.ilkd.key.rule.TacletApp;
 import de.uka.ilkd.key.strategy.StrategyProperties;
 import de.uka.ilkd.key.symbolic_execution.object_model.*;
 import de.uka.ilkd.key.symbolic_execution.object_model.impl.*;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionSideProofUtil;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
 import de.uka.ilkd.key.util.ProofStarter;
@@ -263,9 +264,9 @@ public class SymbolicLayoutExtractor extends AbstractUpdateExtractor {
                 updates = extractInitialUpdates();
                 // Compute a Sequent with the initial conditions of the proof without modality
                 // New OneStepSimplifier is required because it has an internal state and the
-                // default instance can't be used parallel.
-                final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                        .cloneProofEnvironmentWithOwnOneStepSimplifier(getProof(), true);
+                // default instance can't be used parallel. It is taken from the pool of the proof.
+                final SideProofService sideProofService = SideProofService.get(getProof());
+                final ProofEnvironment sideProofEnv = sideProofService.acquireEnvironment(true);
                 Sequent initialConditionsSequent = createSequentForEquivalenceClassComputation();
                 ApplyStrategyInfo info = null;
                 try {
@@ -295,6 +296,7 @@ public class SymbolicLayoutExtractor extends AbstractUpdateExtractor {
                 } finally {
                     SymbolicExecutionSideProofUtil.disposeOrStore(
                         "Equivalence class computation on node " + node.serialNr() + ".", info);
+                    sideProofService.releaseEnvironment(sideProofEnv, true);
                 }
             }
         }
@@ -128,6 +128,23 @@ public interface IExecutionNode<S extends SourceElement> extends IExecutionEleme
      */
     IExecutionVariable[] getVariables(Term condition) throws ProofInputException;
 
+    /**
+     * Computes the variables of the current state in advance, such that a later call of
+     * {@link #getVariables()} does not perform side proofs.
+     *
+     * @param values {@code true} compute also the values of the variables, {@code false} compute
+     *        only the variables.
+     * @throws ProofInputException Occurred Exception.
+     */
+    default void prefetchVariables(boolean values) throws ProofInputException {
+        IExecutionVariable[] variables = getVariables();
+        if (values && variables != null) {
+            for (IExecutionVariable variable : variables) {
+                variable.getValues();
+            }
+        }
+    }
+
     /**
      * Returns the number of memory layouts.
      *
@@ -60,13 +60,15 @@ public abstract class AbstractExecutionNode<S extends SourceElement>
     private IExecutionVariable[] variables;
 
     /**
-     * The variable value pairs of the current state under given conditions.
+     * The variable value pairs of the current state under given conditions. Released by the
+     * {@link ExecutionNodeStateCache} if the node is not inspected for a while.
      */
     private final Map<Term, IExecutionVariable[]> conditionalVariables =
         new HashMap<>();
 
     /**
-     * The used {@link ExecutionNodeSymbolicLayoutExtractor}.
+     * The used {@link ExecutionNodeSymbolicLayoutExtractor}. Released by the
+     * {@link ExecutionNodeStateCache} if the node is not inspected for a while.
      */
     private ExecutionNodeSymbolicLayoutExtractor layoutExtractor;
 
@@ -281,6 +283,7 @@ public abstract class AbstractExecutionNode<S extends SourceElement>
      */
     @Override
     public IExecutionVariable[] getVariables(Term condition) throws ProofInputException {
+        touchState();
         synchronized (this) {
             IExecutionVariable[] result = conditionalVariables.get(condition);
             if (result == null) {
@@ -309,6 +312,7 @@ public abstract class AbstractExecutionNode<S extends SourceElement>
      * @throws ProofInputException Occurred Exception.
      */
     public ExecutionNodeSymbolicLayoutExtractor getLayoutExtractor() throws ProofInputException {
+        touchState();
         synchronized (this) {
             if (layoutExtractor == null) {
                 layoutExtractor = lazyComputeLayoutExtractor();
@@ -317,6 +321,26 @@ public abstract class AbstractExecutionNode<S extends SourceElement>
         }
     }
 
+    /**
+     * Records an access to the state which is released if the node is not inspected for a while.
+     */
+    private void touchState() {
+        if (!isDisposed()) {
+            ExecutionNodeStateCache.get(getProof()).touch(this);
+        }
+    }
+
+    /**
+     * Releases the variables computed under additional conditions and the symbolic layouts. They
+     * are computed again when they are accessed the next time.
+     */
+    void releaseState() {
+        synchronized (this) {
+            conditionalVariables.clear();
+            layoutExtractor = null;
+        }
+    }
+
     /**
      * Instantiates the used {@link ExecutionNodeSymbolicLayoutExtractor} lazily when
      * {@link #getLayoutExtractor()} is called the first time.
@@ -20,6 +20,7 @@ import de.uka.ilkd.key.strategy.StrategyProperties;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionNode;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionValue;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionVariable;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionSideProofUtil;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
 
@@ -98,58 +99,75 @@ public class ExecutionAllArrayIndicesVariable extends ExecutionVariable {
         InitConfig initConfig = getInitConfig();
         if (initConfig != null) { // Otherwise proof is disposed.
             // New OneStepSimplifier is required because it has an internal state and the default
-            // instance can't be used parallel.
-            final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                    .cloneProofEnvironmentWithOwnOneStepSimplifier(initConfig, true);
-            final Services sideServices = sideProofEnv.getServicesForEnvironment();
-            final TermBuilder tb = sideServices.getTermBuilder();
-            // Start site proof to extract the value of the result variable.
-            Term siteProofCondition = getAdditionalCondition() != null
-                    ? tb.and(getAdditionalCondition(), getParentValue().getCondition())
-                    : getParentValue().getCondition();
-            Term arrayTerm = createArrayTerm();
-            // Create index constant
-            JFunction constantFunction =
-                new JFunction(new Name(tb.newName(ARRAY_INDEX_CONSTANT_NAME)),
-                    sideServices.getTypeConverter().getIntegerLDT().targetSort());
-            constant = tb.func(constantFunction);
-            setName(lazyComputeName()); // Update name because constant has changed
-            Term arrayIndex = tb.dotArr(arrayTerm, constant);
-            // Create if check
-            JFunction arrayLengthFunction =
-                sideServices.getTypeConverter().getHeapLDT().getLength();
-            Term arrayRange = tb.and(tb.geq(constant, tb.zero()),
-                tb.lt(constant, tb.func(arrayLengthFunction, arrayTerm)));
-            Term resultIf = tb.ife(arrayRange, arrayIndex, notAValue);
-
-            // Create predicate which will be used in formulas to store the value interested in.
-            JFunction resultPredicate =
-                new JFunction(new Name(tb.newName("ResultPredicate")),
-                    JavaDLTheory.FORMULA, resultIf.sort());
-            // Create formula which contains the value interested in.
-            Term resultTerm = tb.func(resultPredicate, resultIf);
-            // Create Sequent to prove with new succedent.
-            Sequent sequent = SymbolicExecutionUtil.createSequentToProveWithNewSuccedent(
-                getProofNode(), getModalityPIO(), siteProofCondition, resultTerm, false);
-            // Perform side proof
-            ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(getProof(),
-                sideProofEnv, sequent, StrategyProperties.METHOD_NONE, StrategyProperties.LOOP_NONE,
-                StrategyProperties.QUERY_OFF, StrategyProperties.SPLITTING_DELAYED);
+            // instance can't be used parallel. It is taken from the pool of the proof.
+            final SideProofService sideProofService = SideProofService.get(getProof());
+            final ProofEnvironment sideProofEnv = sideProofService.acquireEnvironment(true);
             try {
-                return instantiateValuesFromSideProof(initConfig, sideServices, tb, info,
-                    resultPredicate, arrayTerm, // Pass array to ensure that unknown values are
-                                                // correctly computed.
-                    siteProofCondition);
+                return lazyComputeValues(initConfig, sideProofEnv);
             } finally {
-                SymbolicExecutionSideProofUtil.disposeOrStore(
-                    "All array indices value computation on node " + getProofNode().serialNr(),
-                    info);
+                sideProofService.releaseEnvironment(sideProofEnv, true);
             }
         } else {
             return null;
         }
     }
 
+    /**
+     * Computes the values in the given side proof {@link ProofEnvironment}.
+     *
+     * @param initConfig The {@link InitConfig} of the proof.
+     * @param sideProofEnv The {@link ProofEnvironment} to perform the side proof in.
+     * @return The computed values.
+     * @throws ProofInputException Occurred Exception.
+     */
+    private ExecutionValue[] lazyComputeValues(InitConfig initConfig,
+            ProofEnvironment sideProofEnv) throws ProofInputException {
+        final Services sideServices = sideProofEnv.getServicesForEnvironment();
+        final TermBuilder tb = sideServices.getTermBuilder();
+        // Start site proof to extract the value of the result variable.
+        Term siteProofCondition = getAdditionalCondition() != null
+                ? tb.and(getAdditionalCondition(), getParentValue().getCondition())
+                : getParentValue().getCondition();
+        Term arrayTerm = createArrayTerm();
+        // Create index constant
+        JFunction constantFunction =
+            new JFunction(new Name(tb.newName(ARRAY_INDEX_CONSTANT_NAME)),
+                sideServices.getTypeConverter().getIntegerLDT().targetSort());
+        constant = tb.func(constantFunction);
+        setName(lazyComputeName()); // Update name because constant has changed
+        Term arrayIndex = tb.dotArr(arrayTerm, constant);
+        // Create if check
+        JFunction arrayLengthFunction =
+            sideServices.getTypeConverter().getHeapLDT().getLength();
+        Term arrayRange = tb.and(tb.geq(constant, tb.zero()),
+            tb.lt(constant, tb.func(arrayLengthFunction, arrayTerm)));
+        Term resultIf = tb.ife(arrayRange, arrayIndex, notAValue);
+
+        // Create predicate which will be used in formulas to store the value interested in.
+        JFunction resultPredicate =
+            new JFunction(new Name(tb.newName("ResultPredicate")),
+                JavaDLTheory.FORMULA, resultIf.sort());
+        // Create formula which contains the value interested in.
+        Term resultTerm = tb.func(resultPredicate, resultIf);
+        // Create Sequent to prove with new succedent.
+        Sequent sequent = SymbolicExecutionUtil.createSequentToProveWithNewSuccedent(
+            getProofNode(), getModalityPIO(), siteProofCondition, resultTerm, false);
+        // Perform side proof
+        ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(getProof(),
+            sideProofEnv, sequent, StrategyProperties.METHOD_NONE, StrategyProperties.LOOP_NONE,
+            StrategyProperties.QUERY_OFF, StrategyProperties.SPLITTING_DELAYED);
+        try {
+            return instantiateValuesFromSideProof(initConfig, sideServices, tb, info,
+                resultPredicate, arrayTerm, // Pass array to ensure that unknown values are
+                                            // correctly computed.
+                siteProofCondition);
+        } finally {
+            SymbolicExecutionSideProofUtil.disposeOrStore(
+                "All array indices value computation on node " + getProofNode().serialNr(),
+                info);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
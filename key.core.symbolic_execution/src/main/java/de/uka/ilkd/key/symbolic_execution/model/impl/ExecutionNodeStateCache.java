@@ -0,0 +1,88 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.symbolic_execution.model.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.Proof;
+
+/**
+ * <p>
+ * Bounds the number of {@link AbstractExecutionNode}s of a {@link Proof} which keep their
+ * materialized state, i.e., the variables computed under additional conditions and the symbolic
+ * layouts. The instance of a proof is obtained via {@link #get(Proof)} and stored in the user data
+ * of the proof.
+ * </p>
+ * <p>
+ * A node is recorded via {@link #touch(AbstractExecutionNode)} whenever its state is accessed. If
+ * more than {@code key.se.stateCache} nodes (default 100) are recorded, the state of the least
+ * recently accessed node is released and computed again on its next access. The memory used by the
+ * symbolic execution tree thus depends on the inspected nodes instead of on all nodes.
+ * </p>
+ */
+final class ExecutionNodeStateCache {
+    /** the maximal number of nodes keeping their state, read when the proof is inspected first */
+    private final int maxSize = Math.max(1, Integer.getInteger("key.se.stateCache", 100));
+
+    /** the nodes keeping their state in access order */
+    private final Map<AbstractExecutionNode<?>, Boolean> nodes =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<AbstractExecutionNode<?>, Boolean> eldest) {
+                if (size() > maxSize) {
+                    evicted.add(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+    /** the evicted nodes whose state has to be released */
+    private final List<AbstractExecutionNode<?>> evicted = new ArrayList<>();
+
+    private ExecutionNodeStateCache() {
+    }
+
+    /**
+     * Returns the cache of the given {@link Proof}.
+     *
+     * @param proof The {@link Proof} of the symbolic execution tree.
+     * @return The {@link ExecutionNodeStateCache} of the {@link Proof}.
+     */
+    static ExecutionNodeStateCache get(Proof proof) {
+        synchronized (proof) {
+            ExecutionNodeStateCache cache = proof.lookup(ExecutionNodeStateCache.class);
+            if (cache == null) {
+                cache = new ExecutionNodeStateCache();
+                proof.register(cache, ExecutionNodeStateCache.class);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Records an access to the state of the given node.
+     *
+     * @param node The accessed {@link AbstractExecutionNode}.
+     */
+    void touch(AbstractExecutionNode<?> node) {
+        final List<AbstractExecutionNode<?>> toRelease;
+        synchronized (nodes) {
+            nodes.put(node, Boolean.TRUE);
+            if (evicted.isEmpty()) {
+                return;
+            }
+            toRelease = new ArrayList<>(evicted);
+            evicted.clear();
+        }
+        // released without holding the lock, because releasing the state locks the node
+        for (AbstractExecutionNode<?> evictedNode : toRelease) {
+            evictedNode.releaseState();
+        }
+    }
+}
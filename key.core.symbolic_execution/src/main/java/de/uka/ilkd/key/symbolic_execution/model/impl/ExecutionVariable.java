@@ -27,6 +27,7 @@ import de.uka.ilkd.key.strategy.StrategyProperties;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionNode;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionValue;
 import de.uka.ilkd.key.symbolic_execution.model.IExecutionVariable;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionSideProofUtil;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil.SiteProofVariableValueInput;
@@ -130,53 +131,70 @@ public class ExecutionVariable extends AbstractExecutionVariable {
         InitConfig initConfig = getInitConfig();
         if (initConfig != null) { // Otherwise proof is disposed.
             // New OneStepSimplifier is required because it has an internal state and the default
-            // instance can't be used parallel.
-            final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                    .cloneProofEnvironmentWithOwnOneStepSimplifier(initConfig, true);
-            final Services services = sideProofEnv.getServicesForEnvironment();
-            final TermBuilder tb = services.getTermBuilder();
-            // Start site proof to extract the value of the result variable.
-            SiteProofVariableValueInput sequentToProve;
-            Term siteProofSelectTerm = null;
-            Term siteProofCondition;
-            if (getAdditionalCondition() != null) {
-                siteProofCondition = getAdditionalCondition();
-            } else {
-                siteProofCondition = tb.tt();
-            }
-            if (getParentValue() != null
-                    || SymbolicExecutionUtil.isStaticVariable(getProgramVariable())) {
-                siteProofSelectTerm = createSelectTerm();
-                if (getParentValue() != null) { // Is null at static variables
-                    siteProofCondition =
-                        tb.and(siteProofCondition, getParentValue().getCondition());
-                }
-                if (lengthValue != null) {
-                    siteProofCondition = tb.and(siteProofCondition, lengthValue.getCondition());
-                }
-                sequentToProve =
-                    SymbolicExecutionUtil.createExtractTermSequent(services, getProofNode(),
-                        getModalityPIO(), siteProofCondition, siteProofSelectTerm, true);
-            } else {
-                sequentToProve = SymbolicExecutionUtil.createExtractVariableValueSequent(services,
-                    getProofNode(), getModalityPIO(), siteProofCondition, getProgramVariable());
-            }
-            ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(getProof(),
-                sideProofEnv, sequentToProve.getSequentToProve(), StrategyProperties.METHOD_NONE,
-                StrategyProperties.LOOP_NONE, StrategyProperties.QUERY_OFF,
-                StrategyProperties.SPLITTING_DELAYED);
+            // instance can't be used parallel. It is taken from the pool of the proof.
+            final SideProofService sideProofService = SideProofService.get(getProof());
+            final ProofEnvironment sideProofEnv = sideProofService.acquireEnvironment(true);
             try {
-                return instantiateValuesFromSideProof(initConfig, services, tb, info,
-                    sequentToProve.getOperator(), siteProofSelectTerm, siteProofCondition);
+                return lazyComputeValues(initConfig, sideProofEnv);
             } finally {
-                SymbolicExecutionSideProofUtil.disposeOrStore(
-                    "Value computation on node " + getProofNode().serialNr(), info);
+                sideProofService.releaseEnvironment(sideProofEnv, true);
             }
         } else {
             return null;
         }
     }
 
+    /**
+     * Computes the values in the given side proof {@link ProofEnvironment}.
+     *
+     * @param initConfig The {@link InitConfig} of the proof.
+     * @param sideProofEnv The {@link ProofEnvironment} to perform the side proof in.
+     * @return The computed values.
+     * @throws ProofInputException Occurred Exception.
+     */
+    private ExecutionValue[] lazyComputeValues(InitConfig initConfig,
+            ProofEnvironment sideProofEnv) throws ProofInputException {
+        final Services services = sideProofEnv.getServicesForEnvironment();
+        final TermBuilder tb = services.getTermBuilder();
+        // Start site proof to extract the value of the result variable.
+        SiteProofVariableValueInput sequentToProve;
+        Term siteProofSelectTerm = null;
+        Term siteProofCondition;
+        if (getAdditionalCondition() != null) {
+            siteProofCondition = getAdditionalCondition();
+        } else {
+            siteProofCondition = tb.tt();
+        }
+        if (getParentValue() != null
+                || SymbolicExecutionUtil.isStaticVariable(getProgramVariable())) {
+            siteProofSelectTerm = createSelectTerm();
+            if (getParentValue() != null) { // Is null at static variables
+                siteProofCondition =
+                    tb.and(siteProofCondition, getParentValue().getCondition());
+            }
+            if (lengthValue != null) {
+                siteProofCondition = tb.and(siteProofCondition, lengthValue.getCondition());
+            }
+            sequentToProve =
+                SymbolicExecutionUtil.createExtractTermSequent(services, getProofNode(),
+                    getModalityPIO(), siteProofCondition, siteProofSelectTerm, true);
+        } else {
+            sequentToProve = SymbolicExecutionUtil.createExtractVariableValueSequent(services,
+                getProofNode(), getModalityPIO(), siteProofCondition, getProgramVariable());
+        }
+        ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(getProof(),
+            sideProofEnv, sequentToProve.getSequentToProve(), StrategyProperties.METHOD_NONE,
+            StrategyProperties.LOOP_NONE, StrategyProperties.QUERY_OFF,
+            StrategyProperties.SPLITTING_DELAYED);
+        try {
+            return instantiateValuesFromSideProof(initConfig, services, tb, info,
+                sequentToProve.getOperator(), siteProofSelectTerm, siteProofCondition);
+        } finally {
+            SymbolicExecutionSideProofUtil.disposeOrStore(
+                "Value computation on node " + getProofNode().serialNr(), info);
+        }
+    }
+
     /**
      * Analyzes the side proof defined by the {@link ApplyStrategyInfo} and creates
      * {@link ExecutionValue}s from it.
@@ -0,0 +1,217 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.symbolic_execution.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+import de.uka.ilkd.key.proof.init.ProofInputException;
+import de.uka.ilkd.key.proof.mgt.ProofEnvironment;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.symbolic_execution.profile.SimplifyTermProfile;
+
+/**
+ * <p>
+ * Performs the side proofs of symbolic execution on a {@link Proof}. The instance of a proof is
+ * obtained via {@link #get(Proof)} and stored in the user data of the proof.
+ * </p>
+ * <p>
+ * Creating a {@link ProofEnvironment} with its own {@link OneStepSimplifier} is expensive compared
+ * to most side proofs. The service therefore keeps the environments in a pool: an environment is
+ * acquired via {@link #acquireEnvironment(boolean)}, used by one side proof at a time and
+ * returned via {@link #releaseEnvironment(ProofEnvironment, boolean)}. Since the side proofs
+ * introduce names which must not clash with the names introduced by the proof in the meantime, the
+ * namespaces of a pooled environment are refreshed from the proof whenever it is acquired.
+ * </p>
+ * <p>
+ * The results of side proofs can be memoized via {@link #compute(List, boolean, Computation)},
+ * keyed by the sequent to prove and the options of the side proof. Since terms are interned, the
+ * same query (e.g. the branch condition of a node shared by many path conditions) yields an equal
+ * key. At most {@code key.se.sideProofCache} results (default 1000) are kept per proof.
+ * </p>
+ */
+public final class SideProofService {
+    /**
+     * the maximal number of idle environments per profile, more are only needed if side proofs are
+     * requested by several threads at the same time
+     */
+    private static final int POOL_SIZE = 2;
+
+    /** the maximal number of memoized results per proof */
+    private static final int CACHE_SIZE =
+        Math.max(0, Integer.getInteger("key.se.sideProofCache", 1000));
+
+    /**
+     * A side proof computation using a pooled {@link ProofEnvironment}.
+     *
+     * @param <R> the type of the result
+     */
+    @FunctionalInterface
+    public interface Computation<R> {
+        /**
+         * Performs the side proof and extracts its result.
+         *
+         * @param sideProofEnvironment the environment to perform the side proof in
+         * @return the result, {@code null} results are not memoized
+         * @throws ProofInputException Occurred Exception.
+         */
+        R compute(ProofEnvironment sideProofEnvironment) throws ProofInputException;
+    }
+
+    /** the proof whose side proofs are performed */
+    private final Proof proof;
+
+    /** the idle environments using a {@link SimplifyTermProfile} */
+    private final Deque<ProofEnvironment> simplifyTermEnvironments = new ArrayDeque<>();
+
+    /** the idle environments using a {@link JavaProfile} */
+    private final Deque<ProofEnvironment> javaEnvironments = new ArrayDeque<>();
+
+    /** the memoized results in access order */
+    private final Map<List<?>, Object> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<?>, Object> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** the number of memoized results which have been reused */
+    private long hits;
+
+    /** the number of results which have been computed */
+    private long misses;
+
+    private SideProofService(Proof proof) {
+        this.proof = proof;
+    }
+
+    /**
+     * Returns the service of the given {@link Proof}.
+     *
+     * @param proof The {@link Proof} to perform side proofs on.
+     * @return The {@link SideProofService} of the {@link Proof}.
+     */
+    public static SideProofService get(Proof proof) {
+        assert proof != null && !proof.isDisposed();
+        synchronized (proof) {
+            SideProofService service = proof.lookup(SideProofService.class);
+            if (service == null) {
+                service = new SideProofService(proof);
+                proof.register(service, SideProofService.class);
+            }
+            return service;
+        }
+    }
+
+    /**
+     * Returns an idle {@link ProofEnvironment} of the pool or creates a new one. The environment
+     * must be returned via {@link #releaseEnvironment(ProofEnvironment, boolean)} after the side
+     * proof. The namespaces of the environment are a copy of the current namespaces of the proof.
+     *
+     * @param useSimplifyTermProfile Use the simplify term profile?
+     * @return The {@link ProofEnvironment} to perform a side proof in.
+     */
+    public ProofEnvironment acquireEnvironment(boolean useSimplifyTermProfile) {
+        final Deque<ProofEnvironment> pool = pool(useSimplifyTermProfile);
+        final ProofEnvironment env;
+        synchronized (pool) {
+            env = pool.poll();
+        }
+        if (env != null) {
+            // the proof may have introduced names since the environment has been created
+            env.getServicesForEnvironment()
+                    .setNamespaces(proof.getServices().getNamespaces().copy());
+            return env;
+        }
+        return SymbolicExecutionSideProofUtil.cloneProofEnvironmentWithOwnOneStepSimplifier(proof,
+            useSimplifyTermProfile);
+    }
+
+    /**
+     * Returns a {@link ProofEnvironment} obtained via {@link #acquireEnvironment(boolean)} to the
+     * pool.
+     *
+     * @param sideProofEnvironment The {@link ProofEnvironment} which is no longer used.
+     * @param useSimplifyTermProfile The value used to acquire the environment.
+     */
+    public void releaseEnvironment(ProofEnvironment sideProofEnvironment,
+            boolean useSimplifyTermProfile) {
+        final Deque<ProofEnvironment> pool = pool(useSimplifyTermProfile);
+        synchronized (pool) {
+            if (pool.size() < POOL_SIZE) {
+                pool.push(sideProofEnvironment);
+            }
+        }
+    }
+
+    private Deque<ProofEnvironment> pool(boolean useSimplifyTermProfile) {
+        return useSimplifyTermProfile ? simplifyTermEnvironments : javaEnvironments;
+    }
+
+    /**
+     * Performs the given side proof computation in a pooled {@link ProofEnvironment}, unless a
+     * result for an equal key has been memoized.
+     *
+     * @param key The key identifying the side proof, i.e., the sequent to prove, the side proof
+     *        options and the kind of result extracted from the side proof.
+     * @param useSimplifyTermProfile Use the simplify term profile?
+     * @param computation The computation to perform.
+     * @param <R> The type of the result.
+     * @return The result of the computation.
+     * @throws ProofInputException Occurred Exception.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R compute(List<?> key, boolean useSimplifyTermProfile, Computation<R> computation)
+            throws ProofInputException {
+        // the strategy settings of the proof are the base of the side proof settings
+        final List<Object> fullKey = new ArrayList<>(key);
+        fullKey.add(useSimplifyTermProfile);
+        fullKey.add(proof.getSettings().getStrategySettings().getActiveStrategyProperties());
+        synchronized (results) {
+            final Object result = results.get(fullKey);
+            if (result != null) {
+                hits++;
+                return (R) result;
+            }
+            misses++;
+        }
+        final ProofEnvironment env = acquireEnvironment(useSimplifyTermProfile);
+        final R result;
+        try {
+            result = computation.compute(env);
+        } finally {
+            releaseEnvironment(env, useSimplifyTermProfile);
+        }
+        if (result != null) {
+            synchronized (results) {
+                results.put(fullKey, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of side proofs saved by memoized results.
+     */
+    public long getHits() {
+        synchronized (results) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return The number of side proof results which had to be computed.
+     */
+    public long getMisses() {
+        synchronized (results) {
+            return misses;
+        }
+    }
+}
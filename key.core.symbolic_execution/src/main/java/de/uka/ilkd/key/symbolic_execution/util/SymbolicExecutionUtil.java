@@ -182,14 +182,27 @@ public final class SymbolicExecutionUtil {
      */
     public static Term simplify(InitConfig initConfig, Proof parentProof, Term term)
             throws ProofInputException {
-        final Services services = initConfig.getServices();
+        // Create Sequent to prove
+        Sequent sequentToProve =
+            Sequent.EMPTY_SEQUENT.addFormula(new SequentFormula(term), false, true).sequent();
+        if (parentProof != null && !parentProof.isDisposed()
+                && parentProof.getInitConfig() == initConfig) {
+            // Reuse pooled side proof environments and earlier simplifications of the term
+            return SideProofService.get(parentProof).compute(
+                List.of("simplify", sequentToProve), true,
+                sideProofEnv -> simplify(initConfig, parentProof, term, sideProofEnv,
+                    sequentToProve));
+        }
         // New OneStepSimplifier is required because it has an internal state and the default
         // instance can't be used parallel.
         final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
                 .cloneProofEnvironmentWithOwnOneStepSimplifier(initConfig, true);
-        // Create Sequent to prove
-        Sequent sequentToProve =
-            Sequent.EMPTY_SEQUENT.addFormula(new SequentFormula(term), false, true).sequent();
+        return simplify(initConfig, parentProof, term, sideProofEnv, sequentToProve);
+    }
+
+    private static Term simplify(InitConfig initConfig, Proof parentProof, Term term,
+            ProofEnvironment sideProofEnv, Sequent sequentToProve) throws ProofInputException {
+        final Services services = initConfig.getServices();
         // Return created Sequent and the used predicate to identify the value interested in.
         ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(parentProof,
             sideProofEnv, sequentToProve);
@@ -761,6 +774,26 @@ public final class SymbolicExecutionUtil {
         }
     }
 
+    /**
+     * Computes the variables of the given {@link IExecutionNode}s in advance, see
+     * {@link IExecutionNode#prefetchVariables(boolean)}. The nodes are processed one after the
+     * other in the calling thread, because the extraction of values introduces new names in the
+     * proof.
+     *
+     * @param nodes The {@link IExecutionNode}s to compute variables for.
+     * @param values {@code true} compute also the values of the variables, {@code false} compute
+     *        only the variables.
+     * @throws ProofInputException Occurred Exception.
+     */
+    public static void prefetchVariables(Iterable<? extends IExecutionNode<?>> nodes,
+            boolean values) throws ProofInputException {
+        for (IExecutionNode<?> node : nodes) {
+            if (!node.isDisposed()) {
+                node.prefetchVariables(values);
+            }
+        }
+    }
+
     /**
      * Creates for the given {@link IExecutionNode} the contained root {@link IExecutionVariable}s.
      *
@@ -1915,13 +1948,9 @@ public final class SymbolicExecutionUtil {
             // Create formula which contains the value interested in.
             Term condition;
             if (simplify) {
-                // New OneStepSimplifier is required because it has an internal state and the
-                // default instance can't be used parallel.
-                final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                        .cloneProofEnvironmentWithOwnOneStepSimplifier(parent.proof(), true);
                 Sequent newSequent =
                     createSequentToProveWithNewSuccedent(parent, null, result, true);
-                condition = evaluateInSideProof(services, parent.proof(), sideProofEnv, newSequent,
+                condition = evaluateInSideProof(services, parent.proof(), newSequent,
                     RESULT_LABEL, "Operation contract branch condition computation on node "
                         + parent.serialNr() + " for branch " + node.serialNr() + ".",
                     StrategyProperties.SPLITTING_OFF);
@@ -2305,13 +2334,9 @@ public final class SymbolicExecutionUtil {
                     : services.getTermBuilder().dia(loopConditionModalityTerm.javaBlock(), newTerm);
             Term condition;
             if (simplify) {
-                // New OneStepSimplifier is required because it has an internal state and the
-                // default instance can't be used parallel.
-                final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                        .cloneProofEnvironmentWithOwnOneStepSimplifier(parent.proof(), true);
                 Sequent newSequent = createSequentToProveWithNewSuccedent(parent, null,
                     modalityTerm, pair.first, true);
-                condition = evaluateInSideProof(services, parent.proof(), sideProofEnv, newSequent,
+                condition = evaluateInSideProof(services, parent.proof(), newSequent,
                     RESULT_LABEL, "Loop invariant branch condition computation on node "
                         + parent.serialNr() + " for branch " + node.serialNr() + ".",
                     StrategyProperties.SPLITTING_OFF);
@@ -2373,13 +2398,9 @@ public final class SymbolicExecutionUtil {
             Semisequent antecedent = node.sequent().antecedent();
             Term condition = antecedent.get(antecedent.size() - 1).formula();
             if (simplify) {
-                // New OneStepSimplifier is required because it has an internal state and the
-                // default instance can't be used parallel.
-                final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                        .cloneProofEnvironmentWithOwnOneStepSimplifier(parent.proof(), true);
                 Sequent newSequent = createSequentToProveWithNewSuccedent(parent, (Term) null,
                     condition, null, true);
-                condition = evaluateInSideProof(services, parent.proof(), sideProofEnv, newSequent,
+                condition = evaluateInSideProof(services, parent.proof(), newSequent,
                     RESULT_LABEL, "Block contract branch condition computation on node "
                         + parent.serialNr() + " for branch " + node.serialNr() + ".",
                     StrategyProperties.SPLITTING_OFF);
@@ -2617,13 +2638,9 @@ public final class SymbolicExecutionUtil {
         Term condition;
         if (simplify) {
             // Create formula which contains the value interested in.
-            // New OneStepSimplifier is required because it has an internal state and the default
-            // instance can't be used parallel.
-            final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                    .cloneProofEnvironmentWithOwnOneStepSimplifier(parent.proof(), true);
             Sequent newSequent = createSequentToProveWithNewSuccedent(parent, null, null,
                 newLeftAndRight, true);
-            condition = evaluateInSideProof(services, parent.proof(), sideProofEnv, newSequent,
+            condition = evaluateInSideProof(services, parent.proof(), newSequent,
                 RESULT_LABEL, "Taclet branch condition computation on node " + parent.serialNr()
                     + " for branch " + node.serialNr() + ".",
                 StrategyProperties.SPLITTING_OFF);
@@ -2749,6 +2766,22 @@ public final class SymbolicExecutionUtil {
      * @return The result {@link Term}.
      * @throws ProofInputException Occurred Exception.
      */
+    private static Term evaluateInSideProof(Services services, Proof proof,
+            Sequent sequentToProve, TermLabel label, String description, String splittingOption)
+            throws ProofInputException {
+        // Branch conditions of a node are queried again for the path conditions of all nodes
+        // below it, the side proof is therefore performed only once.
+        return SideProofService.get(proof).compute(
+            List.of("evaluate", sequentToProve, label, splittingOption), true,
+            sideProofEnvironment -> evaluateInSideProof(services, proof, sideProofEnvironment,
+                sequentToProve, label, description, splittingOption));
+    }
+
+    /**
+     * Performs the side proof of
+     * {@link #evaluateInSideProof(Services, Proof, Sequent, TermLabel, String, String)} in the
+     * given {@link ProofEnvironment}.
+     */
     private static Term evaluateInSideProof(Services services, Proof proof,
             ProofEnvironment sideProofEnvironment, Sequent sequentToProve, TermLabel label,
             String description, String splittingOption) throws ProofInputException {
@@ -2863,26 +2896,26 @@ public final class SymbolicExecutionUtil {
         assert node != null;
         assert newSuccedent != null;
         // Create Sequent to prove
-        // New OneStepSimplifier is required because it has an internal state and the default
-        // instance can't be used parallel.
-        final ProofEnvironment sideProofEnv = SymbolicExecutionSideProofUtil
-                .cloneProofEnvironmentWithOwnOneStepSimplifier(node.proof(), true);
-        final TermBuilder tb = sideProofEnv.getServicesForEnvironment().getTermBuilder();
+        final TermBuilder tb = node.proof().getServices().getTermBuilder();
         Term isNull = tb.equals(newSuccedent, tb.NULL());
         Term isNotNull = tb.not(isNull);
         Sequent sequentToProve = createSequentToProveWithNewSuccedent(node, additionalAntecedent,
             nullExpected ? isNull : isNotNull, false);
-        // Execute proof in the current thread
-        ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(node.proof(),
-            sideProofEnv, sequentToProve, StrategyProperties.METHOD_CONTRACT,
-            StrategyProperties.LOOP_INVARIANT, StrategyProperties.QUERY_ON,
-            StrategyProperties.SPLITTING_NORMAL);
-        try {
-            return !info.getProof().openEnabledGoals().isEmpty();
-        } finally {
-            SymbolicExecutionSideProofUtil
-                    .disposeOrStore("Null check on node " + node.serialNr() + ".", info);
-        }
+        // Repeated null checks of the same term on the same node reuse the earlier result
+        return SideProofService.get(node.proof()).compute(List.of("null check", sequentToProve),
+            true, sideProofEnv -> {
+                // Execute proof in the current thread
+                ApplyStrategyInfo info = SymbolicExecutionSideProofUtil.startSideProof(
+                    node.proof(), sideProofEnv, sequentToProve,
+                    StrategyProperties.METHOD_CONTRACT, StrategyProperties.LOOP_INVARIANT,
+                    StrategyProperties.QUERY_ON, StrategyProperties.SPLITTING_NORMAL);
+                try {
+                    return !info.getProof().openEnabledGoals().isEmpty();
+                } finally {
+                    SymbolicExecutionSideProofUtil
+                            .disposeOrStore("Null check on node " + node.serialNr() + ".", info);
+                }
+            });
     }
 
     /**
@@ -64,6 +64,51 @@ public class TestConditionalVariables extends AbstractSymbolicExecutionTestCase
         }
     }
 
+    /**
+     * Ensures that the conditional values of a node are released if other nodes are inspected and
+     * that they are computed correctly again afterwards.
+     *
+     * @throws Exception Occurred Exception.
+     */
+    @Test
+    public void testVariablesAreRecomputedAfterRelease() throws Exception {
+        // only the last inspected node keeps its state
+        String originalCacheSize = System.setProperty("key.se.stateCache", "1");
+        SymbolicExecutionEnvironment<DefaultUserInterfaceControl> env = null;
+        try {
+            env = doSETTest(testCaseDirectory, "/set/conditionalVariables/test/Number.java",
+                "Number", "equals", null, "/set/conditionalVariables/oracle/Number.xml", false,
+                false, false, false, 1000, false, false, false, false, false, false, false, false,
+                false, true);
+            IExecutionStart start = env.getBuilder().getStartNode();
+            IExecutionNode<?> call = start.getChildren()[0];
+            IExecutionNode<?> ifStatement = call.getChildren()[0];
+            IExecutionNode<?> notNullCondition = ifStatement.getChildren()[0];
+            IExecutionNode<?> equalCondition = notNullCondition.getChildren()[0];
+            IExecutionNode<?> returnTrueStatement = equalCondition.getChildren()[0];
+            Term condition = ((IExecutionBaseMethodReturn<?>) returnTrueStatement.getChildren()[0])
+                    .getMethodReturnCondition();
+
+            IExecutionVariable[] first = ifStatement.getVariables(condition);
+            assertVariables(createExpectedEqualCaseVariables(), first, true, true, false);
+            Assertions.assertSame(first, ifStatement.getVariables(condition));
+            // inspecting another node releases the state of the if statement
+            call.getVariables(condition);
+            IExecutionVariable[] second = ifStatement.getVariables(condition);
+            Assertions.assertNotSame(first, second);
+            assertVariables(createExpectedEqualCaseVariables(), second, true, true, false);
+        } finally {
+            if (originalCacheSize != null) {
+                System.setProperty("key.se.stateCache", originalCacheSize);
+            } else {
+                System.clearProperty("key.se.stateCache");
+            }
+            if (env != null) {
+                env.dispose();
+            }
+        }
+    }
+
     /**
      * Ensures that the result of {@link IExecutionNode#getVariables(Term)} is correct.
      *
@@ -0,0 +1,89 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.symbolic_execution.testcase.util;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.ldt.JavaDLTheory;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermBuilder;
+import de.uka.ilkd.key.logic.op.JFunction;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.ProofInputException;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.proof.mgt.ProofEnvironment;
+import de.uka.ilkd.key.symbolic_execution.testcase.AbstractSymbolicExecutionTestCase;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
+import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionEnvironment;
+import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
+
+import org.key_project.logic.Name;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SideProofService}.
+ */
+public class TestSideProofService extends AbstractSymbolicExecutionTestCase {
+    /**
+     * Tests that repeated simplifications are answered from memoized results and that side proof
+     * environments are reused.
+     */
+    @Test
+    public void testMemoizationAndPooling() throws ProblemLoaderException, ProofInputException {
+        SymbolicExecutionEnvironment<DefaultUserInterfaceControl> env =
+            createSymbolicExecutionEnvironment(testCaseDirectory, "/set/magic42/test/Magic42.proof",
+                false, false, false, false, false, false, false, false, false, false, false);
+        try {
+            Proof proof = env.getProof();
+            SideProofService service = SideProofService.get(proof);
+            assertSame(service, SideProofService.get(proof));
+
+            TermBuilder tb = proof.getServices().getTermBuilder();
+            Term term = tb.and(tb.tt(), tb.not(tb.ff()));
+            long misses = service.getMisses();
+            long hits = service.getHits();
+            Term first = SymbolicExecutionUtil.simplify(proof, term);
+            Term second = SymbolicExecutionUtil.simplify(proof, term);
+            assertEquals(first, second);
+            assertEquals(misses + 1, service.getMisses());
+            assertEquals(hits + 1, service.getHits());
+
+            ProofEnvironment sideProofEnv = service.acquireEnvironment(true);
+            service.releaseEnvironment(sideProofEnv, true);
+            assertSame(sideProofEnv, service.acquireEnvironment(true));
+            assertNotSame(sideProofEnv, service.acquireEnvironment(true));
+        } finally {
+            env.dispose();
+        }
+    }
+
+    /**
+     * Tests that a pooled environment knows the names introduced by the proof after the
+     * environment has been created.
+     */
+    @Test
+    public void testPooledEnvironmentKnowsNewNames()
+            throws ProblemLoaderException, ProofInputException {
+        SymbolicExecutionEnvironment<DefaultUserInterfaceControl> env =
+            createSymbolicExecutionEnvironment(testCaseDirectory, "/set/magic42/test/Magic42.proof",
+                false, false, false, false, false, false, false, false, false, false, false);
+        try {
+            Proof proof = env.getProof();
+            SideProofService service = SideProofService.get(proof);
+            ProofEnvironment sideProofEnv = service.acquireEnvironment(true);
+            service.releaseEnvironment(sideProofEnv, true);
+
+            JFunction f = new JFunction(new Name("newNameOfTestSideProofService"),
+                JavaDLTheory.FORMULA);
+            proof.getServices().getNamespaces().functions().add(f);
+            assertSame(sideProofEnv, service.acquireEnvironment(true));
+            assertSame(f, sideProofEnv.getServicesForEnvironment().getNamespaces().functions()
+                    .lookup(f.name()));
+        } finally {
+            env.dispose();
+        }
+    }
+}
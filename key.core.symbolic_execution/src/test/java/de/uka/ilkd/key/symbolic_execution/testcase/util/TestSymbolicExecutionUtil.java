@@ -4,9 +4,12 @@
 package de.uka.ilkd.key.symbolic_execution.testcase.util;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
 import de.uka.ilkd.key.control.KeYEnvironment;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.java.expression.literal.IntLiteral;
@@ -14,9 +17,16 @@ import de.uka.ilkd.key.ldt.IntegerLDT;
 import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.TermBuilder;
 import de.uka.ilkd.key.logic.op.LogicVariable;
+import de.uka.ilkd.key.proof.init.ProofInputException;
 import de.uka.ilkd.key.proof.io.ProblemLoaderException;
 import de.uka.ilkd.key.settings.ProofSettings;
+import de.uka.ilkd.key.symbolic_execution.ExecutionNodePreorderIterator;
+import de.uka.ilkd.key.symbolic_execution.model.IExecutionNode;
+import de.uka.ilkd.key.symbolic_execution.model.IExecutionValue;
+import de.uka.ilkd.key.symbolic_execution.model.IExecutionVariable;
 import de.uka.ilkd.key.symbolic_execution.testcase.AbstractSymbolicExecutionTestCase;
+import de.uka.ilkd.key.symbolic_execution.util.SideProofService;
+import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionEnvironment;
 import de.uka.ilkd.key.symbolic_execution.util.SymbolicExecutionUtil;
 
 import org.key_project.logic.Name;
@@ -162,4 +172,41 @@ public class TestSymbolicExecutionUtil extends AbstractSymbolicExecutionTestCase
             }
         }
     }
+
+    /**
+     * Tests {@link SymbolicExecutionUtil#prefetchVariables(Iterable, boolean)}.
+     */
+    @Test
+    public void test3PrefetchVariables() throws ProblemLoaderException, ProofInputException {
+        SymbolicExecutionEnvironment<DefaultUserInterfaceControl> env =
+            createSymbolicExecutionEnvironment(testCaseDirectory, "/set/magic42/test/Magic42.proof",
+                false, false, false, false, false, false, false, false, true, false, false);
+        try {
+            List<IExecutionNode<?>> nodes = new ArrayList<>();
+            ExecutionNodePreorderIterator iterator =
+                new ExecutionNodePreorderIterator(env.getBuilder().getStartNode());
+            while (iterator.hasNext()) {
+                nodes.add(iterator.next());
+            }
+            SideProofService sideProofService = SideProofService.get(env.getProof());
+            long misses = sideProofService.getMisses();
+            SymbolicExecutionUtil.prefetchVariables(nodes, true);
+            // The values are computed by side proofs during the prefetch ...
+            assertTrue(sideProofService.getMisses() > misses);
+            misses = sideProofService.getMisses();
+            // ... but no further side proof is performed when they are accessed afterwards
+            for (IExecutionNode<?> node : nodes) {
+                IExecutionVariable[] variables = node.getVariables();
+                Assertions.assertSame(variables, node.getVariables());
+                for (IExecutionVariable variable : variables) {
+                    for (IExecutionValue value : variable.getValues()) {
+                        value.getValueString();
+                    }
+                }
+            }
+            Assertions.assertEquals(misses, sideProofService.getMisses());
+        } finally {
+            env.dispose();
+        }
+    }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 
 import de.uka.ilkd.key.control.KeYEnvironment;
 import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.util.KeYConstants;
 
 /**
@@ -55,6 +56,16 @@ public abstract class KeYApi {
         return proofMacroApi;
     }
 
+    /**
+     * Switches the collection of per-rule performance metrics for all proofs run in the automatic
+     * mode on or off. The metrics of a proof are available via {@link ProofApi#getRuleMetrics()}.
+     *
+     * @param enabled whether metrics are collected
+     */
+    public static void setRuleMetricsEnabled(boolean enabled) {
+        RuleMetrics.setEnabledByDefault(enabled);
+    }
+
     /**
      * @param keyFile
      * @return
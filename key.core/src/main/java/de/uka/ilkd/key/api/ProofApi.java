@@ -13,6 +13,7 @@ import de.uka.ilkd.key.control.KeYEnvironment;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.mgt.RuleJustification;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.BuiltInRule;
 import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.OneStepSimplifier;
@@ -20,6 +21,8 @@ import de.uka.ilkd.key.util.MiscTools;
 
 import org.key_project.util.collection.ImmutableList;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * @author Alexander Weigl
  * @version 1 (21.04.17)
@@ -52,6 +55,24 @@ public class ProofApi {
         return proof;
     }
 
+    /**
+     * Starts collecting per-rule performance metrics for this proof.
+     *
+     * @return the metrics of this proof
+     */
+    public RuleMetrics enableRuleMetrics() {
+        return RuleMetrics.enable(proof);
+    }
+
+    /**
+     * @return the performance metrics collected for this proof, or null if none are collected
+     * @see #enableRuleMetrics()
+     * @see KeYApi#setRuleMetricsEnabled(boolean)
+     */
+    public @Nullable RuleMetrics getRuleMetrics() {
+        return RuleMetrics.of(proof);
+    }
+
     public List<ProjectedNode> getOpenGoals() {
         ImmutableList<Goal> goals = proof.openGoals();
         return goals.stream().map(g -> new ProjectedNode(g.node(), null))
@@ -3,11 +3,13 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.java;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermInternTable;
 import de.uka.ilkd.key.logic.op.Operator;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.PrefixTermTacletAppIndexCacheImpl.CacheKey;
@@ -26,7 +28,7 @@ import de.uka.ilkd.key.strategy.quantifierHeuristics.Metavariable;
 import de.uka.ilkd.key.strategy.quantifierHeuristics.TriggersSet;
 
 import org.key_project.logic.sort.Sort;
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableSet;
 import org.key_project.util.collection.Pair;
 
@@ -75,11 +77,26 @@ public class ServiceCaches {
      */
     public static final int MAX_TERM_TACLET_APP_INDEX_ENTRIES = 5000;
 
+    /**
+     * Average weight of an entry of the caches that are weighted by the size of the cached terms.
+     * Multiplied with the intended number of entries, this is the weight limit of these caches.
+     * It can be adjusted by the system property {@code key.caches.termWeight}.
+     */
+    public static final int AVERAGE_TERM_WEIGHT =
+        Math.max(1, Integer.getInteger("key.caches.termWeight", 8));
+
+    /**
+     * Whether the caches use TinyLFU admission (see {@link ConcurrentLRUCache}). Can be disabled by
+     * setting the system property {@code key.caches.admission} to {@code false}.
+     */
+    public static final boolean ADMISSION =
+        Boolean.parseBoolean(System.getProperty("key.caches.admission", "true"));
+
     /**
      * The cache used by {@link TermTacletAppIndexCacheSet} instances.
      */
-    private final Map<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
-        new LRUCache<>(MAX_TERM_TACLET_APP_INDEX_ENTRIES);
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
+        weightedCache(MAX_TERM_TACLET_APP_INDEX_ENTRIES, (k, v) -> weight(k.analysedTerm));
 
     /*
      * Table of formulas which could be splitted using the beta rule This is the cache the method
@@ -87,33 +104,36 @@ public class ServiceCaches {
      *
      * keys: Term values: TermInfo
      */
-    private final LRUCache<Term, TermInfo> betaCandidates = new LRUCache<>(1000);
+    private final ConcurrentLRUCache<Term, TermInfo> betaCandidates = cache(1000);
 
-    private final LRUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
-        new LRUCache<>(1000);
+    private final ConcurrentLRUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
+        cache(1000);
 
-    private final LRUCache<Operator, Integer> introductionTimeCache =
-        new LRUCache<>(10000);
+    private final ConcurrentLRUCache<Operator, Integer> introductionTimeCache = cache(10000);
 
-    private final LRUCache<Term, Monomial> monomialCache = new LRUCache<>(2000);
+    private final ConcurrentLRUCache<Term, Monomial> monomialCache =
+        weightedCache(2000, (k, v) -> weight(k));
 
-    private final LRUCache<Term, Polynomial> polynomialCache = new LRUCache<>(2000);
+    private final ConcurrentLRUCache<Term, Polynomial> polynomialCache =
+        weightedCache(2000, (k, v) -> weight(k));
 
     /**
      * a <code>HashMap</code> from <code>Term</code> to <code>TriggersSet</code> uses to cache all
      * created TriggersSets
      */
-    private final Map<Term, TriggersSet> triggerSetCache = new LRUCache<>(1000);
+    private final ConcurrentLRUCache<Term, TriggersSet> triggerSetCache =
+        weightedCache(1000, (k, v) -> weight(k));
 
     /**
      * Map from <code>Term</code>(allTerm) to <code>ClausesGraph</code>
      */
-    private final Map<Term, ClausesGraph> graphCache = new LRUCache<>(1000);
+    private final ConcurrentLRUCache<Term, ClausesGraph> graphCache =
+        weightedCache(1000, (k, v) -> weight(k));
 
     /**
      * Cache used by the TermFactory to avoid unnecessary creation of terms
      */
-    private final Map<Term, Term> termCache = new LRUCache<>(20000);
+    private final TermInternTable termCache = new TermInternTable();
 
     /**
      * Cache used by TypeComparisonCondition
@@ -124,15 +144,17 @@ public class ServiceCaches {
     /**
      * Cache used by HandleArith for caching formatted terms
      */
-    private final LRUCache<Term, Term> formattedTermCache = new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Term, Term> formattedTermCache =
+        weightedCache(5000, (k, v) -> weight(k) + weight(v));
 
     /**
      * Caches used bu HandleArith to cache proof results
      */
-    private final LRUCache<Term, Term> provedByArithFstCache = new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Term, Term> provedByArithFstCache =
+        weightedCache(5000, (k, v) -> weight(k));
 
-    private final LRUCache<Pair<Term, Term>, Term> provedByArithSndCache =
-        new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Pair<Term, Term>, Term> provedByArithSndCache =
+        weightedCache(5000, (k, v) -> weight(k.first) + weight(k.second));
 
     /** Cache used by the exhaustive macro */
     private final Map<Node, PosInOccurrence> exhaustiveMacroCache =
@@ -150,7 +172,32 @@ public class ServiceCaches {
         new AppliedRuleAppsNameCache();
 
     /** Cache used by EqualityConstraint to speed up meta variable search */
-    private final LRUCache<Term, ImmutableSet<Metavariable>> mvCache = new LRUCache<>(2000);
+    private final ConcurrentLRUCache<Term, ImmutableSet<Metavariable>> mvCache =
+        weightedCache(2000, (k, v) -> weight(k));
+
+    private static <K, V> ConcurrentLRUCache<K, V> cache(int maxEntries) {
+        return new ConcurrentLRUCache<>(maxEntries, (k, v) -> 1, ADMISSION);
+    }
+
+    /**
+     * Creates a cache whose entries are weighted by the size of the involved terms.
+     *
+     * @param entries the number of entries of average weight the cache can hold
+     * @param weigher computes the weight of an entry
+     * @return the cache
+     */
+    private static <K, V> ConcurrentLRUCache<K, V> weightedCache(int entries,
+            ConcurrentLRUCache.Weigher<K, V> weigher) {
+        return new ConcurrentLRUCache<>((long) entries * AVERAGE_TERM_WEIGHT, weigher, ADMISSION);
+    }
+
+    /**
+     * The depth of a term is a cheap (it is cached by the term) estimate of its size and of the
+     * size of the data derived from it.
+     */
+    private static int weight(Term term) {
+        return 1 + term.depth();
+    }
 
 
     /**
@@ -158,39 +205,39 @@ public class ServiceCaches {
      *
      * @return The cache used by {@link TermTacletAppIndexCacheSet} instances.
      */
-    public final Map<CacheKey, TermTacletAppIndex> getTermTacletAppIndexCache() {
+    public final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> getTermTacletAppIndexCache() {
         return termTacletAppIndexCache;
     }
 
-    public final LRUCache<Term, TermInfo> getBetaCandidates() {
+    public final ConcurrentLRUCache<Term, TermInfo> getBetaCandidates() {
         return betaCandidates;
     }
 
-    public final LRUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
+    public final ConcurrentLRUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
         return ifThenElseMalusCache;
     }
 
-    public final LRUCache<Operator, Integer> getIntroductionTimeCache() {
+    public final ConcurrentLRUCache<Operator, Integer> getIntroductionTimeCache() {
         return introductionTimeCache;
     }
 
-    public final LRUCache<Term, Monomial> getMonomialCache() {
+    public final ConcurrentLRUCache<Term, Monomial> getMonomialCache() {
         return monomialCache;
     }
 
-    public final LRUCache<Term, Polynomial> getPolynomialCache() {
+    public final ConcurrentLRUCache<Term, Polynomial> getPolynomialCache() {
         return polynomialCache;
     }
 
-    public final Map<Term, TriggersSet> getTriggerSetCache() {
+    public final ConcurrentLRUCache<Term, TriggersSet> getTriggerSetCache() {
         return triggerSetCache;
     }
 
-    public final Map<Term, ClausesGraph> getGraphCache() {
+    public final ConcurrentLRUCache<Term, ClausesGraph> getGraphCache() {
         return graphCache;
     }
 
-    public final Map<Term, Term> getTermFactoryCache() {
+    public final TermInternTable getTermFactoryCache() {
         return termCache;
     }
 
@@ -198,15 +245,15 @@ public class ServiceCaches {
         return disjointnessCache;
     }
 
-    public final LRUCache<Term, Term> getFormattedTermCache() {
+    public final ConcurrentLRUCache<Term, Term> getFormattedTermCache() {
         return formattedTermCache;
     }
 
-    public final LRUCache<Term, Term> getProvedByArithFstCache() {
+    public final ConcurrentLRUCache<Term, Term> getProvedByArithFstCache() {
         return provedByArithFstCache;
     }
 
-    public final LRUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
+    public final ConcurrentLRUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
         return provedByArithSndCache;
     }
 
@@ -226,8 +273,31 @@ public class ServiceCaches {
         return appliedRuleAppsNameCache;
     }
 
-    public LRUCache<Term, ImmutableSet<Metavariable>> getMVCache() {
+    public ConcurrentLRUCache<Term, ImmutableSet<Metavariable>> getMVCache() {
         return mvCache;
     }
 
+    /**
+     * Returns the statistics of the size-bounded caches, e.g., to judge whether their limits are
+     * appropriate.
+     *
+     * @return the statistics by name of the cache
+     */
+    public Map<String, ConcurrentLRUCache.Stats> getStatistics() {
+        final Map<String, ConcurrentLRUCache.Stats> result = new LinkedHashMap<>();
+        result.put("termTacletAppIndex", termTacletAppIndexCache.stats());
+        result.put("betaCandidates", betaCandidates.stats());
+        result.put("ifThenElseMalus", ifThenElseMalusCache.stats());
+        result.put("introductionTime", introductionTimeCache.stats());
+        result.put("monomial", monomialCache.stats());
+        result.put("polynomial", polynomialCache.stats());
+        result.put("triggerSet", triggerSetCache.stats());
+        result.put("graph", graphCache.stats());
+        result.put("formattedTerm", formattedTermCache.stats());
+        result.put("provedByArithFst", provedByArithFstCache.stats());
+        result.put("provedByArithSnd", provedByArithSndCache.stats());
+        result.put("metavariables", mvCache.stats());
+        return result;
+    }
+
 }
@@ -0,0 +1,109 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.logic;
+
+import org.key_project.util.collection.DefaultImmutableMap;
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableSLList;
+
+import static de.uka.ilkd.key.logic.equality.RenamingTermProperty.RENAMING_TERM_PROPERTY;
+
+/**
+ * A persistent hash index of the formulas of a {@link Semisequent}, used to detect redundant
+ * formulas without scanning the whole semisequent. Formulas are indexed by their hash code modulo
+ * bound renaming (see {@link SequentFormula#hashCodeModRenaming()}), which is the equality used by
+ * the redundancy check. Updates return a new index sharing most of its structure with the old
+ * one, so that the index can be passed on from a semisequent to the semisequents derived from it.
+ */
+final class FormulaIndex {
+    /** the empty index */
+    static final FormulaIndex EMPTY = new FormulaIndex(DefaultImmutableMap.nilHashMap());
+
+    /** the formulas, by their hash code modulo renaming */
+    private final ImmutableMap<Integer, ImmutableList<SequentFormula>> buckets;
+
+    private FormulaIndex(ImmutableMap<Integer, ImmutableList<SequentFormula>> buckets) {
+        this.buckets = buckets;
+    }
+
+    /**
+     * Creates the index of the given formulas.
+     *
+     * @param formulas the formulas to index
+     * @return the index
+     */
+    static FormulaIndex create(Iterable<SequentFormula> formulas) {
+        FormulaIndex index = EMPTY;
+        for (SequentFormula sf : formulas) {
+            index = index.add(sf);
+        }
+        return index;
+    }
+
+    /**
+     * @param sf a formula
+     * @return the index additionally containing the given formula
+     */
+    FormulaIndex add(SequentFormula sf) {
+        final int hash = sf.hashCodeModRenaming();
+        final ImmutableList<SequentFormula> bucket = buckets.get(hash);
+        return new FormulaIndex(buckets.put(hash,
+            (bucket == null ? ImmutableSLList.<SequentFormula>nil() : bucket).prepend(sf)));
+    }
+
+    /**
+     * @param sf a formula of the index (compared by identity)
+     * @return the index without the given formula
+     */
+    FormulaIndex remove(SequentFormula sf) {
+        final int hash = sf.hashCodeModRenaming();
+        final ImmutableList<SequentFormula> bucket = buckets.get(hash);
+        if (bucket == null) {
+            return this;
+        }
+        ImmutableList<SequentFormula> rest = ImmutableSLList.nil();
+        for (SequentFormula other : bucket) {
+            if (other != sf) {
+                rest = rest.prepend(other);
+            }
+        }
+        if (rest.size() == bucket.size()) {
+            return this;
+        }
+        return new FormulaIndex(rest.isEmpty() ? buckets.remove(hash) : buckets.put(hash, rest));
+    }
+
+    /**
+     * @param sf a formula
+     * @return true iff the index contains a formula equal to the given one modulo bound renaming
+     */
+    boolean containsEqualModRenaming(SequentFormula sf) {
+        final ImmutableList<SequentFormula> bucket = buckets.get(sf.hashCodeModRenaming());
+        if (bucket != null) {
+            for (SequentFormula other : bucket) {
+                if (other.formula().equalsModProperty(sf.formula(), RENAMING_TERM_PROPERTY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param sf a formula
+     * @return true iff the index contains the given formula (compared by identity)
+     */
+    boolean contains(SequentFormula sf) {
+        final ImmutableList<SequentFormula> bucket = buckets.get(sf.hashCodeModRenaming());
+        if (bucket != null) {
+            for (SequentFormula other : bucket) {
+                if (other == sf) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
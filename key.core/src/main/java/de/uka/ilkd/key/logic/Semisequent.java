@@ -22,9 +22,21 @@ public class Semisequent implements Iterable<SequentFormula> {
 
     /** the empty semisequent (using singleton pattern) */
     public static final Semisequent EMPTY_SEMISEQUENT = new Empty();
+    /**
+     * the minimal number of formulas for which redundancy checks use a {@link FormulaIndex}; for
+     * fewer formulas, scanning the list is cheaper than hashing
+     */
+    static final int INDEX_THRESHOLD = 8;
+
     /** list with the {@link SequentFormula}s of the Semisequent */
     private final ImmutableList<SequentFormula> seqList;
 
+    /**
+     * the index of {@link #seqList}, passed on from the semisequent this one has been derived from
+     * or created on demand; null if not (yet) available
+     */
+    private volatile FormulaIndex formulaIndex;
+
     /** used by inner class Empty */
     private Semisequent() {
         seqList = ImmutableSLList.nil();
@@ -42,6 +54,17 @@ public class Semisequent implements Iterable<SequentFormula> {
         this.seqList = seqList;
     }
 
+    /**
+     * Create a new Semisequent from a redundancy free list of formulas and its index.
+     *
+     * @param seqList list of sequent formulas
+     * @param formulaIndex the index of the formulas, null if not available
+     */
+    Semisequent(ImmutableList<SequentFormula> seqList, FormulaIndex formulaIndex) {
+        this(seqList);
+        this.formulaIndex = formulaIndex;
+    }
+
     /**
      * Create a new Semisequent from an ordered collection of formulas.
      * The provided collection must be redundancy free, i.e., the created sequent must be exactly
@@ -174,27 +197,19 @@ public class Semisequent implements Iterable<SequentFormula> {
     private SemisequentChangeInfo insertAndRemoveRedundancyHelper(int idx,
             SequentFormula sequentFormula, SemisequentChangeInfo semiCI, FormulaChangeInfo fci) {
 
-        // Search for equivalent formulas and weakest constraint
-        ImmutableList<SequentFormula> searchList = semiCI.getFormulaList();
-        final SequentFormula[] newSeqList = new SequentFormula[searchList.size()];
-        SequentFormula cf;
-        int pos = -1;
-
-        while (!searchList.isEmpty()) {
-            ++pos;
-            cf = searchList.head();
-            searchList = searchList.tail();
-
-            if (sequentFormula != null
-                    && cf.formula().equalsModProperty(sequentFormula.formula(),
-                        RENAMING_TERM_PROPERTY)) {
-                semiCI.rejectedFormula(sequentFormula);
-                return semiCI; // semisequent already contains formula
-
-            }
-            newSeqList[pos] = cf;
+        // Search for equivalent formulas
+        final ImmutableList<SequentFormula> orig = semiCI.getFormulaList();
+        FormulaIndex index = semiCI.getFormulaIndex();
+        if (index == null && orig.size() >= INDEX_THRESHOLD) {
+            index = FormulaIndex.create(orig);
+        }
+        if (sequentFormula != null
+                && (index != null ? index.containsEqualModRenaming(sequentFormula)
+                        : containsEqualModRenaming(orig, sequentFormula))) {
+            semiCI.setFormulaList(orig, index);
+            semiCI.rejectedFormula(sequentFormula);
+            return semiCI; // semisequent already contains formula
         }
-
 
         // compose resulting formula list
         if (fci == null) {
@@ -203,22 +218,55 @@ public class Semisequent implements Iterable<SequentFormula> {
             semiCI.modifiedFormula(idx, fci);
         }
 
-        final ImmutableList<SequentFormula> orig = semiCI.getFormulaList();
-        pos = Math.min(idx, orig.size());
-
-        searchList = semiCI.getFormulaList().take(pos).prepend(sequentFormula);
+        int pos = Math.min(idx, orig.size());
+        final SequentFormula[] prefix = new SequentFormula[pos];
+        ImmutableList<SequentFormula> searchList = orig;
+        for (int i = 0; i < pos; i++) {
+            prefix[i] = searchList.head();
+            searchList = searchList.tail();
+        }
 
+        searchList = searchList.prepend(sequentFormula);
         while (pos > 0) {
             --pos;
-            searchList = searchList.prepend(newSeqList[pos]);
+            searchList = searchList.prepend(prefix[pos]);
         }
 
         // add new formula list to result object
-        semiCI.setFormulaList(searchList);
+        semiCI.setFormulaList(searchList,
+            index == null || sequentFormula == null ? null : index.add(sequentFormula));
 
         return semiCI;
     }
 
+    /**
+     * checks whether the list contains a formula equal to the given one modulo bound renaming
+     */
+    private static boolean containsEqualModRenaming(ImmutableList<SequentFormula> formulas,
+            SequentFormula sequentFormula) {
+        for (SequentFormula cf : formulas) {
+            if (cf.formula().equalsModProperty(sequentFormula.formula(), RENAMING_TERM_PROPERTY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * returns the index of the formulas, creating it if there are enough formulas to make it
+     * worthwhile
+     *
+     * @return the index or null
+     */
+    private FormulaIndex formulaIndex() {
+        FormulaIndex index = formulaIndex;
+        if (index == null && seqList.size() >= INDEX_THRESHOLD) {
+            index = FormulaIndex.create(seqList);
+            formulaIndex = index;
+        }
+        return index;
+    }
+
     /**
      * . inserts new ConstrainedFormulas starting at index idx and removes duplicates, perform
      * simplifications etc.
@@ -260,7 +308,8 @@ public class Semisequent implements Iterable<SequentFormula> {
      */
     private SemisequentChangeInfo removeRedundance(int idx,
             ImmutableList<SequentFormula> sequentFormula) {
-        return insertAndRemoveRedundancy(idx, sequentFormula, new SemisequentChangeInfo(seqList));
+        return insertAndRemoveRedundancy(idx, sequentFormula,
+            new SemisequentChangeInfo(seqList, formulaIndex()));
     }
 
 
@@ -274,7 +323,7 @@ public class Semisequent implements Iterable<SequentFormula> {
      */
     private SemisequentChangeInfo removeRedundance(int idx, SequentFormula sequentFormula) {
         return insertAndRemoveRedundancyHelper(idx, sequentFormula,
-            new SemisequentChangeInfo(seqList), null);
+            new SemisequentChangeInfo(seqList, formulaIndex()), null);
     }
 
 
@@ -370,7 +419,9 @@ public class Semisequent implements Iterable<SequentFormula> {
         }
 
         // create change info object
-        final SemisequentChangeInfo sci = new SemisequentChangeInfo(newList);
+        final FormulaIndex index = formulaIndex;
+        final SemisequentChangeInfo sci = new SemisequentChangeInfo(newList,
+            index == null ? null : index.remove(removedFormula));
         sci.removedFormula(idx, removedFormula);
 
         return sci;
@@ -424,7 +475,8 @@ public class Semisequent implements Iterable<SequentFormula> {
      * @return true iff. sequentFormula has been found in this Semisequent
      */
     public boolean contains(SequentFormula sequentFormula) {
-        return indexOf(sequentFormula) != -1;
+        final FormulaIndex index = formulaIndex();
+        return index != null ? index.contains(sequentFormula) : indexOf(sequentFormula) != -1;
     }
 
     /**
@@ -20,6 +20,8 @@ public class SemisequentChangeInfo {
     private ImmutableList<FormulaChangeInfo> modified = ImmutableSLList.nil();
     /** stores the redundance free formula list of the semisequent */
     private ImmutableList<SequentFormula> modifiedSemisequent = ImmutableSLList.nil();
+    /** the index of {@link #modifiedSemisequent}, null if not available */
+    private FormulaIndex formulaIndex;
     /**
      * contains formulas that have been tried to add, but which have been rejected due to already
      * existing formulas in the sequent subsuming these formulas
@@ -36,11 +38,21 @@ public class SemisequentChangeInfo {
         this.modifiedSemisequent = formulas;
     }
 
+    /**
+     * @param formulas the formulas of the semisequent
+     * @param formulaIndex the index of the formulas, null if not available
+     */
+    SemisequentChangeInfo(ImmutableList<SequentFormula> formulas, FormulaIndex formulaIndex) {
+        this.modifiedSemisequent = formulas;
+        this.formulaIndex = formulaIndex;
+    }
+
     private SemisequentChangeInfo(SemisequentChangeInfo o) {
         this.added = o.added;
         this.removed = o.removed;
         this.modified = o.modified;
         this.modifiedSemisequent = o.modifiedSemisequent;
+        this.formulaIndex = o.formulaIndex;
         this.rejected = o.rejected;
         this.lastFormulaIndex = o.lastFormulaIndex;
     }
@@ -61,7 +73,18 @@ public class SemisequentChangeInfo {
      * operation
      */
     public void setFormulaList(ImmutableList<SequentFormula> list) {
+        setFormulaList(list, null);
+    }
+
+    /**
+     * sets the list of formulas of the semisequent after the operation together with its index
+     *
+     * @param list the formulas
+     * @param index the index of the formulas, null if not available
+     */
+    void setFormulaList(ImmutableList<SequentFormula> list, FormulaIndex index) {
         modifiedSemisequent = list;
+        formulaIndex = index;
     }
 
     /**
@@ -71,6 +94,13 @@ public class SemisequentChangeInfo {
         return modifiedSemisequent;
     }
 
+    /**
+     * returns the index of the formula list, null if not available
+     */
+    FormulaIndex getFormulaIndex() {
+        return formulaIndex;
+    }
+
     /**
      * logs an added formula at position idx
      */
@@ -209,6 +239,7 @@ public class SemisequentChangeInfo {
 
         predecessor.lastFormulaIndex = succ.lastFormulaIndex;
         predecessor.modifiedSemisequent = succ.modifiedSemisequent;
+        predecessor.formulaIndex = succ.formulaIndex;
     }
 
     /**
@@ -226,7 +257,7 @@ public class SemisequentChangeInfo {
         if (modifiedSemisequent.isEmpty()) {
             semisequent = Semisequent.EMPTY_SEMISEQUENT;
         } else {
-            semisequent = new Semisequent(modifiedSemisequent);
+            semisequent = new Semisequent(modifiedSemisequent, formulaIndex);
         }
         return semisequent;
     }
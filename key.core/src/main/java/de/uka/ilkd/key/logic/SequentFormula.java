@@ -9,6 +9,7 @@ import de.uka.ilkd.key.logic.op.AbstractTermTransformer;
 import org.key_project.util.EqualsModProofIrrelevancy;
 
 import static de.uka.ilkd.key.logic.equality.ProofIrrelevancyProperty.PROOF_IRRELEVANCY_PROPERTY;
+import static de.uka.ilkd.key.logic.equality.RenamingTermProperty.RENAMING_TERM_PROPERTY;
 
 
 /**
@@ -31,6 +32,10 @@ public class SequentFormula implements EqualsModProofIrrelevancy {
      * Cached value for {@link #hashCodeModProofIrrelevancy()}.
      */
     private final int hashCode2;
+    /**
+     * Cached value for {@link #hashCodeModRenaming()}, computed on demand (0 if not yet computed).
+     */
+    private int hashCode3;
 
     /**
      * creates a new SequentFormula
@@ -87,4 +92,19 @@ public class SequentFormula implements EqualsModProofIrrelevancy {
     public int hashCodeModProofIrrelevancy() {
         return hashCode2;
     }
+
+    /**
+     * @return the hash code of the formula modulo bound renaming, consistent with the equality
+     *         used by {@link Semisequent} to detect redundant formulas
+     */
+    int hashCodeModRenaming() {
+        int hash = hashCode3;
+        if (hash == 0) {
+            hash = term.hashCodeModProperty(RENAMING_TERM_PROPERTY);
+            // 0 marks a missing value
+            hash = hash == 0 ? 1 : hash;
+            hashCode3 = hash;
+        }
+        return hash;
+    }
 }
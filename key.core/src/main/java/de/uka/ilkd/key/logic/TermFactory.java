@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.logic;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import de.uka.ilkd.key.logic.label.TermLabel;
@@ -29,7 +28,7 @@ public final class TermFactory {
 
 
     private static final ImmutableArray<Term> NO_SUBTERMS = new ImmutableArray<>();
-    private final Map<Term, Term> cache;
+    private final TermInternTable cache;
 
 
     // -------------------------------------------------------------------------
@@ -41,7 +40,7 @@ public final class TermFactory {
         this.cache = null;
     }
 
-    public TermFactory(Map<Term, Term> cache) {
+    public TermFactory(TermInternTable cache) {
         this.cache = cache;
     }
 
@@ -125,17 +124,7 @@ public final class TermFactory {
         // in the term or in one of its children because the meta information like PositionInfos
         // may be different.
         if (cache != null && !newTerm.containsJavaBlockRecursive()) {
-            Term term;
-            synchronized (cache) {
-                term = cache.get(newTerm);
-            }
-            if (term == null) {
-                term = newTerm.checked();
-                synchronized (cache) {
-                    cache.put(term, term);
-                }
-            }
-            return term;
+            return cache.intern(newTerm);
         } else {
             return newTerm.checked();
         }
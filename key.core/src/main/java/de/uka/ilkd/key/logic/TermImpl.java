@@ -114,6 +114,12 @@ class TermImpl implements Term {
      */
     private final String origin;
 
+    /**
+     * The table this term has been interned by, if any. Only written once before the term is
+     * handed out by the {@link TermFactory}.
+     */
+    private TermInternTable internedBy = null;
+
     @Override
     public @Nullable String getOrigin() {
         return origin;
@@ -314,12 +320,27 @@ class TermImpl implements Term {
 
         final TermImpl t = (TermImpl) o;
 
+        if (internedBy != null && internedBy == t.internedBy) {
+            // distinct terms interned by the same table are never equal
+            return false;
+        }
+
         return op.equals(t.op) && t.hasLabels() == hasLabels() && subs.equals(t.subs)
                 && boundVars.equals(t.boundVars)
                 // TODO (DD): below is no longer necessary
                 && javaBlock().equals(t.javaBlock());
     }
 
+    /**
+     * Marks this term as the representative of its equivalence class in the given table.
+     *
+     * @param table the table that has interned this term
+     */
+    void setInternedBy(TermInternTable table) {
+        assert internedBy == null;
+        internedBy = table;
+    }
+
     @Override
     public final int hashCode() {
         if (hashcode == -1) {
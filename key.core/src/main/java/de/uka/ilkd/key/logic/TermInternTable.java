@@ -0,0 +1,216 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.logic;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent hash-consing table used by the {@link TermFactory} to share structurally equal terms.
+ * <p>
+ * Lookups do not acquire any lock, so several threads may create terms concurrently (e.g., the
+ * workers of the {@link de.uka.ilkd.key.proof.MultiThreadedTacletIndex}). The table references the
+ * interned terms only weakly: an entry stays in the table exactly as long as its term is reachable
+ * from elsewhere. In addition, the most recently interned or requested terms are retained strongly
+ * by a bounded ring buffer, so that short-lived terms that are created over and over again are
+ * still shared (this corresponds to the LRU cache used before).
+ * </p>
+ * <p>
+ * As an entry is only dropped once its term is unreachable, two interned terms of the same table
+ * are structurally equal iff they are identical. {@link TermImpl#equals(Object)} exploits this and
+ * does not compare interned terms structurally.
+ * </p>
+ */
+public final class TermInternTable {
+    /** default number of strongly retained terms */
+    public static final int DEFAULT_RETAINED =
+        Math.max(0, Integer.getInteger("key.termcache.retained", 20000));
+
+    /** the interned terms, key and value refer to the same term */
+    private final ConcurrentHashMap<Object, TermRef> table = new ConcurrentHashMap<>();
+
+    /** queue of the references whose terms have been collected */
+    private final ReferenceQueue<TermImpl> collected = new ReferenceQueue<>();
+
+    /** ring buffer of strongly retained terms */
+    private final AtomicReferenceArray<Term> retained;
+
+    /** next position in {@link #retained} */
+    private final AtomicInteger retainedPos = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new table retaining {@link #DEFAULT_RETAINED} terms strongly.
+     */
+    public TermInternTable() {
+        this(DEFAULT_RETAINED);
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param retained the number of recently used terms that are kept alive by the table
+     */
+    public TermInternTable(int retained) {
+        if (retained < 0) {
+            throw new IllegalArgumentException("Negative number of retained terms: " + retained);
+        }
+        this.retained = retained == 0 ? null : new AtomicReferenceArray<>(retained);
+    }
+
+    /**
+     * Returns the interned term structurally equal to the given one. If there is none, the given
+     * term is checked (see {@link TermImpl#checked()}) and becomes the interned one.
+     *
+     * @param term a fully constructed term without Java blocks
+     * @return the interned term equal to {@code term}
+     * @throws org.key_project.logic.TermCreationException if {@code term} is not well-formed
+     */
+    TermImpl intern(TermImpl term) {
+        TermRef ref = table.get(new LookupKey(term));
+        TermImpl result = ref == null ? null : ref.get();
+        if (result != null) {
+            hits.incrementAndGet();
+            retain(result);
+            return result;
+        }
+        term.checked();
+        expungeCollected();
+        final TermRef newRef = new TermRef(term, collected);
+        while (true) {
+            ref = table.putIfAbsent(newRef, newRef);
+            if (ref == null) {
+                // mark only after insertion, as marked terms are never compared structurally
+                term.setInternedBy(this);
+                misses.incrementAndGet();
+                retain(term);
+                return term;
+            }
+            result = ref.get();
+            if (result != null) {
+                // another thread has been faster
+                hits.incrementAndGet();
+                retain(result);
+                return result;
+            }
+            // the term of the present entry has just been collected
+            table.remove(ref, ref);
+        }
+    }
+
+    private void retain(Term term) {
+        if (retained != null) {
+            retained.lazySet(Math.floorMod(retainedPos.getAndIncrement(), retained.length()),
+                term);
+        }
+    }
+
+    private void expungeCollected() {
+        Reference<? extends TermImpl> ref;
+        while ((ref = collected.poll()) != null) {
+            table.remove(ref, ref);
+        }
+    }
+
+    /**
+     * @return the number of terms currently interned (including collected but not yet expunged
+     *         ones)
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * @return the number of requests that returned an already interned term
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests that interned a new term
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Drops all strongly retained terms. Interned terms that are still reachable stay interned.
+     */
+    public void clear() {
+        if (retained != null) {
+            for (int i = 0; i < retained.length(); i++) {
+                retained.set(i, null);
+            }
+        }
+        expungeCollected();
+    }
+
+    @Override
+    public String toString() {
+        return "TermInternTable[size=" + size() + ", hits=" + getHits() + ", misses="
+            + getMisses() + "]";
+    }
+
+    /**
+     * Key and value of the table: a weak reference to an interned term.
+     */
+    private static final class TermRef extends WeakReference<TermImpl> {
+        private final int hash;
+
+        TermRef(TermImpl term, ReferenceQueue<TermImpl> queue) {
+            super(term, queue);
+            this.hash = term.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            final TermImpl term = get();
+            if (term == null) {
+                // collected entries are only equal to themselves
+                return false;
+            }
+            if (o instanceof LookupKey key) {
+                return term.equals(key.term);
+            }
+            return o instanceof TermRef other && term.equals(other.get());
+        }
+    }
+
+    /**
+     * Short-lived key used to look up a term without creating a reference object.
+     */
+    private static final class LookupKey {
+        private final Term term;
+
+        LookupKey(Term term) {
+            this.term = term;
+        }
+
+        @Override
+        public int hashCode() {
+            return term.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TermRef ref && ref.equals(this);
+        }
+    }
+}
@@ -325,6 +325,9 @@ public class RenamingTermProperty implements Property<Term> {
             hashCode = 17 * hashCode + hashJavaBlock(mod);
         } else if (op instanceof ProgramVariable pv) {
             hashCode = 17 * hashCode + pv.hashCodeModProperty(RENAMING_SOURCE_ELEMENT_PROPERTY);
+        } else {
+            // all other operators have to be identical
+            hashCode = 17 * hashCode + op.hashCode();
         }
 
         return recursiveHelper(term, nameAbstractionList, hashCode);
@@ -13,6 +13,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.CodingErrorAction;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 import de.uka.ilkd.key.nparser.builder.ChoiceFinder;
 import de.uka.ilkd.key.proof.io.RuleSource;
@@ -93,7 +94,11 @@ public final class ParsingFacade {
     }
 
     private static KeYParser createParser(CharStream stream) {
-        KeYParser p = new KeYParser(new CommonTokenStream(createLexer(stream)));
+        return createParser(new CommonTokenStream(createLexer(stream)));
+    }
+
+    private static KeYParser createParser(TokenStream tokens) {
+        KeYParser p = new KeYParser(tokens);
         p.removeErrorListeners();
         p.addErrorListener(p.getErrorReporter());
         return p;
@@ -128,8 +133,41 @@ public final class ParsingFacade {
         return parseFile(file.toPath());
     }
 
+    /**
+     * Parses the given rule source. If the {@link RuleParseCache} is enabled, the tokens and
+     * the parser decisions are taken from its entry for the source.
+     *
+     * @param source the rule source
+     * @return the parsed file
+     * @throws IOException if the source cannot be read
+     */
+    public static KeyAst.File parseFile(RuleSource source) throws IOException {
+        final RuleParseCache cache = RuleParseCache.getInstance();
+        if (cache == null) {
+            return parseFile(source.getCharStream());
+        }
+        return cache.parseFile(source);
+    }
+
     public static KeyAst.File parseFile(CharStream stream) {
-        KeYParser p = createParser(stream);
+        return parseFile(new CommonTokenStream(createLexer(stream)));
+    }
+
+    private static KeyAst.File parseFile(CommonTokenStream tokens) {
+        return parseFile(tokens, p -> {
+        });
+    }
+
+    /**
+     * Parses the given tokens, first in SLL mode and, if that is not enough, in LL mode.
+     *
+     * @param tokens the tokens of the file
+     * @param prepare called with each parser before it parses, e.g., to replace its interpreter
+     * @return the parsed file
+     */
+    static KeyAst.File parseFile(CommonTokenStream tokens, Consumer<KeYParser> prepare) {
+        KeYParser p = createParser(tokens);
+        prepare.accept(p);
 
         p.getInterpreter().setPredictionMode(PredictionMode.SLL);
         p.removeErrorListeners();
@@ -139,8 +177,9 @@ public final class ParsingFacade {
             ctx = p.file();
         } catch (ParseCancellationException ex) {
             LOGGER.warn("SLL was not enough");
-            stream.seek(0);
-            p = createParser(stream);
+            tokens.seek(0);
+            p = createParser(tokens);
+            prepare.accept(p);
             p.setErrorHandler(new BailErrorStrategy());
             ctx = p.file();
             if (p.getErrorReporter().hasErrors()) {
@@ -0,0 +1,422 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.nparser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.jar.JarEntry;
+
+import de.uka.ilkd.key.proof.io.RuleSource;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache of the token streams and parser decisions of rule files, so that a fresh KeY
+ * process does not have to read the rule files from the jar, lex them and predict the alternatives
+ * of the parser again.
+ * <p>
+ * An entry contains the text of a rule file together with all tokens the {@link KeYLexer}
+ * produced for it and the alternatives the {@link KeYParser} predicted while parsing them. Without
+ * an entry, most of the parsing time of a fresh process is spent in the prediction, as the
+ * prediction caches (DFAs) of the parser are still empty. With an entry, the parser builds the
+ * parse tree as usual but takes the predicted alternatives from the entry; should they not fit
+ * the tokens, the file is parsed again.
+ * </p>
+ * <p>
+ * Only the parsing of single rule files is cached. The parse tree is rebuilt by the generated
+ * parser, as its contexts cannot be deserialized generically, and everything built from the parse
+ * trees (taclets, rule sets, choices, namespaces and the LDTs of the initial configuration) is
+ * built again in each process.
+ * </p>
+ * <p>
+ * Entries are stored under the location of the rule file and record a fingerprint of its content
+ * which can be determined without reading it (size and CRC of a jar entry, or size and
+ * modification time of a file); if the fingerprint or the grammar changes, the rule file is parsed
+ * again and the entry is replaced. Entries are memory-mapped when they are loaded.
+ * </p>
+ * The cache is disabled by default and activated by setting the system property
+ * <code>key.parser.ruleParseCache</code> to the directory the entries are stored in. Each entry
+ * is stored in a file of its own, which allows several KeY instances to share the directory.
+ */
+public final class RuleParseCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleParseCache.class);
+
+    /** the directory of the cache, if enabled */
+    private static final @Nullable String DIRECTORY =
+        System.getProperty("key.parser.ruleParseCache");
+
+    /** whether the parsing of rule files is cached */
+    public static final boolean ENABLED = DIRECTORY != null && !DIRECTORY.isBlank();
+
+    private static final String SUFFIX = ".keyparse";
+
+    private static final byte[] MAGIC = "KeYParse".getBytes(StandardCharsets.US_ASCII);
+
+    /** the version of the entry format */
+    private static final int VERSION = 1;
+
+    /** identifies the grammar, so that entries of other grammars are not used */
+    private static final String GRAMMAR_ID =
+        hash(KeYLexer._serializedATN + "\n" + KeYParser._serializedATN);
+
+    private static final @Nullable RuleParseCache INSTANCE =
+        ENABLED ? new RuleParseCache(Path.of(DIRECTORY)) : null;
+
+    private final @NonNull Path directory;
+
+    RuleParseCache(@NonNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the cache, or null if caching is disabled
+     */
+    public static @Nullable RuleParseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Parses the given rule file, either using its entry or by lexing and parsing the file (in
+     * which case an entry is stored).
+     *
+     * @param source the rule file
+     * @return the parsed file
+     * @throws IOException if the rule file cannot be read
+     */
+    public KeyAst.@NonNull File parseFile(@NonNull RuleSource source) throws IOException {
+        final String fingerprint = fingerprint(source.url());
+        if (fingerprint == null) {
+            return ParsingFacade.parseFile(source.getCharStream());
+        }
+        final String key = key(source.url().toString());
+        final Path file = directory.resolve(key + SUFFIX);
+        if (Files.exists(file)) {
+            try {
+                final Entry entry = load(file, fingerprint);
+                if (entry != null) {
+                    final KeyAst.File result = entry.replay();
+                    if (result != null) {
+                        return result;
+                    }
+                    LOGGER.debug("Decisions of rule parse cache entry {} do not fit", file);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring corrupt rule parse cache entry {}", file, e);
+            }
+        }
+
+        final CharStream stream = source.getCharStream();
+        final CommonTokenStream tokens =
+            new CommonTokenStream(ParsingFacade.createLexer(stream));
+        tokens.fill();
+        // the decisions of the last parser are those of the successful parse
+        final DecisionRecorder[] recorder = new DecisionRecorder[1];
+        final KeyAst.File result = ParsingFacade.parseFile(tokens, parser -> {
+            recorder[0] = new DecisionRecorder(parser);
+            parser.setInterpreter(recorder[0]);
+        });
+        try {
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(tmp,
+                    encode(fingerprint, stream, tokens.getTokens(), recorder[0].getDecisions()));
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to store rule parse cache entry of {}", source, e);
+        }
+        return result;
+    }
+
+    /**
+     * Determines a fingerprint of the content at the given URL without reading it.
+     *
+     * @param url the url of a rule file
+     * @return the fingerprint, or null if none can be determined cheaply
+     */
+    static @Nullable String fingerprint(@NonNull URL url) {
+        try {
+            switch (url.getProtocol()) {
+            case "file": {
+                final Path path = Path.of(url.toURI());
+                return Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+            }
+            case "jar": {
+                final URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection jarConnection) {
+                    final JarEntry entry = jarConnection.getJarEntry();
+                    if (entry != null && entry.getCrc() != -1) {
+                        return entry.getSize() + ":" + Long.toHexString(entry.getCrc());
+                    }
+                }
+                return null;
+            }
+            default:
+                return null;
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Cannot determine fingerprint of {}", url, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param location the location of a rule file
+     * @return the name of the entry of the rule file, without suffix
+     */
+    static @NonNull String key(@NonNull String location) {
+        return hash(VERSION + "\n" + GRAMMAR_ID + "\n" + location);
+    }
+
+    private static String hash(String s) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encodes an entry: the magic bytes and version, the fingerprint, the source name and text of
+     * the stream, for each token its type, channel, range and position, and the decisions of the
+     * parser. Ranges and lines are stored relative to the previous token.
+     *
+     * @param decisions pairs of decision number and predicted alternative, in the order of the
+     *        predictions
+     */
+    static byte[] encode(String fingerprint, CharStream stream, List<Token> tokens,
+            int[] decisions) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeString(out, fingerprint);
+        writeString(out, stream.getSourceName());
+        writeString(out, stream.getText(Interval.of(0, stream.size() - 1)));
+        writeVarLong(out, tokens.size());
+        int start = 0;
+        int line = 0;
+        for (Token token : tokens) {
+            writeVarLong(out, token.getType() + 1); // EOF is -1
+            writeVarLong(out, token.getChannel());
+            writeVarLong(out, token.getStartIndex() - start);
+            writeVarLong(out, token.getStopIndex() - token.getStartIndex() + 1);
+            writeVarLong(out, token.getLine() - line);
+            writeVarLong(out, token.getCharPositionInLine() + 1);
+            start = token.getStartIndex();
+            line = token.getLine();
+        }
+        writeVarLong(out, decisions.length);
+        for (int value : decisions) {
+            writeVarLong(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Loads an entry.
+     *
+     * @param file the entry file
+     * @param fingerprint the fingerprint of the current content of the rule file
+     * @return the entry, its tokens referring to the text stored in the entry, or null if
+     *         the entry is outdated
+     * @throws IOException if the entry is not valid
+     */
+    static @Nullable Entry load(Path file, String fingerprint) throws IOException {
+        final ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after closing the channel
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            final byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.get() != VERSION) {
+                throw new IOException("Not a rule parse cache entry of version " + VERSION);
+            }
+            if (!fingerprint.equals(readString(in))) {
+                return null;
+            }
+            final String sourceName = readString(in);
+            final CharStream stream = CharStreams.fromString(readString(in), sourceName);
+
+            final int count = (int) readVarLong(in);
+            final List<Token> tokens = new ArrayList<>(count);
+            final ListTokenSource tokenSource = new ListTokenSource(tokens, sourceName);
+            final Pair<TokenSource, CharStream> origin = new Pair<>(tokenSource, stream);
+            int start = 0;
+            int line = 0;
+            for (int i = 0; i < count; i++) {
+                final int type = (int) readVarLong(in) - 1;
+                final int channel = (int) readVarLong(in);
+                start += (int) readVarLong(in);
+                final int stop = start + (int) readVarLong(in) - 1;
+                final CommonToken token = new CommonToken(origin, type, channel, start, stop);
+                line += (int) readVarLong(in);
+                token.setLine(line);
+                token.setCharPositionInLine((int) readVarLong(in) - 1);
+                tokens.add(token);
+            }
+            final int[] decisions = new int[(int) readVarLong(in)];
+            for (int i = 0; i < decisions.length; i++) {
+                decisions[i] = (int) readVarLong(in);
+            }
+            if (in.hasRemaining()) {
+                throw new IOException("Trailing data in cache entry");
+            }
+            return new Entry(new CommonTokenStream(tokenSource), decisions);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated cache entry " + file, e);
+        }
+    }
+
+    private static void writeString(OutputStream out, String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        final int length = (int) readVarLong(in);
+        final byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IOException("Negative value in cache entry");
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed number in cache entry");
+    }
+
+    /**
+     * A loaded entry.
+     *
+     * @param tokens the tokens of the rule file
+     * @param decisions pairs of decision number and predicted alternative
+     */
+    record Entry(CommonTokenStream tokens, int[] decisions) {
+        /**
+         * Parses the tokens, taking the predicted alternatives from the entry.
+         *
+         * @return the parsed file, or null if the decisions do not fit the tokens
+         */
+        KeyAst.@Nullable File replay() {
+            final KeYParser parser = new KeYParser(tokens);
+            parser.removeErrorListeners();
+            parser.setErrorHandler(new BailErrorStrategy());
+            final DecisionReplayer replayer = new DecisionReplayer(parser, decisions);
+            parser.setInterpreter(replayer);
+            final KeYParser.FileContext ctx;
+            try {
+                ctx = parser.file();
+            } catch (ParseCancellationException e) {
+                return null;
+            }
+            return replayer.isExhausted() ? new KeyAst.File(ctx) : null;
+        }
+    }
+
+    /**
+     * Records the decisions of a parser.
+     */
+    private static final class DecisionRecorder extends ParserATNSimulator {
+        private int[] decisions = new int[1024];
+        private int size;
+
+        private DecisionRecorder(KeYParser parser) {
+            super(parser, parser.getATN(), parser.getInterpreter().decisionToDFA,
+                parser.getInterpreter().getSharedContextCache());
+        }
+
+        @Override
+        public int adaptivePredict(TokenStream input, int decision,
+                ParserRuleContext outerContext) {
+            final int alternative = super.adaptivePredict(input, decision, outerContext);
+            if (size + 2 > decisions.length) {
+                decisions = Arrays.copyOf(decisions, 2 * decisions.length);
+            }
+            decisions[size++] = decision;
+            decisions[size++] = alternative;
+            return alternative;
+        }
+
+        private int[] getDecisions() {
+            return Arrays.copyOf(decisions, size);
+        }
+    }
+
+    /**
+     * Answers the decisions of a parser with the recorded alternatives, without prediction.
+     */
+    private static final class DecisionReplayer extends ParserATNSimulator {
+        private final int[] decisions;
+        private int next;
+
+        private DecisionReplayer(KeYParser parser, int[] decisions) {
+            super(parser, parser.getATN(), parser.getInterpreter().decisionToDFA,
+                parser.getInterpreter().getSharedContextCache());
+            this.decisions = decisions;
+        }
+
+        @Override
+        public int adaptivePredict(TokenStream input, int decision,
+                ParserRuleContext outerContext) {
+            if (next + 1 >= decisions.length || decisions[next] != decision) {
+                throw new ParseCancellationException("Recorded decisions do not fit");
+            }
+            final int alternative = decisions[next + 1];
+            next += 2;
+            return alternative;
+        }
+
+        private boolean isExhausted() {
+            return next == decisions.length;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.*;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+
+import org.key_project.util.collection.DefaultImmutableMap;
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableSLList;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A persistent discrimination tree over the find terms of taclets. Each find term is flattened
+ * into the sequence of its operators in preorder, where subterms whose operator is not matched by
+ * identity (schema variables, sort depending functions, modalities, ...) are replaced by a
+ * wildcard standing for an arbitrary subterm. The sequences are stored in a trie.
+ * <p>
+ * Retrieving the taclets for a term walks the trie along the term, following both the wildcard
+ * and the operator of the current subterm. The result contains every taclet whose find term can
+ * match the term, but (due to non-linear schema variables, variable conditions, etc.) not all of
+ * them do. Unlike the top level operator buckets of {@link TacletIndex}, the tree filters on the
+ * operators of the whole term, up to a depth of {@link #MAX_DEPTH}.
+ * </p>
+ * Updates return a new tree sharing all unchanged nodes with the old one, so that copying a
+ * {@link TacletIndex} does not require copying the tree.
+ */
+final class DiscriminationTree {
+    /** the maximal depth of the find terms considered, deeper subterms are wildcards */
+    static final int MAX_DEPTH = 6;
+
+    /** the key representing an arbitrary subterm */
+    private static final Object WILDCARD = new Object();
+
+    /** the empty tree */
+    static final DiscriminationTree EMPTY = new DiscriminationTree(Node.EMPTY);
+
+    private final Node root;
+
+    private DiscriminationTree(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param tacletApp a taclet app with a find taclet
+     * @return the tree additionally containing the taclet app
+     */
+    DiscriminationTree add(NoPosTacletApp tacletApp) {
+        return new DiscriminationTree(root.add(keys(tacletApp), 0, tacletApp));
+    }
+
+    /**
+     * @param tacletApp a taclet app with a find taclet
+     * @return the tree without the taclet app
+     */
+    DiscriminationTree remove(NoPosTacletApp tacletApp) {
+        final Node newRoot = root.remove(keys(tacletApp), 0, tacletApp);
+        if (newRoot == root) {
+            return this;
+        }
+        return new DiscriminationTree(newRoot == null ? Node.EMPTY : newRoot);
+    }
+
+    /**
+     * Retrieves the taclet apps whose find term may match the given term. If the term is an
+     * update application, the taclets which may match the terms below the updates are included.
+     *
+     * @param term the term
+     * @return the taclet apps (an identity set)
+     */
+    Set<NoPosTacletApp> retrieve(Term term) {
+        final Set<NoPosTacletApp> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        retrieve(root, ImmutableSLList.<Term>nil().prepend(term), result);
+        while (term.op() instanceof UpdateApplication) {
+            term = UpdateApplication.getTarget(term);
+            retrieve(root, ImmutableSLList.<Term>nil().prepend(term), result);
+        }
+        return result;
+    }
+
+    private static void retrieve(Node node, ImmutableList<Term> pending,
+            Set<NoPosTacletApp> result) {
+        if (pending.isEmpty()) {
+            for (NoPosTacletApp app : node.tacletApps) {
+                result.add(app);
+            }
+            return;
+        }
+        final Term term = pending.head();
+        final ImmutableList<Term> rest = pending.tail();
+        if (node.wildcard != null) {
+            retrieve(node.wildcard, rest, result);
+        }
+        final Node child = node.children.get(term.op());
+        if (child != null) {
+            ImmutableList<Term> next = rest;
+            for (int i = term.arity() - 1; i >= 0; i--) {
+                next = next.prepend(term.sub(i));
+            }
+            retrieve(child, next, result);
+        }
+    }
+
+    private static List<Object> keys(NoPosTacletApp tacletApp) {
+        final List<Object> keys = new ArrayList<>();
+        keys(((FindTaclet) tacletApp.taclet()).find(), 0, keys);
+        return keys;
+    }
+
+    private static void keys(Term term, int depth, List<Object> keys) {
+        if (depth >= MAX_DEPTH || !isMatchedByIdentity(term.op())) {
+            keys.add(WILDCARD);
+            return;
+        }
+        keys.add(term.op());
+        for (int i = 0; i < term.arity(); i++) {
+            keys(term.sub(i), depth + 1, keys);
+        }
+    }
+
+    /**
+     * @param op an operator of a find term
+     * @return true iff the matcher only accepts terms with this very operator at this position
+     */
+    private static boolean isMatchedByIdentity(Operator op) {
+        return !(op instanceof SchemaVariable || op instanceof SortDependingFunction
+                || op instanceof ElementaryUpdate || op instanceof Modality
+                || op instanceof QuantifiableVariable || op instanceof ProgramVariable);
+    }
+
+    /** A node of the trie. */
+    private static final class Node {
+        private static final Node EMPTY =
+            new Node(DefaultImmutableMap.nilHashMap(), null, ImmutableSLList.nil());
+
+        /** the children, by operator */
+        private final ImmutableMap<Object, Node> children;
+        /** the child for an arbitrary subterm */
+        private final @Nullable Node wildcard;
+        /** the taclet apps whose key sequence ends here */
+        private final ImmutableList<NoPosTacletApp> tacletApps;
+
+        private Node(ImmutableMap<Object, Node> children, @Nullable Node wildcard,
+                ImmutableList<NoPosTacletApp> tacletApps) {
+            this.children = children;
+            this.wildcard = wildcard;
+            this.tacletApps = tacletApps;
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && wildcard == null && tacletApps.isEmpty();
+        }
+
+        private Node add(List<Object> keys, int i, NoPosTacletApp app) {
+            if (i == keys.size()) {
+                return new Node(children, wildcard, tacletApps.prepend(app));
+            }
+            final Object key = keys.get(i);
+            if (key == WILDCARD) {
+                final Node child = wildcard == null ? EMPTY : wildcard;
+                return new Node(children, child.add(keys, i + 1, app), tacletApps);
+            }
+            final Node child = children.get(key);
+            final Node newChild = (child == null ? EMPTY : child).add(keys, i + 1, app);
+            return new Node(children.put(key, newChild), wildcard, tacletApps);
+        }
+
+        /** @return the node without the app, null if it is empty */
+        private @Nullable Node remove(List<Object> keys, int i, NoPosTacletApp app) {
+            final Node result;
+            if (i == keys.size()) {
+                final ImmutableList<NoPosTacletApp> remaining = tacletApps.removeAll(app);
+                if (remaining.size() == tacletApps.size()) {
+                    return this;
+                }
+                result = new Node(children, wildcard, remaining);
+            } else {
+                final Object key = keys.get(i);
+                final Node child = key == WILDCARD ? wildcard : children.get(key);
+                if (child == null) {
+                    return this;
+                }
+                final Node newChild = child.remove(keys, i + 1, app);
+                if (newChild == child) {
+                    return this;
+                }
+                if (key == WILDCARD) {
+                    result = new Node(children, newChild, tacletApps);
+                } else {
+                    result = new Node(
+                        newChild == null ? children.remove(key) : children.put(key, newChild),
+                        wildcard, tacletApps);
+                }
+            }
+            return result.isEmpty() ? null : result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.proof.rulefilter.RuleFilter;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.Taclet;
+
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableSLList;
+
+/**
+ * A taclet index which additionally keeps the find taclets in a {@link DiscriminationTree}.
+ * Before matching the candidates selected by their top level operator, method
+ * {@link #matchTaclets(ImmutableList, RuleFilter, PosInOccurrence, Services)} drops all taclets
+ * whose find term cannot match the term at the given position because an operator below the top
+ * level differs. This saves most of the failing match attempts.
+ *
+ * Do not create this index directly. Use the {@link TacletIndexKit#createTacletIndex()} resp.
+ * {@link TacletIndexKit#createTacletIndex(Iterable)}.
+ *
+ * @see TacletIndex
+ * @see TacletIndexKit
+ */
+final class DiscriminationTreeTacletIndex extends TacletIndex {
+
+    /**
+     * the tree of the find taclets of this index (null only while the constructor of the super
+     * class adds the initial taclets)
+     */
+    private DiscriminationTree tree;
+
+    DiscriminationTreeTacletIndex() {
+        super();
+        tree = DiscriminationTree.EMPTY;
+    }
+
+    DiscriminationTreeTacletIndex(Iterable<Taclet> tacletSet) {
+        super(tacletSet);
+        tree = DiscriminationTree.EMPTY;
+        for (NoPosTacletApp tacletApp : allNoPosTacletApps()) {
+            if (tacletApp.taclet() instanceof FindTaclet) {
+                tree = tree.add(tacletApp);
+            }
+        }
+    }
+
+    private DiscriminationTreeTacletIndex(HashMap<Object, ImmutableList<NoPosTacletApp>> rwList,
+            HashMap<Object, ImmutableList<NoPosTacletApp>> antecList,
+            HashMap<Object, ImmutableList<NoPosTacletApp>> succList,
+            ImmutableList<NoPosTacletApp> noFindList,
+            HashSet<NoPosTacletApp> partialInstantiatedRuleApps, DiscriminationTree tree) {
+        super(rwList, antecList, succList, noFindList, partialInstantiatedRuleApps);
+        this.tree = tree;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public TacletIndex copy() {
+        // the tree is persistent and can be shared
+        return new DiscriminationTreeTacletIndex(
+            (HashMap<Object, ImmutableList<NoPosTacletApp>>) rwList.clone(),
+            (HashMap<Object, ImmutableList<NoPosTacletApp>>) antecList.clone(),
+            (HashMap<Object, ImmutableList<NoPosTacletApp>>) succList.clone(), noFindList,
+            (HashSet<NoPosTacletApp>) partialInstantiatedRuleApps.clone(), tree);
+    }
+
+    @Override
+    public void add(NoPosTacletApp tacletApp) {
+        super.add(tacletApp);
+        if (tree != null && tacletApp.taclet() instanceof FindTaclet) {
+            tree = tree.add(tacletApp);
+        }
+    }
+
+    @Override
+    public void remove(NoPosTacletApp tacletApp) {
+        super.remove(tacletApp);
+        if (tacletApp.taclet() instanceof FindTaclet) {
+            tree = tree.remove(tacletApp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ImmutableList<NoPosTacletApp> matchTaclets(ImmutableList<NoPosTacletApp> tacletApps,
+            RuleFilter p_filter, PosInOccurrence pos, Services services) {
+        ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
+        if (tacletApps == null || tacletApps.isEmpty()) {
+            return result;
+        }
+
+        final Set<NoPosTacletApp> candidates = pos == null ? null : tree.retrieve(pos.subTerm());
+        for (final NoPosTacletApp tacletApp : tacletApps) {
+            if (!p_filter.filter(tacletApp.taclet())) {
+                continue;
+            }
+            if (candidates != null && tacletApp.taclet() instanceof FindTaclet
+                    && !candidates.contains(tacletApp)) {
+                continue;
+            }
+            final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
+            if (newTacletApp != null) {
+                result = result.prepend(newTacletApp);
+            }
+        }
+
+        return result;
+    }
+}
@@ -19,6 +19,7 @@ import de.uka.ilkd.key.pp.NotationInfo;
 import de.uka.ilkd.key.proof.proofevent.NodeChangeJournal;
 import de.uka.ilkd.key.proof.proofevent.RuleAppInfo;
 import de.uka.ilkd.key.proof.rulefilter.TacletFilter;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.*;
 import de.uka.ilkd.key.rule.inst.SVInstantiations;
 import de.uka.ilkd.key.rule.merge.MergeRule;
@@ -608,11 +609,18 @@ public final class Goal {
         NamespaceSet originalNamespaces = getLocalNamespaces();
         Services overlayServices = proof.getServices().getOverlay(originalNamespaces);
         final ImmutableList<Goal> goalList;
+        final RuleMetrics metrics = RuleMetrics.of(proof);
+        final long allocated = metrics == null ? 0 : RuleMetrics.currentThreadAllocatedBytes();
         var time = System.nanoTime();
         try {
             goalList = ruleApp.execute(this, overlayServices);
         } finally {
-            PERF_APP_EXECUTE.getAndAdd(System.nanoTime() - time);
+            final long dt = System.nanoTime() - time;
+            PERF_APP_EXECUTE.getAndAdd(dt);
+            if (metrics != null) {
+                metrics.recordExecution(ruleApp.rule(), dt, allocated < 0 ? -1
+                        : RuleMetrics.currentThreadAllocatedBytes() - allocated);
+            }
         }
         // can be null when the taclet failed to apply (RuleAbortException)
         if (goalList == null) {
@@ -3,11 +3,12 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.PosInOccurrence;
@@ -18,10 +19,21 @@ import de.uka.ilkd.key.rule.Taclet;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * A multi-threaded taclet index implementation. It executes method
  * {@link #matchTaclets(ImmutableList, RuleFilter, PosInOccurrence, Services)} using multiple
  * threads (depending on the number of taclets being matched and number of available processors).
+ * <p>
+ * The index measures the average cost of matching a taclet and uses it to decide whether matching
+ * in parallel pays off and how many taclets a task matches, such that each task runs for about
+ * {@code tacletindex.threading.grain} microseconds (default 50). Tasks are split recursively and
+ * balanced by work stealing on a pool of {@code tacletindex.threading.parallelism} threads
+ * (default: number of available processors) which is not shared with other users of the common
+ * pool.
+ * </p>
  *
  * Do not create this index directly. Use the {@link TacletIndexKit#createTacletIndex()} resp.
  * {@link TacletIndexKit#createTacletIndex(Iterable)}.
@@ -30,10 +42,42 @@ import org.key_project.util.collection.ImmutableSLList;
  * @see TacletIndexKit
  */
 final class MultiThreadedTacletIndex extends TacletIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiThreadedTacletIndex.class);
+
+    /** the number of threads used for matching */
+    private static final int PARALLELISM = Math.max(1, Integer.getInteger(
+        "tacletindex.threading.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    /** the targeted running time of a single task (in nanoseconds) */
+    private static final long GRAIN_NANOS =
+        Math.max(1, Integer.getInteger("tacletindex.threading.grain", 50)) * 1000L;
+
+    /** below this number of taclets matching is never parallelized */
+    private static final int MIN_PARALLEL_SIZE = 32;
+
+    /** the number of parallel invocations after which the statistics are logged */
+    private static final int REPORT_INTERVAL = 4096;
+
+    private static final ForkJoinPool execs = new ForkJoinPool(PARALLELISM, pool -> {
+        final ForkJoinWorkerThread thread =
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("TacletIndex-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
 
-    private static final ForkJoinPool execs = ForkJoinPool.commonPool(); // <- Use this once we
-                                                                         // switch to
-    // Java 8
+    /**
+     * the exponential moving average of the time needed to filter and match one taclet (in
+     * nanoseconds); concurrent updates may get lost, which is harmless for an estimate
+     */
+    private static volatile long averageMatchNanos = 0;
+
+    /** the number of invocations which matched in parallel */
+    private static final LongAdder parallelInvocations = new LongAdder();
+    /** the summed up wall clock time of the parallel invocations (in nanoseconds) */
+    private static final LongAdder parallelWallNanos = new LongAdder();
+    /** the summed up time the tasks of the parallel invocations were busy (in nanoseconds) */
+    private static final LongAdder parallelBusyNanos = new LongAdder();
 
     MultiThreadedTacletIndex(Iterable<Taclet> tacletSet) {
         super(tacletSet);
@@ -76,92 +120,177 @@ final class MultiThreadedTacletIndex extends TacletIndex {
             return result;
         }
 
-        if (tacletApps.size() > 256) {
-            NoPosTacletApp[] toMatch = tacletApps.toArray(NoPosTacletApp.class);
-            final int localParallelism =
-                (Math.min(toMatch.length >> 5, execs.getParallelism()));
-            final int partitionSize = toMatch.length / localParallelism;
-
-            List<TacletSetMatchTask> forks = new ArrayList<>();
+        final int size = tacletApps.size();
+        final long average = averageMatchNanos;
+        if (PARALLELISM > 1 && size >= MIN_PARALLEL_SIZE && size * average > 2 * GRAIN_NANOS) {
+            final int grain = (int) Math.max(1, GRAIN_NANOS / Math.max(1, average));
+            return matchInParallel(tacletApps, grain, p_filter, pos, services);
+        }
 
-            for (int lower = 0; lower < toMatch.length; lower += partitionSize) {
-                int upper = lower + partitionSize;
-                upper = Math.min(upper, toMatch.length);
-                forks.add(new TacletSetMatchTask(toMatch, lower, upper, pos, p_filter, services));
+        final long start = System.nanoTime();
+        for (final NoPosTacletApp tacletApp : tacletApps) {
+            if (!p_filter.filter(tacletApp.taclet())) {
+                continue;
+            }
+            final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
+            if (newTacletApp != null) {
+                result = result.prepend(newTacletApp);
             }
+        }
+        if (size > 0) {
+            recordMatchCost(System.nanoTime() - start, size);
+        }
+        return result;
+    }
 
-            List<NoPosTacletApp> matchedRules = new LinkedList<>();
+    /**
+     * Matches the given taclets on the pool of this index, regardless of their number. The result
+     * is the same as the one of sequential matching, including the order of the taclet apps.
+     *
+     * @param tacletApps the taclets to match
+     * @param grain the maximal number of taclets matched by a single task
+     * @param p_filter the filter the taclets have to pass
+     * @param pos the position to match against
+     * @param services the {@link Services}
+     * @return the matching taclet apps
+     */
+    ImmutableList<NoPosTacletApp> matchInParallel(ImmutableList<NoPosTacletApp> tacletApps,
+            int grain, RuleFilter p_filter, PosInOccurrence pos, Services services) {
+        final long start = System.nanoTime();
+        final NoPosTacletApp[] toMatch = tacletApps.toArray(NoPosTacletApp.class);
+        // each task writes the matches of its slice into the same array
+        final NoPosTacletApp[] matched = new NoPosTacletApp[toMatch.length];
+        final TacletSetMatchTask task = new TacletSetMatchTask(toMatch, matched, 0,
+            toMatch.length, grain, pos, p_filter, services);
+        execs.invoke(task);
 
-            try {
-                for (Future<List<NoPosTacletApp>> res : execs.invokeAll(forks)) {
-                    matchedRules.addAll(res.get());
-                }
-            } catch (InterruptedException | ExecutionException e) {
-                throw new IllegalStateException(e);
-            }
-            result = result.prependReverse(matchedRules);
-        } else {
-            for (final NoPosTacletApp tacletApp : tacletApps) {
-                if (!p_filter.filter(tacletApp.taclet())) {
-                    continue;
-                }
-                final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
-                if (newTacletApp != null) {
-                    result = result.prepend(newTacletApp);
-                }
+        ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
+        for (NoPosTacletApp newTacletApp : matched) {
+            if (newTacletApp != null) {
+                result = result.prepend(newTacletApp);
             }
         }
-
+        recordParallel(System.nanoTime() - start, task.busyNanos.sum(), toMatch.length);
         return result;
     }
 
     /**
-     * The callable implementing the actual matching task.
+     * Updates the average cost of matching a taclet.
+     *
+     * @param nanos the time needed to match the taclets
+     * @param count the number of taclets
+     */
+    private static void recordMatchCost(long nanos, int count) {
+        final long sample = nanos / count;
+        final long average = averageMatchNanos;
+        averageMatchNanos = average == 0 ? sample : average + (sample - average) / 16;
+    }
+
+    private static void recordParallel(long wallNanos, long busyNanos, int count) {
+        recordMatchCost(busyNanos, count);
+        parallelInvocations.increment();
+        parallelWallNanos.add(wallNanos);
+        parallelBusyNanos.add(busyNanos);
+        if (LOGGER.isDebugEnabled() && parallelInvocations.sum() % REPORT_INTERVAL == 0) {
+            LOGGER.debug("Parallel taclet matching: {} invocations, efficiency {}, "
+                + "average match time {} ns", parallelInvocations.sum(),
+                String.format("%.2f", getParallelEfficiency()), averageMatchNanos);
+        }
+    }
+
+    /**
+     * Returns the parallel efficiency of the matching done so far, i.e., the time the tasks were
+     * busy matching divided by the wall clock time times the number of threads. A value close to 1
+     * means that all threads were kept busy; low values indicate that the overhead of
+     * parallelization dominates and the grain size or parallelism should be adjusted.
+     *
+     * @return the parallel efficiency, or 0 if nothing has been matched in parallel yet
+     * @see TacletIndexKit#getParallelMatchingEfficiency()
+     */
+    static double getParallelEfficiency() {
+        final long wall = parallelWallNanos.sum();
+        return wall == 0 ? 0 : (double) parallelBusyNanos.sum() / ((double) wall * PARALLELISM);
+    }
+
+    /**
+     * @return the current estimate of the time needed to match a taclet (in nanoseconds)
+     */
+    static long getAverageMatchNanos() {
+        return averageMatchNanos;
+    }
+
+    /**
+     * The task implementing the actual matching. Slices larger than the grain size are split in
+     * halves, which idle threads of the pool may steal.
      */
-    static class TacletSetMatchTask implements Callable<List<NoPosTacletApp>> {
+    static class TacletSetMatchTask extends RecursiveAction {
         private final NoPosTacletApp[] toMatch;
+        private final NoPosTacletApp[] matched;
         private final int lower;
         private final int upper;
+        private final int grain;
         private final Services services;
         private final PosInOccurrence pos;
         private final RuleFilter ruleFilter;
+        /** the time spent matching, shared by all subtasks */
+        private final LongAdder busyNanos;
 
         /**
          * Creates a task which matches all taclets in {@code toMatch} from {@code lower} including
          * to {@code upper} excluding against the term at position {@code pos}. Only taclets passing
-         * the filter {@code ruleFilter} are considered
+         * the filter {@code ruleFilter} are considered. The resulting taclet app of
+         * {@code toMatch[i]} is stored in {@code matched[i]}.
          *
          * @param toMatch the list containing the taclets to be matched
+         * @param matched the array receiving the matched taclet apps
          * @param lower the index (incl.) where to start
          * @param upper the index (excl.) where to stop
+         * @param grain the maximal number of taclets matched without splitting the task
          * @param pos the {@link PosInOccurrence} refering to the term to match
          * @param ruleFilter {@link RuleFilter} constraining the taclets to be matched
          * @param services the {@link Services}
          */
-        public TacletSetMatchTask(NoPosTacletApp[] toMatch, int lower, int upper,
-                PosInOccurrence pos, RuleFilter ruleFilter, Services services) {
+        TacletSetMatchTask(NoPosTacletApp[] toMatch, NoPosTacletApp[] matched, int lower,
+                int upper, int grain, PosInOccurrence pos, RuleFilter ruleFilter,
+                Services services) {
+            this(toMatch, matched, lower, upper, grain, pos, ruleFilter, services,
+                new LongAdder());
+        }
+
+        private TacletSetMatchTask(NoPosTacletApp[] toMatch, NoPosTacletApp[] matched, int lower,
+                int upper, int grain, PosInOccurrence pos, RuleFilter ruleFilter,
+                Services services, LongAdder busyNanos) {
             this.toMatch = toMatch;
+            this.matched = matched;
             this.lower = lower;
             this.upper = upper;
+            this.grain = grain;
             this.services = services;
             this.pos = pos;
             this.ruleFilter = ruleFilter;
+            this.busyNanos = busyNanos;
         }
 
         @Override
-        public List<NoPosTacletApp> call() {
-            List<NoPosTacletApp> result = new LinkedList<>();
+        protected void compute() {
+            if (upper - lower > grain) {
+                final int middle = (lower + upper) >>> 1;
+                invokeAll(
+                    new TacletSetMatchTask(toMatch, matched, lower, middle, grain, pos,
+                        ruleFilter, services, busyNanos),
+                    new TacletSetMatchTask(toMatch, matched, middle, upper, grain, pos,
+                        ruleFilter, services, busyNanos));
+                return;
+            }
+            final long start = System.nanoTime();
             for (int i = lower; i < upper; i++) {
                 NoPosTacletApp tacletApp = toMatch[i];
                 if (!ruleFilter.filter(tacletApp.taclet())) {
                     continue;
                 }
-                final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
-                if (newTacletApp != null) {
-                    result.add(newTacletApp);
-                }
+                matched[i] = tacletApp.matchFind(pos, services);
             }
-            return result;
+            busyNanos.add(System.nanoTime() - start);
         }
 
     }
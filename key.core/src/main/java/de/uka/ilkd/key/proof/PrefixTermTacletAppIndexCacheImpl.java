@@ -15,13 +15,18 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The abstract superclass of caches for taclet app indexes that are implemented using a common
- * backend <code>LRUCache</code> (the backend is stored in <code>TermTacletAppIndexCacheSet</code>).
- * The backend is accessed in a way that guarantees that two distinct instances of this class never
- * interfere, by choosing cache keys that are specific for a particular instance of
- * <code>PrefixTermTacletAppIndexCacheImpl</code> and cannot be created by other instances. This
- * ensures that it is safe to use one instance of <code>LRUCache</code> for many instances of
+ * backend <code>ConcurrentLRUCache</code> (the backend is stored in
+ * <code>TermTacletAppIndexCacheSet</code>). The backend is accessed in a way that guarantees that
+ * two distinct instances of this class never interfere, by choosing cache keys that are specific
+ * for a particular instance of <code>PrefixTermTacletAppIndexCacheImpl</code> and cannot be
+ * created by other instances. This ensures that it is safe to use one instance of
+ * <code>ConcurrentLRUCache</code> for many instances of
  * <code>PrefixTermTacletAppIndexCacheImpl</code> (different proofs, different proof branches,
  * different locations).
+ * <p>
+ * Instances are shared between the goals of a proof, whose rule applications may be selected
+ * concurrently. Each access therefore uses a key of its own.
+ * </p>
  */
 public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTacletAppIndexCache {
     private static final Logger LOGGER =
@@ -36,7 +41,7 @@ public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTaclet
     }
 
     public TermTacletAppIndex getIndexForTerm(Term t) {
-        return cache.get(getQueryKey(t));
+        return cache.get(getNewKey(t));
     }
 
     private int hits = 0;
@@ -64,28 +69,16 @@ public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTaclet
     protected abstract String name();
 
     /**
-     * @return a freshly created key for the term <code>t</code> that can be stored in the
-     *         <code>cache</code>
+     * @return a freshly created key for the term <code>t</code> that can be used for queries and
+     *         stored in the <code>cache</code>
      */
     private CacheKey getNewKey(Term t) {
         return new CacheKey(this, t);
     }
 
-    /**
-     * @return a key for the term <code>t</code> that can be used for cache queries. Calling this
-     *         method twice will return the same object (with different attribute values), i.e., the
-     *         result is not supposed to be stored anywhere
-     */
-    private CacheKey getQueryKey(Term t) {
-        queryCacheKey.analysedTerm = t;
-        return queryCacheKey;
-    }
-
-    private final CacheKey queryCacheKey = new CacheKey(this, null);
-
     public static final class CacheKey {
         private final PrefixTermTacletAppIndexCacheImpl parent;
-        public Term analysedTerm;
+        public final Term analysedTerm;
 
         public CacheKey(PrefixTermTacletAppIndexCacheImpl parent, Term analysedTerm) {
             this.parent = parent;
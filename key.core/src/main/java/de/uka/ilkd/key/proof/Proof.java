@@ -22,6 +22,7 @@ import de.uka.ilkd.key.proof.mgt.ProofCorrectnessMgt;
 import de.uka.ilkd.key.proof.mgt.ProofEnvironment;
 import de.uka.ilkd.key.proof.reference.ClosedBy;
 import de.uka.ilkd.key.proof.replay.CopyingProofReplayer;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.OneStepSimplifier;
 import de.uka.ilkd.key.settings.GeneralSettings;
 import de.uka.ilkd.key.settings.ProofIndependentSettings;
@@ -157,6 +158,12 @@ public class Proof implements Named {
 
     private @Nullable Lookup userData;
 
+    /**
+     * The performance metrics collected for this proof, if any. Not stored in the user data,
+     * since it is read on every match, cost computation and rule application.
+     */
+    private volatile @Nullable RuleMetrics ruleMetrics;
+
     /**
      * Whether closing the proof should emit a {@link ProofEvent}.
      */
@@ -1244,6 +1251,24 @@ public class Proof implements Named {
 
     }
 
+    /**
+     * @return the performance metrics collected for this proof, or null if none are collected
+     * @see RuleMetrics#of(Proof)
+     */
+    public @Nullable RuleMetrics getRuleMetrics() {
+        return ruleMetrics;
+    }
+
+    /**
+     * Sets the performance metrics collected for this proof. Use {@link RuleMetrics#enable(Proof)}
+     * and {@link RuleMetrics#disable(Proof)} instead of calling this directly.
+     *
+     * @param ruleMetrics the metrics, or null to stop collecting metrics
+     */
+    public void setRuleMetrics(@Nullable RuleMetrics ruleMetrics) {
+        this.ruleMetrics = ruleMetrics;
+    }
+
     /**
      * Retrieves a user-defined data.
      *
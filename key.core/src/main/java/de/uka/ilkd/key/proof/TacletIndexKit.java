@@ -14,8 +14,12 @@ public abstract class TacletIndexKit {
 
     static {
         final String threading = System.getProperty("tacletindex.threading.enabled", "false");
+        final String discriminationTree =
+            System.getProperty("tacletindex.discriminationtree.enabled", "false");
         if ("true".equals(threading)) {
             ACTIVE_TACLET_INDEX_KIT = new MultiThreadedTacletIndexKit();
+        } else if ("true".equals(discriminationTree)) {
+            ACTIVE_TACLET_INDEX_KIT = new DiscriminationTreeTacletIndexKit();
         } else {
             ACTIVE_TACLET_INDEX_KIT = new SingleThreadedTacletIndexKit();
         }
@@ -30,6 +34,18 @@ public abstract class TacletIndexKit {
         return ACTIVE_TACLET_INDEX_KIT;
     }
 
+    /**
+     * Returns the parallel efficiency of the taclet matching done so far by the multi threaded
+     * {@link TacletIndex}, i.e., the time its threads were busy matching divided by the wall clock
+     * time times the number of threads (see {@code tacletindex.threading.parallelism}). Values
+     * well below 1 indicate that the overhead of parallelization dominates.
+     *
+     * @return the parallel efficiency, or 0 if nothing has been matched in parallel yet
+     */
+    public static double getParallelMatchingEfficiency() {
+        return MultiThreadedTacletIndex.getParallelEfficiency();
+    }
+
     /**
      * abstract factory method to create an empty {@link TacletIndex}
      *
@@ -74,5 +90,20 @@ public abstract class TacletIndexKit {
         }
     }
 
+    /**
+     * Concrete factory creating the {@link TacletIndex} which filters the candidate taclets using
+     * a discrimination tree over their find terms
+     */
+    private static class DiscriminationTreeTacletIndexKit extends TacletIndexKit {
+
+        public TacletIndex createTacletIndex() {
+            return new DiscriminationTreeTacletIndex();
+        }
+
+        public TacletIndex createTacletIndex(Iterable<Taclet> tacletSet) {
+            return new DiscriminationTreeTacletIndex(tacletSet);
+        }
+    }
+
 
 }
@@ -74,7 +74,8 @@ public class TermTacletAppIndexCacheSet {
 
     /**
      * caches for locations that are not below updates or programs, but in the scope of binders.
-     * this is a mapping from <code>IList<QuantifiedVariable></code> to <code>TopLevelCache</code>
+     * this is a mapping from <code>IList<QuantifiedVariable></code> to <code>TopLevelCache</code>.
+     * The set is shared between goals, hence all accesses are synchronized on the map.
      */
     private final LRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> topLevelCaches =
         new LRUCache<>(
@@ -93,7 +94,8 @@ public class TermTacletAppIndexCacheSet {
 
     /**
      * caches for locations that are both below programs and in the scope of binders. this is a
-     * mapping from <code>IList<QuantifiedVariable></code> to <code>BelowProgCache</code>
+     * mapping from <code>IList<QuantifiedVariable></code> to <code>BelowProgCache</code>. All
+     * accesses are synchronized on the map.
      */
     private final LRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> belowProgCaches =
         new LRUCache<>(
@@ -152,12 +154,14 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return topLevelCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = topLevelCaches.get(prefix);
-        if (res == null) {
-            res = new TopLevelCache(prefix, cache);
-            topLevelCaches.put(prefix, res);
+        synchronized (topLevelCaches) {
+            ITermTacletAppIndexCache res = topLevelCaches.get(prefix);
+            if (res == null) {
+                res = new TopLevelCache(prefix, cache);
+                topLevelCaches.put(prefix, res);
+            }
+            return res;
         }
-        return res;
     }
 
     /**
@@ -168,12 +172,14 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return belowProgCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = belowProgCaches.get(prefix);
-        if (res == null) {
-            res = new BelowProgCache(prefix, cache);
-            belowProgCaches.put(prefix, res);
+        synchronized (belowProgCaches) {
+            ITermTacletAppIndexCache res = belowProgCaches.get(prefix);
+            if (res == null) {
+                res = new BelowProgCache(prefix, cache);
+                belowProgCaches.put(prefix, res);
+            }
+            return res;
         }
-        return res;
     }
 
     /**
@@ -13,6 +13,7 @@ import de.uka.ilkd.key.logic.Sequent;
 import de.uka.ilkd.key.nparser.*;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.proof.io.BinaryProofRuleSource;
 import de.uka.ilkd.key.proof.io.IProofFileParser;
 import de.uka.ilkd.key.proof.io.KeYFile;
 import de.uka.ilkd.key.proof.io.consistency.FileRepo;
@@ -196,6 +197,10 @@ public final class KeYUserProblemFile extends KeYFile implements ProofOblInput {
      * Reads a saved proof of a .key file.
      */
     public void readProof(IProofFileParser prl) throws IOException {
+        if (file instanceof BinaryProofRuleSource binary) {
+            binary.readProof(prl);
+            return;
+        }
         KeyAst.File ctx = getParseContext();
         Token token = ctx.findProof();
         if (token != null) {
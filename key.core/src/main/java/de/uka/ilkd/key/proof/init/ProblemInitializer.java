@@ -65,6 +65,11 @@ public final class ProblemInitializer {
      */
     private FileRepo fileRepo;
     private ImmutableSet<PositionedString> warnings = DefaultImmutableSet.nil();
+    /**
+     * whether the rules read for another instance of the same profile class may be reused, see
+     * {@link #setShareRulesAmongProfileInstances(boolean)}
+     */
+    private boolean shareRulesAmongProfileInstances = false;
 
     // -------------------------------------------------------------------------
     // constructors
@@ -444,6 +449,13 @@ public final class ProblemInitializer {
 
             // the first time, read in standard rules
             Profile profile = services.getProfile();
+            if (shareRulesAmongProfileInstances && currentBaseConfig != null
+                    && profile != currentBaseConfig.getProfile()
+                    && sharesTacletBase(profile, currentBaseConfig.getProfile())) {
+                // another instance of the same profile (e.g. one per thread), reuse the rules
+                currentBaseConfig = baseConfig.copyWithServices(
+                    baseConfig.getServices().copyPreservesLDTInformation(profile));
+            }
             if (currentBaseConfig == null || profile != currentBaseConfig.getProfile()) {
                 currentBaseConfig = new InitConfig(services);
                 RuleSource tacletBase = profile.getStandardRules().getTacletBase();
@@ -465,6 +477,20 @@ public final class ProblemInitializer {
         }
     }
 
+    /**
+     * Checks if the base configuration read for one profile can be used for another one, which is
+     * the case for instances of the same profile class reading the same taclet base.
+     */
+    private static boolean sharesTacletBase(Profile profile, Profile other) {
+        if (profile.getClass() != other.getClass()) {
+            return false;
+        }
+        RuleSource tacletBase = profile.getStandardRules().getTacletBase();
+        RuleSource otherTacletBase = other.getStandardRules().getTacletBase();
+        return tacletBase != null && otherTacletBase != null
+                && tacletBase.getExternalForm().equals(otherTacletBase.getExternalForm());
+    }
+
     private void print(Proof firstProof) {
         File taclets1;
         try {
@@ -645,6 +671,18 @@ public final class ProblemInitializer {
         this.fileRepo = fileRepo;
     }
 
+    /**
+     * Allows {@link #prepare(EnvInput)} to reuse the rules read for another instance of the same
+     * profile class with the same taclet base, instead of reading them again. This is only
+     * possible if the rules do not depend on the state of the profile instance, as it is the case
+     * for instances of the same profile used by different threads. Disabled by default.
+     *
+     * @param share whether the rules may be shared
+     */
+    public void setShareRulesAmongProfileInstances(boolean share) {
+        this.shareRulesAmongProfileInstances = share;
+    }
+
     public ProblemInitializerListener getListener() {
         return listener;
     }
@@ -8,6 +8,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -495,7 +497,7 @@ public abstract class AbstractProblemLoader {
             return new KeYUserProblemFile(unzippedProof.toString(), unzippedProof.toFile(),
                 fileRepo, control, profileOfNewProofs, false);
         } else if (filename.endsWith(".key") || filename.endsWith(".proof")
-                || filename.endsWith(".proof.gz")) {
+                || filename.endsWith(".proof.gz") || BinaryProofReader.isBinaryProof(filename)) {
             // KeY problem specification or saved proof
             return new KeYUserProblemFile(filename, file, fileRepo, control, profileOfNewProofs,
                 filename.endsWith(".proof.gz"));
@@ -508,7 +510,7 @@ public abstract class AbstractProblemLoader {
             if (filename.lastIndexOf('.') != -1) {
                 throw new IllegalArgumentException("Unsupported file extension '"
                     + filename.substring(filename.lastIndexOf('.')) + "' of read-in file "
-                    + filename + ". Allowed extensions are: .key, .proof, .java or "
+                    + filename + ". Allowed extensions are: .key, .proof, .bproof, .java or "
                     + "complete directories.");
             } else {
                 throw new FileNotFoundException(
@@ -685,13 +687,21 @@ public abstract class AbstractProblemLoader {
         try {
             assert envInput instanceof KeYUserProblemFile;
 
-            IntermediatePresentationProofFileParser parser =
-                new IntermediatePresentationProofFileParser(proof);
-            problemInitializer.tryReadProof(parser, (KeYUserProblemFile) envInput);
-            parserResult = parser.getResult();
+            FutureTask<IntermediatePresentationProofFileParser.Result> parsing = null;
+            IntermediateProofStream stream = null;
+            if (IntermediateProofStream.ENABLED) {
+                // parse in the background and replay the nodes as soon as they are parsed
+                stream = new IntermediateProofStream();
+                parsing = startParsing(proof, (KeYUserProblemFile) envInput, stream);
+            } else {
+                IntermediatePresentationProofFileParser parser =
+                    new IntermediatePresentationProofFileParser(proof);
+                problemInitializer.tryReadProof(parser, (KeYUserProblemFile) envInput);
+                parserResult = parser.getResult();
 
-            // Parser is no longer needed, set it to null to free memory.
-            parser = null;
+                // Parser is no longer needed, set it to null to free memory.
+                parser = null;
+            }
 
             // For loading, we generally turn on one step simplification to be
             // able to load proofs that used it even if the user has currently
@@ -702,9 +712,20 @@ public abstract class AbstractProblemLoader {
             Strategy.updateStrategySettings(proof, newProps);
             OneStepSimplifier.refreshOSS(proof);
 
-            replayer = new IntermediateProofReplayer(this, proof, parserResult);
-            replayResult =
-                replayer.replay(problemInitializer.getListener(), problemInitializer.getProgMon());
+            replayer = stream != null ? new IntermediateProofReplayer(this, proof, stream)
+                    : new IntermediateProofReplayer(this, proof, parserResult);
+            try {
+                replayResult = replayer.replay(problemInitializer.getListener(),
+                    problemInitializer.getProgMon());
+            } finally {
+                if (parsing != null && (replayResult == null || stream.isCancelled())) {
+                    // the replay has been aborted, stop the parser as well
+                    parsing.cancel(true);
+                }
+            }
+            if (parsing != null && !parsing.isCancelled()) {
+                parserResult = awaitParsing(parsing);
+            }
 
             lastTouchedNode = replayResult.getLastSelectedGoal() != null
                     ? replayResult.getLastSelectedGoal().node()
@@ -743,6 +764,52 @@ public abstract class AbstractProblemLoader {
         return result;
     }
 
+    /**
+     * Starts parsing the proof of the given problem file in a new thread. The task is cancelled if
+     * the replay is aborted.
+     *
+     * @param proof the proof to load
+     * @param kupf the problem file containing the proof
+     * @param stream the stream receiving the parsed intermediate nodes
+     * @return the task providing the parse result
+     */
+    private FutureTask<IntermediatePresentationProofFileParser.Result> startParsing(
+            Proof proof, KeYUserProblemFile kupf, IntermediateProofStream stream) {
+        final FutureTask<IntermediatePresentationProofFileParser.Result> task =
+            new FutureTask<>(() -> {
+                final IntermediatePresentationProofFileParser parser =
+                    new IntermediatePresentationProofFileParser(proof, stream);
+                // unlike ProblemInitializer#tryReadProof, no status is reported here, since the
+                // replayer reports the progress concurrently
+                try {
+                    kupf.readProof(parser);
+                } catch (IOException e) {
+                    throw new ProofInputException(e);
+                } finally {
+                    kupf.close();
+                    stream.finish();
+                }
+                return parser.getResult();
+            });
+        final Thread thread = new Thread(task, "KeY-ProofParser-" + proof.name());
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    private static IntermediatePresentationProofFileParser.Result awaitParsing(
+            FutureTask<IntermediatePresentationProofFileParser.Result> parsing)
+            throws Exception {
+        try {
+            return parsing.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Returns the file or folder to load.
      *
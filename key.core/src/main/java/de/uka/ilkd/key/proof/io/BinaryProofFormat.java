@@ -0,0 +1,104 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.regex.Pattern;
+
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+
+/**
+ * Constants and helpers of the compact binary proof format, see {@link BinaryProofWriter} and
+ * {@link BinaryProofReader}.
+ * <p>
+ * A binary proof file ({@value #FILE_EXTENSION}) consists of
+ * <ol>
+ * <li>the magic bytes {@code KBPF} and the format version (one byte),</li>
+ * <li>the textual problem header (everything of the textual proof file before {@code \proof}) as
+ * UTF-8 bytes, preceded by their number,</li>
+ * <li>the events of the proof section as reported to an {@link IProofFileParser}, terminated by
+ * {@link #TAG_EOF}.</li>
+ * </ol>
+ * The tag byte of an event that opens an expression carries the ordinal of the
+ * {@link ProofElementID} in its lower six bits and the kind of argument in its upper two bits:
+ * none, a string, a number or a list of numbers (e.g., a position in a term). Strings are interned:
+ * an argument refers to a previously defined string by its index; the first occurrence defines
+ * the string inline. All numbers are stored as variable-length integers. The tag
+ * {@link #TAG_END} closes the innermost open expression and is followed by the line number
+ * (relative to the previous one) of the expression in the textual proof file.
+ * </p>
+ */
+final class BinaryProofFormat {
+    /** file extension of binary proofs */
+    static final String FILE_EXTENSION = ".bproof";
+
+    static final byte[] MAGIC = { 'K', 'B', 'P', 'F' };
+    static final int VERSION = 1;
+
+    static final int KIND_NONE = 0;
+    static final int KIND_STRING = 1;
+    static final int KIND_NUMBER = 2;
+    static final int KIND_NUMBER_LIST = 3;
+
+    static final int TAG_END = 0xFE;
+    static final int TAG_EOF = 0xFF;
+
+    /** decimal numbers that are reproduced exactly when stored as long */
+    static final Pattern NUMBER = Pattern.compile("0|-?[1-9][0-9]{0,17}");
+
+    /** comma separated non-negative numbers that are reproduced exactly when stored as int */
+    static final Pattern NUMBER_LIST =
+        Pattern.compile("(0|[1-9][0-9]{0,8})(,(0|[1-9][0-9]{0,8}))+");
+
+    static {
+        // the ordinals must not collide with TAG_END and TAG_EOF
+        assert ProofElementID.values().length < 62 : "Too many proof elements for binary format";
+    }
+
+    private BinaryProofFormat() {
+    }
+
+    static int tag(int kind, ProofElementID id) {
+        return kind << 6 | id.ordinal();
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSignedVarLong(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readVarLong(ByteBuffer in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed variable-length integer in binary proof");
+    }
+
+    static long readSignedVarLong(ByteBuffer in) throws IOException {
+        final long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int readVarInt(ByteBuffer in) throws IOException {
+        final long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Integer out of range in binary proof: " + value);
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,234 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+
+import static de.uka.ilkd.key.proof.io.BinaryProofFormat.*;
+
+/**
+ * Reads a proof in the compact binary format described in {@link BinaryProofFormat}.
+ * <p>
+ * The file is memory-mapped and decoded directly from the mapping. The proof section is reported
+ * to an {@link IProofFileParser} exactly like the {@link de.uka.ilkd.key.nparser.ProofReplayer}
+ * reports a textual proof, so that it can be processed by the
+ * {@link IntermediatePresentationProofFileParser} and replayed by the
+ * {@link IntermediateProofReplayer}. Every distinct string (e.g., a rule name) is decoded only
+ * once and shared by all expressions referring to it.
+ * </p>
+ */
+public final class BinaryProofReader {
+    private static final ProofElementID[] IDS = ProofElementID.values();
+
+    /** the mapped file, positioned at the start of the proof section */
+    private final ByteBuffer data;
+    private final String header;
+
+    private BinaryProofReader(ByteBuffer data) throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        data.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary KeY proof");
+        }
+        final int version = data.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary proof version " + version);
+        }
+        final int headerLength = readVarInt(data);
+        header = readString(data, headerLength);
+        this.data = data.slice();
+    }
+
+    /**
+     * Opens a binary proof.
+     *
+     * @param file the binary proof file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is not a binary proof
+     */
+    public static BinaryProofReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after closing the channel
+            return new BinaryProofReader(
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary proof " + file, e);
+        }
+    }
+
+    /**
+     * @param fileName a file name
+     * @return whether the file name denotes a binary proof
+     */
+    public static boolean isBinaryProof(String fileName) {
+        return fileName.endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * @return the textual part of the proof file before the proof section
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Reports the expressions of the proof section to the given parser.
+     *
+     * @param prl the receiver of the expressions
+     * @throws IOException if the proof section is malformed
+     */
+    public void replay(IProofFileParser prl) throws IOException {
+        final ByteBuffer in = data.duplicate();
+        final List<String> strings = new ArrayList<>();
+        final ArrayDeque<ProofElementID> open = new ArrayDeque<>();
+        int line = 0;
+        try {
+            while (true) {
+                final int tag = in.get() & 0xFF;
+                if (tag == TAG_EOF) {
+                    if (!open.isEmpty()) {
+                        throw new IOException("Unterminated expressions in binary proof");
+                    }
+                    return;
+                }
+                if (tag == TAG_END) {
+                    line += (int) readSignedVarLong(in);
+                    if (open.isEmpty()) {
+                        throw new IOException("Unbalanced expressions in binary proof");
+                    }
+                    prl.endExpr(open.pop(), line);
+                    continue;
+                }
+                final int ordinal = tag & 0x3F;
+                if (ordinal >= IDS.length) {
+                    throw new IOException("Unknown proof element " + ordinal + " in binary proof");
+                }
+                final ProofElementID id = IDS[ordinal];
+                final String arg = switch (tag >>> 6) {
+                case KIND_NONE -> null;
+                case KIND_STRING -> readStringRef(in, strings);
+                case KIND_NUMBER -> Long.toString(readSignedVarLong(in));
+                default -> readNumberList(in);
+                };
+                prl.beginExpr(id, arg);
+                open.push(id);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary proof", e);
+        }
+    }
+
+    private static String readStringRef(ByteBuffer in, List<String> strings) throws IOException {
+        final int index = readVarInt(in);
+        if (index < strings.size()) {
+            return strings.get(index);
+        }
+        if (index != strings.size()) {
+            throw new IOException("Undefined string " + index + " in binary proof");
+        }
+        final String result = readString(in, readVarInt(in));
+        strings.add(result);
+        return result;
+    }
+
+    private static String readNumberList(ByteBuffer in) throws IOException {
+        final int count = readVarInt(in);
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(readVarInt(in));
+        }
+        return result.toString();
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final ByteBuffer bytes = in.slice();
+        bytes.limit(length);
+        in.position(in.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    /**
+     * Converts a binary proof into the textual format.
+     *
+     * @param binaryProof the binary proof file
+     * @param textProof the textual proof file to write
+     * @throws IOException if reading or writing fails
+     */
+    public static void convertToText(Path binaryProof, Path textProof) throws IOException {
+        final BinaryProofReader reader = open(binaryProof);
+        try (Writer out = Files.newBufferedWriter(textProof, StandardCharsets.UTF_8)) {
+            reader.writeText(out);
+        }
+    }
+
+    /**
+     * Writes this proof in the textual format.
+     *
+     * @param out the writer to write to
+     * @throws IOException if the proof is malformed or writing fails
+     */
+    public void writeText(Writer out) throws IOException {
+        final PrintWriter pw = new PrintWriter(out);
+        pw.print(header);
+        pw.println("\\proof {");
+        replay(new IProofFileParser() {
+            @Override
+            public void beginExpr(ProofElementID eid, String str) {
+                if (eid == ProofElementID.RULE || eid == ProofElementID.BUILT_IN_RULE
+                        || eid == ProofElementID.BRANCH) {
+                    pw.println();
+                }
+                pw.print('(');
+                pw.print(eid.getRawName());
+                if (str != null) {
+                    pw.print(" \"");
+                    pw.print(OutputStreamProofSaver.escapeCharacters(str));
+                    pw.print('"');
+                }
+            }
+
+            @Override
+            public void endExpr(ProofElementID eid, int stringLiteralLine) {
+                pw.print(')');
+            }
+
+            @Override
+            public String getStatus() {
+                return "";
+            }
+
+            @Override
+            public List<Throwable> getErrors() {
+                return List.of();
+            }
+        });
+        pw.println();
+        pw.println("}");
+        pw.flush();
+        if (pw.checkError()) {
+            throw new IOException("Failed to write textual proof");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+
+/**
+ * Rule source of a binary proof file (see {@link BinaryProofFormat}). Its content is the textual
+ * problem header stored in the file; the proof section is read by {@link #readProof}.
+ */
+public class BinaryProofRuleSource extends FileRuleSource {
+    /** the reader of the file, kept open for reading the problem and the proof */
+    private BinaryProofReader reader;
+
+    /**
+     * Instantiates a new binary proof rule source.
+     *
+     * This is only instantiated from {@link RuleSourceFactory#initRuleFile(File, boolean)}.
+     *
+     * @param ruleFile the binary proof file
+     */
+    BinaryProofRuleSource(File ruleFile) {
+        super(ruleFile);
+    }
+
+    private synchronized BinaryProofReader reader() throws IOException {
+        if (reader == null) {
+            reader = BinaryProofReader.open(ruleFile.toPath());
+        }
+        return reader;
+    }
+
+    private String header() throws IOException {
+        return reader().getHeader();
+    }
+
+    @Override
+    public InputStream getNewStream() {
+        try {
+            return new ByteArrayInputStream(header().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading binary proof " + ruleFile, e);
+        }
+    }
+
+    @Override
+    public CharStream getCharStream() throws IOException {
+        return CharStreams.fromString(header(), ruleFile.toString());
+    }
+
+    /**
+     * Reports the expressions of the proof section to the given parser.
+     *
+     * @param prl the receiver of the expressions
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public void readProof(IProofFileParser prl) throws IOException {
+        reader().replay(prl);
+    }
+}
@@ -0,0 +1,258 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.PosInTerm;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.op.Modality;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+import de.uka.ilkd.key.proof.reference.CopyReferenceResolver;
+import de.uka.ilkd.key.rule.ContractRuleApp;
+import de.uka.ilkd.key.rule.IBuiltInRuleApp;
+import de.uka.ilkd.key.rule.IfFormulaInstDirect;
+import de.uka.ilkd.key.rule.IfFormulaInstSeq;
+import de.uka.ilkd.key.rule.IfFormulaInstantiation;
+import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.rule.TacletApp;
+import de.uka.ilkd.key.rule.UseDependencyContractRule;
+import de.uka.ilkd.key.rule.UseOperationContractRule;
+import de.uka.ilkd.key.rule.merge.CloseAfterMergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.rule.merge.MergeProcedure;
+import de.uka.ilkd.key.rule.merge.MergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.rule.merge.procedures.MergeWithLatticeAbstraction;
+import de.uka.ilkd.key.rule.merge.procedures.MergeWithPredicateAbstraction;
+import de.uka.ilkd.key.smt.SMTRuleApp;
+
+import org.key_project.util.collection.ImmutableList;
+
+/**
+ * This proof saver derivative stores proofs in the compact binary format (see
+ * {@link BinaryProofWriter}). The problem is rendered like in the textual format, the proof tree is
+ * walked directly and its expressions are reported to the {@link BinaryProofWriter}, the same
+ * expressions the textual format would consist of. Line numbers are counted as if the proof
+ * section was written in the textual format.
+ */
+public class BinaryProofSaver extends ProofSaver {
+    private BinaryProofWriter out;
+    private int line;
+
+    /**
+     * Instantiates a new proof saver.
+     *
+     * @param proof the non-<code>null</code> proof to save
+     * @param fileName the name of the file to write to
+     * @param internalVersion the internal version
+     */
+    public BinaryProofSaver(Proof proof, String fileName, String internalVersion) {
+        super(proof, fileName, internalVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This subclass writes the binary format.
+     */
+    @Override
+    protected void save(File file) throws IOException {
+        CopyReferenceResolver.copyCachedGoals(proof, null, null, null);
+        final StringWriter header = new StringWriter();
+        try (PrintWriter ps = new PrintWriter(header)) {
+            writeProblem(ps);
+        }
+        out = new BinaryProofWriter(new FileOutputStream(file), header.toString());
+        // the first line of the proof section is "\proof {"
+        line = 2;
+        try {
+            if (saveProofSteps) {
+                writeProof();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void writeProof() {
+        advanceLog();
+        for (int i = 0; i < proof.userLog.size(); i++) {
+            begin(ProofElementID.KeY_LOG, Integer.toString(i));
+            expr(ProofElementID.KeY_USER, proof.userLog.get(i));
+            expr(ProofElementID.KeY_VERSION, proof.keyVersionLog.get(i));
+            end(ProofElementID.KeY_LOG);
+            line++;
+        }
+        line++;
+        expr(ProofElementID.AUTOMODE_TIME, Long.toString(proof.getAutoModeTime()));
+        line += 2;
+        begin(ProofElementID.BRANCH, "dummy ID");
+        line++;
+        collectProof(proof.root());
+        end(ProofElementID.BRANCH);
+    }
+
+    /**
+     * Walks the proof tree like {@link OutputStreamProofSaver#node2Proof} does.
+     */
+    private void collectProof(Node node) {
+        writeNode(node);
+        while (node.childrenCount() == 1) {
+            node = node.child(0);
+            writeNode(node);
+        }
+
+        final Iterator<Node> childrenIt = node.childrenIterator();
+        while (childrenIt.hasNext()) {
+            final Node child = childrenIt.next();
+            begin(ProofElementID.BRANCH, child.getNodeInfo().getBranchLabel());
+            line++;
+            collectProof(child);
+            end(ProofElementID.BRANCH);
+            line++;
+        }
+    }
+
+    private void writeNode(Node node) {
+        final RuleApp appliedRuleApp = node.getAppliedRuleApp();
+        if (appliedRuleApp == null && (proof.getOpenGoal(node) != null)) {
+            expr(ProofElementID.OPEN_GOAL, openGoalSequent(node));
+            line++;
+        } else if (appliedRuleApp instanceof TacletApp app) {
+            begin(ProofElementID.RULE, app.rule().name().toString());
+            writePos(node.sequent(), app.posInOccurrence());
+            writeNewNames(node);
+            for (String inst : getInterestingInstantiations(app.instantiations())) {
+                expr(ProofElementID.INSTANTIATION, inst);
+            }
+            final ImmutableList<IfFormulaInstantiation> l = app.ifFormulaInstantiations();
+            if (l != null) {
+                writeIfFormulaInsts(node, l);
+            }
+            writeUserInteractionAndNotes(node);
+            end(ProofElementID.RULE);
+            line++;
+        } else if (appliedRuleApp instanceof IBuiltInRuleApp app) {
+            begin(ProofElementID.BUILT_IN_RULE, app.rule().name().toString());
+            writePos(node.sequent(), app.posInOccurrence());
+            writeNewNames(node);
+            for (PosInOccurrence ifInst : app.ifInsts()) {
+                begin(ProofElementID.ASSUMES_INST_BUILT_IN, "");
+                writePos(node.sequent(), ifInst);
+                end(ProofElementID.ASSUMES_INST_BUILT_IN);
+            }
+            if (app.rule() instanceof UseOperationContractRule
+                    || app.rule() instanceof UseDependencyContractRule) {
+                expr(ProofElementID.CONTRACT, contractName(app));
+                if (app.rule() instanceof UseOperationContractRule
+                        && app instanceof ContractRuleApp contractApp) {
+                    expr(ProofElementID.MODALITY,
+                        ((Modality) contractApp.programTerm().op()).toString());
+                }
+            }
+            if (app instanceof MergeRuleBuiltInRuleApp mergeApp) {
+                writeMerge(mergeApp);
+            }
+            if (app instanceof CloseAfterMergeRuleBuiltInRuleApp closeApp) {
+                expr(ProofElementID.MERGE_NODE, Integer
+                        .toString(closeApp.getCorrespondingMergeNode().parent().serialNr()));
+            } else if (app instanceof SMTRuleApp smtApp) {
+                expr(ProofElementID.SOLVERTYPE, smtApp.getSuccessfulSolverName());
+            }
+            writeUserInteractionAndNotes(node);
+            end(ProofElementID.BUILT_IN_RULE);
+            line++;
+        }
+    }
+
+    private void writePos(Sequent seq, PosInOccurrence pos) {
+        if (pos == null) {
+            return;
+        }
+        expr(ProofElementID.FORMULA, Integer
+                .toString(seq.formulaNumberInSequent(pos.isInAntec(), pos.sequentFormula())));
+        if (pos.posInTerm() != PosInTerm.getTopLevel()) {
+            expr(ProofElementID.TERM, posInTermList(pos.posInTerm()));
+        }
+    }
+
+    private void writeNewNames(Node node) {
+        final String names = newNames(node);
+        if (names != null) {
+            expr(ProofElementID.NEW_NAMES, names);
+        }
+    }
+
+    private void writeIfFormulaInsts(Node node, ImmutableList<IfFormulaInstantiation> l) {
+        for (final IfFormulaInstantiation aL : l) {
+            if (aL instanceof IfFormulaInstSeq seqInst) {
+                expr(ProofElementID.ASSUMES_FORMULA_IN_SEQUENT, Integer.toString(node.sequent()
+                        .formulaNumberInSequent(seqInst.inAntec(), aL.getConstrainedFormula())));
+            } else if (aL instanceof IfFormulaInstDirect) {
+                expr(ProofElementID.ASSUMES_FORMULA_DIRECT,
+                    printTerm(aL.getConstrainedFormula().formula(), proof.getServices()));
+            } else {
+                throw new IllegalArgumentException("Unknown If-Seq-Formula type");
+            }
+        }
+    }
+
+    private void writeMerge(MergeRuleBuiltInRuleApp mergeApp) {
+        final MergeProcedure concreteRule = mergeApp.getConcreteRule();
+        expr(ProofElementID.MERGE_PROCEDURE, concreteRule.toString());
+        expr(ProofElementID.NUMBER_MERGE_PARTNERS,
+            Integer.toString(mergeApp.getMergePartners().size()));
+        expr(ProofElementID.MERGE_ID, Integer.toString(mergeApp.getMergeNode().serialNr()));
+        if (mergeApp.getDistinguishingFormula() != null) {
+            expr(ProofElementID.MERGE_DIST_FORMULA, distinguishingFormula(mergeApp));
+        }
+        if (concreteRule instanceof MergeWithPredicateAbstraction predAbstrRule
+                && !predAbstrRule.getPredicates().isEmpty()) {
+            expr(ProofElementID.MERGE_ABSTRACTION_PREDICATES, mergePredicates(predAbstrRule));
+            expr(ProofElementID.MERGE_PREDICATE_ABSTRACTION_LATTICE_TYPE,
+                predAbstrRule.getLatticeType().getName());
+        }
+        if (concreteRule instanceof MergeWithLatticeAbstraction latticeRule
+                && !latticeRule.getUserChoices().isEmpty()) {
+            expr(ProofElementID.MERGE_USER_CHOICES, mergeUserChoices(latticeRule));
+        }
+    }
+
+    private void writeUserInteractionAndNotes(Node node) {
+        if (node.getNodeInfo().getInteractiveRuleApplication()) {
+            expr(ProofElementID.USER_INTERACTION, null);
+        }
+        if (node.getNodeInfo().getScriptRuleApplication()) {
+            expr(ProofElementID.PROOF_SCRIPT, null);
+        }
+        final String notes = node.getNodeInfo().getNotes();
+        if (notes != null) {
+            expr(ProofElementID.NOTES, notes);
+        }
+    }
+
+    private void expr(ProofElementID id, String arg) {
+        begin(id, arg);
+        end(id);
+    }
+
+    private void begin(ProofElementID id, String arg) {
+        out.beginExpr(id, arg);
+    }
+
+    private void end(ProofElementID id) {
+        out.endExpr(id, line);
+    }
+}
@@ -0,0 +1,165 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.nparser.KeyAst;
+import de.uka.ilkd.key.nparser.ParsingFacade;
+import de.uka.ilkd.key.nparser.ProofReplayer;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+
+import static de.uka.ilkd.key.proof.io.BinaryProofFormat.*;
+
+/**
+ * Writes a proof in the compact binary format described in {@link BinaryProofFormat}. The proof
+ * section is written by reporting its expressions to this class, which is an
+ * {@link IProofFileParser} for this reason: the {@link BinaryProofSaver} reports them while
+ * walking the proof tree, {@link #convertToBinary(Path, Path)} converts a textual proof file by
+ * running the {@link ProofReplayer} on it.
+ */
+public final class BinaryProofWriter implements IProofFileParser {
+    private final OutputStream out;
+    /** indices of the strings written so far */
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int lastLine;
+    private final List<Throwable> errors = new LinkedList<>();
+
+    /**
+     * Creates a writer and writes the header of the binary proof.
+     *
+     * @param out the stream to write to, closed by {@link #close()}
+     * @param problemHeader the textual part of the proof file before the proof section
+     * @throws IOException if writing fails
+     */
+    public BinaryProofWriter(OutputStream out, String problemHeader) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.write(VERSION);
+        final byte[] header = problemHeader.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(this.out, header.length);
+        this.out.write(header);
+    }
+
+    @Override
+    public void beginExpr(ProofElementID eid, String str) {
+        try {
+            if (str == null) {
+                out.write(tag(KIND_NONE, eid));
+            } else if (NUMBER.matcher(str).matches()) {
+                out.write(tag(KIND_NUMBER, eid));
+                writeSignedVarLong(out, Long.parseLong(str));
+            } else if (NUMBER_LIST.matcher(str).matches()) {
+                out.write(tag(KIND_NUMBER_LIST, eid));
+                final String[] numbers = str.split(",");
+                writeVarLong(out, numbers.length);
+                for (String number : numbers) {
+                    writeVarLong(out, Integer.parseInt(number));
+                }
+            } else {
+                out.write(tag(KIND_STRING, eid));
+                writeString(str);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeString(String str) throws IOException {
+        final Integer index = strings.get(str);
+        if (index != null) {
+            writeVarLong(out, index);
+        } else {
+            // a new string is referred to by the next free index and defined inline
+            writeVarLong(out, strings.size());
+            strings.put(str, strings.size());
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void endExpr(ProofElementID eid, int stringLiteralLine) {
+        try {
+            out.write(TAG_END);
+            writeSignedVarLong(out, stringLiteralLine - lastLine);
+            lastLine = stringLiteralLine;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Terminates the proof and closes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    public void close() throws IOException {
+        try (out) {
+            out.write(TAG_EOF);
+        }
+    }
+
+    @Override
+    public String getStatus() {
+        return "";
+    }
+
+    @Override
+    public List<Throwable> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Converts a textual proof (or problem) file into the binary format.
+     *
+     * @param textProof the textual proof file
+     * @param binaryProof the binary proof file to write
+     * @throws IOException if reading or writing fails
+     */
+    public static void convertToBinary(Path textProof, Path binaryProof) throws IOException {
+        convertToBinary(CharStreams.fromPath(textProof, StandardCharsets.UTF_8),
+            textProof.toUri(), Files.newOutputStream(binaryProof));
+    }
+
+    /**
+     * Converts a textual proof (or problem) into the binary format.
+     *
+     * @param textProof the textual proof
+     * @param source the source of the textual proof, used for producing exceptions with locations
+     * @param out the stream to write the binary proof to, closed afterwards
+     * @throws IOException if writing fails
+     */
+    public static void convertToBinary(CharStream textProof, URI source, OutputStream out)
+            throws IOException {
+        final KeyAst.File ctx = ParsingFacade.parseFile(textProof);
+        final Token proofToken = ctx.findProof();
+        final String header = proofToken == null ? textProof.toString()
+                : textProof.getText(Interval.of(0, proofToken.getStartIndex() - 1));
+        final BinaryProofWriter writer = new BinaryProofWriter(out, header);
+        try {
+            if (proofToken != null) {
+                ProofReplayer.run(proofToken, textProof, writer, source);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
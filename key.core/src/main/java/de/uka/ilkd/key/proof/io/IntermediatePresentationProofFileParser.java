@@ -19,6 +19,8 @@ import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 import org.key_project.util.collection.Pair;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * Parses a KeY proof file into an intermediate representation. The parsed intermediate result can
  * be processed by {@link IntermediateProofReplayer}. This approach is more flexible than direct
@@ -56,6 +58,12 @@ import org.key_project.util.collection.Pair;
  * <p>
  * <p>
  * The results of the parser may be obtained by calling {@link #getResult()}.
+ * <p>
+ * <p>
+ * If the parser is created with an {@link IntermediateProofStream}, the intermediate proof can be
+ * replayed while it is still being parsed: the nodes are added via the stream and published as
+ * soon as their rule application has been read, and marked as complete as soon as no further
+ * children will be added to them.
  *
  * @author Dominic Scheurer
  */
@@ -75,11 +83,25 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
     private NodeIntermediate currNode;
     private final LinkedList<Throwable> errors = new LinkedList<>();
 
+    /** Receives the parsed nodes if the proof is replayed while being parsed. */
+    private final @Nullable IntermediateProofStream stream;
+
     /**
      * @param proof Proof object for storing meta information about the parsed proof.
      */
     public IntermediatePresentationProofFileParser(Proof proof) {
+        this(proof, null);
+    }
+
+    /**
+     * @param proof Proof object for storing meta information about the parsed proof.
+     * @param stream stream to be notified about parsed nodes, {@code null} if the proof is
+     *        replayed only after parsing
+     */
+    public IntermediatePresentationProofFileParser(Proof proof,
+            @Nullable IntermediateProofStream stream) {
         this.proof = proof;
+        this.stream = stream;
     }
 
     @Override
@@ -87,24 +109,24 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
     public void beginExpr(ProofElementID eid, String str) {
         switch (eid) {
         case BRANCH -> {
-            final BranchNodeIntermediate newNode = new BranchNodeIntermediate(str);
+            final BranchNodeIntermediate newNode = newNode(new BranchNodeIntermediate(str));
 
             if (root == null) {
                 root = newNode;
                 currNode = newNode;
                 stack.push(newNode);
+                if (stream != null) {
+                    stream.setRoot(newNode);
+                }
             } else {
                 stack.push(currNode);
-                currNode.addChild(newNode);
+                addChild(currNode, newNode);
+                publish(newNode);
                 currNode = newNode;
             }
         }
         case RULE -> { // rule (taclet)
-            {
-                final AppNodeIntermediate newNode = new AppNodeIntermediate();
-                currNode.addChild(newNode);
-                currNode = newNode;
-            }
+            addAppNode();
             ruleInfo = new TacletInformation(str);
         }
         case FORMULA -> { // formula
@@ -158,11 +180,7 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         case KeY_SETTINGS -> // ProofSettings
             loadPreferences(str);
         case BUILT_IN_RULE -> { // BuiltIn rules
-            {
-                final AppNodeIntermediate newNode = new AppNodeIntermediate();
-                currNode.addChild(newNode);
-                currNode = newNode;
-            }
+            addAppNode();
             ruleInfo = new BuiltinRuleInformation(str);
         }
         case CONTRACT -> ((BuiltinRuleInformation) ruleInfo).currContract = str;
@@ -230,7 +248,10 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
     @Override
     public void endExpr(ProofElementID eid, int lineNr) {
         switch (eid) {
-        case BRANCH -> currNode = stack.pop();
+        case BRANCH -> {
+            complete(currNode);
+            currNode = stack.pop();
+        }
         case USER_INTERACTION -> {
             if (currNode != null) {
                 ((AppNodeIntermediate) currNode).setInteractiveRuleApplication(true);
@@ -244,10 +265,12 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         case RULE -> { // rule (taclet)
             ((AppNodeIntermediate) currNode).setIntermediateRuleApp(constructTacletApp());
             ((AppNodeIntermediate) currNode).getIntermediateRuleApp().setLineNr(lineNr);
+            publish(currNode);
         }
         case BUILT_IN_RULE -> { // BuiltIn rules
             ((AppNodeIntermediate) currNode).setIntermediateRuleApp(constructBuiltInApp());
             ((AppNodeIntermediate) currNode).getIntermediateRuleApp().setLineNr(lineNr);
+            publish(currNode);
         }
         case ASSUMES_INST_BUILT_IN -> { // ifInst (for built in rules)
             BuiltinRuleInformation builtinInfo = (BuiltinRuleInformation) ruleInfo;
@@ -260,6 +283,45 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         }
     }
 
+    /**
+     * Appends a new rule application node to the current node. Branch nodes and rule application
+     * nodes followed by another one have exactly one child, hence the current node is complete
+     * afterwards.
+     */
+    private void addAppNode() {
+        final AppNodeIntermediate newNode = newNode(new AppNodeIntermediate());
+        addChild(currNode, newNode);
+        complete(currNode);
+        currNode = newNode;
+    }
+
+    private void addChild(NodeIntermediate parent, NodeIntermediate child) {
+        if (stream != null) {
+            stream.addChild(parent, child);
+        } else {
+            parent.addChild(child);
+        }
+    }
+
+    private void publish(NodeIntermediate node) {
+        if (stream != null) {
+            stream.publish(node);
+        }
+    }
+
+    private <T extends NodeIntermediate> T newNode(T node) {
+        if (stream != null) {
+            node.setComplete(false);
+        }
+        return node;
+    }
+
+    private void complete(NodeIntermediate node) {
+        if (stream != null) {
+            stream.complete(node);
+        }
+    }
+
     /**
      * @return The results of the parsing procedure.
      */
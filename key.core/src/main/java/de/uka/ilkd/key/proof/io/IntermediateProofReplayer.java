@@ -5,6 +5,13 @@ package de.uka.ilkd.key.proof.io;
 
 import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -61,6 +68,7 @@ import org.key_project.util.collection.ImmutableSet;
 import org.key_project.util.collection.Pair;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +105,14 @@ public class IntermediateProofReplayer {
         " not available or not applicable in this context.";
     private static final Logger LOGGER = LoggerFactory.getLogger(IntermediateProofReplayer.class);
 
+    /**
+     * Default number of threads replaying independent branches concurrently. The default of one
+     * replays sequentially; otherwise, the serial numbers of the replayed nodes depend on the
+     * scheduling of the threads.
+     */
+    public static final int PARALLELISM =
+        Math.max(1, Integer.getInteger("key.proofLoading.replayThreads", 1));
+
 
     /** The problem loader, for reporting errors */
     private final AbstractProblemLoader loader;
@@ -106,7 +122,7 @@ public class IntermediateProofReplayer {
     /** Encountered errors */
     private final List<Throwable> errors = new LinkedList<>();
     /** Error status */
-    private String status = "";
+    private volatile String status = "";
 
     /** Stores open branches */
     private final LinkedList<Pair<Node, NodeIntermediate>> queue =
@@ -126,7 +142,28 @@ public class IntermediateProofReplayer {
     private final HashMap<Integer, HashSet<PartnerNode>> joinPartnerNodes = new HashMap<>();
 
     /** The current open goal */
-    private Goal currGoal = null;
+    private volatile Goal currGoal = null;
+
+    /**
+     * Guards the state shared by all branches of the proof while branches are replayed
+     * concurrently, see {@link #replayNode}
+     */
+    private final ReentrantReadWriteLock proofLock = new ReentrantReadWriteLock();
+    /** number of threads replaying independent branches concurrently */
+    private int parallelism = PARALLELISM;
+    /** set if a branch has been interrupted while waiting for the parser */
+    private volatile boolean interrupted;
+
+    private final AtomicInteger stepIndex = new AtomicInteger();
+    private int reportInterval = 1;
+    private ProgressMonitor progressMonitor;
+    /** the listener the status is reported to while the proof is replayed */
+    private ProblemInitializer.ProblemInitializerListener progressListener;
+    /** the number of nodes to replay, 0 as long as it is unknown */
+    private int progressMax;
+
+    /** Provides the intermediate nodes if the proof is still being parsed, null otherwise */
+    private final IntermediateProofStream stream;
 
     /**
      * Constructs a new {@link IntermediateProofReplayer}.
@@ -139,11 +176,28 @@ public class IntermediateProofReplayer {
             IntermediatePresentationProofFileParser.Result parserResult) {
         this.proof = proof;
         this.loader = loader;
+        this.stream = null;
 
         queue.addFirst(
             new Pair<>(proof.root(), parserResult.parsedResult()));
     }
 
+    /**
+     * Constructs a new {@link IntermediateProofReplayer} replaying a proof while it is parsed by
+     * an {@link IntermediatePresentationProofFileParser} in another thread. The intermediate nodes
+     * are released as soon as they have been replayed.
+     *
+     * @param loader The problem loader, for reporting errors.
+     * @param proof The proof object into which to load the replayed proof.
+     * @param stream the stream the parser passes the intermediate nodes to
+     */
+    public IntermediateProofReplayer(AbstractProblemLoader loader, Proof proof,
+            IntermediateProofStream stream) {
+        this.proof = proof;
+        this.loader = loader;
+        this.stream = stream;
+    }
+
     /**
      * Constructs a new {@link IntermediateProofReplayer} without initializing the queue of
      * intermediate parsing results. Note that
@@ -156,6 +210,19 @@ public class IntermediateProofReplayer {
     protected IntermediateProofReplayer(AbstractProblemLoader loader, Proof proof) {
         this.proof = proof;
         this.loader = loader;
+        this.stream = null;
+    }
+
+    /**
+     * Sets the number of threads replaying independent branches concurrently.
+     *
+     * @param parallelism the number of threads, 1 for a sequential replay
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
     }
 
     /**
@@ -187,206 +254,494 @@ public class IntermediateProofReplayer {
      * @param listener problem initializer listener for the current proof
      * @param progressMonitor progress monitor used to report replay progress
      * @param deleteIntermediateTree indicates if the intermediate proof tree should be
-     *        deleted (set to false if it shal be kept for further use)
+     *        deleted (set to false if it shal be kept for further use); a tree that is replayed
+     *        while being parsed is always released by the stream
      * @return result of the replay procedure (see {@link Result})
      */
     public Result replay(ProblemInitializer.ProblemInitializerListener listener,
             ProgressMonitor progressMonitor, boolean deleteIntermediateTree) {
+        boolean completed = false;
+        try {
+            final Result result;
+            if (stream == null) {
+                result = replayQueue(listener, progressMonitor, deleteIntermediateTree);
+            } else {
+                final BranchNodeIntermediate root = stream.awaitRoot();
+                if (root != null) {
+                    queue.addFirst(new Pair<>(proof.root(), root));
+                }
+                // the stream takes the replayed nodes out of the intermediate tree itself
+                result = replayQueue(listener, progressMonitor, false);
+            }
+            completed = true;
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reportError(ERROR_LOADING_PROOF_LINE, e);
+            return new Result(status, errors, currGoal);
+        } finally {
+            if (stream != null) {
+                if (completed) {
+                    stream.close();
+                } else {
+                    // stop the parser as well
+                    stream.cancel();
+                }
+            }
+        }
+    }
+
+    private Result replayQueue(ProblemInitializer.ProblemInitializerListener listener,
+            ProgressMonitor progressMonitor, boolean deleteIntermediateTree)
+            throws InterruptedException {
         // initialize progress monitoring
-        int stepIndex = 0;
-        int reportInterval = 1;
-        int max = 0;
         var time = System.nanoTime();
         if (listener != null && progressMonitor != null) {
-            max = !queue.isEmpty() && queue.peekFirst().second != null
-                    ? queue.peekFirst().second.countAllChildren()
-                    : 1;
-            listener.reportStatus(this, "Replaying proof", max);
-            reportInterval = Math.max(1, Integer.highestOneBit(max / 256));
+            this.progressMonitor = progressMonitor;
+            progressListener = listener;
+            if (stream == null) {
+                startProgress(!queue.isEmpty() && queue.peekFirst().second != null
+                        ? queue.peekFirst().second.countAllChildren()
+                        : 1);
+            } else {
+                // the size of the proof is known once it has been parsed, see reportProgress
+                listener.reportStatus(this, "Replaying proof");
+                reportInterval = 256;
+            }
+        }
+
+        // the parser provides the nodes in the order of the sequential replay only, parallel
+        // branches would wait for nodes the parser has not reached yet
+        if (parallelism > 1 && stream == null) {
+            replayInParallel(deleteIntermediateTree);
         }
 
         while (!queue.isEmpty()) {
-            // periodically report replay progress
-            if (listener != null && progressMonitor != null && stepIndex % reportInterval == 0) {
-                progressMonitor.setProgress(stepIndex);
+            reportProgress();
+            final Pair<Node, NodeIntermediate> currentP = queue.pollFirst();
+            replayNode(currentP.first, currentP.second, queue, null, deleteIntermediateTree);
+        }
+        if (listener != null) {
+            listener.reportStatus(this, "Proof loaded.");
+        }
+
+        if (progressMax > 0) {
+            progressMonitor.setProgress(progressMax);
+        }
+        LOGGER.debug("Proof replay took " + PerfScope.formatTime(System.nanoTime() - time));
+        return new Result(status, errors, currGoal);
+    }
+
+    /**
+     * Shows the progress bar for the given number of nodes to replay.
+     *
+     * @param max the number of nodes to replay
+     */
+    private void startProgress(int max) {
+        progressMax = Math.max(1, max);
+        progressListener.reportStatus(this, "Replaying proof", progressMax);
+        reportInterval = Math.max(1, Integer.highestOneBit(progressMax / 256));
+    }
+
+    /**
+     * Periodically reports replay progress. If the proof is replayed while being parsed, the
+     * progress is reported as soon as the parser has finished and the number of nodes is known.
+     * Only the replaying thread reports to the listener, the parser does not report at all.
+     */
+    private void reportProgress() {
+        final int step = stepIndex.getAndIncrement();
+        if (progressMonitor == null || step % reportInterval != 0) {
+            return;
+        }
+        if (progressMax == 0) {
+            final int parsed = stream.getParsedNodesIfFinished();
+            if (parsed < 0) {
+                return;
             }
-            stepIndex++;
+            startProgress(parsed);
+        }
+        progressMonitor.setProgress(step);
+    }
 
-            final Pair<Node, NodeIntermediate> currentP = queue.pollFirst();
-            final Node currNode = currentP.first;
-            final NodeIntermediate currNodeInterm = currentP.second;
-            currGoal = proof.getOpenGoal(currNode);
+    /**
+     * Replays the branches in the queue on {@link #parallelism} threads. Sibling branches are
+     * independent of each other, hence each split forks the replay of all but the first new
+     * branch. Merge nodes whose partners have not been replayed yet are collected and replayed
+     * sequentially afterwards, as their partners may be on other branches.
+     *
+     * @param deleteIntermediateTree whether to delete the intermediate tree while replaying
+     * @throws InterruptedException if interrupted while waiting for the branches
+     */
+    private void replayInParallel(boolean deleteIntermediateTree) throws InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        final Queue<Pair<Node, NodeIntermediate>> deferred = new ConcurrentLinkedQueue<>();
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                tasks.add(pool.submit(
+                    new BranchReplay(queue.pollFirst(), deferred, deleteIntermediateTree)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    reportError(ERROR_LOADING_PROOF_LINE, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+        if (interrupted) {
+            throw new InterruptedException("Parallel proof replay interrupted");
+        }
+        queue.addAll(deferred);
+    }
 
+    /**
+     * Replays one branch of the proof, forking the replay of the branches it splits into.
+     */
+    private final class BranchReplay extends RecursiveAction {
+        private final Pair<Node, NodeIntermediate> start;
+        private final Queue<Pair<Node, NodeIntermediate>> deferred;
+        private final boolean deleteIntermediateTree;
+
+        private BranchReplay(Pair<Node, NodeIntermediate> start,
+                Queue<Pair<Node, NodeIntermediate>> deferred, boolean deleteIntermediateTree) {
+            this.start = start;
+            this.deferred = deferred;
+            this.deleteIntermediateTree = deleteIntermediateTree;
+        }
+
+        @Override
+        protected void compute() {
+            final LinkedList<Pair<Node, NodeIntermediate>> branch = new LinkedList<>();
+            final List<BranchReplay> forked = new ArrayList<>();
+            branch.add(start);
             try {
-                if (currNodeInterm instanceof BranchNodeIntermediate) {
+                while (!branch.isEmpty() && !interrupted) {
+                    reportProgress();
+                    final Pair<Node, NodeIntermediate> currentP = branch.pollFirst();
+                    replayNode(currentP.first, currentP.second, branch, deferred,
+                        deleteIntermediateTree);
+                    // the remaining branches are independent of the first one
+                    while (branch.size() > 1) {
+                        final BranchReplay sibling =
+                            new BranchReplay(branch.pollLast(), deferred, deleteIntermediateTree);
+                        sibling.fork();
+                        forked.add(sibling);
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+    }
+
+    /**
+     * Replays a single node and adds its children to the given queue.
+     * <p>
+     * This may happen concurrently for nodes of different branches. Everything touching the state
+     * shared by all branches (the goal list, the global namespaces, the name recorder of the
+     * services) is done holding the write lock of {@link #proofLock}; taclet matching, parsing of
+     * instantiations and SMT runs only need the read lock and hence run concurrently.
+     * </p>
+     *
+     * @param currNode the proof node to replay the intermediate node on
+     * @param currNodeInterm the intermediate node to replay
+     * @param queue the queue of the branch to add the children to
+     * @param deferred receives merge nodes waiting for partners on other branches, null if all
+     *        branches are in the queue
+     * @param deleteIntermediateTree whether to delete the children of the intermediate node
+     * @throws InterruptedException if interrupted while waiting for the parser
+     */
+    private void replayNode(Node currNode, NodeIntermediate currNodeInterm,
+            LinkedList<Pair<Node, NodeIntermediate>> queue,
+            @Nullable Queue<Pair<Node, NodeIntermediate>> deferred,
+            boolean deleteIntermediateTree) throws InterruptedException {
+        final Goal currGoal;
+        proofLock.readLock().lock();
+        try {
+            currGoal = proof.getOpenGoal(currNode);
+        } finally {
+            proofLock.readLock().unlock();
+        }
+        this.currGoal = currGoal;
+        if (stream != null) {
+            currNodeInterm = stream.take(currNodeInterm);
+            if (currNodeInterm == null) {
+                // the parsed proof ends before this node
+                return;
+            }
+        }
+
+        boolean postponed = false;
+        try {
+            if (currNodeInterm instanceof BranchNodeIntermediate) {
+                final NodeIntermediate child;
+                if (stream != null) {
+                    child = stream.awaitChild(currNodeInterm, 0);
+                } else {
                     assert currNodeInterm.getChildren().size() <= 1
                             : "Branch node should have exactly one child.";
-                    if (currNodeInterm.getChildren().size() == 1) {
-                        currNode.getNodeInfo().setBranchLabel(
-                            ((BranchNodeIntermediate) currNodeInterm).getBranchTitle());
-                        queue.addFirst(new Pair<>(currNode,
-                            currNodeInterm.getChildren().get(0)));
-                    }
-                } else if (currNodeInterm instanceof AppNodeIntermediate currInterm) {
+                    child = currNodeInterm.getChildren().isEmpty() ? null
+                            : currNodeInterm.getChildren().get(0);
+                }
+                if (child != null) {
+                    currNode.getNodeInfo().setBranchLabel(
+                        ((BranchNodeIntermediate) currNodeInterm).getBranchTitle());
+                    queue.addFirst(new Pair<>(currNode, child));
+                }
+                if (deleteIntermediateTree) {
+                    currNodeInterm.setChildren(null);
+                }
+            } else if (currNodeInterm instanceof AppNodeIntermediate currInterm) {
 
-                    currNode.getNodeInfo().setNotes(currInterm.getNotes());
+                currNode.getNodeInfo().setNotes(currInterm.getNotes());
 
-                    // Register name proposals
-                    proof.getServices().getNameRecorder()
-                            .setProposals(currInterm.getIntermediateRuleApp().getNewNames());
+                if (currInterm.getIntermediateRuleApp() instanceof TacletAppIntermediate) {
+                    TacletAppIntermediate appInterm =
+                        (TacletAppIntermediate) currInterm.getIntermediateRuleApp();
 
-                    if (currInterm.getIntermediateRuleApp() instanceof TacletAppIntermediate) {
-                        TacletAppIntermediate appInterm =
-                            (TacletAppIntermediate) currInterm.getIntermediateRuleApp();
+                    try {
+                        TacletApp app;
+                        proofLock.readLock().lock();
+                        try {
+                            app = constructTacletApp(appInterm, currGoal);
+                        } finally {
+                            proofLock.readLock().unlock();
+                        }
 
+                        proofLock.writeLock().lock();
                         try {
-                            currGoal.apply(constructTacletApp(appInterm, currGoal));
+                            registerNameProposals(currInterm);
+                            if (!app.complete()) {
+                                app = app.tryToInstantiate(proof.getServices());
+                            }
+                            currGoal.apply(app);
 
                             final Iterator<Node> children = currNode.childrenIterator();
-                            final LinkedList<NodeIntermediate> intermChildren =
-                                currInterm.getChildren();
-
-                            addChildren(children, intermChildren);
+                            addChildren(currGoal, queue, children, currInterm);
+                        } finally {
+                            proofLock.writeLock().unlock();
+                        }
 
-                            // set information about SUCCESSFUL rule application
-                            currNode.getNodeInfo().setInteractiveRuleApplication(
-                                currInterm.isInteractiveRuleApplication());
-                            currNode.getNodeInfo()
-                                    .setScriptRuleApplication(currInterm.isScriptRuleApplication());
+                        // set information about SUCCESSFUL rule application
+                        currNode.getNodeInfo().setInteractiveRuleApplication(
+                            currInterm.isInteractiveRuleApplication());
+                        currNode.getNodeInfo()
+                                .setScriptRuleApplication(currInterm.isScriptRuleApplication());
 
-                            if (deleteIntermediateTree) {
-                                // Children are no longer needed, set them to null
-                                // to free memory.
-                                currInterm.setChildren(null);
-                            }
+                        if (deleteIntermediateTree) {
+                            // Children are no longer needed, set them to null
+                            // to free memory.
+                            currInterm.setChildren(null);
+                        }
 
 
-                        } catch (Exception | AssertionError e) {
-                            reportError(ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr()
-                                + ", goal " + currGoal.node().serialNr() + ", rule "
-                                + appInterm.getRuleName() + NOT_APPLICABLE, e);
-                        }
+                    } catch (Exception | AssertionError e) {
+                        reportError(ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr()
+                            + ", goal " + currGoal.node().serialNr() + ", rule "
+                            + appInterm.getRuleName() + NOT_APPLICABLE, e);
+                    }
 
-                    } else if (currInterm
-                            .getIntermediateRuleApp() instanceof BuiltInAppIntermediate) {
-                        BuiltInAppIntermediate appInterm =
-                            (BuiltInAppIntermediate) currInterm.getIntermediateRuleApp();
-
-                        if (appInterm instanceof MergeAppIntermediate joinAppInterm) {
-                            HashSet<PartnerNode> partnerNodesInfo =
-                                joinPartnerNodes.get(((MergeAppIntermediate) appInterm).getId());
-
-                            if (partnerNodesInfo == null
-                                    || partnerNodesInfo.size() < joinAppInterm.getNrPartners()) {
-                                // In case of an exception happening during the
-                                // replay process, it can happen that the queue
-                                // is
-                                // empty when reaching this point. Then, we may
-                                // not
-                                // add the join node to the end of the queue
-                                // since
-                                // this will result in non-termination.
-
-                                if (queue.isEmpty()) {
-                                    continue;
-                                }
+                } else if (currInterm
+                        .getIntermediateRuleApp() instanceof BuiltInAppIntermediate) {
+                    BuiltInAppIntermediate appInterm =
+                        (BuiltInAppIntermediate) currInterm.getIntermediateRuleApp();
 
-                                // Wait until all partners are found: Add node
-                                // at the end of the queue. NOTE: DO NOT CHANGE
-                                // THIS to adding the node to the front! This
-                                // will
-                                // result in non-termination!
-                                queue.addLast(
-                                    new Pair<>(currNode, currNodeInterm));
-                            } else {
+                    if (appInterm instanceof MergeAppIntermediate
+                            || appInterm instanceof MergePartnerAppIntermediate) {
+                        proofLock.writeLock().lock();
+                        try {
+                            registerNameProposals(currInterm);
+                            postponed = replayMergeNode(currNode, currInterm, appInterm,
+                                currGoal, queue, deferred);
+                        } finally {
+                            proofLock.writeLock().unlock();
+                        }
+                    } else {
+                        try {
+                            IBuiltInRuleApp app = null;
+                            if (SMTRuleApp.RULE.name().toString()
+                                    .equals(appInterm.getRuleName())) {
+                                // running the solvers does not change the proof
+                                proofLock.readLock().lock();
                                 try {
-                                    final Services services = proof.getServices();
-
-                                    MergeRuleBuiltInRuleApp joinApp = instantiateJoinApp(
-                                        joinAppInterm, currNode, partnerNodesInfo, services);
-
-                                    assert joinApp.complete()
-                                            : "Join app should be automatically completed in replay";
-
-                                    currGoal.apply(joinApp);
-
-                                    final Iterator<Node> childrenIterator =
-                                        currNode.childrenIterator();
-                                    for (NodeIntermediate child : currInterm.getChildren()) {
-                                        queue.addFirst(new Pair<>(
-                                            childrenIterator.next(), child));
-                                    }
-
-                                    // Now add children of partner nodes
-                                    for (PartnerNode partnerNodeInfo : partnerNodesInfo) {
-                                        Iterator<Node> children =
-                                            partnerNodeInfo.node.childrenIterator();
-                                        LinkedList<NodeIntermediate> intermChildren =
-                                            partnerNodeInfo.intermediate.getChildren();
-
-                                        addChildren(children, intermChildren);
-                                    }
-                                } catch (SkipSMTRuleException | BuiltInConstructionException e) {
-                                    reportError(
-                                        ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr()
-                                            + ", goal " + currGoal.node().serialNr() + ", rule "
-                                            + appInterm.getRuleName() + NOT_APPLICABLE,
-                                        e);
+                                    app = constructBuiltinApp(appInterm, currGoal);
+                                } finally {
+                                    proofLock.readLock().unlock();
                                 }
                             }
-                        } else if (appInterm instanceof MergePartnerAppIntermediate joinPartnerApp) {
-                            // Register this partner node
-                            HashSet<PartnerNode> partnerNodeInfo =
-                                joinPartnerNodes.computeIfAbsent(joinPartnerApp.getMergeNodeId(),
-                                    k -> new HashSet<>());
-
-                            partnerNodeInfo.add(new PartnerNode(
-                                currNode,
-                                PosInOccurrence.findInSequent(currGoal.sequent(),
-                                    appInterm.getPosInfo().first, appInterm.getPosInfo().second),
-                                currNodeInterm));
-                        } else {
+
+                            proofLock.writeLock().lock();
                             try {
-                                IBuiltInRuleApp app = constructBuiltinApp(appInterm, currGoal);
+                                registerNameProposals(currInterm);
+                                if (app == null) {
+                                    app = constructBuiltinApp(appInterm, currGoal);
+                                }
                                 if (!app.complete()) {
                                     app = app.tryToInstantiate(currGoal);
                                 }
                                 currGoal.apply(app);
 
                                 final Iterator<Node> children = currNode.childrenIterator();
-                                LinkedList<NodeIntermediate> intermChildren =
-                                    currInterm.getChildren();
-
-                                addChildren(children, intermChildren);
-                            } catch (SkipSMTRuleException e) {
-                                // silently continue; status will be reported
-                                // via
-                                // polling
-                            } catch (BuiltInConstructionException | AssertionError
-                                    | RuntimeException e) {
-                                reportError(ERROR_LOADING_PROOF_LINE + "Line "
-                                    + appInterm.getLineNr() + ", goal " + currGoal.node().serialNr()
-                                    + ", rule " + appInterm.getRuleName() + NOT_APPLICABLE, e);
+                                addChildren(currGoal, queue, children, currInterm);
+                            } finally {
+                                proofLock.writeLock().unlock();
+                            }
+
+                            if (deleteIntermediateTree) {
+                                currInterm.setChildren(null);
                             }
+                        } catch (SkipSMTRuleException e) {
+                            // silently continue; status will be reported
+                            // via
+                            // polling
+                        } catch (BuiltInConstructionException | AssertionError
+                                | RuntimeException e) {
+                            reportError(ERROR_LOADING_PROOF_LINE + "Line "
+                                + appInterm.getLineNr() + ", goal " + currGoal.node().serialNr()
+                                + ", rule " + appInterm.getRuleName() + NOT_APPLICABLE, e);
                         }
                     }
                 }
-            } catch (Throwable throwable) {
-                // Default exception catcher -- proof should not stop loading
-                // if anything goes wrong, but instead continue with the next
-                // node in the queue.
-                reportError(ERROR_LOADING_PROOF_LINE, throwable);
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            // Default exception catcher -- proof should not stop loading
+            // if anything goes wrong, but instead continue with the next
+            // node in the queue.
+            reportError(ERROR_LOADING_PROOF_LINE, throwable);
+        } finally {
+            if (stream != null) {
+                if (postponed) {
+                    stream.retain(currNodeInterm);
+                } else {
+                    // the children not queued above are never replayed
+                    stream.replayed(currNodeInterm);
+                }
             }
         }
-        if (listener != null) {
-            listener.reportStatus(this, "Proof loaded.");
-        }
+    }
 
-        if (listener != null && progressMonitor != null) {
-            progressMonitor.setProgress(max);
+    /**
+     * Registers the names of the new symbols introduced by the given node as proposals for the
+     * next rule application.
+     *
+     * @param currInterm the intermediate node about to be replayed
+     */
+    private void registerNameProposals(AppNodeIntermediate currInterm) {
+        proof.getServices().getNameRecorder()
+                .setProposals(currInterm.getIntermediateRuleApp().getNewNames());
+    }
+
+    /**
+     * Replays a merge node or a merge partner node. A merge node is put back into the queue (or
+     * into the deferred ones) until all its partners have been replayed. The children of the
+     * partner nodes are queued together with the ones of the merge node.
+     *
+     * @return whether the replay of the children of the node has been postponed
+     */
+    private boolean replayMergeNode(Node currNode, AppNodeIntermediate currInterm,
+            BuiltInAppIntermediate appInterm, Goal currGoal,
+            LinkedList<Pair<Node, NodeIntermediate>> queue,
+            @Nullable Queue<Pair<Node, NodeIntermediate>> deferred) {
+        if (appInterm instanceof MergeAppIntermediate joinAppInterm) {
+            HashSet<PartnerNode> partnerNodesInfo =
+                joinPartnerNodes.get(((MergeAppIntermediate) appInterm).getId());
+
+            if (partnerNodesInfo == null
+                    || partnerNodesInfo.size() < joinAppInterm.getNrPartners()) {
+                // In case of an exception happening during the
+                // replay process, it can happen that the queue
+                // is
+                // empty when reaching this point. Then, we may
+                // not
+                // add the join node to the end of the queue
+                // since
+                // this will result in non-termination.
+
+                if (deferred != null) {
+                    // the partners may be on other branches replayed concurrently
+                    deferred.add(new Pair<>(currNode, currInterm));
+                    return true;
+                }
+                if (queue.isEmpty()) {
+                    return false;
+                }
+
+                // Wait until all partners are found: Add node
+                // at the end of the queue. NOTE: DO NOT CHANGE
+                // THIS to adding the node to the front! This
+                // will
+                // result in non-termination!
+                queue.addLast(
+                    new Pair<>(currNode, currInterm));
+                return true;
+            } else {
+                try {
+                    final Services services = proof.getServices();
+
+                    MergeRuleBuiltInRuleApp joinApp = instantiateJoinApp(
+                        joinAppInterm, currNode, partnerNodesInfo, services);
+
+                    assert joinApp.complete()
+                            : "Join app should be automatically completed in replay";
+
+                    currGoal.apply(joinApp);
+
+                    final Iterator<Node> childrenIterator =
+                        currNode.childrenIterator();
+                    if (stream == null) {
+                        for (NodeIntermediate child : currInterm.getChildren()) {
+                            queue.addFirst(new Pair<>(
+                                childrenIterator.next(), child));
+                        }
+                    } else {
+                        for (int i = 0; childrenIterator.hasNext(); i++) {
+                            queue.addFirst(new Pair<>(
+                                childrenIterator.next(), stream.childRef(currInterm, i)));
+                        }
+                    }
+
+                    // Now add children of partner nodes
+                    for (PartnerNode partnerNodeInfo : partnerNodesInfo) {
+                        Iterator<Node> children =
+                            partnerNodeInfo.node.childrenIterator();
+                        addChildren(currGoal, queue, children, partnerNodeInfo.intermediate);
+                        if (stream != null) {
+                            stream.replayed(partnerNodeInfo.intermediate);
+                        }
+                    }
+                } catch (SkipSMTRuleException | BuiltInConstructionException e) {
+                    reportError(
+                        ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr()
+                            + ", goal " + currGoal.node().serialNr() + ", rule "
+                            + appInterm.getRuleName() + NOT_APPLICABLE,
+                        e);
+                }
+            }
+        } else if (appInterm instanceof MergePartnerAppIntermediate joinPartnerApp) {
+            // Register this partner node
+            HashSet<PartnerNode> partnerNodeInfo =
+                joinPartnerNodes.computeIfAbsent(joinPartnerApp.getMergeNodeId(),
+                    k -> new HashSet<>());
+
+            partnerNodeInfo.add(new PartnerNode(
+                currNode,
+                PosInOccurrence.findInSequent(currGoal.sequent(),
+                    appInterm.getPosInfo().first, appInterm.getPosInfo().second),
+                currInterm));
+            return true;
         }
-        LOGGER.debug("Proof replay took " + PerfScope.formatTime(System.nanoTime() - time));
-        return new Result(status, errors, currGoal);
+        return false;
     }
 
     /**
@@ -396,12 +751,18 @@ public class IntermediateProofReplayer {
      * interval to save memory. Note that in this case, some test cases might be adapted which
      * depend on fixed node serial numbers.
      *
+     * @param currGoal the goal the rule has been applied to
+     * @param queue the queue to add the children to
      * @param children Iterator of proof node children.
-     * @param intermChildren List of corresponding intermediate children.
+     * @param parent the intermediate node whose children correspond to the proof node children;
+     *        if the proof is still being parsed, placeholders are queued for them
      */
-    private void addChildren(Iterator<Node> children, LinkedList<NodeIntermediate> intermChildren) {
+    private void addChildren(Goal currGoal, LinkedList<Pair<Node, NodeIntermediate>> queue,
+            Iterator<Node> children, NodeIntermediate parent) {
+        final LinkedList<NodeIntermediate> intermChildren = parent.getChildren();
         int i = 0;
-        while (!currGoal.node().isClosed() && children.hasNext() && intermChildren.size() > 0) {
+        while (!currGoal.node().isClosed() && children.hasNext()
+                && (stream != null || intermChildren.size() > 0)) {
 
             // NOTE: In the case of an unfinished proof, there
             // is another node after the last application which
@@ -411,7 +772,9 @@ public class IntermediateProofReplayer {
 
             Node child = children.next();
             if (!proof.getOpenGoal(child).isLinked()) {
-                queue.add(i, new Pair<>(child, intermChildren.get(i++)));
+                final NodeIntermediate intermChild =
+                    stream != null ? stream.childRef(parent, i) : intermChildren.get(i);
+                queue.add(i++, new Pair<>(child, intermChild));
             }
         }
     }
@@ -526,13 +889,8 @@ public class IntermediateProofReplayer {
         // TODO: In certain cases, the below method call returns null and
         // induces follow-up NullPointerExceptions. This was encountered
         // in a proof of the TimSort method binarySort with several joins.
-        ourApp = ourApp.setIfFormulaInstantiations(ifFormulaList, services);
-
-        if (!ourApp.complete()) {
-            ourApp = ourApp.tryToInstantiate(proof.getServices());
-        }
-
-        return ourApp;
+        // the app is completed, if necessary, after registering the name proposals
+        return ourApp.setIfFormulaInstantiations(ifFormulaList, services);
     }
 
     /**
@@ -841,7 +1199,9 @@ public class IntermediateProofReplayer {
      */
     private void reportError(String string, Throwable e) {
         status = "Errors while reading the proof. Not all branches could be load successfully.";
-        errors.add(new ProblemLoaderException(loader, string, e));
+        synchronized (errors) {
+            errors.add(new ProblemLoaderException(loader, string, e));
+        }
     }
 
     /**
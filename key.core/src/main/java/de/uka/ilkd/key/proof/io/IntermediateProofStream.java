@@ -0,0 +1,357 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import de.uka.ilkd.key.proof.io.intermediate.BranchNodeIntermediate;
+import de.uka.ilkd.key.proof.io.intermediate.NodeIntermediate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Hands the intermediate proof tree from an {@link IntermediatePresentationProofFileParser} running
+ * in one thread over to an {@link IntermediateProofReplayer} running in another one, so that
+ * parsing and replaying overlap.
+ * <p>
+ * The parser adds each node to its parent via {@link #addChild(NodeIntermediate,
+ * NodeIntermediate)} and publishes it as soon as the node itself has been read, i.e., its rule
+ * application, but before any of its children. A node is complete (see
+ * {@link NodeIntermediate#isComplete()}) once the parser will not add further children to it. The
+ * replayer waits for the node it is about to replay only, see {@link #take(NodeIntermediate)}.
+ * As the children of a split have not been parsed when the split is replayed, the replayer queues
+ * placeholders for them ({@link #childRef(NodeIntermediate, int)}) which are resolved once the
+ * replayer gets to them.
+ * </p>
+ * <p>
+ * The buffering is bounded: the parser pauses while {@link #getCapacity()} nodes have been added
+ * but not taken by the replayer. As the replayer takes the nodes in the order they are parsed, it
+ * never waits for a node the parser could only add after pausing. Nodes the replayer will not
+ * take, like the children of a node that could not be replayed, are dropped and do not count. The
+ * only exception are merge nodes whose partners have not been replayed yet
+ * ({@link #retain(NodeIntermediate)}): the nodes below them have to be kept until the partners,
+ * which follow later in the proof, have been replayed, hence the parser does not pause then.
+ * </p>
+ */
+public final class IntermediateProofStream {
+    /** default of {@link #getCapacity()} */
+    public static final int DEFAULT_CAPACITY =
+        Math.max(1, Integer.getInteger("key.proofLoading.bufferedNodes", 100000));
+
+    /** whether proofs are loaded by a parser and a replayer running concurrently */
+    public static final boolean ENABLED =
+        Boolean.parseBoolean(System.getProperty("key.proofLoading.streaming", "true"));
+
+    private final int capacity;
+
+    private @Nullable BranchNodeIntermediate root;
+    /** the node whose rule application is being parsed, not to be replayed yet */
+    private @Nullable NodeIntermediate unpublished;
+    /** number of nodes added by the parser, but neither taken by the replayer nor dropped */
+    private long pending;
+    /** number of nodes added by the parser for the replayer in total */
+    private int parsed;
+    /**
+     * Replayed nodes the parser may still add children to, mapped to the number of children the
+     * replayer will take. Further children are dropped.
+     */
+    private final Map<NodeIntermediate, Integer> claims = new IdentityHashMap<>();
+    /** nodes being replayed, mapped to the number of placeholders created for their children */
+    private final Map<NodeIntermediate, Integer> refs = new IdentityHashMap<>();
+    /** merge nodes waiting for their partners, see {@link #retain(NodeIntermediate)} */
+    private final Set<NodeIntermediate> retained =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    /** the parser has finished, successfully or not */
+    private boolean finished;
+    /** the replayer has finished, the parser must not wait anymore */
+    private boolean closed;
+    /** the replayer has been aborted, the parser is to stop */
+    private boolean cancelled;
+
+    /**
+     * Creates a stream buffering at most {@link #DEFAULT_CAPACITY} nodes.
+     */
+    public IntermediateProofStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximal number of nodes added by the parser but not yet taken by the
+     *        replayer
+     */
+    public IntermediateProofStream(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Called by the parser when it has created the root ("dummy ID" branch) of the proof.
+     *
+     * @param root the root of the intermediate tree
+     * @throws CancellationException if the replay has been aborted
+     */
+    synchronized void setRoot(BranchNodeIntermediate root) {
+        checkCancelled();
+        this.root = root;
+        notifyAll();
+    }
+
+    /**
+     * Called by the parser to add a new node to its parent. Blocks while the buffer is full. The
+     * node is not taken by the replayer before it has been published.
+     *
+     * @param parent the parent node
+     * @param child the new node
+     * @throws CancellationException if the replay has been aborted
+     */
+    synchronized void addChild(NodeIntermediate parent, NodeIntermediate child) {
+        checkCancelled();
+        try {
+            while (pending >= capacity && retained.isEmpty() && !closed) {
+                wait();
+                checkCancelled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the replay");
+        }
+        unpublished = child;
+        final LinkedList<NodeIntermediate> children = parent.getChildren();
+        final Integer claimed = claims.get(parent);
+        if (closed || children == null
+                || (claimed != null && children.size() >= claimed)) {
+            // the replayer will not take this node: do not keep it
+            if (children != null) {
+                children.add(null);
+            }
+            child.setChildren(null);
+            return;
+        }
+        parent.addChild(child);
+        pending++;
+        parsed++;
+        notifyAll();
+    }
+
+    /**
+     * Called by the parser when it has read the given node, but none of its children yet.
+     *
+     * @param node the node
+     * @throws CancellationException if the replay has been aborted
+     */
+    synchronized void publish(NodeIntermediate node) {
+        checkCancelled();
+        if (unpublished == node) {
+            unpublished = null;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Called by the parser when it will not add further children to the given node.
+     *
+     * @param node the completed node
+     * @throws CancellationException if the replay has been aborted
+     */
+    synchronized void complete(NodeIntermediate node) {
+        checkCancelled();
+        node.setComplete(true);
+        claims.remove(node);
+        notifyAll();
+    }
+
+    /**
+     * Called by the parser when it has stopped, successfully or not. All nodes are regarded as
+     * published and complete afterwards.
+     */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * Returns the number of nodes the parser has added for the replayer, which is the number of
+     * nodes to replay once the parser has finished.
+     *
+     * @return the number of nodes, or -1 if the parser has not finished yet
+     */
+    synchronized int getParsedNodesIfFinished() {
+        return finished ? parsed : -1;
+    }
+
+    /**
+     * Waits for the root of the intermediate tree.
+     *
+     * @return the root, {@code null} if the parser has finished without finding one
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized @Nullable BranchNodeIntermediate awaitRoot() throws InterruptedException {
+        while (root == null && !finished) {
+            wait();
+        }
+        return root;
+    }
+
+    /**
+     * Creates a placeholder for a child of a node the replayer has replayed. The child may not
+     * have been parsed yet; it is looked up when the placeholder is taken.
+     *
+     * @param parent the replayed node
+     * @param index the index of the child
+     * @return the placeholder
+     */
+    synchronized NodeIntermediate childRef(NodeIntermediate parent, int index) {
+        refs.merge(parent, index + 1, Math::max);
+        return new ChildRef(parent, index);
+    }
+
+    /**
+     * Called by the replayer before it replays the given node. Looks up the node if it is a
+     * placeholder and waits until it has been published or the parser has finished.
+     *
+     * @param node the node to replay
+     * @return the node to replay, {@code null} if the placeholder does not refer to a parsed node
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized @Nullable NodeIntermediate take(NodeIntermediate node)
+            throws InterruptedException {
+        NodeIntermediate result = node;
+        if (node instanceof ChildRef ref) {
+            result = awaitChild(ref.parent, ref.index);
+        }
+        while (result != null && result == unpublished && !finished) {
+            wait();
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a child of a node and takes it over from the parent, so that the parent does not
+     * keep the subtree of the child in memory.
+     *
+     * @param parent the parent node
+     * @param index the index of the child
+     * @return the child, {@code null} if the parser has completed the parent without adding it
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized @Nullable NodeIntermediate awaitChild(NodeIntermediate parent, int index)
+            throws InterruptedException {
+        final LinkedList<NodeIntermediate> children = parent.getChildren();
+        while (children.size() <= index && !parent.isComplete() && !finished) {
+            wait();
+        }
+        if (children.size() <= index) {
+            return null;
+        }
+        final NodeIntermediate child = children.set(index, null);
+        if (child != null) {
+            pending--;
+            notifyAll();
+        }
+        return child;
+    }
+
+    /**
+     * Called by the replayer when it has replayed the given node, successfully or not. The
+     * children of the node without placeholders are dropped.
+     *
+     * @param node the replayed node
+     */
+    synchronized void replayed(NodeIntermediate node) {
+        retained.remove(node);
+        final Integer refCount = refs.remove(node);
+        final int claimed = refCount != null ? refCount : 0;
+        final LinkedList<NodeIntermediate> children = node.getChildren();
+        if (children == null) {
+            return;
+        }
+        for (int i = claimed; i < children.size(); i++) {
+            final NodeIntermediate child = children.set(i, null);
+            if (child != null) {
+                drop(child);
+            }
+        }
+        if (node.isComplete() || finished) {
+            claims.remove(node);
+        } else {
+            claims.put(node, claimed);
+        }
+        notifyAll();
+    }
+
+    private void drop(NodeIntermediate node) {
+        pending--;
+        final LinkedList<NodeIntermediate> children = node.getChildren();
+        node.setChildren(null);
+        for (NodeIntermediate child : children) {
+            if (child != null) {
+                drop(child);
+            }
+        }
+    }
+
+    /**
+     * Called by the replayer when it postpones the replay of a merge node until its partners have
+     * been replayed. The parser does not pause until the node has been replayed, as the partners
+     * follow the nodes below the merge node.
+     *
+     * @param node the merge node
+     */
+    synchronized void retain(NodeIntermediate node) {
+        retained.add(node);
+        notifyAll();
+    }
+
+    /**
+     * Called when the replayer has finished, so that the parser never waits for it anymore.
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Called when the replayer has been aborted. The parser stops with a
+     * {@link CancellationException} on its next call.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        closed = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Proof replay aborted");
+        }
+    }
+
+    /**
+     * Placeholder for a child the parser may not have reached yet.
+     */
+    private static final class ChildRef extends NodeIntermediate {
+        private final NodeIntermediate parent;
+        private final int index;
+
+        private ChildRef(NodeIntermediate parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+    }
+}
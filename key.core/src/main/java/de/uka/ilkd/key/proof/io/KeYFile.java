@@ -167,7 +167,7 @@ public class KeYFile implements EnvInput {
         if (fileCtx == null) {
             try {
                 LOGGER.trace("Reading KeY file {}", file);
-                fileCtx = ParsingFacade.parseFile(file.getCharStream());
+                fileCtx = ParsingFacade.parseFile(file);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -52,6 +52,7 @@ import org.key_project.logic.sort.Sort;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableMapEntry;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,7 +128,20 @@ public class OutputStreamProofSaver {
      */
     public StringBuffer writeLog() {
         final StringBuffer logstr = new StringBuffer();
-        // Advance the Log entries
+        advanceLog();
+        final int s = proof.userLog.size();
+        for (int i = 0; i < s; i++) {
+            logstr.append("(keyLog \"").append(i).append("\" (keyUser \"")
+                    .append(proof.userLog.get(i)).append("\" ) (keyVersion \"")
+                    .append(proof.keyVersionLog.get(i)).append("\"))\n");
+        }
+        return logstr;
+    }
+
+    /**
+     * Adds the current user and KeY version to the log of the proof.
+     */
+    protected void advanceLog() {
         if (proof.userLog == null) {
             proof.userLog = new ArrayList<>();
         }
@@ -136,13 +150,6 @@ public class OutputStreamProofSaver {
         }
         proof.userLog.add(System.getProperty("user.name"));
         proof.keyVersionLog.add(internalVersion);
-        final int s = proof.userLog.size();
-        for (int i = 0; i < s; i++) {
-            logstr.append("(keyLog \"").append(i).append("\" (keyUser \"")
-                    .append(proof.userLog.get(i)).append("\" ) (keyVersion \"")
-                    .append(proof.keyVersionLog.get(i)).append("\"))\n");
-        }
-        return logstr;
     }
 
     public String writeProfile(Profile profile) {
@@ -156,69 +163,7 @@ public class OutputStreamProofSaver {
     public void save(OutputStream out) throws IOException {
         CopyReferenceResolver.copyCachedGoals(proof, null, null, null);
         try (var ps = new PrintWriter(out, true, StandardCharsets.UTF_8)) {
-            final ProofOblInput po =
-                proof.getServices().getSpecificationRepository().getProofOblInput(proof);
-            LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
-
-            // profile
-            ps.println(writeProfile(proof.getServices().getProfile()));
-
-            // settings
-            final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
-            final StrategyProperties strategyProperties =
-                strategySettings.getActiveStrategyProperties();
-            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_TRUE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-                for (final SequentFormula s : proof.root().sequent().succedent().asList()) {
-                    ((InfFlowProof) proof).addLabeledTotalTerm(s.formula());
-                }
-            } else {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-            }
-            ps.println(writeSettings(proof.getSettings()));
-
-            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-            }
-
-            // declarations of symbols, sorts
-            String header = proof.header();
-            header = makePathsRelative(header);
-            ps.print(header);
-
-            // \problem or \proofObligation
-            if (po instanceof IPersistablePO ppo
-                    && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
-                            && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
-                var loadingConfig = ppo.createLoaderConfig();
-                ps.println("\\proofObligation ");
-                loadingConfig.save(ps, "Proof-Obligation settings");
-                ps.println("\n");
-            } else {
-                if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                        || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                    ps.print(((InfFlowProof) proof).printIFSymbols());
-                }
-                final Sequent problemSeq = proof.root().sequent();
-                ps.println("\\problem {");
-                if (problemSeq.antecedent().isEmpty() && problemSeq.succedent().size() == 1) {
-                    // Problem statement is a single formula ...
-                    printer.printSemisequent(problemSeq.succedent());
-                } else {
-                    // Problem statement is a proper sequent ...
-                    printer.printSequent(problemSeq);
-                }
-                ps.println(printer.result());
-                ps.println("}\n");
-            }
+            writeProblem(ps);
 
             if (saveProofSteps) {
                 // \proof
@@ -231,6 +176,79 @@ public class OutputStreamProofSaver {
         }
     }
 
+    /**
+     * Writes everything before the proof section: the profile, the settings, the declarations and
+     * the problem.
+     *
+     * @param ps the writer to write to
+     * @throws IOException if writing fails
+     */
+    protected void writeProblem(PrintWriter ps) throws IOException {
+        final ProofOblInput po =
+            proof.getServices().getSpecificationRepository().getProofOblInput(proof);
+        LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
+
+        // profile
+        ps.println(writeProfile(proof.getServices().getProfile()));
+
+        // settings
+        final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
+        final StrategyProperties strategyProperties =
+            strategySettings.getActiveStrategyProperties();
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_TRUE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+            for (final SequentFormula s : proof.root().sequent().succedent().asList()) {
+                ((InfFlowProof) proof).addLabeledTotalTerm(s.formula());
+            }
+        } else {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+        ps.println(writeSettings(proof.getSettings()));
+
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+
+        // declarations of symbols, sorts
+        String header = proof.header();
+        header = makePathsRelative(header);
+        ps.print(header);
+
+        // \problem or \proofObligation
+        if (po instanceof IPersistablePO ppo
+                && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
+                        && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
+            var loadingConfig = ppo.createLoaderConfig();
+            ps.println("\\proofObligation ");
+            loadingConfig.save(ps, "Proof-Obligation settings");
+            ps.println("\n");
+        } else {
+            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+                ps.print(((InfFlowProof) proof).printIFSymbols());
+            }
+            final Sequent problemSeq = proof.root().sequent();
+            ps.println("\\problem {");
+            if (problemSeq.antecedent().isEmpty() && problemSeq.succedent().size() == 1) {
+                // Problem statement is a single formula ...
+                printer.printSemisequent(problemSeq.succedent());
+            } else {
+                // Problem statement is a proper sequent ...
+                printer.printSequent(problemSeq);
+            }
+            ps.println(printer.result());
+            ps.println("}\n");
+        }
+    }
+
     protected String getBasePath() throws IOException {
         File javaSourceLocation = getJavaSourceLocation(proof);
         if (javaSourceLocation != null) {
@@ -312,19 +330,28 @@ public class OutputStreamProofSaver {
     }
 
     private String newNames2Proof(Node n) {
-        StringBuilder s = new StringBuilder();
+        final String names = newNames(n);
+        return names == null ? "" : " (newnames \"" + names + "\")";
+    }
+
+    /**
+     * @param n a proof node
+     * @return the comma separated names of the new symbols introduced by the node, null if none
+     */
+    protected static @Nullable String newNames(Node n) {
         final NameRecorder rec = n.getNameRecorder();
         if (rec == null) {
-            return s.toString();
+            return null;
         }
         final ImmutableList<Name> proposals = rec.getProposals();
         if (proposals.isEmpty()) {
-            return s.toString();
+            return null;
         }
+        StringBuilder s = new StringBuilder();
         for (final Name proposal : proposals) {
             s.append(",").append(proposal);
         }
-        return " (newnames \"" + s.substring(1) + "\")";
+        return s.substring(1);
     }
 
     /**
@@ -367,6 +394,23 @@ public class OutputStreamProofSaver {
             Appendable output) throws IOException {
         output.append("(").append(ProofElementID.MERGE_ABSTRACTION_PREDICATES.getRawName())
                 .append(" \"");
+        output.append(mergePredicates(predAbstrRule));
+        output.append("\")");
+
+        output.append(" (")
+                .append(ProofElementID.MERGE_PREDICATE_ABSTRACTION_LATTICE_TYPE.getRawName())
+                .append("\"");
+        output.append(predAbstrRule.getLatticeType().getName());
+
+        output.append("\")");
+    }
+
+    /**
+     * @param predAbstrRule a merge with predicate abstraction
+     * @return the abstraction predicates of the merge as stored in a proof
+     */
+    protected String mergePredicates(MergeWithPredicateAbstraction predAbstrRule) {
+        final StringBuilder output = new StringBuilder();
         boolean first = true;
         for (final Map.Entry<Sort, ArrayList<AbstractionPredicate>> predsForSorts : predAbstrRule
                 .getPredicates().entrySet()) {
@@ -380,15 +424,7 @@ public class OutputStreamProofSaver {
                 output.append(pred.toParseableString(proof.getServices()));
             }
         }
-
-        output.append("\")");
-
-        output.append(" (")
-                .append(ProofElementID.MERGE_PREDICATE_ABSTRACTION_LATTICE_TYPE.getRawName())
-                .append("\"");
-        output.append(predAbstrRule.getLatticeType().getName());
-
-        output.append("\")");
+        return output.toString();
     }
 
     /**
@@ -406,23 +442,32 @@ public class OutputStreamProofSaver {
         if (!userChoices.isEmpty()) {
             output.append(" (").append(ProofElementID.MERGE_USER_CHOICES.getRawName())
                     .append(" \"");
-            boolean first = true;
-            for (var pair : userChoices.entrySet()) {
-                final var key = pair.getKey();
-                final var value = pair.getValue();
-                if (first) {
-                    first = false;
-                } else {
-                    output.append("`), ");
+            output.append(mergeUserChoices(concreteRule));
+            output.append("\")");
+        }
+    }
 
-                }
-                output.append(" ('").append(key.sort().toString()).append("").append(key.toString())
-                        .append("', `").append(value.toParseableString(proof.getServices()))
-                        .append("`), ");
-            }
+    /**
+     * @param concreteRule a merge with lattice abstraction
+     * @return the abstract domain elements chosen by the user as stored in a proof
+     */
+    protected String mergeUserChoices(MergeWithLatticeAbstraction concreteRule) {
+        final StringBuilder output = new StringBuilder();
+        boolean first = true;
+        for (var pair : concreteRule.getUserChoices().entrySet()) {
+            final var key = pair.getKey();
+            final var value = pair.getValue();
+            if (first) {
+                first = false;
+            } else {
+                output.append("`), ");
 
-            output.append("\")");
+            }
+            output.append(" ('").append(key.sort().toString()).append("").append(key.toString())
+                    .append("', `").append(value.toParseableString(proof.getServices()))
+                    .append("`), ");
         }
+        return output.toString();
     }
 
     /**
@@ -452,9 +497,7 @@ public class OutputStreamProofSaver {
         if (mergeApp.getDistinguishingFormula() != null) {
             output.append(" (").append(ProofElementID.MERGE_DIST_FORMULA.getRawName())
                     .append(" \"");
-            output.append(escapeCharacters(
-                printAnything(mergeApp.getDistinguishingFormula(), proof.getServices(), false)
-                        .trim().replaceAll("(\\r|\\n|\\r\\n)+", "")));
+            output.append(escapeCharacters(distinguishingFormula(mergeApp)));
             output.append("\")");
         }
 
@@ -472,6 +515,15 @@ public class OutputStreamProofSaver {
         }
     }
 
+    /**
+     * @param mergeApp a merge rule application with a distinguishing formula
+     * @return the distinguishing formula as stored in a proof
+     */
+    protected String distinguishingFormula(MergeRuleBuiltInRuleApp mergeApp) {
+        return printAnything(mergeApp.getDistinguishingFormula(), proof.getServices(), false)
+                .trim().replaceAll("(\\r|\\n|\\r\\n)+", "");
+    }
+
     /*
      *
      * Print applied close-after-merge rule for a single close-after-merge rule application into the
@@ -511,16 +563,23 @@ public class OutputStreamProofSaver {
      */
     private void printRuleJustification(IBuiltInRuleApp appliedRuleApp, Appendable output)
             throws IOException {
+        output.append(" (contract \"");
+        output.append(contractName(appliedRuleApp));
+        output.append("\")");
+    }
+
+    /**
+     * @param appliedRuleApp an application of a contract rule
+     * @return the name of the contract justifying the application
+     */
+    protected String contractName(IBuiltInRuleApp appliedRuleApp) {
         final RuleJustification ruleJusti = proof.getInitConfig().getJustifInfo()
                 .getJustification(appliedRuleApp, proof.getServices());
 
         assert ruleJusti instanceof RuleJustificationBySpec
                 : "Please consult bug #1111 if this fails.";
 
-        final RuleJustificationBySpec ruleJustiBySpec = (RuleJustificationBySpec) ruleJusti;
-        output.append(" (contract \"");
-        output.append(ruleJustiBySpec.spec().getName());
-        output.append("\")");
+        return ((RuleJustificationBySpec) ruleJusti).spec().getName();
     }
 
     /**
@@ -588,10 +647,7 @@ public class OutputStreamProofSaver {
             // open goal
             output.append(prefix);
             output.append(" (opengoal \"");
-            final LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
-
-            printer.printSequent(node.sequent());
-            output.append(escapeCharacters(printer.result().replace('\n', ' ')));
+            output.append(escapeCharacters(openGoalSequent(node)));
             output.append("\")\n");
             return;
         }
@@ -603,6 +659,16 @@ public class OutputStreamProofSaver {
         }
     }
 
+    /**
+     * @param node an open goal
+     * @return the sequent of the goal as stored in a proof
+     */
+    protected String openGoalSequent(Node node) {
+        final LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
+        printer.printSequent(node.sequent());
+        return printer.result().replace('\n', ' ');
+    }
+
     /**
      * Print applied rule(s) for a proof node and its decendants into the passed writer.
      *
@@ -708,12 +774,17 @@ public class OutputStreamProofSaver {
         if (pos == PosInTerm.getTopLevel()) {
             return "";
         }
-        String s = " (term \"";
+        return " (term \"" + posInTermList(pos) + "\")";
+    }
+
+    /**
+     * @param pos a position in a term
+     * @return the comma separated indices of the position as stored in a proof
+     */
+    protected static String posInTermList(PosInTerm pos) {
         final String list = pos.integerList(pos.reverseIterator()); // cheaper to read
         // in
-        s = s + list.substring(1, list.length() - 1); // chop off "[" and "]"
-        s = s + "\")";
-        return s;
+        return list.substring(1, list.length() - 1); // chop off "[" and "]"
     }
 
     /**
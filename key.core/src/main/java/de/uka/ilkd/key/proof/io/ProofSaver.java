@@ -129,7 +129,7 @@ public class ProofSaver extends OutputStreamProofSaver {
             errorMsg = e.toString();
             LOGGER.warn("Failed to save ", e);
         }
-        fireProofSaved(new ProofSaverEvent(this, filename(), errorMsg));
+        fireProofSaved(new ProofSaverEvent(this, filename(), errorMsg, proof, saveProofSteps));
         return errorMsg;
     }
 
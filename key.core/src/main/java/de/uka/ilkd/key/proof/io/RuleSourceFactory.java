@@ -53,7 +53,9 @@ public class RuleSourceFactory {
      * @return the rule source read from the file.
      */
     public static RuleSource initRuleFile(final File file, boolean compressed) {
-        if (compressed) {
+        if (BinaryProofReader.isBinaryProof(file.getName())) {
+            return new BinaryProofRuleSource(file);
+        } else if (compressed) {
             return new GZipFileRuleSource(file);
         } else {
             return new FileRuleSource(file);
@@ -5,6 +5,7 @@ package de.uka.ilkd.key.proof.io.event;
 
 import java.util.EventObject;
 
+import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.io.ProofSaver;
 
 /**
@@ -28,17 +29,32 @@ public class ProofSaverEvent extends EventObject {
      */
     private final String errorMsg;
 
+    /**
+     * The saved {@link Proof}.
+     */
+    private final transient Proof proof;
+
+    /**
+     * Whether the proof steps were saved (and not only the proof obligation).
+     */
+    private final boolean proofStepsSaved;
+
     /**
      * Constructor.
      *
      * @param source The {@link ProofSaver} which throws this event.
      * @param filename The file name.
      * @param errorMsg The error message.
+     * @param proof The saved {@link Proof}.
+     * @param proofStepsSaved Whether the proof steps were saved.
      */
-    public ProofSaverEvent(ProofSaver source, String filename, String errorMsg) {
+    public ProofSaverEvent(ProofSaver source, String filename, String errorMsg, Proof proof,
+            boolean proofStepsSaved) {
         super(source);
         this.filename = filename;
         this.errorMsg = errorMsg;
+        this.proof = proof;
+        this.proofStepsSaved = proofStepsSaved;
     }
 
     /**
@@ -59,6 +75,24 @@ public class ProofSaverEvent extends EventObject {
         return errorMsg;
     }
 
+    /**
+     * Returns the saved {@link Proof}.
+     *
+     * @return The saved {@link Proof}.
+     */
+    public Proof getProof() {
+        return proof;
+    }
+
+    /**
+     * Checks whether the proof steps were saved. If not, only the proof obligation was saved.
+     *
+     * @return {@code true} if the proof steps were saved, {@code false} otherwise.
+     */
+    public boolean isProofStepsSaved() {
+        return proofStepsSaved;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -24,6 +24,20 @@ public abstract class NodeIntermediate {
      * Cached value, computed on first request.
      */
     private int subtreeSize = -1;
+    /**
+     * Whether the parser will not add further children to this node. Only nodes of a proof that is
+     * still being parsed are incomplete, see
+     * {@link de.uka.ilkd.key.proof.io.IntermediateProofStream}.
+     */
+    private boolean complete = true;
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
 
     public LinkedList<NodeIntermediate> getChildren() {
         return children;
@@ -8,6 +8,7 @@ import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
 
 import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableSLList;
 
 /**
  * Interface to be implemented by classes in order to customize the goal selection strategy of the
@@ -41,4 +42,16 @@ public interface GoalChooser {
      */
     void updateGoalList(Node node, ImmutableList<Goal> newGoals);
 
+    /**
+     * Returns (a prefix of) the goals which will be returned by the next calls of
+     * {@link #getNextGoal()} without changing the state of this chooser. The result is only a hint,
+     * e.g., for computing the next rule applications of several goals in advance.
+     *
+     * @param count the maximal number of goals to return
+     * @return at most {@code count} distinct goals, empty if the chooser cannot predict its choice
+     */
+    default ImmutableList<Goal> peekNextGoals(int count) {
+        return ImmutableSLList.nil();
+    }
+
 }
@@ -35,6 +35,15 @@ public class ApplyStrategy extends AbstractProverCore {
 
     public static final AtomicLong PERF_GOAL_APPLY = new AtomicLong();
 
+    /**
+     * The default number of threads used to select rule applications, configurable via the system
+     * property {@code key.strategy.parallelism}. A value of 1 disables the parallel selection.
+     *
+     * @see ParallelRuleAppSelector
+     */
+    public static final int DEFAULT_PARALLELISM =
+        Math.max(1, Integer.getInteger("key.strategy.parallelism", 1));
+
     /**
      * the proof that is worked with
      */
@@ -48,6 +57,9 @@ public class ApplyStrategy extends AbstractProverCore {
      */
     private final GoalChooser defaultGoalChooser;
 
+    /** the number of threads used to select the rule applications of independent goals */
+    private final int parallelism;
+
     private long time;
 
     /** interrupted by the user? */
@@ -70,7 +82,23 @@ public class ApplyStrategy extends AbstractProverCore {
     // Otherwise, the addition/removal of the InteractiveProofListener
     // can cause a ConcurrentModificationException during ongoing operation
     public ApplyStrategy(GoalChooser defaultGoalChooser) {
+        this(defaultGoalChooser, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates a new strategy runner which selects the next rule applications of up to
+     * {@code parallelism} open goals concurrently. The rules are still applied one after another
+     * by the thread running the strategy.
+     *
+     * @param defaultGoalChooser the goal chooser used if the proof does not define a custom one
+     * @param parallelism the number of worker threads, 1 disables the parallel selection
+     */
+    public ApplyStrategy(GoalChooser defaultGoalChooser, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
         this.defaultGoalChooser = defaultGoalChooser;
+        this.parallelism = parallelism;
     }
 
     /**
@@ -126,16 +154,26 @@ public class ApplyStrategy extends AbstractProverCore {
     private synchronized ApplyStrategyInfo doWork(final GoalChooser goalChooser,
             final StopCondition stopCondition) {
         time = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
         SingleRuleApplicationInfo srInfo = null;
 
         var perfScope = new PerfScope();
+        final RuleMetrics metrics =
+            RuleMetrics.isEnabledByDefault() ? RuleMetrics.enable(proof) : RuleMetrics.of(proof);
         long applyAutomatic = 0;
+        final ParallelRuleAppSelector selector =
+            parallelism > 1 ? new ParallelRuleAppSelector(parallelism) : null;
+        int prefetched = 0;
         try {
             LOGGER.trace("Strategy started.");
             boolean shouldStop = stopCondition.shouldStop(maxApplications, timeout, proof, time,
                 countApplied, srInfo);
 
             while (!shouldStop) {
+                if (selector != null && prefetched <= 0) {
+                    prefetched = selector
+                            .prefetch(goalChooser.peekNextGoals(selector.getParallelism()));
+                }
                 var applyAutomaticTime = System.nanoTime();
                 try {
                     srInfo =
@@ -148,6 +186,7 @@ public class ApplyStrategy extends AbstractProverCore {
                         System.currentTimeMillis() - time, countApplied, closedGoals);
                 }
                 countApplied++;
+                prefetched--;
                 fireTaskProgress();
                 if (Thread.interrupted()) {
                     throw new InterruptedException();
@@ -171,11 +210,18 @@ public class ApplyStrategy extends AbstractProverCore {
             return new ApplyStrategyInfo("Error.", proof, t, null,
                 System.currentTimeMillis() - time, countApplied, closedGoals);
         } finally {
+            if (selector != null) {
+                selector.shutdown();
+            }
             time = (System.currentTimeMillis() - time);
             LOGGER.trace("Strategy stopped, applied {} steps in {}ms", countApplied, time);
 
             LOGGER.trace("applyAutomaticRule: " + PerfScope.formatTime(applyAutomatic));
             perfScope.report();
+            if (metrics != null) {
+                metrics.recordAutoModeRun(System.nanoTime() - startNanos, applyAutomatic,
+                    countApplied);
+            }
         }
         assert srInfo != null;
         return new ApplyStrategyInfo(srInfo.message(), proof, null, srInfo.getGoal(), time,
@@ -143,6 +143,37 @@ public class DefaultGoalChooser implements GoalChooser {
         return result;
     }
 
+    @Override
+    public ImmutableList<Goal> peekNextGoals(int count) {
+        ImmutableList<Goal> result = ImmutableSLList.nil();
+        if (allGoalsSatisfiable) {
+            result = collectGoals(nextGoals, result, count);
+            if (nextGoals != selectedList) {
+                result = collectGoals(selectedList, result, count);
+            }
+        } else {
+            result = collectGoals(selectedList, result, count);
+        }
+        return result.reverse();
+    }
+
+    /**
+     * Prepends the automatic goals of {@code goals} to {@code result} which are not yet contained,
+     * as long as {@code result} has less than {@code count} elements.
+     */
+    private static ImmutableList<Goal> collectGoals(ImmutableList<Goal> goals,
+            ImmutableList<Goal> result, int count) {
+        for (final Goal goal : goals) {
+            if (result.size() >= count) {
+                break;
+            }
+            if (goal.isAutomatic() && !result.contains(goal)) {
+                result = result.prepend(goal);
+            }
+        }
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      *
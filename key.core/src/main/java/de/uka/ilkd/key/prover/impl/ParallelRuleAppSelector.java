@@ -0,0 +1,125 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.uka.ilkd.key.proof.Goal;
+
+import org.key_project.util.collection.ImmutableList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares the next automatic rule applications of several independent goals concurrently.
+ * <p>
+ * Matching the rules against a goal and computing the costs of the matches only depends on the
+ * goal itself and dominates the run time of the automatic mode. The rule application manager of
+ * the goal keeps the result until the goal changes. This class performs these steps
+ * ({@link de.uka.ilkd.key.strategy.AutomatedRuleApplicationManager#prepareNext()}) for a batch of
+ * goals on a worker pool. Completing the rule application (which may propose names and hence
+ * depends on the names introduced on other goals), the actual rule applications, all
+ * modifications of the proof tree and all fired proof events remain on the thread of the
+ * {@link ApplyStrategy}. The strategy thread consequently applies exactly the same rules with the
+ * same names in the same order as without parallelism.
+ * </p>
+ * <p>
+ * Each goal of a batch is handled by exactly one worker. The caches shared between goals in
+ * {@link de.uka.ilkd.key.java.ServiceCaches} are synchronized by their users.
+ * </p>
+ */
+final class ParallelRuleAppSelector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRuleAppSelector.class);
+
+    /** counter used to name the worker threads */
+    private static final AtomicInteger WORKER_COUNTER = new AtomicInteger();
+
+    /** time spent waiting for the workers */
+    static final AtomicLong PERF_SELECT = new AtomicLong();
+
+    /** the worker pool */
+    private final ExecutorService workers;
+
+    /** the maximal number of goals handled in one batch */
+    private final int parallelism;
+
+    /**
+     * Creates a new selector.
+     *
+     * @param parallelism the number of worker threads, at least 2
+     */
+    ParallelRuleAppSelector(int parallelism) {
+        assert parallelism > 1;
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "KeY-RuleAppSelector-" + WORKER_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the maximal number of goals handled by {@link #prefetch(ImmutableList)}
+     */
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Prepares the next rule applications of the given goals concurrently and blocks until all of
+     * them are prepared. Exceptions thrown by the strategy are not propagated, they resurface once
+     * the rule application is requested by the strategy thread.
+     *
+     * @param goals distinct goals, none of which is modified concurrently
+     * @return the number of goals that have been handled
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    int prefetch(ImmutableList<Goal> goals) throws InterruptedException {
+        if (goals.size() < 2) {
+            // nothing to gain, the strategy thread computes the rule application itself
+            return goals.size();
+        }
+        final List<Callable<Object>> tasks = new ArrayList<>(goals.size());
+        for (final Goal goal : goals) {
+            tasks.add(Executors.callable(() -> goal.getRuleAppManager().prepareNext()));
+        }
+        final long time = System.nanoTime();
+        try {
+            workers.invokeAll(tasks);
+        } finally {
+            PERF_SELECT.addAndGet(System.nanoTime() - time);
+        }
+        LOGGER.trace("Prepared rule applications of {} goals concurrently", tasks.size());
+        return tasks.size();
+    }
+
+    /**
+     * Stops the worker threads and waits until they are terminated, so that no goal is modified
+     * by a worker after the strategy has finished.
+     */
+    void shutdown() {
+        workers.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class PerfScope {
             QueueRuleApplicationManager.PERF_QUEUE_OPS),
         new Pair<>("QueueRuleApplicationManager create container",
             QueueRuleApplicationManager.PERF_CREATE_CONTAINER),
+        new Pair<>("Parallel rule app selection", ParallelRuleAppSelector.PERF_SELECT),
         new Pair<>("Goal apply", ApplyStrategy.PERF_GOAL_APPLY),
         new Pair<>("RuleApp execute", Goal.PERF_APP_EXECUTE),
         new Pair<>("Goal setSequent", Goal.PERF_SET_SEQUENT),
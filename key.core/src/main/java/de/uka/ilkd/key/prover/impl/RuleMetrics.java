@@ -0,0 +1,520 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.event.ProofDisposedEvent;
+import de.uka.ilkd.key.proof.event.ProofDisposedListener;
+import de.uka.ilkd.key.rule.Rule;
+import de.uka.ilkd.key.rule.RuleSet;
+import de.uka.ilkd.key.rule.Taclet;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-proof performance metrics broken down by rule.
+ * <p>
+ * For each rule the time spent on matching it ({@link Phase#MATCH}), on computing the costs of its
+ * applications ({@link Phase#COST}) and on executing it ({@link Phase#EXECUTE}) is recorded as a
+ * histogram, together with the number of bytes allocated during execution. In addition, the
+ * time spent in the automatic mode on the proof is accumulated.
+ * </p>
+ * <p>
+ * Collection is switched on per proof with {@link #enable(Proof)}, or for all proofs run in the
+ * automatic mode with {@link #setEnabledByDefault(boolean)} (system property
+ * {@code key.metrics}). The metrics are kept in a volatile field of the proof, so as long as a
+ * proof collects no metrics, the instrumentation costs a single volatile read. The results can be
+ * exported as JSON or CSV.
+ * </p>
+ */
+public final class RuleMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleMetrics.class);
+
+    /**
+     * The measured activities.
+     */
+    public enum Phase {
+        /** matching the find part of a taclet */
+        MATCH,
+        /** computing the cost of a rule application */
+        COST,
+        /** executing a rule application */
+        EXECUTE;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /** number of histogram buckets, bucket {@code i} counts durations below {@code 2^i} ns */
+    public static final int BUCKETS = 40;
+
+    private static volatile boolean enabledByDefault = Boolean.getBoolean("key.metrics");
+
+    private static final com.sun.management.@Nullable ThreadMXBean THREADS = initThreadBean();
+
+    /** statistics per rule name */
+    private final Map<String, RuleStatistics> rules = new ConcurrentHashMap<>();
+
+    /** accumulated totals of the automatic mode runs */
+    private final Map<String, LongAdder> totals = new ConcurrentHashMap<>();
+
+    private final String proofName;
+
+    private RuleMetrics(String proofName) {
+        this.proofName = proofName;
+    }
+
+    private static com.sun.management.@Nullable ThreadMXBean initThreadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean tb
+                    && tb.isThreadAllocatedMemorySupported()) {
+                tb.setThreadAllocatedMemoryEnabled(true);
+                return tb;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug("Allocation counting is not available", e);
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread so far, or {@code -1} if the JVM
+     *         does not support allocation counting
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @return whether metrics are collected for all proofs run in the automatic mode
+     */
+    public static boolean isEnabledByDefault() {
+        return enabledByDefault;
+    }
+
+    /**
+     * Switches the collection of metrics for all proofs run in the automatic mode on or off.
+     *
+     * @param enabled the new value
+     */
+    public static void setEnabledByDefault(boolean enabled) {
+        enabledByDefault = enabled;
+    }
+
+    /**
+     * Starts collecting metrics for the given proof. The collection stops when the proof is
+     * disposed.
+     *
+     * @param proof a proof
+     * @return the (possibly already existing) metrics of the proof
+     */
+    public static RuleMetrics enable(Proof proof) {
+        synchronized (proof) {
+            RuleMetrics metrics = proof.getRuleMetrics();
+            if (metrics == null) {
+                metrics = new RuleMetrics(proof.name().toString());
+                proof.setRuleMetrics(metrics);
+                final RuleMetrics registered = metrics;
+                proof.addProofDisposedListener(new ProofDisposedListener() {
+                    @Override
+                    public void proofDisposing(ProofDisposedEvent e) {
+                        disable(e.getSource(), registered);
+                    }
+
+                    @Override
+                    public void proofDisposed(ProofDisposedEvent e) {
+                    }
+                });
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Stops collecting metrics for the given proof. The collected metrics are discarded.
+     *
+     * @param proof a proof
+     */
+    public static void disable(Proof proof) {
+        disable(proof, proof.getRuleMetrics());
+    }
+
+    private static void disable(Proof proof, @Nullable RuleMetrics metrics) {
+        synchronized (proof) {
+            if (metrics != null && proof.getRuleMetrics() == metrics) {
+                proof.setRuleMetrics(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics collected for the given proof. This is the entry point of the
+     * instrumentation and costs a single volatile read.
+     *
+     * @param proof a proof or {@code null}
+     * @return the metrics of the proof or {@code null} if none are collected
+     */
+    public static @Nullable RuleMetrics of(@Nullable Proof proof) {
+        return proof == null ? null : proof.getRuleMetrics();
+    }
+
+    /**
+     * Records a measurement.
+     *
+     * @param rule the measured rule
+     * @param phase the measured activity
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(Rule rule, Phase phase, long nanos) {
+        statistics(rule).histogram(phase).add(nanos);
+    }
+
+    /**
+     * Records the execution of a rule.
+     *
+     * @param rule the executed rule
+     * @param nanos the duration in nanoseconds
+     * @param allocatedBytes the bytes allocated by the execution, negative if unknown
+     */
+    public void recordExecution(Rule rule, long nanos, long allocatedBytes) {
+        final RuleStatistics stats = statistics(rule);
+        stats.histogram(Phase.EXECUTE).add(nanos);
+        if (allocatedBytes >= 0) {
+            stats.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    /**
+     * Records a run of the automatic mode on the proof. Unlike the global {@link PerfScope}
+     * counters, the recorded values only cover this proof, even if several proofs are run at the
+     * same time.
+     *
+     * @param nanos the duration of the run in nanoseconds
+     * @param ruleNanos the time in nanoseconds spent on selecting and applying rules
+     * @param appliedRules the number of applied rules
+     */
+    void recordAutoModeRun(long nanos, long ruleNanos, int appliedRules) {
+        total("runs").increment();
+        total("autoModeNanos").add(nanos);
+        total("applyRuleNanos").add(ruleNanos);
+        total("appliedRules").add(appliedRules);
+    }
+
+    private LongAdder total(String name) {
+        return totals.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    private RuleStatistics statistics(Rule rule) {
+        final String name = rule.name().toString();
+        RuleStatistics stats = rules.get(name);
+        if (stats == null) {
+            stats = rules.computeIfAbsent(name, k -> new RuleStatistics(k, ruleSetsOf(rule)));
+        }
+        return stats;
+    }
+
+    private static List<String> ruleSetsOf(Rule rule) {
+        final List<String> result = new ArrayList<>();
+        if (rule instanceof Taclet taclet) {
+            for (RuleSet rs : taclet.getRuleSets()) {
+                result.add(rs.name().toString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the name of the proof these metrics belong to
+     */
+    public String getProofName() {
+        return proofName;
+    }
+
+    /**
+     * @return the statistics of all rules, the most expensive ones first
+     */
+    public List<RuleStatistics> getRuleStatistics() {
+        final List<RuleStatistics> result = new ArrayList<>(rules.values());
+        result.sort(Comparator.comparingLong(RuleStatistics::getTotalNanos).reversed()
+                .thenComparing(RuleStatistics::getName));
+        return result;
+    }
+
+    /**
+     * @param ruleName the name of a rule
+     * @return the statistics of the rule or {@code null} if it has not been measured
+     */
+    public @Nullable RuleStatistics getRuleStatistics(String ruleName) {
+        return rules.get(ruleName);
+    }
+
+    /**
+     * Aggregates the statistics of the rules by rule set. A taclet belonging to several rule sets
+     * is accounted for in each of them, rules without rule set are accounted for in
+     * {@code "<none>"}.
+     *
+     * @return the total time in nanoseconds per phase by rule set name
+     */
+    public Map<String, Map<Phase, Long>> getRuleSetStatistics() {
+        final Map<String, Map<Phase, Long>> result = new TreeMap<>();
+        for (RuleStatistics stats : rules.values()) {
+            final List<String> ruleSets =
+                stats.ruleSets.isEmpty() ? List.of("<none>") : stats.ruleSets;
+            for (String rs : ruleSets) {
+                final Map<Phase, Long> perPhase = result.computeIfAbsent(rs, k -> new TreeMap<>());
+                for (Phase phase : Phase.values()) {
+                    perPhase.merge(phase, stats.histogram(phase).getTotalNanos(), Long::sum);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the totals of the automatic mode runs on the proof: the number of {@code runs} and
+     *         {@code appliedRules}, their duration {@code autoModeNanos} and the time
+     *         {@code applyRuleNanos} spent on selecting and applying rules
+     */
+    public Map<String, Long> getTotals() {
+        final Map<String, Long> result = new TreeMap<>();
+        totals.forEach((name, adder) -> result.put(name, adder.sum()));
+        return result;
+    }
+
+    /**
+     * Writes the metrics to the given file. The format is chosen by the file extension:
+     * {@code .csv} for CSV, JSON otherwise.
+     *
+     * @param file the target file
+     * @throws IOException if writing fails
+     */
+    public void export(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase().endsWith(".csv")) {
+                exportCsv(writer);
+            } else {
+                exportJson(writer);
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics as JSON object with the members {@code proof}, {@code totals},
+     * {@code ruleSets} and {@code rules}.
+     *
+     * @param out the target
+     * @throws IOException if writing fails
+     */
+    public void exportJson(Writer out) throws IOException {
+        out.write("{\n  \"proof\": " + quote(proofName) + ",\n  \"totals\": {");
+        String sep = "\n";
+        for (var e : getTotals().entrySet()) {
+            out.write(sep + "    " + quote(e.getKey()) + ": " + e.getValue());
+            sep = ",\n";
+        }
+        out.write("\n  },\n  \"ruleSets\": {");
+        sep = "\n";
+        for (var e : getRuleSetStatistics().entrySet()) {
+            out.write(sep + "    " + quote(e.getKey()) + ": {");
+            String phaseSep = "";
+            for (var p : e.getValue().entrySet()) {
+                out.write(phaseSep + quote(p.getKey().key()) + ": " + p.getValue());
+                phaseSep = ", ";
+            }
+            out.write("}");
+            sep = ",\n";
+        }
+        out.write("\n  },\n  \"rules\": [");
+        sep = "\n";
+        for (RuleStatistics stats : getRuleStatistics()) {
+            out.write(sep + "    {\"name\": " + quote(stats.name) + ", \"ruleSets\": [");
+            String rsSep = "";
+            for (String rs : stats.ruleSets) {
+                out.write(rsSep + quote(rs));
+                rsSep = ", ";
+            }
+            out.write("], \"allocatedBytes\": " + stats.getAllocatedBytes());
+            for (Phase phase : Phase.values()) {
+                final Histogram h = stats.histogram(phase);
+                out.write(",\n      " + quote(phase.key()) + ": {\"count\": " + h.getCount()
+                    + ", \"totalNanos\": " + h.getTotalNanos() + ", \"maxNanos\": "
+                    + h.getMaxNanos() + ", \"histogram\": {");
+                String bucketSep = "";
+                for (int i = 0; i < BUCKETS; i++) {
+                    final long count = h.getBucket(i);
+                    if (count != 0) {
+                        out.write(bucketSep + quote("<" + (1L << i)) + ": " + count);
+                        bucketSep = ", ";
+                    }
+                }
+                out.write("}}");
+            }
+            out.write("}");
+            sep = ",\n";
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Writes one line per rule with the counts and total times of each phase.
+     *
+     * @param out the target
+     * @throws IOException if writing fails
+     */
+    public void exportCsv(Writer out) throws IOException {
+        out.write("rule;ruleSets");
+        for (Phase phase : Phase.values()) {
+            out.write(";" + phase.key() + " count;" + phase.key() + " total ns;" + phase.key()
+                + " max ns");
+        }
+        out.write(";allocated bytes\n");
+        for (RuleStatistics stats : getRuleStatistics()) {
+            out.write(stats.name + ";" + String.join(" ", stats.ruleSets));
+            for (Phase phase : Phase.values()) {
+                final Histogram h = stats.histogram(phase);
+                out.write(";" + h.getCount() + ";" + h.getTotalNanos() + ";" + h.getMaxNanos());
+            }
+            out.write(";" + stats.getAllocatedBytes() + "\n");
+        }
+    }
+
+    private static String quote(String s) {
+        final StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            case '\r' -> sb.append("\\r");
+            case '\t' -> sb.append("\\t");
+            default -> {
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * The measurements of a single rule.
+     */
+    public static final class RuleStatistics {
+        private final String name;
+        private final List<String> ruleSets;
+        private final Histogram[] histograms = new Histogram[Phase.values().length];
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private RuleStatistics(String name, List<String> ruleSets) {
+            this.name = name;
+            this.ruleSets = List.copyOf(ruleSets);
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the names of the rule sets of the rule
+         */
+        public List<String> getRuleSets() {
+            return ruleSets;
+        }
+
+        /**
+         * @param phase an activity
+         * @return the measurements of the given activity
+         */
+        public Histogram histogram(Phase phase) {
+            return histograms[phase.ordinal()];
+        }
+
+        /**
+         * @return the total time in nanoseconds spent on this rule in all phases
+         */
+        public long getTotalNanos() {
+            long result = 0;
+            for (Histogram h : histograms) {
+                result += h.getTotalNanos();
+            }
+            return result;
+        }
+
+        /**
+         * @return the number of bytes allocated while executing the rule
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+    }
+
+    /**
+     * Histogram of durations with buckets of exponentially increasing size.
+     */
+    public static final class Histogram {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private Histogram() {
+        }
+
+        void add(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return total.sum();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        /**
+         * @param i the index of a bucket, {@code 0 <= i < BUCKETS}
+         * @return the number of durations {@code d} with {@code 2^(i-1) <= d < 2^i}
+         */
+        public long getBucket(int i) {
+            return buckets.get(i);
+        }
+    }
+}
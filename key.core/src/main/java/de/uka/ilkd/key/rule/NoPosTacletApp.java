@@ -13,6 +13,7 @@ import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.TermServices;
 import de.uka.ilkd.key.logic.op.*;
 import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.inst.SVInstantiations;
 import de.uka.ilkd.key.util.Debug;
 
@@ -328,7 +329,12 @@ public class NoPosTacletApp extends TacletApp {
 
         MatchConditions res;
         if (taclet() instanceof FindTaclet) {
+            final RuleMetrics metrics = RuleMetrics.of(services.getProof());
+            final long time = metrics == null ? 0 : System.nanoTime();
             res = taclet().getMatcher().matchFind(t, mc, services);
+            if (metrics != null) {
+                metrics.record(taclet(), RuleMetrics.Phase.MATCH, System.nanoTime() - time);
+            }
             // the following check will partly be repeated within the
             // constructor; this could be optimised
             if (res == null || !checkVarCondNotFreeIn(taclet(), res.getInstantiations(), pos)) {
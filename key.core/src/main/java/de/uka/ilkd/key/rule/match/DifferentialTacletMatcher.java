@@ -0,0 +1,135 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match;
+
+import java.util.Iterator;
+
+import de.uka.ilkd.key.java.ProgramElement;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.rule.IfFormulaInstantiation;
+import de.uka.ilkd.key.rule.IfMatchResult;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.rule.TacletMatcher;
+
+import org.key_project.logic.SyntaxElement;
+
+/**
+ * Taclet matcher for testing a matcher implementation against a reference implementation. The find
+ * and assumes formulas are matched by both matchers and an {@link IllegalStateException} is thrown
+ * if their results differ. Results are considered equal if both are {@code null} or if both have
+ * the same instantiations and renaming tables. Checking variable conditions and matching single
+ * schema variables is left to the reference matcher.
+ * <p>
+ * Instances of this class should <strong>not</strong> be created directly, use
+ * {@link TacletMatcherKit#createTacletMatcher(Taclet)} instead.
+ * </p>
+ *
+ * @see TacletMatcherKit
+ */
+public class DifferentialTacletMatcher implements TacletMatcher {
+
+    /** the taclet matched by this matcher */
+    private final Taclet taclet;
+    /** the matcher whose results are returned */
+    private final TacletMatcher reference;
+    /** the matcher tested against the reference */
+    private final TacletMatcher candidate;
+
+    /**
+     * @param taclet the Taclet matched by this matcher
+     * @param reference the matcher whose results are returned
+     * @param candidate the matcher tested against the reference
+     */
+    public DifferentialTacletMatcher(Taclet taclet, TacletMatcher reference,
+            TacletMatcher candidate) {
+        this.taclet = taclet;
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+
+    private static boolean sameResult(MatchConditions expected, MatchConditions actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        return expected.getInstantiations().equals(actual.getInstantiations())
+                && expected.renameTable().toString().equals(actual.renameTable().toString());
+    }
+
+    private MatchConditions compare(String method, Object toMatch, MatchConditions expected,
+            MatchConditions actual) {
+        if (!sameResult(expected, actual)) {
+            throw new IllegalStateException(String.format(
+                "Matchers disagree on %s of taclet %s for %s:%nexpected %s%nbut was %s", method,
+                taclet.name(), toMatch, describe(expected), describe(actual)));
+        }
+        return expected;
+    }
+
+    private static String describe(MatchConditions mc) {
+        return mc == null ? "no match"
+                : mc.getInstantiations() + " with renaming " + mc.renameTable();
+    }
+
+    @Override
+    public IfMatchResult matchIf(Iterable<IfFormulaInstantiation> p_toMatch, Term p_template,
+            MatchConditions p_matchCond, Services p_services) {
+        final IfMatchResult expected =
+            reference.matchIf(p_toMatch, p_template, p_matchCond, p_services);
+        final IfMatchResult actual =
+            candidate.matchIf(p_toMatch, p_template, p_matchCond, p_services);
+        if (expected.getMatchConditions().size() != actual.getMatchConditions().size()) {
+            throw new IllegalStateException(String.format(
+                "Matchers disagree on assumes formula %s of taclet %s: %d vs. %d matches",
+                p_template, taclet.name(), expected.getMatchConditions().size(),
+                actual.getMatchConditions().size()));
+        }
+        final Iterator<MatchConditions> it = actual.getMatchConditions().iterator();
+        for (MatchConditions mc : expected.getMatchConditions()) {
+            compare("assumes formula", p_template, mc, it.next());
+        }
+        return expected;
+    }
+
+    @Override
+    public MatchConditions matchIf(Iterable<IfFormulaInstantiation> p_toMatch,
+            MatchConditions p_matchCond, Services p_services) {
+        return compare("assumes sequent", p_toMatch,
+            reference.matchIf(p_toMatch, p_matchCond, p_services),
+            candidate.matchIf(p_toMatch, p_matchCond, p_services));
+    }
+
+    @Override
+    public MatchConditions checkConditions(MatchConditions p_matchconditions,
+            Services services) {
+        return reference.checkConditions(p_matchconditions, services);
+    }
+
+    @Override
+    public MatchConditions checkVariableConditions(SchemaVariable var,
+            SyntaxElement instantiationCandidate, MatchConditions matchCond, Services services) {
+        return reference.checkVariableConditions(var, instantiationCandidate, matchCond,
+            services);
+    }
+
+    @Override
+    public MatchConditions matchFind(Term term, MatchConditions matchCond, Services services) {
+        return compare("find", term, reference.matchFind(term, matchCond, services),
+            candidate.matchFind(term, matchCond, services));
+    }
+
+    @Override
+    public MatchConditions matchSV(SchemaVariable sv, Term term, MatchConditions matchCond,
+            Services services) {
+        return reference.matchSV(sv, term, matchCond, services);
+    }
+
+    @Override
+    public MatchConditions matchSV(SchemaVariable sv, ProgramElement pe,
+            MatchConditions matchCond, Services services) {
+        return reference.matchSV(sv, pe, matchCond, services);
+    }
+}
@@ -5,6 +5,7 @@ package de.uka.ilkd.key.rule.match;
 
 import de.uka.ilkd.key.rule.Taclet;
 import de.uka.ilkd.key.rule.TacletMatcher;
+import de.uka.ilkd.key.rule.match.compiled.CompiledTacletMatcher;
 import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
 
 
@@ -15,9 +16,12 @@ import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
  * {@link #createTacletMatcher(Taclet)} to create a matcher for a {@link Taclet}
  *
  * The active factory is chosen at runtime by passing a value for the system property
- * <code>taclet.match</code> Currently supported values are: {@code vm}. The
- * legacy matching algorithm is the one used since the beginning of KeY. It will soon become
- * deprecated and replaced y {@code vm} as default.
+ * <code>taclet.match</code> Currently supported values are: {@code vm}, {@code compiled} and
+ * {@code differential}. The legacy matching algorithm is the one used since the beginning of KeY.
+ * It will soon become deprecated and replaced y {@code vm} as default. With {@code compiled}, the
+ * patterns are compiled into specialised matchers instead of being interpreted. With
+ * {@code differential}, the results of the compiled matchers are checked against those of the vm
+ * matcher (for testing only, as everything is matched twice).
  */
 public abstract class TacletMatcherKit {
 
@@ -31,6 +35,27 @@ public abstract class TacletMatcherKit {
         }
     }
 
+    /**
+     * The concrete factory for the compiled taclet matcher.
+     */
+    private static final class CompiledTacletMatcherKit extends TacletMatcherKit {
+        @Override
+        public TacletMatcher createTacletMatcher(Taclet taclet) {
+            return new CompiledTacletMatcher(taclet);
+        }
+    }
+
+    /**
+     * The concrete factory for the matcher checking the compiled matcher against the vm matcher.
+     */
+    private static final class DifferentialTacletMatcherKit extends TacletMatcherKit {
+        @Override
+        public TacletMatcher createTacletMatcher(Taclet taclet) {
+            return new DifferentialTacletMatcher(taclet, new VMTacletMatcher(taclet),
+                new CompiledTacletMatcher(taclet));
+        }
+    }
+
     /**
      * sets up the concrete factory to use depending on the provided system property or the given
      * default if no property is set
@@ -41,6 +66,10 @@ public abstract class TacletMatcherKit {
     static {
         if ("vm".equals(TACLET_MATCHER_SELECTION_VALUE)) {
             ACTIVE_TACLET_MATCHER_KIT = new VMTacletMatcherKit();
+        } else if ("compiled".equals(TACLET_MATCHER_SELECTION_VALUE)) {
+            ACTIVE_TACLET_MATCHER_KIT = new CompiledTacletMatcherKit();
+        } else if ("differential".equals(TACLET_MATCHER_SELECTION_VALUE)) {
+            ACTIVE_TACLET_MATCHER_KIT = new DifferentialTacletMatcherKit();
         } else {
             throw new RuntimeException("Unknown taclet matcher selected.");
         }
@@ -0,0 +1,207 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.compiled;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.ElementaryUpdate;
+import de.uka.ilkd.key.logic.op.ModalOperatorSV;
+import de.uka.ilkd.key.logic.op.Modality;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.logic.op.SortDependingFunction;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.match.vm.MatchProgram;
+import de.uka.ilkd.key.rule.match.vm.TacletMatchProgram;
+import de.uka.ilkd.key.rule.match.vm.instructions.BindVariablesInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.Instruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchModalOperatorSVInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchModalityInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchProgramInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchSchemaVariableInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchTermLabelInstruction;
+
+/**
+ * A matcher for a pattern which is compiled into a tree of specialised matchers, one for each
+ * subterm of the pattern, instead of being interpreted by the matching virtual machine of
+ * {@link TacletMatchProgram}. Matching therefore walks the term recursively instead of using a
+ * {@link de.uka.ilkd.key.rule.match.vm.TermNavigator}, and the checks of operators matched by
+ * identity are inlined.
+ * <p>
+ * The matchers reuse the instructions of the virtual machine for everything else and produce
+ * exactly the same match conditions. In particular, the virtual machine stops as soon as the whole
+ * term has been consumed, so the renaming scopes of the binders on the rightmost path of the
+ * pattern are not closed; the compiled matchers do the same.
+ * </p>
+ *
+ * @see CompiledTacletMatcher
+ */
+public final class CompiledMatchProgram implements MatchProgram {
+
+    /**
+     * Matches a term against a fixed (sub-)pattern.
+     */
+    @FunctionalInterface
+    private interface TermMatcher {
+        /**
+         * @param term the term to match
+         * @param mc the match conditions accumulated so far (not null)
+         * @param services the {@link Services}
+         * @return {@code null} if no match was found or the match result
+         */
+        MatchConditions match(Term term, MatchConditions mc, Services services);
+    }
+
+    /** the matcher of the whole pattern */
+    private final TermMatcher matcher;
+
+    private CompiledMatchProgram(TermMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * creates a matcher for the given pattern
+     *
+     * @param pattern the {@link Term} specifying the pattern
+     * @return the specialized matcher for the given pattern
+     */
+    public static CompiledMatchProgram createProgram(Term pattern) {
+        return new CompiledMatchProgram(compile(pattern, false));
+    }
+
+    @Override
+    public MatchConditions match(Term p_toMatch, MatchConditions p_matchCond, Services services) {
+        if (p_matchCond == null) {
+            return null;
+        }
+        return matcher.match(p_toMatch, p_matchCond, services);
+    }
+
+    /**
+     * compiles the matcher for the given pattern
+     *
+     * @param pattern the pattern
+     * @param closeScope whether the renaming scope opened for the variables bound by the pattern
+     *        is closed again (false iff the pattern is on the rightmost path of the whole pattern)
+     * @return the matcher
+     */
+    private static TermMatcher compile(Term pattern, boolean closeScope) {
+        final Operator op = pattern.op();
+
+        final TermMatcher[] subs = new TermMatcher[pattern.arity()];
+        for (int i = 0; i < subs.length; i++) {
+            subs[i] = compile(pattern.sub(i), closeScope || i < subs.length - 1);
+        }
+
+        TermMatcher matcher;
+        if (op instanceof SchemaVariable sv) {
+            final MatchSchemaVariableInstruction<? extends SchemaVariable> instruction =
+                TacletMatchProgram.getMatchInstructionForSV(sv);
+            matcher = instruction::match;
+        } else if (op instanceof SortDependingFunction sdf) {
+            final Instruction<SortDependingFunction> instruction =
+                Instruction.matchSortDependingFunction(sdf);
+            matcher = matchSubterms(instruction::match, subs);
+        } else if (op instanceof ElementaryUpdate elementaryUpdate) {
+            final Instruction<ElementaryUpdate> instruction =
+                Instruction.matchElementaryUpdate(elementaryUpdate);
+            matcher = matchSubterms(instruction::match, subs);
+        } else if (op instanceof Modality mod) {
+            final TermMatcher modality;
+            if (mod.kind() instanceof ModalOperatorSV sv) {
+                final MatchModalOperatorSVInstruction instruction =
+                    Instruction.matchModalOperatorSV(sv);
+                modality = instruction::match;
+            } else {
+                final MatchModalityInstruction instruction = Instruction.matchModalOperator(mod);
+                modality = instruction::match;
+            }
+            final MatchProgramInstruction program =
+                new MatchProgramInstruction(pattern.javaBlock().program());
+            matcher = matchSubterms(sequence(modality, program::match), subs);
+        } else {
+            matcher = matchSubterms(op, subs);
+        }
+
+        if (pattern.hasLabels()) {
+            final MatchTermLabelInstruction labels =
+                new MatchTermLabelInstruction(pattern.getLabels());
+            matcher = sequence(labels::match, matcher);
+        }
+
+        if (!pattern.boundVars().isEmpty()) {
+            final BindVariablesInstruction bind =
+                new BindVariablesInstruction(pattern.boundVars());
+            final TermMatcher body = matcher;
+            if (closeScope) {
+                matcher = (term, mc, services) -> {
+                    mc = bind.match(term, mc, services);
+                    if (mc != null) {
+                        mc = body.match(term, mc, services);
+                    }
+                    return mc == null ? null : mc.shrinkRenameTable();
+                };
+            } else {
+                matcher = sequence(bind::match, body);
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * @return a matcher applying the given matchers one after the other to the same term
+     */
+    private static TermMatcher sequence(TermMatcher first, TermMatcher second) {
+        return (term, mc, services) -> {
+            mc = first.match(term, mc, services);
+            return mc == null ? null : second.match(term, mc, services);
+        };
+    }
+
+    /**
+     * @return a matcher checking that the term has the given operator (by identity) and matching
+     *         its subterms
+     */
+    private static TermMatcher matchSubterms(Operator op, TermMatcher[] subs) {
+        return switch (subs.length) {
+        case 0 -> (term, mc, services) -> term.op() == op ? mc : null;
+        case 1 -> {
+            final TermMatcher sub0 = subs[0];
+            yield (term, mc, services) -> term.op() == op ? sub0.match(term.sub(0), mc, services)
+                    : null;
+        }
+        case 2 -> {
+            final TermMatcher sub0 = subs[0];
+            final TermMatcher sub1 = subs[1];
+            yield (term, mc, services) -> {
+                if (term.op() != op) {
+                    return null;
+                }
+                mc = sub0.match(term.sub(0), mc, services);
+                return mc == null ? null : sub1.match(term.sub(1), mc, services);
+            };
+        }
+        default -> (term, mc, services) -> term.op() == op ? matchAll(subs, term, mc, services)
+                : null;
+        };
+    }
+
+    /**
+     * @return a matcher applying the given head matcher to the term and matching its subterms
+     */
+    private static TermMatcher matchSubterms(TermMatcher head, TermMatcher[] subs) {
+        return (term, mc, services) -> {
+            mc = head.match(term, mc, services);
+            return mc == null ? null : matchAll(subs, term, mc, services);
+        };
+    }
+
+    private static MatchConditions matchAll(TermMatcher[] subs, Term term, MatchConditions mc,
+            Services services) {
+        for (int i = 0; i < subs.length && mc != null; i++) {
+            mc = subs[i].match(term.sub(i), mc, services);
+        }
+        return mc;
+    }
+}
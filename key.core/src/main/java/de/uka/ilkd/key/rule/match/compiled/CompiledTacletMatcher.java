@@ -0,0 +1,29 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.compiled;
+
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.rule.match.TacletMatcherKit;
+import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
+
+/**
+ * Taclet matcher which matches the find and assumes patterns of the taclet using
+ * {@link CompiledMatchProgram}s, which are created when the taclet is created. The checks of
+ * variable conditions are the same as for the {@link VMTacletMatcher}.
+ * <p>
+ * Instances of this class should <strong>not</strong> be created directly, use
+ * {@link TacletMatcherKit#createTacletMatcher(Taclet)} instead.
+ * </p>
+ *
+ * @see TacletMatcherKit
+ */
+public class CompiledTacletMatcher extends VMTacletMatcher {
+
+    /**
+     * @param taclet the Taclet matched by this matcher
+     */
+    public CompiledTacletMatcher(Taclet taclet) {
+        super(taclet, CompiledMatchProgram::createProgram);
+    }
+}
@@ -0,0 +1,32 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.vm;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.rule.MatchConditions;
+
+/**
+ * A matcher specialised for a certain pattern.
+ *
+ * @see TacletMatchProgram
+ * @see VMTacletMatcher
+ */
+public interface MatchProgram {
+
+    /**
+     * tries to match the provided term against the pattern of this program; additional
+     * restrictions are provided via match conditions. The returned conditions are either
+     * {@code null} if no match is possible or {@link MatchConditions} which extends the given
+     * conditions by additional constraints (e.g., instantiations of schemavariables) such that they
+     * describe the found match
+     *
+     * @param p_toMatch the {@link Term} to match
+     * @param p_matchCond the initial {@link MatchConditions} which have to be satisfied in addition
+     *        to those generated by this match
+     * @param services the {@link Services}
+     * @return {@code null} if no match was found or the match result
+     */
+    MatchConditions match(Term p_toMatch, MatchConditions p_matchCond, Services services);
+}
@@ -37,7 +37,7 @@ import org.key_project.util.collection.ImmutableArray;
  * The program is executed by invoking
  * {@link TacletMatchProgram#match(Term, MatchConditions, Services)}.
  */
-public class TacletMatchProgram {
+public class TacletMatchProgram implements MatchProgram {
 
     /**
      * creates a matcher for the given pattern
@@ -155,6 +155,7 @@ public class TacletMatchProgram {
      * @param services the {@link Services}
      * @return {@code null} if no match was found or the match result
      */
+    @Override
     public MatchConditions match(Term p_toMatch, MatchConditions p_matchCond, Services services) {
 
         MatchConditions mc = p_matchCond;
@@ -5,6 +5,7 @@ package de.uka.ilkd.key.rule.match.vm;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.function.Function;
 
 import de.uka.ilkd.key.java.ProgramElement;
 import de.uka.ilkd.key.java.Services;
@@ -52,9 +53,9 @@ import static de.uka.ilkd.key.logic.equality.RenamingTermProperty.RENAMING_TERM_
 public class VMTacletMatcher implements TacletMatcher {
 
     /** the matcher for the find expression of the taclet */
-    private final TacletMatchProgram findMatchProgram;
+    private final MatchProgram findMatchProgram;
     /** the matcher for the taclet's assumes formulas */
-    private final HashMap<Term, TacletMatchProgram> assumesMatchPrograms = new HashMap<>();
+    private final HashMap<Term, MatchProgram> assumesMatchPrograms = new HashMap<>();
 
     /**
      * the variable conditions of the taclet that need to be satisfied by found schema variable
@@ -84,6 +85,15 @@ public class VMTacletMatcher implements TacletMatcher {
      * @param taclet the Taclet matched by this matcher
      */
     public VMTacletMatcher(Taclet taclet) {
+        this(taclet, TacletMatchProgram::createProgram);
+    }
+
+    /**
+     * @param taclet the Taclet matched by this matcher
+     * @param createProgram creates the matcher for a pattern of the taclet
+     */
+    protected VMTacletMatcher(Taclet taclet,
+            Function<Term, ? extends MatchProgram> createProgram) {
         varconditions = taclet.getVariableConditions();
         assumesSequent = taclet.ifSequent();
         boundVars = taclet.getBoundVariables();
@@ -93,7 +103,7 @@ public class VMTacletMatcher implements TacletMatcher {
             findExp = ((FindTaclet) taclet).find();
             ignoreTopLevelUpdates = ((FindTaclet) taclet).ignoreTopLevelUpdates()
                     && !(findExp.op() instanceof UpdateApplication);
-            findMatchProgram = TacletMatchProgram.createProgram(findExp);
+            findMatchProgram = createProgram.apply(findExp);
 
         } else {
             ignoreTopLevelUpdates = false;
@@ -102,7 +112,7 @@ public class VMTacletMatcher implements TacletMatcher {
         }
 
         for (SequentFormula sf : assumesSequent) {
-            assumesMatchPrograms.put(sf.formula(), TacletMatchProgram.createProgram(sf.formula()));
+            assumesMatchPrograms.put(sf.formula(), createProgram.apply(sf.formula()));
         }
     }
 
@@ -115,7 +125,7 @@ public class VMTacletMatcher implements TacletMatcher {
     @Override
     public final IfMatchResult matchIf(Iterable<IfFormulaInstantiation> p_toMatch,
             Term p_template, MatchConditions p_matchCond, Services p_services) {
-        TacletMatchProgram prg = assumesMatchPrograms.get(p_template);
+        MatchProgram prg = assumesMatchPrograms.get(p_template);
 
 
         ImmutableList<IfFormulaInstantiation> resFormulas =
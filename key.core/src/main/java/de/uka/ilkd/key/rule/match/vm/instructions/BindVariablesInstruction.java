@@ -100,9 +100,22 @@ private static class VariableSVBinder extends MatchSchemaVariableInstruction<Var
     @Override
     public MatchConditions match(TermNavigator termPosition, MatchConditions matchConditions,
             Services services) {
+        return match(termPosition.getCurrentSubterm(), matchConditions, services);
+    }
+
+    /**
+     * matches the variables bound by the given term against the variables bound by the pattern and
+     * opens a new renaming scope for them
+     *
+     * @param term the {@link Term} whose bound variables are matched
+     * @param matchConditions the {@link MatchConditions} accumulated so far
+     * @param services the {@link Services}
+     * @return {@code null} if the bound variables do not match or the resulting
+     *         {@link MatchConditions}
+     */
+    public MatchConditions match(Term term, MatchConditions matchConditions, Services services) {
 
-        ImmutableArray<QuantifiableVariable> variablesToMatchAndBind =
-            termPosition.getCurrentSubterm().boundVars();
+        ImmutableArray<QuantifiableVariable> variablesToMatchAndBind = term.boundVars();
 
         matchConditions = matchConditions.extendRenameTable();
 
@@ -74,7 +74,8 @@ public abstract class Instruction<OP extends Operator> implements MatchInstructi
         return new UnbindVariablesInstruction();
     }
 
-    public static MatchInstruction matchElementaryUpdate(ElementaryUpdate elementaryUpdate) {
+    public static Instruction<ElementaryUpdate> matchElementaryUpdate(
+            ElementaryUpdate elementaryUpdate) {
         return new MatchElementaryUpdateInstruction(elementaryUpdate);
     }
 
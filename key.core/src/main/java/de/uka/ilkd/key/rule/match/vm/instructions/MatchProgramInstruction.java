@@ -6,6 +6,7 @@ package de.uka.ilkd.key.rule.match.vm.instructions;
 import de.uka.ilkd.key.java.ProgramElement;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.java.SourceData;
+import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.rule.MatchConditions;
 import de.uka.ilkd.key.rule.match.vm.TermNavigator;
 
@@ -20,12 +21,24 @@ public class MatchProgramInstruction implements MatchInstruction {
     @Override
     public MatchConditions match(TermNavigator termPosition, MatchConditions matchConditions,
             Services services) {
-        final MatchConditions result = pe.match(
-            new SourceData(termPosition.getCurrentSubterm().javaBlock().program(), -1, services),
-            matchConditions);
+        final MatchConditions result =
+            match(termPosition.getCurrentSubterm(), matchConditions, services);
         if (result != null) {
             termPosition.gotoNext();
         }
         return result;
     }
+
+    /**
+     * matches the program of the pattern against the program of the given term
+     *
+     * @param term the {@link Term} whose program is matched
+     * @param matchConditions the {@link MatchConditions} accumulated so far
+     * @param services the {@link Services}
+     * @return {@code null} if the programs do not match or the resulting {@link MatchConditions}
+     */
+    public MatchConditions match(Term term, MatchConditions matchConditions, Services services) {
+        return pe.match(new SourceData(term.javaBlock().program(), -1, services),
+            matchConditions);
+    }
 }
@@ -15,7 +15,7 @@ import de.uka.ilkd.key.logic.op.AbstractTermTransformer;
 import de.uka.ilkd.key.logic.op.Operator;
 import de.uka.ilkd.key.util.Debug;
 
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
@@ -35,19 +35,14 @@ public class Monomial {
     public static final Monomial ONE = new Monomial(ImmutableSLList.nil(), BigInteger.ONE);
 
     public static Monomial create(Term monoTerm, Services services) {
-        final LRUCache<Term, Monomial> monomialCache = services.getCaches().getMonomialCache();
+        final ConcurrentLRUCache<Term, Monomial> monomialCache =
+            services.getCaches().getMonomialCache();
         monoTerm = TermLabelManager.removeIrrelevantLabels(monoTerm, services);
-        Monomial res;
-
-        synchronized (monomialCache) {
-            res = monomialCache.get(monoTerm);
-        }
+        Monomial res = monomialCache.get(monoTerm);
 
         if (res == null) {
             res = createHelp(monoTerm, services);
-            synchronized (monomialCache) {
-                monomialCache.put(monoTerm, res);
-            }
+            monomialCache.put(monoTerm, res);
         }
         return res;
     }
@@ -14,7 +14,7 @@ import de.uka.ilkd.key.logic.label.TermLabelManager;
 import de.uka.ilkd.key.logic.op.AbstractTermTransformer;
 import de.uka.ilkd.key.logic.op.Operator;
 
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
@@ -48,19 +48,15 @@ public class Polynomial {
     }
 
     public static Polynomial create(Term polyTerm, Services services) {
-        final LRUCache<Term, Polynomial> cache = services.getCaches().getPolynomialCache();
+        final ConcurrentLRUCache<Term, Polynomial> cache =
+            services.getCaches().getPolynomialCache();
         polyTerm = TermLabelManager.removeIrrelevantLabels(polyTerm, services);
 
-        Polynomial res;
-        synchronized (cache) {
-            res = cache.get(polyTerm);
-        }
+        Polynomial res = cache.get(polyTerm);
 
         if (res == null) {
             res = createHelp(polyTerm, services);
-            synchronized (cache) {
-                cache.put(polyTerm, res);
-            }
+            cache.put(polyTerm, res);
         }
         return res;
     }
@@ -485,8 +485,9 @@ public class Configuration {
 
         public ConfigurationWriter printValue(Object value) {
             if (value instanceof String) {
-                // TODO What about '"' inside value?
-                out.format("\"%s\"", value);
+                // escaped like the parser expects it, see ConfigurationBuilder
+                out.format("\"%s\"",
+                    ((String) value).replace("\\", "\\\\").replace("\"", "\\\""));
             } else if (value instanceof Long || value instanceof Integer
                     || value instanceof Double || value instanceof Float
                     || value instanceof Short || value instanceof Byte
@@ -140,6 +140,23 @@ public interface SMTSolver {
      */
     void start(SolverTimeout timeout, SMTSettings settings);
 
+    /**
+     * Translates the problem of this solver, so that {@link #start(SolverTimeout, SMTSettings)}
+     * can send it to the solver process right away. Calling this method is optional; it allows
+     * <code>SolverLauncher</code> to translate problems on other threads while solvers are
+     * running. Errors are reported once the solver is started.
+     *
+     * @param settings the settings to use for the translation
+     */
+    void prepare(SMTSettings settings);
+
+    /**
+     * @return true iff {@link #prepare(SMTSettings)} has found the result of this solver in the
+     *         {@link de.uka.ilkd.key.smt.communication.SolverResultCache}, so that starting the
+     *         solver does not launch an external process
+     */
+    boolean hasCachedResult();
+
     /**
      * @return the reason of the interruption: see <code>ReasonOfInterruption</code>.
      */
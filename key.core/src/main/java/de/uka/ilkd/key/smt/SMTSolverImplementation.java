@@ -15,13 +15,19 @@ import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.smt.communication.AbstractSolverSocket;
 import de.uka.ilkd.key.smt.communication.ExternalProcessLauncher;
+import de.uka.ilkd.key.smt.communication.PersistentSolverProcess;
+import de.uka.ilkd.key.smt.communication.Pipe;
 import de.uka.ilkd.key.smt.communication.SolverCommunication;
 import de.uka.ilkd.key.smt.communication.SolverCommunication.Message;
+import de.uka.ilkd.key.smt.communication.SolverProcessPool;
+import de.uka.ilkd.key.smt.communication.SolverResultCache;
+import de.uka.ilkd.key.smt.newsmt2.ModularSMTLib2Translator;
 import de.uka.ilkd.key.smt.solvertypes.SolverType;
 import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
 import de.uka.ilkd.key.taclettranslation.assumptions.TacletSetTranslation;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +83,11 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
      */
     private final ExternalProcessLauncher processLauncher;
 
+    /**
+     * the persistent process solving the problem if the {@link SolverProcessPool} is used
+     */
+    private volatile @Nullable PersistentSolverProcess persistentProcess;
+
     /**
      * The services object is stored in order to have the possibility to access it in every method
      */
@@ -139,6 +150,21 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
      */
     private final Collection<Throwable> exceptionsForTacletTranslation = new LinkedList<>();
 
+    /**
+     * The command line of the solver process, null until the problem has been translated
+     */
+    private volatile String[] commands;
+
+    /**
+     * the exception thrown by the translation, if any
+     */
+    private volatile @Nullable Throwable translationException;
+
+    /**
+     * the result of this solver found in the {@link SolverResultCache}, if any
+     */
+    private volatile SolverResultCache.@Nullable Entry cachedResult;
+
     /**
      * The timeout in seconds for this SMT solver run.
      */
@@ -179,6 +205,29 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
         thread.start();
     }
 
+    @Override
+    public synchronized void prepare(SMTSettings settings) {
+        if (commands != null || translationException != null) {
+            return;
+        }
+        smtSettings = settings;
+        try {
+            commands = translateToCommand(problem.getSequent());
+        } catch (Throwable e) {
+            translationException = e;
+            return;
+        }
+        SolverResultCache cache = SolverResultCache.getInstance();
+        if (cache != null && type != SolverTypes.Z3_CE_SOLVER) {
+            cachedResult = cache.lookup(type, type.modifyProblem(problemString));
+        }
+    }
+
+    @Override
+    public boolean hasCachedResult() {
+        return cachedResult != null;
+    }
+
     @Override
     public ReasonOfInterruption getReasonOfInterruption() {
         return isRunning() ? ReasonOfInterruption.NoInterruption : reasonOfInterruption;
@@ -251,11 +300,11 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
         setSolverState(SolverState.Running);
         listener.processStarted(this, problem);
 
-        // Secondly: Translate the given problem
-        String[] commands;
-        try {
-            commands = translateToCommand(problem.getSequent());
-        } catch (Throwable e) {
+        // Secondly: Translate the given problem (unless done before)
+        prepare(smtSettings);
+        String[] commands = this.commands;
+        if (commands == null) {
+            Throwable e = translationException;
             interruptionOccurred(e);
             listener.processInterrupted(this, problem, e);
             setSolverState(SolverState.Stopped);
@@ -263,26 +312,73 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             return;
         }
 
-        // Thirdly: start the external process.
+        SolverResultCache.Entry cached = cachedResult;
+        if (cached != null) {
+            LOGGER.debug("{}: result taken from cache (originally took {} ms)", this,
+                cached.time());
+            SolverResultCache.replay(cached, solverCommunication, type.getName());
+            solverTimeout.cancel();
+            setSolverState(SolverState.Stopped);
+            listener.processStopped(this, problem);
+            return;
+        }
+
+        // Thirdly: start the external process (or reuse a persistent one).
+        String modifiedProblem = type.modifyProblem(problemString);
+        int goalStart = SolverProcessPool.ENABLED && type != SolverTypes.Z3_CE_SOLVER
+                ? modifiedProblem.indexOf(ModularSMTLib2Translator.DECLARATIONS_HEADER)
+                : -1;
         try {
-            processLauncher.launch(commands);
-            processLauncher.getPipe().sendMessage(type.modifyProblem(problemString));
-            // processLauncher.getPipe().sendEOF();
+            Pipe pipe;
+            if (goalStart >= 0) {
+                PersistentSolverProcess process = SolverProcessPool.getInstance()
+                        .acquire(commands, type.getDelimiters(),
+                            modifiedProblem.substring(0, goalStart));
+                persistentProcess = process;
+                if (!isRunning()) {
+                    // interrupted while acquiring the process
+                    return;
+                }
+                SolverScheduler.getInstance().processLaunched(this, process.toHandle());
+                process.begin(solverCommunication, modifiedProblem.substring(0, goalStart));
+                process.sendMessage(modifiedProblem.substring(goalStart));
+                pipe = process;
+            } else {
+                processLauncher.launch(commands);
+                SolverScheduler.getInstance().processLaunched(this,
+                    processLauncher.getProcess().toHandle());
+                processLauncher.getPipe().sendMessage(modifiedProblem);
+                // processLauncher.getPipe().sendEOF();
+                pipe = processLauncher.getPipe();
+            }
 
-            String msg = processLauncher.getPipe().readMessage();
+            long startTime = System.currentTimeMillis();
+            String msg = pipe.readMessage();
             while (msg != null) {
-                socket.messageIncoming(processLauncher.getPipe(), msg);
-                msg = processLauncher.getPipe().readMessage();
+                socket.messageIncoming(pipe, msg);
+                msg = pipe.readMessage();
+            }
+            SolverResultCache cache = SolverResultCache.getInstance();
+            if (cache != null && type != SolverTypes.Z3_CE_SOLVER && !wasInterrupted()) {
+                cache.store(type, modifiedProblem, solverCommunication,
+                    System.currentTimeMillis() - startTime);
             }
         } catch (IllegalStateException | IOException | InterruptedException e) {
             interruptionOccurred(e);
             Thread.currentThread().interrupt();
         } finally {
-            // Close everything.
+            // Close everything. The process is stopped before the listener is informed, so that
+            // the SolverScheduler does not start another process while this one is still alive.
             solverTimeout.cancel();
+            PersistentSolverProcess process = persistentProcess;
+            if (process != null) {
+                persistentProcess = null;
+                SolverProcessPool.getInstance().release(process);
+            } else {
+                processLauncher.stop();
+            }
             setSolverState(SolverState.Stopped);
             listener.processStopped(this, problem);
-            processLauncher.stop();
         }
     }
 
@@ -366,6 +462,11 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             solverTimeout.cancel();
         }
         if (thread != null) {
+            PersistentSolverProcess process = persistentProcess;
+            if (process != null) {
+                // the state of an interrupted solver is unknown, it must not be reused
+                process.close();
+            }
             processLauncher.stop();
             thread.interrupt();
         }
@@ -4,9 +4,14 @@
 package de.uka.ilkd.key.smt;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.smt.SMTSolver.ReasonOfInterruption;
@@ -103,6 +108,17 @@ public class SolverLauncher implements SolverListener {
         listeners.remove(listener);
     }
 
+    /**
+     * Sets the function estimating the difficulty of problems. Solvers for problems with lower
+     * estimates are started first by the {@link SolverScheduler}. By default, the depth of the
+     * problem's term is used.
+     *
+     * @param priority the estimation function
+     */
+    public void setPriority(ToLongFunction<SMTProblem> priority) {
+        this.priority = priority;
+    }
+
     /**
      * Launches several solvers for the problem that is handed over.<br>
      * Note: Calling this methods does not create an extra thread, i.e. the calling thread is
@@ -138,6 +154,13 @@ public class SolverLauncher implements SolverListener {
     public void stop() {
         stopSemaphore.tryAcquire();
         session.interruptAll(ReasonOfInterruption.User);
+        translations.values().forEach(translation -> translation.cancel(false));
+        // solvers still waiting for the scheduler are not started anymore
+        for (SMTSolver solver : session.getCurrentlyRunning()) {
+            if (SolverScheduler.getInstance().cancel(solver)) {
+                notifySolverHasFinished(solver);
+            }
+        }
     }
 
     /* ################ Implementation ############################ */
@@ -148,6 +171,29 @@ public class SolverLauncher implements SolverListener {
      */
     private static final int PERIOD = 50;
 
+    /**
+     * The number of threads translating problems, shared by all launchers.
+     */
+    private static final int TRANSLATION_THREADS = Integer.getInteger("key.smt.translationThreads",
+        Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The number of solvers (beyond the ones already handed to the scheduler) whose problems are
+     * translated in advance.
+     */
+    private static final int TRANSLATION_LOOKAHEAD = 2 * TRANSLATION_THREADS;
+
+    /**
+     * The pool translating problems before the solvers are started, so that translation overlaps
+     * with the execution of other solvers.
+     */
+    private static final ExecutorService TRANSLATION_POOL =
+        Executors.newFixedThreadPool(TRANSLATION_THREADS, r -> {
+            Thread thread = new Thread(r, "SMTTranslator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
     /**
      * Used for synchronisation. This lock is used in the same way as the
      * <code>synchronize<code>statement.
@@ -183,6 +229,22 @@ public class SolverLauncher implements SolverListener {
 
     private final LinkedList<SolverLauncherListener> listeners = new LinkedList<>();
 
+    /**
+     * Estimates the difficulty of a problem, used as priority for the {@link SolverScheduler}.
+     */
+    private ToLongFunction<SMTProblem> priority = SolverLauncher::estimateDifficulty;
+
+    /**
+     * The priorities of the solvers to be started.
+     */
+    private final Map<SMTSolver, Long> priorities = new HashMap<>();
+
+    /**
+     * The translations started for the solvers.
+     */
+    private final Map<SMTSolver, CompletableFuture<Void>> translations =
+        new ConcurrentHashMap<>();
+
     /**
      * Every launcher object should be used only once.
      */
@@ -239,27 +301,85 @@ public class SolverLauncher implements SolverListener {
 
         LinkedList<SMTSolver> solvers = new LinkedList<>();
         for (SMTProblem problem : problems) {
-            solvers.addAll(problem.getSolvers());
+            long difficulty = priority.applyAsLong(problem);
+            for (SMTSolver solver : problem.getSolvers()) {
+                solvers.add(solver);
+                priorities.put(solver, difficulty);
+            }
         }
+        // start easy problems first (the sort is stable)
+        solvers.sort(Comparator.comparing(priorities::get));
         launchSolvers(solvers, problems, factories);
     }
 
+    private static long estimateDifficulty(SMTProblem problem) {
+        return problem.getTerm().depth();
+    }
+
     /**
-     * Takes the next solvers from the queue and starts them. It depends on the settings how many
-     * solvers can be executed concurrently.
+     * Takes the next solvers from the queue and hands them to the {@link SolverScheduler}, which
+     * starts them once the JVM-wide limit of solver processes permits. It depends on the settings
+     * how many solvers of this launcher can be executed (or wait for the scheduler) concurrently.
      */
     private void fillRunningList(Queue<SMTSolver> solvers) {
         while (startNextSolvers(solvers) && !isInterrupted()) {
             SMTSolver solver = solvers.poll();
             Objects.requireNonNull(solver);
 
-            SolverTimeout solverTimeout = new SolverTimeout(solver, session);
-            timer.schedule(solverTimeout, solver.getTimeout(), PERIOD);
             session.addCurrentlyRunning(solver);
+            long solverPriority = priorities.get(solver);
+            // the solver is handed to the scheduler once its problem has been translated,
+            // solvers with a cached result do not need a slot since they start no process
+            translate(solver).whenComplete((result, exc) -> {
+                if (solver.hasCachedResult()) {
+                    startSolver(solver);
+                } else {
+                    SolverScheduler.getInstance().submit(solver, solverPriority,
+                        () -> startSolver(solver));
+                }
+            });
+        }
+        translateAhead(solvers);
+    }
+
+    /**
+     * Starts a solver once the {@link SolverScheduler} permits.
+     */
+    private void startSolver(SMTSolver solver) {
+        if (isInterrupted()) {
+            // the calling thread may hold the lock of another launcher
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    notifySolverHasFinished(solver);
+                }
+            }, 0);
+            return;
+        }
+        // the timeout does not include the time spent waiting for the scheduler
+        SolverTimeout solverTimeout = new SolverTimeout(solver, session);
+        timer.schedule(solverTimeout, solver.getTimeout(), PERIOD);
+        solver.start(solverTimeout, settings);
+    }
+
+    /**
+     * Translates the problem of the given solver on the translation pool (if not yet started).
+     */
+    private CompletableFuture<Void> translate(SMTSolver solver) {
+        return translations.computeIfAbsent(solver,
+            s -> CompletableFuture.runAsync(() -> s.prepare(settings), TRANSLATION_POOL));
+    }
 
-            // This cast is okay since there is only the class
-            // SMTSolverImplementation that implements SMTSolver.
-            solver.start(solverTimeout, settings);
+    /**
+     * Starts the translation of the next solvers in the queue.
+     */
+    private void translateAhead(Queue<SMTSolver> solvers) {
+        int count = 0;
+        for (SMTSolver solver : solvers) {
+            if (count++ >= TRANSLATION_LOOKAHEAD) {
+                break;
+            }
+            translate(solver);
         }
     }
 
@@ -387,6 +507,8 @@ public class SolverLauncher implements SolverListener {
             wait.signal();
             lock.unlock();
         }
+        // may start solvers of other launchers, so do not hold the lock
+        SolverScheduler.getInstance().finished(solver);
     }
 
     /**
@@ -468,6 +590,15 @@ class Session {
         }
     }
 
+    public Collection<SMTSolver> getCurrentlyRunning() {
+        try {
+            lock.lock();
+            return new LinkedList<>(currentlyRunning);
+        } finally { // finally trumps return
+            lock.unlock();
+        }
+    }
+
     public int getCurrentlyRunningCount() {
         try {
             lock.lock();
@@ -0,0 +1,268 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import de.uka.ilkd.key.smt.SMTSolver.ReasonOfInterruption;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of SMT solver processes running concurrently in this JVM, across all
+ * {@link SolverLauncher}s. Solvers are submitted with a priority and started in the order of
+ * their priority (lower values first, FIFO among equal values) as soon as a slot is free.
+ * <p>
+ * Optionally, the resident memory of the solver processes is monitored (currently only on systems
+ * providing <code>/proc</code>), and solvers exceeding the limit are interrupted like solvers
+ * exceeding their timeout. The scheduler records how long solvers waited for a slot and how long
+ * they ran, see {@link #getStatistics()}.
+ * </p>
+ * The limits are configured by the system properties <code>key.smt.maxProcesses</code> (default:
+ * number of processors) and <code>key.smt.maxProcessMemory</code> (in MiB, default: unlimited).
+ */
+public final class SolverScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverScheduler.class);
+
+    /** period of the memory checks in milliseconds */
+    private static final int MEMORY_CHECK_PERIOD = 250;
+
+    private static final SolverScheduler INSTANCE = new SolverScheduler(
+        Integer.getInteger("key.smt.maxProcesses", Runtime.getRuntime().availableProcessors()),
+        Long.getLong("key.smt.maxProcessMemory", 0L) * 1024 * 1024);
+
+    /** the maximal number of concurrently running solvers */
+    private final int maxProcesses;
+
+    /** the maximal resident memory of a solver process in bytes, or 0 if unlimited */
+    private final long maxProcessMemory;
+
+    /** the solvers waiting for a slot */
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+
+    /** the tickets of all waiting and running solvers */
+    private final Map<SMTSolver, Ticket> tickets = new HashMap<>();
+
+    /** used to order tickets of equal priority */
+    private long submitted;
+
+    private int running;
+
+    private long started;
+    private long finished;
+    private long totalQueueWait;
+    private long maxQueueWait;
+    private long totalSolveTime;
+
+    /** the timer checking the memory of the running processes, created on demand */
+    private @Nullable Timer memoryTimer;
+
+    SolverScheduler(int maxProcesses, long maxProcessMemory) {
+        this.maxProcesses = Math.max(1, maxProcesses);
+        this.maxProcessMemory = maxProcessMemory;
+    }
+
+    public static SolverScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enqueues a solver. The given action, which is expected to start the solver, is executed as
+     * soon as a slot is free, possibly immediately by the calling thread. The slot is occupied
+     * until {@link #finished(SMTSolver)} is called for the solver.
+     *
+     * @param solver the solver
+     * @param priority the priority of the solver, lower values are started first
+     * @param start starts the solver
+     */
+    public void submit(SMTSolver solver, long priority, Runnable start) {
+        synchronized (this) {
+            Ticket ticket = new Ticket(solver, priority, submitted++, start);
+            tickets.put(solver, ticket);
+            queue.add(ticket);
+        }
+        dispatch();
+    }
+
+    /**
+     * Removes a solver which has not been started yet.
+     *
+     * @param solver the solver
+     * @return true iff the solver was waiting for a slot and will not be started
+     */
+    public synchronized boolean cancel(SMTSolver solver) {
+        Ticket ticket = tickets.get(solver);
+        if (ticket == null || ticket.startTime != 0) {
+            return false;
+        }
+        queue.remove(ticket);
+        tickets.remove(solver);
+        return true;
+    }
+
+    /**
+     * Frees the slot of a solver that has been started. Calling this method more than once, or
+     * for solvers which have not been started, has no effect.
+     *
+     * @param solver the solver
+     */
+    public void finished(SMTSolver solver) {
+        synchronized (this) {
+            Ticket ticket = tickets.get(solver);
+            if (ticket == null || ticket.startTime == 0) {
+                return;
+            }
+            tickets.remove(solver);
+            running--;
+            finished++;
+            totalSolveTime += System.nanoTime() - ticket.startTime;
+        }
+        dispatch();
+    }
+
+    /**
+     * Registers the external process of a running solver for memory monitoring.
+     *
+     * @param solver the solver
+     * @param process the process started by the solver
+     */
+    public synchronized void processLaunched(SMTSolver solver, ProcessHandle process) {
+        Ticket ticket = tickets.get(solver);
+        if (ticket == null || maxProcessMemory <= 0) {
+            return;
+        }
+        ticket.process = process;
+        if (memoryTimer == null) {
+            memoryTimer = new Timer("SMTMemoryMonitor", true);
+            memoryTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    checkMemory();
+                }
+            }, MEMORY_CHECK_PERIOD, MEMORY_CHECK_PERIOD);
+        }
+    }
+
+    /** Starts waiting solvers as long as there are free slots. */
+    private void dispatch() {
+        List<Runnable> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxProcesses && !queue.isEmpty()) {
+                Ticket ticket = queue.poll();
+                ticket.startTime = System.nanoTime();
+                long wait = ticket.startTime - ticket.submitTime;
+                totalQueueWait += wait;
+                maxQueueWait = Math.max(maxQueueWait, wait);
+                running++;
+                started++;
+                toStart.add(ticket.start);
+            }
+        }
+        for (Runnable start : toStart) {
+            start.run();
+        }
+    }
+
+    private void checkMemory() {
+        List<Ticket> monitored;
+        synchronized (this) {
+            monitored = new ArrayList<>(tickets.values());
+        }
+        for (Ticket ticket : monitored) {
+            ProcessHandle process = ticket.process;
+            if (process == null) {
+                continue;
+            }
+            long rss = residentMemory(process);
+            if (rss > maxProcessMemory) {
+                LOGGER.warn("Solver {} exceeds the memory limit ({} MiB), interrupting it",
+                    ticket.solver, rss / (1024 * 1024));
+                ticket.process = null;
+                ticket.solver.interrupt(ReasonOfInterruption.Timeout);
+            }
+        }
+    }
+
+    /**
+     * @param process a process
+     * @return the resident memory of the process in bytes, or -1 if not available
+     */
+    private static long residentMemory(ProcessHandle process) {
+        try {
+            for (String line : Files
+                    .readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    // e.g. "VmRSS:     12345 kB"
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // no /proc (or the process has already terminated)
+        }
+        return -1;
+    }
+
+    /**
+     * @return a snapshot of the scheduler's state and metrics
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(running, queue.size(), started, finished, totalQueueWait / 1_000_000,
+            maxQueueWait / 1_000_000, totalSolveTime / 1_000_000);
+    }
+
+    /**
+     * Metrics of the scheduler. Times are given in milliseconds.
+     *
+     * @param running the number of currently running solvers
+     * @param waiting the number of solvers waiting for a slot
+     * @param started the number of solvers started so far
+     * @param finished the number of solvers finished so far
+     * @param totalQueueWait the accumulated time started solvers have waited for a slot
+     * @param maxQueueWait the maximal time a started solver has waited for a slot
+     * @param totalSolveTime the accumulated running time of finished solvers
+     */
+    public record Statistics(int running, int waiting, long started, long finished,
+            long totalQueueWait, long maxQueueWait, long totalSolveTime) {
+
+        /** @return the average time a solver has waited for a slot */
+        public long averageQueueWait() {
+            return started == 0 ? 0 : totalQueueWait / started;
+        }
+
+        /** @return the average running time of a solver */
+        public long averageSolveTime() {
+            return finished == 0 ? 0 : totalSolveTime / finished;
+        }
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+        private final SMTSolver solver;
+        private final long priority;
+        private final long order;
+        private final Runnable start;
+        private final long submitTime = System.nanoTime();
+        /** the time the solver has been started, 0 while waiting */
+        private long startTime;
+        private volatile @Nullable ProcessHandle process;
+
+        private Ticket(SMTSolver solver, long priority, long order, Runnable start) {
+            this.solver = solver;
+            this.priority = priority;
+            this.order = order;
+            this.start = start;
+        }
+
+        @Override
+        public int compareTo(Ticket o) {
+            int cmp = Long.compare(priority, o.priority);
+            return cmp != 0 ? cmp : Long.compare(order, o.order);
+        }
+    }
+}
@@ -88,4 +88,11 @@ public class ExternalProcessLauncher {
     public Pipe getPipe() {
         return pipe;
     }
+
+    /**
+     * @return the external process, or null if it has not been launched yet
+     */
+    public Process getProcess() {
+        return process;
+    }
 }
@@ -0,0 +1,168 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An external SMT solver process that stays alive across several problems. The goal independent
+ * preamble of a problem is sent once and kept on the base level of the solver's assertion stack,
+ * while the goal specific part is wrapped in <code>(push 1)</code> / <code>(pop 1)</code>.
+ * <p>
+ * The solver sockets are not aware of this: The <code>(exit)</code> they send after receiving
+ * the result is replaced by <code>(pop 1)</code> and an <code>(echo ...)</code> of a marker, and
+ * {@link #readMessage()} reports the end of the stream once the marker arrives. Processes are
+ * obtained from and returned to the {@link SolverProcessPool}.
+ * </p>
+ */
+public final class PersistentSolverProcess implements Pipe {
+    /** the marker echoed by the solver after a problem has been completely processed */
+    private static final String END_OF_PROBLEM = "KEY_END_OF_PROBLEM";
+
+    /** the key of this process in the pool */
+    private final @NonNull String poolKey;
+
+    /** the external process */
+    private final @NonNull Process process;
+
+    /** the reader splitting the merged stdout and stderr of the process into messages */
+    private final @NonNull BufferedMessageReader reader;
+
+    /** the writer connected to stdin of the process */
+    private final @NonNull Writer writer;
+
+    /** the preamble that is currently asserted on the base level of the solver, if any */
+    private @Nullable String preamble;
+
+    /** the communication log of the problem currently being solved */
+    private @NonNull SolverCommunication session = new SolverCommunication();
+
+    /** whether the socket has already ended the current problem */
+    private boolean exitRequested;
+
+    /** whether the end marker of the current problem has been received */
+    private boolean finished;
+
+    PersistentSolverProcess(@NonNull String poolKey, @NonNull String[] command,
+            @NonNull String[] messageDelimiters) throws IOException {
+        this.poolKey = poolKey;
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        process = builder.start();
+        writer = new BufferedWriter(
+            new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        reader = new BufferedMessageReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8),
+            messageDelimiters);
+    }
+
+    /**
+     * @return the handle of the external process
+     */
+    public @NonNull ProcessHandle toHandle() {
+        return process.toHandle();
+    }
+
+    @NonNull
+    String getPoolKey() {
+        return poolKey;
+    }
+
+    @Nullable
+    String getPreamble() {
+        return preamble;
+    }
+
+    /**
+     * Starts a new problem: Makes sure the given preamble is asserted on the base level and opens
+     * a new assertion scope for the goal specific part.
+     *
+     * @param communication the log for the messages of the new problem
+     * @param problemPreamble the goal independent part of the problem
+     * @throws IOException if sending to the process fails
+     */
+    public void begin(@NonNull SolverCommunication communication, @NonNull String problemPreamble)
+            throws IOException {
+        session = communication;
+        exitRequested = false;
+        finished = false;
+        if (!problemPreamble.equals(preamble)) {
+            if (preamble != null) {
+                preamble = null;
+                sendMessage("(reset)");
+            }
+            sendMessage(problemPreamble);
+            preamble = problemPreamble;
+        }
+        sendMessage("(push 1)");
+    }
+
+    /**
+     * @return true iff the last problem has been completed and the process can be reused
+     */
+    boolean isReusable() {
+        return finished && process.isAlive();
+    }
+
+    @Override
+    public void sendMessage(@NonNull String message) throws IOException {
+        if (message.trim().equals("(exit)")) {
+            if (!exitRequested) {
+                exitRequested = true;
+                write("(pop 1)");
+                write("(echo \"" + END_OF_PROBLEM + "\")");
+            }
+            return;
+        }
+        write(message);
+    }
+
+    private void write(String message) throws IOException {
+        session.addMessage(message, SolverCommunication.MessageType.INPUT);
+        try {
+            writer.write(message + System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(
+                    "Process terminated (exit code " + process.exitValue() + ").");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public @Nullable String readMessage() throws IOException, InterruptedException {
+        if (finished) {
+            return null;
+        }
+        String msg = reader.readMessage();
+        // some solvers echo with quotes, some without
+        if (msg != null && msg.trim().replace("\"", "").equals(END_OF_PROBLEM)) {
+            finished = true;
+            return null;
+        }
+        return msg;
+    }
+
+    @Override
+    public @NonNull SolverCommunication getSolverCommunication() {
+        return session;
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+
+    @Override
+    public void sendEOF() {
+        // a process without stdin cannot be reused
+        close();
+    }
+}
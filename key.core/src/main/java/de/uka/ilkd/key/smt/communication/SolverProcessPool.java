@@ -0,0 +1,108 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Keeps idle {@link PersistentSolverProcess}es alive so that subsequent SMT problems, e.g. those
+ * created by running a macro over many goals, neither have to start a new solver process nor have
+ * to send the common preamble again.
+ * <p>
+ * The pool is disabled by default and activated by the system property
+ * <code>key.smt.persistentProcesses</code>. The number of idle processes kept per solver command
+ * is bounded by <code>key.smt.persistentProcesses.maxIdle</code> (default: number of processors).
+ * </p>
+ */
+public final class SolverProcessPool {
+    /** whether problems are solved by persistent solver processes */
+    public static final boolean ENABLED =
+        Boolean.parseBoolean(System.getProperty("key.smt.persistentProcesses"));
+
+    /** the maximal number of idle processes kept for one solver command */
+    private static final int MAX_IDLE = Integer.getInteger("key.smt.persistentProcesses.maxIdle",
+        Runtime.getRuntime().availableProcessors());
+
+    private static final SolverProcessPool INSTANCE = new SolverProcessPool();
+
+    /** the idle processes, by command line and message delimiters */
+    private final Map<String, Deque<PersistentSolverProcess>> idle = new HashMap<>();
+
+    private SolverProcessPool() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "SMTProcessPoolShutdown"));
+    }
+
+    public static SolverProcessPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns an idle process running the given command, preferring one that already has the
+     * given preamble asserted, or starts a new one.
+     *
+     * @param command command (program and arguments) which is used to start the process
+     * @param messageDelimiters delimiters which separate the messages of the process
+     * @param preamble the preamble of the problem to be solved
+     * @return a process which is exclusively owned by the caller until it is
+     *         {@link #release(PersistentSolverProcess) released}
+     * @throws IOException if the process cannot be started
+     */
+    public @NonNull PersistentSolverProcess acquire(@NonNull String[] command,
+            @NonNull String[] messageDelimiters, @NonNull String preamble) throws IOException {
+        final String key = String.join(" ", command) + '\0' + String.join("\0", messageDelimiters);
+        synchronized (idle) {
+            Deque<PersistentSolverProcess> processes = idle.get(key);
+            if (processes != null && !processes.isEmpty()) {
+                for (Iterator<PersistentSolverProcess> it = processes.iterator(); it.hasNext();) {
+                    PersistentSolverProcess process = it.next();
+                    if (preamble.equals(process.getPreamble())) {
+                        it.remove();
+                        return process;
+                    }
+                }
+                return processes.removeFirst();
+            }
+        }
+        return new PersistentSolverProcess(key, command, messageDelimiters);
+    }
+
+    /**
+     * Returns a process to the pool after a problem has been solved. Processes which have been
+     * interrupted or terminated are destroyed instead.
+     *
+     * @param process the process acquired before
+     */
+    public void release(@NonNull PersistentSolverProcess process) {
+        if (process.isReusable()) {
+            synchronized (idle) {
+                Deque<PersistentSolverProcess> processes =
+                    idle.computeIfAbsent(process.getPoolKey(), k -> new ArrayDeque<>());
+                if (processes.size() < MAX_IDLE) {
+                    processes.addFirst(process);
+                    return;
+                }
+            }
+        }
+        process.close();
+    }
+
+    /**
+     * Destroys all idle processes.
+     */
+    public void shutdown() {
+        synchronized (idle) {
+            for (Deque<PersistentSolverProcess> processes : idle.values()) {
+                processes.forEach(PersistentSolverProcess::close);
+            }
+            idle.clear();
+        }
+    }
+}
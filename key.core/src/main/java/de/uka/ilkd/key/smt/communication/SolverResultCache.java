@@ -0,0 +1,307 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import de.uka.ilkd.key.smt.SMTSolverResult;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+import de.uka.ilkd.key.smt.communication.SolverCommunication.Message;
+import de.uka.ilkd.key.smt.communication.SolverCommunication.MessageType;
+import de.uka.ilkd.key.smt.solvertypes.SolverType;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache of SMT solver results, so that replaying a proof or running the same proof
+ * again (e.g. in CI) does not have to solve the same SMT problems again.
+ * <p>
+ * Results are keyed by a hash of the SMT-LIB problem, normalized by removing comments and
+ * redundant whitespace, together with the name, version and parameters of the solver. Only
+ * definite results (unsat/sat) are cached. Together with the result, the output of the solver
+ * (containing e.g. the unsat core) and the time the solver took are stored; when a result is
+ * taken from the cache, the output is replayed into the {@link SolverCommunication} of the solver,
+ * so that the rest of KeY cannot tell the difference.
+ * </p>
+ * The cache is disabled by default and activated by setting the system property
+ * <code>key.smt.resultCache</code> to the directory the results are stored in. Each result is
+ * stored in a file of its own, which allows several KeY instances to share the directory.
+ */
+public final class SolverResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverResultCache.class);
+
+    /** the directory of the cache, if enabled */
+    private static final @Nullable String DIRECTORY = System.getProperty("key.smt.resultCache");
+
+    /** whether solver results are cached */
+    public static final boolean ENABLED = DIRECTORY != null && !DIRECTORY.isBlank();
+
+    private static final String SUFFIX = ".smtresult";
+
+    private static final @Nullable SolverResultCache INSTANCE =
+        ENABLED ? new SolverResultCache(Path.of(DIRECTORY)) : null;
+
+    /**
+     * A cached result.
+     *
+     * @param result the result of the solver
+     * @param output the messages the solver has sent
+     * @param time the time the solver took in milliseconds
+     */
+    public record Entry(@NonNull ThreeValuedTruth result, @NonNull List<Message> output,
+            long time) {
+    }
+
+    private final @NonNull Path directory;
+
+    /** the versions of the solver types, determined once per type */
+    private final Map<SolverType, String> versions = new HashMap<>();
+
+    private long hits;
+    private long misses;
+
+    SolverResultCache(@NonNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the cache, or null if caching is disabled
+     */
+    public static @Nullable SolverResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Looks up the result of the given solver for the given problem.
+     *
+     * @param type the type of the solver
+     * @param problem the problem as sent to the solver
+     * @return the cached result, or null if there is none
+     */
+    public @Nullable Entry lookup(@NonNull SolverType type, @NonNull String problem) {
+        return lookup(key(type, problem));
+    }
+
+    /**
+     * Stores the result of a solver, if it is a definite one.
+     *
+     * @param type the type of the solver
+     * @param problem the problem as sent to the solver
+     * @param communication the communication with the solver, containing the result
+     * @param time the time the solver took in milliseconds
+     */
+    public void store(@NonNull SolverType type, @NonNull String problem,
+            @NonNull SolverCommunication communication, long time) {
+        store(key(type, problem), communication, time);
+    }
+
+    /**
+     * Makes a communication look as if the solver had been run: The output of the solver and its
+     * final result are added.
+     *
+     * @param entry the cached result
+     * @param communication the communication of the solver the result is taken for
+     * @param solverName the name of the solver
+     */
+    public static void replay(@NonNull Entry entry, @NonNull SolverCommunication communication,
+            @NonNull String solverName) {
+        for (Message message : entry.output()) {
+            communication.addMessage(message.content(), message.type());
+        }
+        communication.setFinalResult(switch (entry.result()) {
+        case VALID -> SMTSolverResult.createValidResult(solverName);
+        case FALSIFIABLE -> SMTSolverResult.createInvalidResult(solverName);
+        case UNKNOWN -> SMTSolverResult.createUnknownResult(solverName);
+        });
+    }
+
+    /**
+     * @return the number of successful lookups
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of unsuccessful lookups
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Nullable
+    Entry lookup(@NonNull String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        Entry entry = null;
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Properties properties = new Properties();
+                properties.load(reader);
+                entry = read(properties);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring corrupt SMT result cache entry {}", file, e);
+            }
+        }
+        synchronized (this) {
+            if (entry == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+        return entry;
+    }
+
+    void store(@NonNull String key, @NonNull SolverCommunication communication, long time) {
+        ThreeValuedTruth result = communication.getFinalResult().isValid();
+        if (result == ThreeValuedTruth.UNKNOWN) {
+            // may be caused by a resource limit and thus differ in the next run
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty("result", result.name());
+        properties.setProperty("time", Long.toString(time));
+        int i = 0;
+        for (Message message : communication.getOutMessages()) {
+            properties.setProperty("output." + i + ".type", message.type().name());
+            properties.setProperty("output." + i, message.content());
+            i++;
+        }
+        properties.setProperty("output.count", Integer.toString(i));
+        try {
+            Files.createDirectories(directory);
+            // write to a temporary file first, so that concurrent readers never see partial files
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tmp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not store SMT result in cache {}", directory, e);
+        }
+    }
+
+    private static Entry read(Properties properties) {
+        ThreeValuedTruth result = ThreeValuedTruth.valueOf(properties.getProperty("result"));
+        long time = Long.parseLong(properties.getProperty("time"));
+        int count = Integer.parseInt(properties.getProperty("output.count"));
+        List<Message> output = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String content = Objects.requireNonNull(properties.getProperty("output." + i));
+            MessageType type = MessageType.valueOf(properties.getProperty("output." + i + ".type"));
+            output.add(new Message(content, type));
+        }
+        return new Entry(result, output, time);
+    }
+
+    private String key(SolverType type, String problem) {
+        String version;
+        synchronized (versions) {
+            version = versions.computeIfAbsent(type, t -> {
+                String v = t.getInstalledVersion();
+                if (v == null || v.isEmpty()) {
+                    v = t.getRawVersion();
+                }
+                return v == null ? "" : v;
+            });
+        }
+        return key(type.getName(), version, type.getSolverParameters(), problem);
+    }
+
+    /**
+     * Computes the key of a problem for a solver.
+     *
+     * @param solverName the name of the solver
+     * @param version the version of the solver
+     * @param parameters the command line parameters of the solver
+     * @param problem the problem
+     * @return the key, a hex string
+     */
+    static @NonNull String key(@NonNull String solverName, @NonNull String version,
+            @NonNull String parameters, @NonNull String problem) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String s : new String[] { solverName, version, parameters, normalize(problem) }) {
+                digest.update(s.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Normalizes SMT-LIB text. Comments are removed, runs of whitespace are replaced by a single
+     * blank, and whitespace next to parentheses is removed, as parentheses always delimit tokens.
+     * String literals and quoted symbols are kept unchanged.
+     *
+     * @param problem SMT-LIB text
+     * @return the normalized text
+     */
+    static @NonNull String normalize(@NonNull String problem) {
+        StringBuilder sb = new StringBuilder(problem.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < problem.length()) {
+            char c = problem.charAt(i);
+            if (c == ';') {
+                // comment until the end of the line
+                while (i < problem.length() && problem.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (pendingSpace && !sb.isEmpty() && !isParenthesis(c)
+                    && !isParenthesis(sb.charAt(sb.length() - 1))) {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+            if (c == '"' || c == '|') {
+                // copy literal verbatim, in strings "" is an escaped quote
+                int end = i + 1;
+                while (end < problem.length()) {
+                    if (problem.charAt(end) == c) {
+                        if (c == '"' && end + 1 < problem.length()
+                                && problem.charAt(end + 1) == '"') {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, problem.length());
+                sb.append(problem, i, end);
+                i = end;
+                continue;
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isParenthesis(char c) {
+        return c == '(' || c == ')';
+    }
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -58,8 +59,11 @@ public class MasterHandler {
     /** A list of untranslatable values */
     private final Map<Term, SExpr> unknownValues = new HashMap<>();
 
-    /** The collected set of sorts occurring in the problem */
-    private final Set<Sort> sorts = new HashSet<>();
+    /**
+     * The collected set of sorts occurring in the problem (in the order of their occurrence, see
+     * {@link TranslationCache})
+     */
+    private final Set<Sort> sorts = new LinkedHashSet<>();
 
     /**
      * Global state, e.g., a counter for the number of distinct field variables Handlers can make
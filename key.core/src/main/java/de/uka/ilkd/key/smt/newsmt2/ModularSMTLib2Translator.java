@@ -10,12 +10,14 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.Sequent;
 import de.uka.ilkd.key.logic.SequentFormula;
 import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.TermBuilder;
+import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.smt.SMTSettings;
 import de.uka.ilkd.key.smt.SMTTranslator;
 import de.uka.ilkd.key.smt.newsmt2.SExpr.Type;
@@ -54,6 +56,13 @@ public class ModularSMTLib2Translator implements SMTTranslator {
      */
     private static final String GET_UNSAT_CORE = "getUnsatCore";
 
+    /**
+     * The comment line separating the goal independent preamble of a translation from the goal
+     * specific declarations, axioms and assertions. Persistent solver processes (see
+     * {@link de.uka.ilkd.key.smt.communication.SolverProcessPool}) split problems at this line.
+     */
+    public static final String DECLARATIONS_HEADER = "; --- Declarations";
+
     /**
      * The smt preamble prepended to smt problems that are created with this translator.
      */
@@ -109,6 +118,20 @@ public class ModularSMTLib2Translator implements SMTTranslator {
 
     @Override
     public CharSequence translateProblem(Sequent sequent, Services services, SMTSettings settings) {
+        List<Term> sequentAsserts = getTermsFromSequent(sequent, services);
+
+        Proof proof = services.getProof();
+        if (TranslationCache.ENABLED && proof != null) {
+            TranslationCache.Problem problem;
+            try {
+                problem = TranslationCache.get(proof, this, services, settings, handlerNames,
+                    handlerOptions).translate(sequentAsserts);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+            return render(problem.declarations(), problem.axioms(), problem.assertions(),
+                problem.unknownValues(), problem.exceptions());
+        }
 
         MasterHandler master;
         try {
@@ -117,24 +140,39 @@ public class ModularSMTLib2Translator implements SMTTranslator {
             throw new RuntimeException(ex);
         }
 
-        List<Term> sequentAsserts = getTermsFromSequent(sequent, services);
         List<SExpr> sequentSMTAsserts = makeSMTAsserts(master, sequentAsserts);
+        extractSortDeclarations(services, master);
+        return render(master.getDeclarations(), master.getAxioms(), sequentSMTAsserts,
+            master.getUnknownValues(), master.getExceptions());
+    }
 
+    /**
+     * Assembles the SMT problem from its parts.
+     *
+     * @param declarations the declarations, including those of the sorts
+     * @param axioms the axioms, including those of the type hierarchy
+     * @param sequentSMTAsserts the translated formulas of the sequent
+     * @param unknownValues the terms translated as unknown values
+     * @param exceptions the exceptions which occurred during the translation
+     * @return the problem
+     */
+    private CharSequence render(List<Writable> declarations, List<Writable> axioms,
+            List<SExpr> sequentSMTAsserts, Map<Term, SExpr> unknownValues,
+            List<Throwable> exceptions) {
         StringBuilder sb = new StringBuilder();
 
         sb.append("; --- Preamble\n");
         sb.append(preamble);
         sb.append(System.lineSeparator());
 
-        sb.append("; --- Declarations\n");
-        extractSortDeclarations(services, master);
-        for (Writable decl : master.getDeclarations()) {
+        sb.append(DECLARATIONS_HEADER).append("\n");
+        for (Writable decl : declarations) {
             decl.appendTo(sb);
             sb.append("\n");
         }
 
         sb.append("\n; --- Axioms\n");
-        for (Writable ax : master.getAxioms()) {
+        for (Writable ax : axioms) {
             ax.appendTo(sb);
             sb.append("\n");
         }
@@ -155,16 +193,15 @@ public class ModularSMTLib2Translator implements SMTTranslator {
 
         sb.append("\n(check-sat)");
 
-        if (!master.getUnknownValues().isEmpty()) {
+        if (!unknownValues.isEmpty()) {
             sb.append("\n\n; --- Translation of unknown values\n");
-            for (Term t : master.getUnknownValues().keySet()) {
-                sb.append("; ").append(master.getUnknownValues().get(t).toString()).append(" :  ")
+            for (Term t : unknownValues.keySet()) {
+                sb.append("; ").append(unknownValues.get(t).toString()).append(" :  ")
                         .append(t.toString().replace("\n", "")).append("\n");
             }
         }
 
         // any exceptions?
-        List<Throwable> exceptions = master.getExceptions();
         for (Throwable t : exceptions) {
             sb.append("\n; ").append(t.toString().replace("\n", "\n;"));
             LOGGER.warn("Exception", t);
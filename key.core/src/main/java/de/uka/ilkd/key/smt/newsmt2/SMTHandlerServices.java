@@ -75,7 +75,7 @@ public class SMTHandlerServices {
      *
      * @return non-null instance of this class. Always the same.
      */
-    public static SMTHandlerServices getInstance() {
+    public static synchronized SMTHandlerServices getInstance() {
         if (theInstance == null) {
             theInstance = new SMTHandlerServices();
         }
@@ -260,7 +260,7 @@ public class SMTHandlerServices {
      * Get the list of all {@link SMTHandlerProperty}s *currently* known in the system. Note that
      * new smt properties may be added after calling the method so that it has to be called again.
      *
-     * @return an unmodifiable view on the smt properties, not null
+     * @return an unmodifiable copy of the smt properties, not null
      * @throws IOException if resources cannot be read
      */
     public Collection<SMTHandlerProperty<?>> getSMTProperties() throws IOException {
@@ -270,7 +270,7 @@ public class SMTHandlerServices {
         synchronized (handlerModificationLock) {
             // Avoid concurrent modification of smtProperties in #getOriginalHandlers()
             // while accessing it.
-            properties = Collections.unmodifiableList(smtProperties);
+            properties = List.copyOf(smtProperties);
         }
         return properties;
     }
@@ -0,0 +1,407 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.newsmt2;
+
+import java.io.IOException;
+import java.util.*;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.JFunction;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.ProgramVariable;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.smt.SMTSettings;
+import de.uka.ilkd.key.smt.newsmt2.SExpr.Type;
+
+import org.key_project.logic.Name;
+import org.key_project.logic.sort.Sort;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shares the translation of formulas between the goals of a proof. Formulas are translated by a
+ * shared {@link MasterHandler}, as if they belonged to one big problem, and the translation of each
+ * formula is remembered.
+ * <p>
+ * The declarations, axioms and sorts the handler collects while translating a formula form a
+ * chunk. A chunk depends on the earlier chunks introducing the symbols it refers to. A problem
+ * consisting of some formulas is completed by the chunks of its formulas and the chunks they depend
+ * on, so it only contains the declarations and axioms it needs. Goals sharing most of their
+ * formulas thus only cause the translation of the formulas that differ. The type hierarchy is
+ * computed per problem from the sorts of its chunks.
+ * </p>
+ * <p>
+ * Handlers name the SMT symbols after the KeY symbols, but the goals of a proof may contain
+ * different symbols of the same name, e.g., Skolem constants introduced in different branches.
+ * A master handler is therefore only used for formulas whose symbols are identical to the symbols
+ * of the same name it has translated before; other formulas are translated by another master
+ * handler. At most {@link #MAX_MASTERS} master handlers with at most {@link #MAX_ENTRIES}
+ * formulas each are kept, the least recently used ones are discarded.
+ * </p>
+ * The cache is stored in the user data of the proof, one per translator and translation settings.
+ * It is enabled by the system property <code>key.smt.translationCache</code>.
+ */
+final class TranslationCache {
+    /** whether translations are cached */
+    static final boolean ENABLED =
+        Boolean.parseBoolean(System.getProperty("key.smt.translationCache"));
+
+    /**
+     * the number of formulas a master handler translates before it is discarded (system property
+     * <code>key.smt.translationCache.size</code>)
+     */
+    static final int MAX_ENTRIES =
+        Math.max(1, Integer.getInteger("key.smt.translationCache.size", 10000));
+
+    /** the maximal number of master handlers kept per cache */
+    static final int MAX_MASTERS = 4;
+
+    /**
+     * The translation of a formula.
+     *
+     * @param translation the translation of the formula
+     * @param chunk the chunk of the declarations and axioms needed by the translation
+     * @param exceptions the exceptions which occurred during the translation
+     */
+    private record Entry(SExpr translation, int chunk, List<Throwable> exceptions) {
+    }
+
+    /**
+     * A translation problem assembled from cached formulas.
+     *
+     * @param assertions the translations of the formulas
+     * @param declarations the declarations needed by the formulas
+     * @param axioms the axioms needed by the formulas
+     * @param unknownValues the terms translated as unknown values
+     * @param exceptions the exceptions which occurred during the translation of the formulas
+     */
+    record Problem(List<SExpr> assertions, List<Writable> declarations, List<Writable> axioms,
+            Map<Term, SExpr> unknownValues, List<Throwable> exceptions) {
+    }
+
+    /** The translation caches of a proof, registered as user data of the proof. */
+    static final class ProofCaches {
+        private final Map<List<Object>, TranslationCache> caches = new HashMap<>();
+    }
+
+    private final Services services;
+    private final SMTSettings settings;
+    private final String[] handlerNames;
+    private final String[] handlerOptions;
+
+    /** the master handlers, the most recently used one first */
+    private final LinkedList<SharedMaster> masters = new LinkedList<>();
+
+    private TranslationCache(Services services, SMTSettings settings, String[] handlerNames,
+            String[] handlerOptions) throws IOException {
+        this.services = services;
+        this.settings = settings;
+        this.handlerNames = handlerNames;
+        this.handlerOptions = handlerOptions;
+        masters.add(new SharedMaster());
+    }
+
+    /**
+     * Returns the cache of the given proof for the given translator and settings.
+     *
+     * @param proof the proof
+     * @param translator the translator
+     * @param services the services of the proof
+     * @param settings the settings of the translation
+     * @param handlerNames the handlers used by the translator
+     * @param handlerOptions the handler options used by the translator
+     * @return the cache
+     * @throws IOException if the handlers cannot be loaded
+     */
+    static TranslationCache get(Proof proof, ModularSMTLib2Translator translator,
+            Services services, SMTSettings settings, String[] handlerNames,
+            String[] handlerOptions) throws IOException {
+        ProofCaches caches;
+        synchronized (proof) {
+            caches = proof.lookup(ProofCaches.class);
+            if (caches == null) {
+                caches = new ProofCaches();
+                proof.register(caches, ProofCaches.class);
+            }
+        }
+        final List<Object> key =
+            List.of(translator, new HashMap<>(settings.getNewSettings().getMap()));
+        synchronized (caches) {
+            TranslationCache cache = caches.caches.get(key);
+            if (cache == null) {
+                cache = new TranslationCache(services, settings, handlerNames, handlerOptions);
+                caches.caches.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Translates the given formulas, reusing earlier translations.
+     *
+     * @param formulas the formulas of the problem
+     * @return the translated problem
+     * @throws IOException if the handlers cannot be loaded
+     */
+    synchronized Problem translate(List<Term> formulas) throws IOException {
+        SharedMaster master = null;
+        for (Iterator<SharedMaster> it = masters.iterator(); it.hasNext();) {
+            SharedMaster candidate = it.next();
+            if (candidate.accepts(formulas)) {
+                it.remove();
+                master = candidate;
+                break;
+            }
+        }
+        if (master == null || master.entries.size() >= MAX_ENTRIES) {
+            master = new SharedMaster();
+            if (masters.size() >= MAX_MASTERS) {
+                masters.removeLast();
+            }
+        }
+        masters.addFirst(master);
+        return master.translateProblem(formulas);
+    }
+
+    /**
+     * The declarations, axioms and sorts collected while translating a formula.
+     */
+    private static final class Chunk {
+        private final int firstDeclaration;
+        private final int firstAxiom;
+        private int endDeclaration;
+        private int endAxiom;
+        /** the sorts used by the translation */
+        private final Set<Sort> sorts = new HashSet<>();
+        /** the earlier chunks this chunk refers to */
+        private final BitSet dependencies = new BitSet();
+
+        private Chunk(int firstDeclaration, int firstAxiom) {
+            this.firstDeclaration = firstDeclaration;
+            this.firstAxiom = firstAxiom;
+        }
+    }
+
+    /**
+     * A master handler shared by the problems of a proof. It records which chunk introduces a
+     * symbol and which chunks are referred to while translating a formula. The declarations,
+     * axioms and sorts collected while creating the handler form the first chunk, which every
+     * problem needs.
+     */
+    private final class SharedMaster extends MasterHandler {
+        private final Map<Term, Entry> entries = new HashMap<>();
+        /** the symbols translated so far, by name */
+        private final Map<Name, Operator> operators = new HashMap<>();
+        private final List<Chunk> chunks = new ArrayList<>();
+        /** the chunks introducing known symbols, except for those of the first chunk */
+        private final Map<String, Integer> symbolChunks = new HashMap<>();
+        /** the chunks declaring symbols in their declarations or axioms */
+        private final Map<String, Integer> definitionChunks = new HashMap<>();
+        /** the chunk being collected, <code>null</code> while creating the handler */
+        private @Nullable Chunk current;
+
+        private SharedMaster() throws IOException {
+            super(services, settings, handlerNames, handlerOptions);
+            Chunk base = new Chunk(0, 0);
+            base.endDeclaration = getDeclarations().size();
+            base.endAxiom = getAxioms().size();
+            base.sorts.addAll(getSorts());
+            chunks.add(base);
+        }
+
+        @Override
+        boolean isKnownSymbol(String pr) {
+            final boolean known = super.isKnownSymbol(pr);
+            if (known && current != null) {
+                dependOn(symbolChunks.get(pr));
+            }
+            return known;
+        }
+
+        @Override
+        void addKnownSymbol(String symbol) {
+            super.addKnownSymbol(symbol);
+            if (current != null) {
+                symbolChunks.put(symbol, chunks.size() - 1);
+            }
+        }
+
+        @Override
+        public void addSort(Sort s) {
+            super.addSort(s);
+            if (current != null) {
+                current.sorts.add(s);
+            }
+        }
+
+        private void dependOn(@Nullable Integer chunk) {
+            if (current != null && chunk != null && chunk < chunks.size() - 1) {
+                current.dependencies.set(chunk);
+            }
+        }
+
+        /**
+         * Decides whether all symbols of the given formulas are identical to the symbols of the
+         * same name this handler has translated.
+         */
+        private boolean accepts(List<Term> formulas) {
+            Map<Name, Operator> added = new HashMap<>();
+            for (Term formula : formulas) {
+                if (!entries.containsKey(formula) && !collectOperators(formula, added)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds the symbols of the given term to <code>added</code>.
+         *
+         * @return false if a symbol is not identical to a symbol of the same name translated by
+         *         this handler or already added
+         */
+        private boolean collectOperators(Term term, Map<Name, Operator> added) {
+            final Operator op = term.op();
+            if (op instanceof JFunction || op instanceof ProgramVariable) {
+                Operator known = operators.get(op.name());
+                if (known == null) {
+                    known = added.putIfAbsent(op.name(), op);
+                }
+                if (known != null && known != op) {
+                    return false;
+                }
+            }
+            for (Term sub : term.subs()) {
+                if (!collectOperators(sub, added)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Problem translateProblem(List<Term> formulas) {
+            List<SExpr> assertions = new ArrayList<>(formulas.size());
+            List<Throwable> exceptions = new ArrayList<>();
+            BitSet needed = new BitSet();
+            needed.set(0);
+            for (Term formula : formulas) {
+                Entry entry = entries.get(formula);
+                if (entry == null) {
+                    entry = translateChunk(formula);
+                    entries.put(formula, entry);
+                }
+                assertions.add(entry.translation());
+                exceptions.addAll(entry.exceptions());
+                needed.set(entry.chunk());
+            }
+            // chunks only depend on earlier chunks
+            for (int i = needed.length() - 1; i >= 0; i = needed.previousSetBit(i - 1)) {
+                needed.or(chunks.get(i).dependencies);
+            }
+
+            List<Writable> problemDeclarations = new ArrayList<>();
+            List<Writable> problemAxioms = new ArrayList<>();
+            Set<Sort> usedSorts = new HashSet<>();
+            for (int i = needed.nextSetBit(0); i >= 0; i = needed.nextSetBit(i + 1)) {
+                Chunk chunk = chunks.get(i);
+                problemDeclarations.addAll(
+                    getDeclarations().subList(chunk.firstDeclaration, chunk.endDeclaration));
+                problemAxioms.addAll(getAxioms().subList(chunk.firstAxiom, chunk.endAxiom));
+                usedSorts.addAll(chunk.sorts);
+            }
+            Set<Sort> problemSorts = new LinkedHashSet<>();
+            for (Sort sort : getSorts()) {
+                if (usedSorts.contains(sort)) {
+                    problemSorts.add(sort);
+                }
+            }
+            new TypeManager(services).handle(problemSorts, name -> isDeclared(name, needed),
+                problemDeclarations::add, problemAxioms::add);
+
+            Map<Term, SExpr> unknownValues = new LinkedHashMap<>();
+            for (Map.Entry<Term, SExpr> value : getUnknownValues().entrySet()) {
+                Integer chunk = definitionChunks.get(value.getValue().getName());
+                if (chunk == null || needed.get(chunk)) {
+                    unknownValues.put(value.getKey(), value.getValue());
+                }
+            }
+            return new Problem(assertions, problemDeclarations, problemAxioms, unknownValues,
+                exceptions);
+        }
+
+        /**
+         * Decides whether a symbol is introduced by one of the given chunks.
+         */
+        private boolean isDeclared(String name, BitSet needed) {
+            Integer chunk = symbolChunks.get(name);
+            return chunk != null ? needed.get(chunk) : super.isKnownSymbol(name);
+        }
+
+        private Entry translateChunk(Term formula) {
+            collectOperators(formula, operators);
+            int exceptions = getExceptions().size();
+            Chunk chunk = new Chunk(getDeclarations().size(), getAxioms().size());
+            chunks.add(chunk);
+            current = chunk;
+            SExpr translation;
+            try {
+                translation = translate(formula, Type.BOOL);
+            } finally {
+                current = null;
+            }
+            chunk.endDeclaration = getDeclarations().size();
+            chunk.endAxiom = getAxioms().size();
+
+            // handlers may reuse symbols they have declared without asking for known symbols
+            List<Writable> introduced = new ArrayList<>(
+                getDeclarations().subList(chunk.firstDeclaration, chunk.endDeclaration));
+            introduced.addAll(getAxioms().subList(chunk.firstAxiom, chunk.endAxiom));
+            int index = chunks.size() - 1;
+            for (Writable w : introduced) {
+                if (w instanceof SExpr e) {
+                    collectDefinitions(e, index);
+                }
+            }
+            current = chunk;
+            try {
+                collectReferences(translation);
+                for (Writable w : introduced) {
+                    if (w instanceof SExpr e) {
+                        collectReferences(e);
+                    }
+                }
+            } finally {
+                current = null;
+            }
+
+            List<Throwable> newExceptions =
+                List.copyOf(getExceptions().subList(exceptions, getExceptions().size()));
+            return new Entry(translation, index, newExceptions);
+        }
+
+        private void collectDefinitions(SExpr e, int chunk) {
+            switch (e.getName()) {
+            case "declare-fun", "declare-const", "define-fun", "define-const" -> {
+                if (!e.getChildren().isEmpty()) {
+                    definitionChunks.putIfAbsent(e.getChildren().get(0).getName(), chunk);
+                }
+            }
+            default -> {
+                for (SExpr child : e.getChildren()) {
+                    collectDefinitions(child, chunk);
+                }
+            }
+            }
+        }
+
+        private void collectReferences(SExpr e) {
+            Integer chunk = definitionChunks.get(e.getName());
+            dependOn(chunk != null ? chunk : symbolChunks.get(e.getName()));
+            for (SExpr child : e.getChildren()) {
+                collectReferences(child);
+            }
+        }
+    }
+}
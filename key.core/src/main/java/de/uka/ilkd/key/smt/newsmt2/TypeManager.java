@@ -7,6 +7,8 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.ldt.JavaDLTheory;
@@ -36,17 +38,19 @@ class TypeManager {
     }
 
     /**
-     * Creates a translated type hierarchy from the KeY sorts of the master handler by asserting the
-     * subtype relationship (or its absence).
+     * Creates a translated type hierarchy from the given KeY sorts by asserting the subtype
+     * relationship (or its absence).
      *
-     * @param master the master handler
+     * @param sorts the sorts occurring in the problem
+     * @param axioms receives the created axioms
      */
-    private void createSortTypeHierarchy(MasterHandler master, Services services) {
+    private void createSortTypeHierarchy(Set<Sort> sorts, Consumer<Writable> axioms,
+            Services services) {
 
-        for (Sort s : master.getSorts()) {
-            Set<Sort> children = directChildSorts(s, master.getSorts(), services);
+        for (Sort s : sorts) {
+            Set<Sort> children = directChildSorts(s, sorts, services);
             for (Sort child : children) {
-                master.addAxiom(new SExpr("assert",
+                axioms.accept(new SExpr("assert",
                     new SExpr("subtype", SExprs.sortExpr(child), SExprs.sortExpr(s))));
                 for (Sort otherChild : children) {
                     if (!(child.equals(otherChild))
@@ -54,17 +58,17 @@ class TypeManager {
                             && (!child.name().toString().equals("Null"))) {
                         SExpr st = new SExpr("subtype", SExprs.sortExpr(child),
                             SExprs.sortExpr(otherChild));
-                        master.addAxiom(new SExpr("assert", new SExpr("not", st)));
+                        axioms.accept(new SExpr("assert", new SExpr("not", st)));
                     }
                 }
             }
         }
 
         // if sort has no direct parents, make it a child of any
-        for (Sort s : master.getSorts()) {
+        for (Sort s : sorts) {
             if (!(s instanceof NullSort) && !(s.equals(JavaDLTheory.ANY))) {
                 if (s.extendsSorts().isEmpty()) {
-                    master.addAxiom(new SExpr("assert",
+                    axioms.accept(new SExpr("assert",
                         new SExpr("subtype", SExprs.sortExpr(s),
                             SExprs.sortExpr(JavaDLTheory.ANY))));
                 }
@@ -103,20 +107,24 @@ class TypeManager {
      *     (declare-const sort_Name T)
      * </pre>
      *
-     * Those symbols which are already known to the master handler are not created in the handler
-     * but are still included in the result value.
+     * Those symbols which are already known are not declared but are still included in the result
+     * value.
      *
-     * @param master the handler do which the declarations are added.
+     * @param sorts the sorts occurring in the problem
+     * @param isKnownSymbol decides whether a symbol has already been declared
+     * @param declarations receives the created declarations
      * @return a freshly created list
      */
-    private List<SExpr> makeSortDecls(MasterHandler master) {
+    private List<SExpr> makeSortDecls(Set<Sort> sorts, Predicate<String> isKnownSymbol,
+            Consumer<Writable> declarations) {
         // turn all known sorts into sort constants ...
         List<SExpr> sortExprs = new LinkedList<>();
-        for (Sort s : master.getSorts()) {
+        Set<String> declared = new HashSet<>();
+        for (Sort s : sorts) {
             SExpr sortExp = SExprs.sortExpr(s);
-            if (!master.isKnownSymbol(sortExp.toString())) {
-                master.addDeclaration(new SExpr("declare-const", sortExp, new SExpr("T")));
-                master.addKnownSymbol(sortExp.toString());
+            String name = sortExp.toString();
+            if (!isKnownSymbol.test(name) && declared.add(name)) {
+                declarations.accept(new SExpr("declare-const", sortExp, new SExpr("T")));
             }
             sortExprs.add(SExprs.sortExpr(s));
         }
@@ -132,18 +140,39 @@ class TypeManager {
      * @param master a master handler with collected sorts, will be modified
      */
     public void handle(MasterHandler master) {
+        handle(master.getSorts(), master::isKnownSymbol, master::addDeclaration,
+            master::addAxiom);
+        // the sort constants are declared now
+        for (Sort s : master.getSorts()) {
+            String name = SExprs.sortExpr(s).toString();
+            if (!master.isKnownSymbol(name)) {
+                master.addKnownSymbol(name);
+            }
+        }
+    }
+
+    /**
+     * Creates the smt clauses related to the given KeY sorts without modifying a master handler.
+     *
+     * @param sorts the sorts occurring in the problem
+     * @param isKnownSymbol decides whether a symbol has already been declared
+     * @param declarations receives the created declarations
+     * @param axioms receives the created axioms
+     */
+    void handle(Set<Sort> sorts, Predicate<String> isKnownSymbol,
+            Consumer<Writable> declarations, Consumer<Writable> axioms) {
         // declare the sort symbols ...
-        List<SExpr> sortExprs = makeSortDecls(master);
+        List<SExpr> sortExprs = makeSortDecls(sorts, isKnownSymbol, declarations);
 
         // ... which are mutually distinct
-        if (master.getSorts().size() > 1) {
-            master.addDeclaration(
+        if (sorts.size() > 1) {
+            declarations.accept(
                 new SExpr("assert", Type.BOOL, new SExpr("distinct", Type.BOOL, sortExprs)));
         }
 
         // and have a type hierarchy.
         if (!HandlerUtil.PROPERTY_NO_TYPE_HIERARCHY.get(services)) {
-            createSortTypeHierarchy(master, services);
+            createSortTypeHierarchy(sorts, axioms, services);
         }
     }
 }
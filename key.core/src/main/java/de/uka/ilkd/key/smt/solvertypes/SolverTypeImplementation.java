@@ -408,7 +408,9 @@ public final class SolverTypeImplementation implements SolverType {
 
     @Override
     public SMTTranslator createTranslator() {
-        return translator;
+        // the legacy translators keep state while translating, so they must not be shared
+        // between solvers translating concurrently
+        return translator instanceof AbstractSMTTranslator ? makeTranslator() : translator;
     }
 
     @Override
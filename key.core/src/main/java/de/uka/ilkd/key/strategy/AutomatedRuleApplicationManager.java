@@ -26,6 +26,14 @@ public interface AutomatedRuleApplicationManager extends NewRuleListener {
      */
     RuleApp peekNext();
 
+    /**
+     * Performs the part of {@link #peekNext()} which only depends on the goal, i.e., matching the
+     * rules and computing the costs, but does not complete the rule application. Completing a
+     * rule application may propose names, hence this is left to {@link #peekNext()}. May be
+     * called concurrently for different goals.
+     */
+    default void prepareNext() {}
+
     /**
      * @return the next rule that is supposed to be applied
      */
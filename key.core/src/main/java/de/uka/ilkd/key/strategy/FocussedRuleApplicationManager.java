@@ -81,6 +81,11 @@ public class FocussedRuleApplicationManager
         return delegate.peekNext();
     }
 
+    @Override
+    public void prepareNext() {
+        delegate.prepareNext();
+    }
+
     @Override
     public RuleApp next() {
         final RuleApp app = delegate.next();
@@ -22,6 +22,7 @@ import de.uka.ilkd.key.logic.op.SortDependingFunction;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.rulefilter.SetRuleFilter;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.RuleApp;
 import de.uka.ilkd.key.rule.UseDependencyContractRule;
 import de.uka.ilkd.key.strategy.feature.*;
@@ -2058,7 +2059,12 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
         try {
             return costComputationF.computeCost(app, pio, goal, mState);
         } finally {
-            PERF_COMPUTE.addAndGet(System.nanoTime() - time);
+            final long dt = System.nanoTime() - time;
+            PERF_COMPUTE.addAndGet(dt);
+            final RuleMetrics metrics = RuleMetrics.of(goal.proof());
+            if (metrics != null) {
+                metrics.record(app.rule(), RuleMetrics.Phase.COST, dt);
+            }
         }
     }
 
@@ -59,9 +59,19 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
 
     private long nextRuleTime;
 
+    /**
+     * The rule app containers created from {@link #previousMinimum} in advance by
+     * {@link #prepareNext()}, {@code null} if they have not been created yet.
+     */
+    private ImmutableHeap<RuleAppContainer> preparedFurtherApps = null;
+
+    /** The time of the goal when {@link #preparedFurtherApps} were created. */
+    private long preparedTime;
+
     @Override
     public void setGoal(Goal p_goal) {
         goal = p_goal;
+        preparedFurtherApps = null;
     }
 
     /**
@@ -71,6 +81,7 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
     public void clearCache() {
         queue = null;
         previousMinimum = null;
+        preparedFurtherApps = null;
         if (goal != null) {
             goal.proof().getServices().getCaches().getIfInstantiationCache().releaseAll();
         }
@@ -214,33 +225,60 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
     public RuleApp peekNext() {
         var otime = System.nanoTime();
         try {
-            ensureQueueExists();
-
-            final long currentTime = goal.getTime();
-            if (currentTime != nextRuleTime) {
-                clearNextRuleApp();
-                nextRuleTime = currentTime;
+            final ImmutableHeap<RuleAppContainer> furtherAppsQueue = prepare();
+            if (furtherAppsQueue != null) {
+                previousMinimum = null;
+                preparedFurtherApps = null;
+                computeNextRuleApp(furtherAppsQueue);
             }
+            return nextRuleApp;
+        } finally {
+            PERF_PEEK.addAndGet(System.nanoTime() - otime);
+        }
+    }
 
-            if (nextRuleApp != null) {
-                return nextRuleApp;
-            }
+    @Override
+    public void prepareNext() {
+        var otime = System.nanoTime();
+        try {
+            prepare();
+        } finally {
+            PERF_PEEK.addAndGet(System.nanoTime() - otime);
+        }
+    }
 
-            goal.ruleAppIndex().fillCache();
+    /**
+     * Helper method for {@link #peekNext()} and {@link #prepareNext()}. Brings the queue up to
+     * date with the goal without completing any rule application.
+     *
+     * @return the further rule app containers to consider in addition to the queue, or
+     *         {@code null} if the next rule application is already known
+     */
+    private ImmutableHeap<RuleAppContainer> prepare() {
+        ensureQueueExists();
 
-            /*
-             * Create further appcontainers from previous minimum, which was removed from queue in a
-             * previous round.
-             */
-            ImmutableHeap<RuleAppContainer> furtherAppsQueue =
-                createFurtherApps(previousMinimum, goal);
-            previousMinimum = null;
+        final long currentTime = goal.getTime();
+        if (currentTime != nextRuleTime) {
+            clearNextRuleApp();
+            nextRuleTime = currentTime;
+        }
 
-            computeNextRuleApp(furtherAppsQueue);
-            return nextRuleApp;
-        } finally {
-            PERF_PEEK.addAndGet(System.nanoTime() - otime);
+        if (nextRuleApp != null) {
+            return null;
+        }
+
+        goal.ruleAppIndex().fillCache();
+
+        /*
+         * Create further appcontainers from previous minimum, which was removed from queue in a
+         * previous round. The minimum is kept until the next rule app is computed, since the
+         * goal may change after the further apps have been prepared.
+         */
+        if (preparedFurtherApps == null || preparedTime != currentTime) {
+            preparedFurtherApps = createFurtherApps(previousMinimum, goal);
+            preparedTime = currentTime;
         }
+        return preparedFurtherApps;
     }
 
     /**
@@ -69,8 +69,9 @@ public class EqualityConstraint implements Constraint {
 
         var mvCache = services.getCaches().getMVCache();
 
-        if (mvCache.containsKey(t)) {
-            return mvCache.get(t);
+        final ImmutableSet<Metavariable> cached = mvCache.get(t);
+        if (cached != null) {
+            return cached;
         }
 
         ImmutableSet<Metavariable> metaVars = DefaultImmutableSet.nil();
@@ -84,11 +85,9 @@ public class EqualityConstraint implements Constraint {
             metaVars = metaVars.union(metaVars(t.sub(i), services));
         }
 
-        synchronized (mvCache) {
-            final ImmutableSet<Metavariable> result = mvCache.putIfAbsent(t, metaVars);
-            if (result != null) {
-                return result;
-            }
+        final ImmutableSet<Metavariable> result = mvCache.putIfAbsent(t, metaVars);
+        if (result != null) {
+            return result;
         }
 
         return metaVars;
@@ -62,18 +62,12 @@ public class TriggersSet {
     static TriggersSet create(Term allTerm, Services services) {
         final Map<Term, TriggersSet> triggerSetCache = services.getCaches().getTriggerSetCache();
         allTerm = TermLabelManager.removeIrrelevantLabels(allTerm, services);
-        TriggersSet trs;
-
-        synchronized (triggerSetCache) {
-            trs = triggerSetCache.get(allTerm);
-        }
+        TriggersSet trs = triggerSetCache.get(allTerm);
 
         if (trs == null) {
             // add check whether it is in PCNF
             trs = new TriggersSet(allTerm, services);
-            synchronized (triggerSetCache) {
-                triggerSetCache.put(allTerm, trs);
-            }
+            triggerSetCache.put(allTerm, trs);
         }
         return trs;
     }
@@ -50,10 +50,16 @@ class UniTrigger implements Trigger {
     }
 
     private ImmutableSet<Substitution> getSubstitutionsFromTerm(Term t, Services services) {
-        ImmutableSet<Substitution> res = matchResults.get(t);
+        // triggers are shared between goals whose rule applications may be selected concurrently
+        ImmutableSet<Substitution> res;
+        synchronized (matchResults) {
+            res = matchResults.get(t);
+        }
         if (res == null) {
             res = getSubstitutionsFromTermHelp(t, services);
-            matchResults.put(t, res);
+            synchronized (matchResults) {
+                matchResults.put(t, res);
+            }
         }
         return res;
     }
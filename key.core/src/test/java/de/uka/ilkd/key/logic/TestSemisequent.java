@@ -4,9 +4,12 @@
 package de.uka.ilkd.key.logic;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 import de.uka.ilkd.key.ldt.JavaDLTheory;
 import de.uka.ilkd.key.logic.op.JFunction;
+import de.uka.ilkd.key.logic.op.LogicVariable;
 import de.uka.ilkd.key.logic.sort.SortImpl;
 import de.uka.ilkd.key.rule.TacletForTests;
 
@@ -311,6 +314,66 @@ public class TestSemisequent {
         assertEquals(expected, extract(sci), "Both semisequents should be equal.");
     }
 
+    @Test
+    public void testRedundancyWithIndex() {
+        TermBuilder TB = TacletForTests.services().getTermBuilder();
+        int n = 2 * Semisequent.INDEX_THRESHOLD;
+        SequentFormula[] formulas = new SequentFormula[n];
+        Semisequent seq = Semisequent.EMPTY_SEMISEQUENT;
+        for (int i = 0; i < n; i++) {
+            JFunction f = new JFunction(new Name("f" + i), JavaDLTheory.FORMULA, new Sort[] {});
+            formulas[i] = new SequentFormula(TB.func(f));
+            seq = extract(seq.insertLast(formulas[i]));
+        }
+        assertEquals(n, seq.size());
+
+        // equal formulas are rejected, regardless of the position
+        SequentFormula copy = new SequentFormula(formulas[n - 1].formula());
+        SemisequentChangeInfo sci = seq.insertFirst(copy);
+        assertFalse(sci.hasChanged());
+        assertEquals(ImmutableSLList.<SequentFormula>nil().prepend(copy),
+            sci.rejectedFormulas());
+        assertTrue(seq.contains(formulas[n - 1]));
+        assertFalse(seq.contains(copy));
+
+        // after removing the formula, it can be added again
+        Semisequent removed = extract(seq.remove(n - 1));
+        assertFalse(removed.contains(formulas[n - 1]));
+        sci = removed.insert(3, copy);
+        assertTrue(sci.hasChanged());
+        Semisequent readded = extract(sci);
+        assertSame(copy, readded.get(3));
+        assertTrue(readded.contains(copy));
+
+        // replacing a formula by itself keeps the semisequent
+        sci = readded.replace(readded.indexOf(formulas[5]),
+            new SequentFormula(formulas[5].formula()));
+        assertEquals(n, extract(sci).size());
+        assertFalse(extract(sci).contains(formulas[5]));
+        assertTrue(extract(sci).containsEqual(formulas[5]));
+    }
+
+    @Test
+    public void testIndexBuckets() {
+        TermBuilder TB = TacletForTests.services().getTermBuilder();
+        int n = 2 * Semisequent.INDEX_THRESHOLD;
+        Set<Integer> buckets = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            JFunction f = new JFunction(new Name("f" + i), JavaDLTheory.FORMULA, new Sort[] {});
+            buckets.add(new SequentFormula(TB.func(f)).hashCodeModRenaming());
+        }
+        // formulas of the same shape with different symbols fall into different buckets
+        assertEquals(n, buckets.size());
+
+        // formulas equal modulo bound renaming fall into the same bucket
+        Sort s = new SortImpl(new Name("s"));
+        JFunction p = new JFunction(new Name("p"), JavaDLTheory.FORMULA, s);
+        LogicVariable x = new LogicVariable(new Name("x"), s);
+        LogicVariable y = new LogicVariable(new Name("y"), s);
+        assertEquals(new SequentFormula(TB.all(x, TB.func(p, TB.var(x)))).hashCodeModRenaming(),
+            new SequentFormula(TB.all(y, TB.func(p, TB.var(y)))).hashCodeModRenaming());
+    }
+
     @Test
     void constructorTest() {
         var a = Semisequent.EMPTY_SEMISEQUENT;
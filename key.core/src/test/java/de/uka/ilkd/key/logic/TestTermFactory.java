@@ -3,6 +3,12 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.logic;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import de.uka.ilkd.key.java.StatementBlock;
 import de.uka.ilkd.key.java.declaration.LocalVariableDeclaration;
 import de.uka.ilkd.key.ldt.JavaDLTheory;
@@ -348,4 +354,51 @@ public class TestTermFactory {
         Assertions.assertNotSame(withJBChild, withJBChildAgain);
         Assertions.assertNotSame(withJBChildChild, withJBChildChildAgain);
     }
+
+    @Test
+    public void testInterningIsThreadSafe() throws Exception {
+        final TermFactory factory = new TermFactory(new TermInternTable());
+        final int threads = 4;
+        final List<Callable<Term>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                Term t = factory.createTerm(p, factory.createTerm(x));
+                for (int k = 0; k < 1000; k++) {
+                    t = factory.createTerm(Junctor.NOT, t);
+                }
+                return t;
+            });
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Term first = null;
+            for (var result : pool.invokeAll(tasks)) {
+                if (first == null) {
+                    first = result.get();
+                } else {
+                    assertSame(first, result.get());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInternTableMetrics() {
+        final TermInternTable table = new TermInternTable(0);
+        final TermFactory factory = new TermFactory(table);
+        final Term t = factory.createTerm(Junctor.TRUE);
+        assertEquals(0, table.getHits());
+        assertEquals(1, table.getMisses());
+        assertSame(t, factory.createTerm(Junctor.TRUE));
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.size());
+        // interned terms are only equal to themselves, but still equal to non-interned ones
+        final Term notInterned = new TermFactory().createTerm(Junctor.TRUE);
+        assertNotSame(t, notInterned);
+        assertEquals(t, notInterned);
+        assertEquals(notInterned, t);
+        assertNotEquals(t, factory.createTerm(Junctor.FALSE));
+    }
 }
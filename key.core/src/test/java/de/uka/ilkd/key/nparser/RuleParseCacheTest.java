@@ -0,0 +1,129 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.nparser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import de.uka.ilkd.key.proof.io.RuleSource;
+import de.uka.ilkd.key.proof.io.RuleSourceFactory;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the cached parses of rule files reproduce the tokens of the lexer and the parse
+ * trees of the parser.
+ */
+public class RuleParseCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void roundTrip() throws IOException {
+        final RuleSource source = RuleSourceFactory.fromBuiltInRule("ldt.key");
+        final RuleParseCache cache = new RuleParseCache(directory);
+
+        final CommonTokenStream lexed = new CommonTokenStream(
+            ParsingFacade.createLexer(source.getCharStream()));
+        lexed.fill();
+
+        cache.parseFile(source);
+        final RuleParseCache.Entry entry = load(source);
+        final CommonTokenStream tokens = entry.tokens();
+        tokens.fill();
+        assertTokensEqual(lexed.getTokens(), tokens.getTokens());
+        assertEquals(source.getCharStream().getSourceName(),
+            tokens.getTokenSource().getSourceName());
+        assertTrue(entry.decisions().length > 0);
+    }
+
+    @Test
+    public void parseFromCache() throws IOException {
+        final RuleSource source = RuleSourceFactory.fromBuiltInRule("ldt.key");
+        final RuleParseCache cache = new RuleParseCache(directory);
+        final KeyAst.File expected = ParsingFacade.parseFile(source.getCharStream());
+
+        // the first parse predicts the alternatives, the second one replays them
+        assertSameTree(expected, cache.parseFile(source));
+        final KeyAst.File replayed = load(source).replay();
+        assertNotNull(replayed);
+        assertSameTree(expected, replayed);
+        assertSameTree(expected, cache.parseFile(source));
+    }
+
+    @Test
+    public void unfittingDecisionsAreReplaced() throws IOException {
+        final RuleSource source = RuleSourceFactory.fromBuiltInRule("ldt.key");
+        final RuleParseCache cache = new RuleParseCache(directory);
+        cache.parseFile(source);
+        final Path entry = entryFile();
+        final byte[] content = Files.readAllBytes(entry);
+
+        final CommonTokenStream lexed = new CommonTokenStream(
+            ParsingFacade.createLexer(source.getCharStream()));
+        lexed.fill();
+        Files.write(entry, RuleParseCache.encode(
+            RuleParseCache.fingerprint(source.url()), source.getCharStream(),
+            lexed.getTokens(), new int[0]));
+        assertNull(load(source).replay());
+
+        assertSameTree(ParsingFacade.parseFile(source.getCharStream()), cache.parseFile(source));
+        assertArrayEquals(content, Files.readAllBytes(entry));
+    }
+
+    @Test
+    public void corruptEntryIsReplaced() throws IOException {
+        final RuleSource source = RuleSourceFactory.fromBuiltInRule("ldt.key");
+        final RuleParseCache cache = new RuleParseCache(directory);
+        cache.parseFile(source);
+
+        final Path entry = entryFile();
+        final byte[] content = Files.readAllBytes(entry);
+        Files.write(entry, Arrays.copyOf(content, content.length / 2));
+
+        assertNotNull(cache.parseFile(source));
+        assertArrayEquals(content, Files.readAllBytes(entry));
+    }
+
+    private Path entryFile() throws IOException {
+        try (var files = Files.list(directory)) {
+            final List<Path> entries = files.toList();
+            assertEquals(1, entries.size());
+            return entries.get(0);
+        }
+    }
+
+    private RuleParseCache.Entry load(RuleSource source) throws IOException {
+        final RuleParseCache.Entry entry =
+            RuleParseCache.load(entryFile(), RuleParseCache.fingerprint(source.url()));
+        assertNotNull(entry);
+        return entry;
+    }
+
+    private static void assertSameTree(KeyAst.File expected, KeyAst.File actual) {
+        final List<String> ruleNames = Arrays.asList(KeYParser.ruleNames);
+        assertEquals(expected.ctx.toStringTree(ruleNames), actual.ctx.toStringTree(ruleNames));
+    }
+
+    private static void assertTokensEqual(List<Token> expected, List<Token> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Token e = expected.get(i);
+            final Token a = actual.get(i);
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getChannel(), a.getChannel());
+            assertEquals(e.getText(), a.getText());
+            assertEquals(e.getLine(), a.getLine());
+            assertEquals(e.getCharPositionInLine(), a.getCharPositionInLine());
+        }
+    }
+}
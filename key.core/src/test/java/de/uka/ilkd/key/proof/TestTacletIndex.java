@@ -4,6 +4,7 @@
 package de.uka.ilkd.key.proof;
 
 import java.io.File;
+import java.util.Set;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.*;
@@ -23,6 +24,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -255,6 +257,90 @@ public class TestTacletIndex {
 
     }
 
+    @Test
+    public void testDiscriminationTreeRetrieval() {
+        final NoPosTacletApp removeF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_f"));
+        final NoPosTacletApp removeFF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_ff"));
+        final NoPosTacletApp removeZero =
+            NoPosTacletApp.createNoPosTacletApp(taclet("remove_zero"));
+
+        DiscriminationTree tree = DiscriminationTree.EMPTY.add(ruleRewriteNonH1H2).add(ruleAntecH1)
+                .add(removeF).add(removeFF).add(removeZero);
+
+        Set<NoPosTacletApp> apps = tree.retrieve(TacletForTests.parseTerm("p(one, zero)"));
+        assertEquals(Set.of(ruleRewriteNonH1H2, ruleAntecH1), apps);
+        assertTrue(tree.retrieve(TacletForTests.parseTerm("p(zero, one)")).isEmpty());
+
+        assertEquals(Set.of(removeF, removeFF),
+            tree.retrieve(TacletForTests.parseTerm("f(f(zero))")));
+        assertEquals(Set.of(removeF), tree.retrieve(TacletForTests.parseTerm("f(zero)")));
+        assertEquals(Set.of(removeZero), tree.retrieve(TacletForTests.parseTerm("zero")));
+
+        final DiscriminationTree removed = tree.remove(removeF);
+        assertEquals(Set.of(removeFF), removed.retrieve(TacletForTests.parseTerm("f(f(zero))")));
+        assertTrue(removed.retrieve(TacletForTests.parseTerm("f(zero)")).isEmpty());
+        // the original tree is unchanged
+        assertEquals(Set.of(removeF), tree.retrieve(TacletForTests.parseTerm("f(zero)")));
+    }
+
+    @Test
+    public void testDiscriminationTreeTacletIndex() {
+        Services services = new Services(AbstractProfile.getDefaultProfile());
+        final NoPosTacletApp removeF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_f"));
+        final NoPosTacletApp removeFF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_ff"));
+
+        TacletIndex ruleIdx = new DiscriminationTreeTacletIndex();
+        ruleIdx.add(ruleAntecH1);
+        ruleIdx.add(ruleMisMatch);
+        ruleIdx.add(removeF);
+        ruleIdx.add(removeFF);
+
+        Term term = TacletForTests.parseTerm("p(f(f(one)), zero)");
+        PosInOccurrence posAntec =
+            new PosInOccurrence(new SequentFormula(term), PosInTerm.getTopLevel(), true);
+        assertTrue(isRuleIn(ruleIdx.getAntecedentTaclet(posAntec, TacletFilter.TRUE, services),
+            ruleAntecH1));
+
+        PosInOccurrence posF = posAntec.down(0);
+        ImmutableList<NoPosTacletApp> apps =
+            ruleIdx.getRewriteTaclet(posF, TacletFilter.TRUE, services);
+        assertTrue(isRuleIn(apps, removeF));
+        assertTrue(isRuleIn(apps, removeFF));
+
+        TacletIndex copy = ruleIdx.copy();
+        copy.remove(removeFF);
+        apps = copy.getRewriteTaclet(posF, TacletFilter.TRUE, services);
+        assertTrue(isRuleIn(apps, removeF));
+        assertFalse(isRuleIn(apps, removeFF));
+        apps = ruleIdx.getRewriteTaclet(posF, TacletFilter.TRUE, services);
+        assertTrue(isRuleIn(apps, removeFF));
+    }
+
+    @Test
+    public void testParallelMatchingEqualsSequential() {
+        Services services = new Services(AbstractProfile.getDefaultProfile());
+        ImmutableList<NoPosTacletApp> apps = ImmutableSLList.nil();
+        for (int i = 0; i < 10; i++) {
+            for (String name : new String[] { "remove_f", "remove_ff", "remove_zero",
+                "remove_one" }) {
+                apps = apps.prepend(NoPosTacletApp.createNoPosTacletApp(taclet(name)));
+            }
+        }
+
+        Term term = TacletForTests.parseTerm("p(f(f(one)), zero)");
+        PosInOccurrence posF =
+            new PosInOccurrence(new SequentFormula(term), PosInTerm.getTopLevel(), true).down(0);
+        ImmutableList<NoPosTacletApp> sequential = new SingleThreadedTacletIndex()
+                .matchTaclets(apps, TacletFilter.TRUE, posF, services);
+        assertEquals(20, sequential.size());
+
+        // a grain of one taclet splits the matching into as many tasks as possible
+        ImmutableList<NoPosTacletApp> parallel = new MultiThreadedTacletIndex()
+                .matchInParallel(apps, 1, TacletFilter.TRUE, posF, services);
+        assertEquals(sequential.toList(), parallel.toList());
+        assertTrue(TacletIndexKit.getParallelMatchingEfficiency() > 0);
+    }
+
     private RuleAppIndex createGoalFor(Sequent seq_p5, TacletIndex ruleIdx) {
         final Node node_p5 = new Node(new Proof("TestTacletIndex",
             new InitConfig(new Services(AbstractProfile.getDefaultProfile()))), seq_p5);
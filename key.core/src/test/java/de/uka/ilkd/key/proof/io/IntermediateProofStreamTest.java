@@ -0,0 +1,143 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+import de.uka.ilkd.key.proof.io.intermediate.BranchNodeIntermediate;
+import de.uka.ilkd.key.proof.io.intermediate.NodeIntermediate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntermediateProofStreamTest {
+
+    @Test
+    void childrenOfSplitAreTakenBeforeSplitIsComplete() throws Exception {
+        final IntermediateProofStream stream = new IntermediateProofStream();
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(null, stream);
+
+        parser.beginExpr(ProofElementID.BRANCH, "dummy ID");
+        final BranchNodeIntermediate root = stream.awaitRoot();
+        assertNotNull(root);
+        assertSame(root, stream.take(root));
+
+        rule(parser, "a");
+        final NodeIntermediate a = stream.take(stream.awaitChild(root, 0));
+        assertNotNull(a);
+        stream.replayed(root);
+        rule(parser, "split");
+        final NodeIntermediate split = stream.take(stream.childRef(a, 0));
+        assertNotNull(split);
+        stream.replayed(a);
+
+        final NodeIntermediate first = stream.childRef(split, 0);
+        final NodeIntermediate second = stream.childRef(split, 1);
+        final NodeIntermediate third = stream.childRef(split, 2);
+        stream.replayed(split);
+
+        parser.beginExpr(ProofElementID.BRANCH, "x");
+        // the first branch is available before the split is complete
+        final NodeIntermediate x = stream.take(first);
+        assertInstanceOf(BranchNodeIntermediate.class, x);
+        assertFalse(split.isComplete());
+        rule(parser, "b");
+        assertNotNull(stream.awaitChild(x, 0));
+        parser.endExpr(ProofElementID.BRANCH, 0);
+        stream.replayed(x);
+
+        parser.beginExpr(ProofElementID.BRANCH, "y");
+        assertInstanceOf(BranchNodeIntermediate.class, stream.take(second));
+        parser.endExpr(ProofElementID.BRANCH, 0);
+        parser.endExpr(ProofElementID.BRANCH, 0);
+        assertTrue(split.isComplete());
+        // there is no third branch
+        assertNull(stream.take(third));
+    }
+
+    @Test
+    void replayerWaitsForRuleApplication() throws Exception {
+        final IntermediateProofStream stream = new IntermediateProofStream(1);
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(null, stream);
+        parser.beginExpr(ProofElementID.BRANCH, "dummy ID");
+        final BranchNodeIntermediate root = stream.awaitRoot();
+        parser.beginExpr(ProofElementID.RULE, "a");
+
+        final CompletableFuture<NodeIntermediate> taken = CompletableFuture.supplyAsync(() -> {
+            try {
+                return stream.take(stream.awaitChild(root, 0));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(Exception.class, () -> taken.get(100, TimeUnit.MILLISECONDS));
+
+        parser.endExpr(ProofElementID.RULE, 0);
+        assertNotNull(taken.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void parserPausesWhileBufferIsFull() throws Exception {
+        final IntermediateProofStream stream = new IntermediateProofStream(1);
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(null, stream);
+        parser.beginExpr(ProofElementID.BRANCH, "dummy ID");
+        final BranchNodeIntermediate root = stream.awaitRoot();
+        rule(parser, "a");
+
+        final CompletableFuture<Void> parsed = CompletableFuture.runAsync(() -> rule(parser, "b"));
+        assertThrows(Exception.class, () -> parsed.get(100, TimeUnit.MILLISECONDS));
+
+        final NodeIntermediate a = stream.take(stream.awaitChild(root, 0));
+        parsed.get(10, TimeUnit.SECONDS);
+        assertNotNull(a);
+        assertEquals(1, a.getChildren().size());
+    }
+
+    @Test
+    void childrenWithoutPlaceholderAreDropped() throws Exception {
+        final IntermediateProofStream stream = new IntermediateProofStream(1);
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(null, stream);
+        parser.beginExpr(ProofElementID.BRANCH, "dummy ID");
+        final BranchNodeIntermediate root = stream.awaitRoot();
+        rule(parser, "a");
+        final NodeIntermediate a = stream.take(stream.awaitChild(root, 0));
+        // e.g., the rule application could not be replayed
+        stream.replayed(a);
+
+        // the parser does not pause for nodes the replayer will not take
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10; i++) {
+                rule(parser, "b" + i);
+            }
+        }).get(10, TimeUnit.SECONDS);
+        assertEquals(1, a.getChildren().size());
+        assertNull(a.getChildren().get(0));
+    }
+
+    @Test
+    void cancelStopsParser() throws Exception {
+        final IntermediateProofStream stream = new IntermediateProofStream();
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(null, stream);
+        parser.beginExpr(ProofElementID.BRANCH, "dummy ID");
+        rule(parser, "a");
+
+        stream.cancel();
+        assertTrue(stream.isCancelled());
+        assertThrows(CancellationException.class, () -> rule(parser, "b"));
+    }
+
+    private static void rule(IntermediatePresentationProofFileParser parser, String name) {
+        parser.beginExpr(ProofElementID.RULE, name);
+        parser.endExpr(ProofElementID.RULE, 0);
+    }
+}
@@ -0,0 +1,137 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBinaryProofSaving {
+    @TempDir
+    Path tmp;
+
+    @Test
+    void saveAndLoadBinaryProof() throws Exception {
+        final Path file = tmp.resolve("keyBinaryTest.key");
+        final Path binary = tmp.resolve("keyBinaryTest" + BinaryProofFormat.FILE_EXTENSION);
+        try (InputStream is = getClass().getResourceAsStream("keyZipTest.key")) {
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(file.toFile());
+        env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+        final int nodes = env.getLoadedProof().countNodes();
+        new BinaryProofSaver(env.getLoadedProof(), binary.toString(), "n/a").save();
+        env.dispose();
+
+        env = KeYEnvironment.load(binary.toFile());
+        final Proof loaded = env.getLoadedProof();
+        assertTrue(loaded.closed());
+        assertEquals(nodes, loaded.countNodes());
+        env.dispose();
+    }
+
+    @Test
+    void textualRoundTrip() throws Exception {
+        final Path file = tmp.resolve("keyBinaryTest.key");
+        final Path binary = tmp.resolve("keyBinaryTest" + BinaryProofFormat.FILE_EXTENSION);
+        final Path text = tmp.resolve("keyBinaryTest.proof");
+        try (InputStream is = getClass().getResourceAsStream("keyZipTest.key")) {
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(file.toFile());
+        env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+        ProofSaver.saveToFile(text.toFile(), env.getLoadedProof());
+        final int nodes = env.getLoadedProof().countNodes();
+        env.dispose();
+
+        BinaryProofWriter.convertToBinary(text, binary);
+        assertTrue(Files.size(binary) < Files.size(text));
+        BinaryProofReader.convertToText(binary, text);
+
+        env = KeYEnvironment.load(text.toFile());
+        assertTrue(env.getLoadedProof().closed());
+        assertEquals(nodes, env.getLoadedProof().countNodes());
+        env.dispose();
+    }
+
+    @Test
+    void binarySaverWritesExpressionsOfTextualProof() throws Exception {
+        final Path file = tmp.resolve("keyBinaryTest.key");
+        final Path binary = tmp.resolve("keyBinaryTest" + BinaryProofFormat.FILE_EXTENSION);
+        final Path converted = tmp.resolve("converted" + BinaryProofFormat.FILE_EXTENSION);
+        final Path text = tmp.resolve("keyBinaryTest.proof");
+        try (InputStream is = getClass().getResourceAsStream("keyZipTest.key")) {
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        final KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(file.toFile());
+        try {
+            env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+            ProofSaver.saveToFile(text.toFile(), env.getLoadedProof());
+            new BinaryProofSaver(env.getLoadedProof(), binary.toString(), "n/a").save();
+        } finally {
+            env.dispose();
+        }
+        BinaryProofWriter.convertToBinary(text, converted);
+
+        final BinaryProofReader expected = BinaryProofReader.open(converted);
+        final BinaryProofReader actual = BinaryProofReader.open(binary);
+        assertEquals(expected.getHeader(), actual.getHeader());
+        assertEquals(expressions(expected), expressions(actual));
+    }
+
+    /**
+     * @return the expressions of the proof section except for the log, which grows with each save
+     */
+    private static List<String> expressions(BinaryProofReader reader) throws Exception {
+        final List<String> result = new ArrayList<>();
+        reader.replay(new IProofFileParser() {
+            private int log;
+
+            @Override
+            public void beginExpr(ProofElementID eid, String str) {
+                if (eid == ProofElementID.KeY_LOG) {
+                    log++;
+                } else if (log == 0) {
+                    result.add("(" + eid.getRawName() + " " + str);
+                }
+            }
+
+            @Override
+            public void endExpr(ProofElementID eid, int stringLiteralLine) {
+                if (eid == ProofElementID.KeY_LOG) {
+                    log--;
+                } else if (log == 0) {
+                    result.add(")");
+                }
+            }
+
+            @Override
+            public String getStatus() {
+                return "";
+            }
+
+            @Override
+            public List<Throwable> getErrors() {
+                return List.of();
+            }
+        });
+        assertFalse(result.isEmpty());
+        return result;
+    }
+}
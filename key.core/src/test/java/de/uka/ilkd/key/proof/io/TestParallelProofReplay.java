@@ -0,0 +1,101 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.nparser.ParsingFacade;
+import de.uka.ilkd.key.nparser.ProofReplayer;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.RuleApp;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestParallelProofReplay {
+
+    @Test
+    void parallelReplayReproducesSequentialReplay() throws Exception {
+        final Path problem = Files.createTempFile("parallelReplayTest", ".key");
+        final Path proofFile = Files.createTempFile("parallelReplayTest", ".proof");
+        try (InputStream is = getClass().getResourceAsStream("parallelReplayTest.key")) {
+            Files.copy(is, problem, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        final KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(problem.toFile());
+        final KeYEnvironment<DefaultUserInterfaceControl> sequentialEnv =
+            KeYEnvironment.load(problem.toFile());
+        final KeYEnvironment<DefaultUserInterfaceControl> parallelEnv =
+            KeYEnvironment.load(problem.toFile());
+        try {
+            final Proof original = env.getLoadedProof();
+            env.getProofControl().startAndWaitForAutoMode(original);
+            assertTrue(original.root().countBranches() > 1, "Test proof should split");
+            ProofSaver.saveToFile(proofFile.toFile(), original);
+
+            final Proof sequential = sequentialEnv.getLoadedProof();
+            replay(sequential, proofFile, 1);
+            final Proof parallel = parallelEnv.getLoadedProof();
+            replay(parallel, proofFile, 4);
+
+            assertEquals(original.closed(), sequential.closed());
+            assertEquals(original.countNodes(), sequential.countNodes());
+            assertEquals(sequential.openGoals().size(), parallel.openGoals().size());
+            // serial numbers depend on the order the branches are replayed in
+            assertSameRuleApps(sequential.root(), parallel.root());
+        } finally {
+            env.dispose();
+            sequentialEnv.dispose();
+            parallelEnv.dispose();
+            Files.deleteIfExists(problem);
+            Files.deleteIfExists(proofFile);
+        }
+    }
+
+    private static void replay(Proof proof, Path proofFile, int parallelism) throws Exception {
+        final IntermediatePresentationProofFileParser parser =
+            new IntermediatePresentationProofFileParser(proof);
+        final CharStream input = CharStreams.fromPath(proofFile);
+        ProofReplayer.run(ParsingFacade.parseFile(input).findProof(), input, parser,
+            proofFile.toUri());
+
+        final IntermediateProofReplayer replayer =
+            new IntermediateProofReplayer(null, proof, parser.getResult());
+        replayer.setParallelism(parallelism);
+        final IntermediateProofReplayer.Result result = replayer.replay(null, null);
+        assertTrue(result.getErrors().isEmpty(), () -> result.getErrors().toString());
+    }
+
+    private static void assertSameRuleApps(Node expected, Node actual) {
+        final RuleApp expectedApp = expected.getAppliedRuleApp();
+        final RuleApp actualApp = actual.getAppliedRuleApp();
+        if (expectedApp == null) {
+            assertNull(actualApp, () -> "Unexpected rule app at node " + actual.serialNr());
+        } else {
+            assertNotNull(actualApp, () -> "Missing rule app at node " + actual.serialNr());
+            assertEquals(expectedApp.rule().name(), actualApp.rule().name());
+            assertEquals(String.valueOf(expectedApp.posInOccurrence()),
+                String.valueOf(actualApp.posInOccurrence()));
+        }
+        assertEquals(expected.isClosed(), actual.isClosed(),
+            () -> "Closed status differs at node " + actual.serialNr());
+        assertEquals(expected.childrenCount(), actual.childrenCount());
+        final Iterator<Node> expectedChildren = expected.childrenIterator();
+        final Iterator<Node> actualChildren = actual.childrenIterator();
+        while (expectedChildren.hasNext()) {
+            assertSameRuleApps(expectedChildren.next(), actualChildren.next());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.RuleApp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the concurrent selection of rule applications yields the same proof as the
+ * sequential selection.
+ */
+class TestParallelRuleAppSelector {
+
+    @Test
+    void parallelSelectionReproducesProof() throws Exception {
+        assertParallelSelectionReproducesProof("parallelSelectorTest.key");
+    }
+
+    /**
+     * The branches of the program introduce local variables and the quantifiers introduce
+     * constants, i.e., names are proposed on several goals. They must be the same as in the
+     * sequential run.
+     */
+    @Test
+    void parallelSelectionReproducesNames() throws Exception {
+        assertParallelSelectionReproducesProof("parallelSelectorJavaTest.key");
+    }
+
+    private void assertParallelSelectionReproducesProof(String resource) throws Exception {
+        final Path problem = Files.createTempFile("parallelSelectorTest", ".key");
+        try (InputStream is = getClass().getResourceAsStream(resource)) {
+            Files.copy(is, problem, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        final KeYEnvironment<DefaultUserInterfaceControl> sequentialEnv =
+            KeYEnvironment.load(problem.toFile());
+        final KeYEnvironment<DefaultUserInterfaceControl> parallelEnv =
+            KeYEnvironment.load(problem.toFile());
+        try {
+            final Proof sequential = sequentialEnv.getLoadedProof();
+            run(sequential, 1);
+            assertTrue(sequential.root().countBranches() > 1, "Test proof should split");
+
+            final Proof parallel = parallelEnv.getLoadedProof();
+            run(parallel, 4);
+
+            assertEquals(sequential.closed(), parallel.closed());
+            assertEquals(sequential.countNodes(), parallel.countNodes());
+            assertSameRuleApps(sequential.root(), parallel.root());
+        } finally {
+            sequentialEnv.dispose();
+            parallelEnv.dispose();
+            Files.deleteIfExists(problem);
+        }
+    }
+
+    private static void run(Proof proof, int parallelism) {
+        new ApplyStrategy(
+            proof.getInitConfig().getProfile().getSelectedGoalChooserBuilder().create(),
+            parallelism).start(proof, proof.openGoals());
+    }
+
+    private static void assertSameRuleApps(Node expected, Node actual) {
+        assertEquals(expected.serialNr(), actual.serialNr());
+        // includes the names introduced on the branch
+        assertEquals(expected.sequent().toString(), actual.sequent().toString(),
+            () -> "Different sequent at node " + actual.serialNr());
+        final RuleApp expectedApp = expected.getAppliedRuleApp();
+        final RuleApp actualApp = actual.getAppliedRuleApp();
+        if (expectedApp == null) {
+            assertNull(actualApp, () -> "Unexpected rule app at node " + actual.serialNr());
+        } else {
+            assertNotNull(actualApp, () -> "Missing rule app at node " + expected.serialNr());
+            assertEquals(expectedApp.rule().name(), actualApp.rule().name());
+            assertEquals(String.valueOf(expectedApp.posInOccurrence()),
+                String.valueOf(actualApp.posInOccurrence()));
+        }
+        assertEquals(expected.isClosed(), actual.isClosed());
+        assertEquals(expected.childrenCount(), actual.childrenCount());
+        final Iterator<Node> expectedChildren = expected.childrenIterator();
+        final Iterator<Node> actualChildren = actual.childrenIterator();
+        while (expectedChildren.hasNext()) {
+            assertSameRuleApps(expectedChildren.next(), actualChildren.next());
+        }
+    }
+}
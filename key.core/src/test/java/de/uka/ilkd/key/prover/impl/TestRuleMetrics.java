@@ -0,0 +1,142 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.settings.Configuration;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the collection and the export of {@link RuleMetrics}.
+ */
+class TestRuleMetrics {
+    private Path problem;
+    private KeYEnvironment<DefaultUserInterfaceControl> env;
+    private KeYEnvironment<DefaultUserInterfaceControl> otherEnv;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        problem = Files.createTempFile("ruleMetricsTest", ".key");
+        try (InputStream is = getClass().getResourceAsStream("parallelSelectorTest.key")) {
+            Files.copy(is, problem, StandardCopyOption.REPLACE_EXISTING);
+        }
+        env = KeYEnvironment.load(problem.toFile());
+        otherEnv = KeYEnvironment.load(problem.toFile());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        env.dispose();
+        otherEnv.dispose();
+        Files.deleteIfExists(problem);
+    }
+
+    @Test
+    void collectsMetricsOfEnabledProofOnly() {
+        final Proof proof = env.getLoadedProof();
+        final Proof other = otherEnv.getLoadedProof();
+        final RuleMetrics metrics = RuleMetrics.enable(proof);
+        assertSame(metrics, RuleMetrics.enable(proof));
+        assertSame(metrics, RuleMetrics.of(proof));
+        assertNull(RuleMetrics.of(other));
+
+        run(proof);
+        run(other);
+
+        long executions = 0;
+        for (RuleMetrics.RuleStatistics stats : metrics.getRuleStatistics()) {
+            executions += stats.histogram(RuleMetrics.Phase.EXECUTE).getCount();
+        }
+        assertEquals(countAppliedRules(proof), executions);
+        assertTrue(metrics.getRuleStatistics().stream()
+                .anyMatch(s -> s.histogram(RuleMetrics.Phase.COST).getCount() > 0));
+        // the totals only cover the runs on this proof
+        assertEquals(1L, (long) metrics.getTotals().get("runs"));
+        assertEquals(countAppliedRules(proof), (long) metrics.getTotals().get("appliedRules"));
+        assertNull(RuleMetrics.of(other));
+
+        proof.dispose();
+        assertNull(RuleMetrics.of(proof));
+    }
+
+    @Test
+    void disableDiscardsMetrics() {
+        final Proof proof = env.getLoadedProof();
+        final RuleMetrics metrics = RuleMetrics.enable(proof);
+        RuleMetrics.disable(proof);
+        assertNull(RuleMetrics.of(proof));
+        run(proof);
+        assertTrue(metrics.getRuleStatistics().isEmpty());
+    }
+
+    @Test
+    void exportsJsonAndCsv() throws Exception {
+        final Proof proof = env.getLoadedProof();
+        final RuleMetrics metrics = RuleMetrics.enable(proof);
+        run(proof);
+        final List<RuleMetrics.RuleStatistics> statistics = metrics.getRuleStatistics();
+
+        final StringWriter json = new StringWriter();
+        metrics.exportJson(json);
+        final Configuration config = Configuration.load(CharStreams.fromString(json.toString()));
+        assertEquals(metrics.getProofName(), config.getString("proof"));
+        assertEquals(1L, config.getTable("totals").getLong("runs"));
+        final List<Configuration> rules = config.getList("rules", Configuration.class);
+        assertNotNull(rules);
+        assertEquals(statistics.size(), rules.size());
+        final Configuration first = rules.get(0);
+        final RuleMetrics.RuleStatistics firstStats = statistics.get(0);
+        assertEquals(firstStats.getName(), first.getString("name"));
+        assertEquals(firstStats.getRuleSets(), first.getStringList("ruleSets"));
+        final RuleMetrics.Histogram execute = firstStats.histogram(RuleMetrics.Phase.EXECUTE);
+        assertEquals(execute.getCount(), first.getTable("execute").getLong("count"));
+        assertEquals(execute.getTotalNanos(), first.getTable("execute").getLong("totalNanos"));
+        assertNotNull(config.getTable("ruleSets"));
+
+        final StringWriter csv = new StringWriter();
+        metrics.exportCsv(csv);
+        final String[] lines = csv.toString().split("\n");
+        assertEquals(statistics.size() + 1, lines.length);
+        final int columns = lines[0].split(";", -1).length;
+        assertEquals(2 + 3 * RuleMetrics.Phase.values().length + 1, columns);
+        for (int i = 1; i < lines.length; i++) {
+            final String[] cells = lines[i].split(";", -1);
+            assertEquals(columns, cells.length, lines[i]);
+            assertEquals(statistics.get(i - 1).getName(), cells[0]);
+        }
+    }
+
+    private static void run(Proof proof) {
+        new ApplyStrategy(
+            proof.getInitConfig().getProfile().getSelectedGoalChooserBuilder().create())
+                .start(proof, proof.openGoals());
+    }
+
+    private static long countAppliedRules(Proof proof) {
+        long result = 0;
+        for (Iterator<Node> it = proof.root().subtreeIterator(); it.hasNext();) {
+            if (it.next().getAppliedRuleApp() != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
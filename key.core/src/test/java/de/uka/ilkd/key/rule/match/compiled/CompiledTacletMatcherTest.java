@@ -0,0 +1,108 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.compiled;
+
+import java.io.File;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.Equality;
+import de.uka.ilkd.key.parser.ParserException;
+import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.rule.match.DifferentialTacletMatcher;
+import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
+import de.uka.ilkd.key.util.HelperClassForTests;
+
+import org.key_project.logic.Name;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTacletMatcherTest {
+
+    private static final int NR_TACLETS = 6;
+
+    private static final String[] FORMULAS = { "A & B", "(!A | (A<->B)) & B", "A & (B & A)",
+        "(\\forall int x; x>=0) & A", "A | (B & A)", "A", "\\forall int x;(x>=0 & A)",
+        "f(1, 1, 2) = 0", "f(c, c, d) = 0", "f(1,2,1) = 0", "g(1,1,2) = 0", "h(1,1) = 0",
+        "z(1,1,1,1) = 0", "f(c,d,c) = 0", "\\forall int x; x + 1 > 0", "\\forall int x; 1 + x > 0",
+        "\\forall int x; \\forall int y; x + y > 0", "\\forall int x; \\forall int y; y + x > 0",
+        "\\forall int x; \\forall int x; x + x > 0",
+        "\\forall int x; (x > 0  & \\forall int y; x + y > 0)",
+        "\\forall int x; (x > 0  & \\forall int x; x + x > 0)",
+        "\\forall int x; (x > 0  & \\forall int y; y + x > 0)" };
+
+    private static Services services;
+    private static final Taclet[] taclet = new Taclet[NR_TACLETS];
+
+    @BeforeAll
+    public static void init() {
+        HelperClassForTests helper = new HelperClassForTests();
+        ProofAggregate pa = helper.parse(
+            new File(HelperClassForTests.TESTCASE_DIRECTORY + "/tacletmatch/tacletMatch1.key"));
+
+        for (int i = 0; i < NR_TACLETS; i++) {
+            taclet[i] = pa.getFirstProof().getInitConfig()
+                    .lookupActiveTaclet(new Name("taclet_match_rule_" + (i + 1)));
+            assertNotNull(taclet[i], "Taclet required for test not found");
+        }
+        services = pa.getFirstProof().getServices();
+    }
+
+    private Term[] terms(Term formula) {
+        // also match the function terms below the equations
+        return formula.op() == Equality.EQUALS ? new Term[] { formula, formula.sub(0) }
+                : new Term[] { formula };
+    }
+
+    @Test
+    public void testSameResultsAsVM() throws ParserException {
+        for (Taclet t : taclet) {
+            final VMTacletMatcher vm = new VMTacletMatcher(t);
+            final CompiledTacletMatcher compiled = new CompiledTacletMatcher(t);
+            for (String fml : FORMULAS) {
+                for (Term toMatch : terms(services.getTermBuilder().parseTerm(fml))) {
+                    final MatchConditions expected =
+                        vm.matchFind(toMatch, MatchConditions.EMPTY_MATCHCONDITIONS, services);
+                    final MatchConditions actual = compiled.matchFind(toMatch,
+                        MatchConditions.EMPTY_MATCHCONDITIONS, services);
+                    final String msg = "Matching " + ((FindTaclet) t).find() + " against "
+                        + toMatch;
+                    if (expected == null) {
+                        assertNull(actual, msg);
+                    } else {
+                        assertNotNull(actual, msg);
+                        assertEquals(expected.getInstantiations(), actual.getInstantiations(),
+                            msg);
+                        assertEquals(expected.renameTable().toString(),
+                            actual.renameTable().toString(), msg);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDifferentialMatcher() throws ParserException {
+        int matches = 0;
+        for (Taclet t : taclet) {
+            final DifferentialTacletMatcher matcher = new DifferentialTacletMatcher(t,
+                new VMTacletMatcher(t), new CompiledTacletMatcher(t));
+            for (String fml : FORMULAS) {
+                for (Term toMatch : terms(services.getTermBuilder().parseTerm(fml))) {
+                    if (matcher.matchFind(toMatch, MatchConditions.EMPTY_MATCHCONDITIONS,
+                        services) != null) {
+                        matches++;
+                    }
+                }
+            }
+        }
+        assertTrue(matches > 0);
+    }
+}
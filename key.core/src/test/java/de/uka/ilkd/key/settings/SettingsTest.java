@@ -72,4 +72,17 @@ class SettingsTest {
         assertEquals(config, config2);
     }
 
+    @Test
+    void rereadEscapes() throws IOException {
+        var config = new Configuration();
+        config.set("a \"quoted\" key", "a \"quoted\" value");
+        config.set("backslash", "C:\\dir\\");
+        config.set("both", "\\\"\\\\\"");
+
+        var out = new StringWriter();
+        config.save(out, "");
+        var config2 = Configuration.load(CharStreams.fromString(out.toString()));
+
+        assertEquals(config, config2);
+    }
 }
@@ -0,0 +1,89 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.smt.solvertypes.SolverType;
+import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverLauncherTest {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    /** the number of problems translated concurrently per solver type */
+    private static final int PROBLEMS = 8;
+
+    /**
+     * Wraps a solver type such that the launcher regards it as installed. The problems are
+     * translated in any case; if the solver is not installed, starting its process fails.
+     */
+    private static SolverType installed(SolverType type) {
+        return (SolverType) Proxy.newProxyInstance(SolverType.class.getClassLoader(),
+            new Class<?>[] { SolverType.class },
+            (proxy, method, args) -> switch (method.getName()) {
+            case "isInstalled" -> true;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> method.invoke(type, args);
+            });
+    }
+
+    @Test
+    void testParallelTranslationEqualsSequential() throws Exception {
+        SolverType legacy = SolverTypes.getLegacySolvers().iterator().next();
+        SolverType modular = SolverTypes.getSolverTypes().stream()
+                .filter(it -> it != SolverTypes.Z3_CE_SOLVER
+                        && !SolverTypes.getLegacySolvers().contains(it))
+                .findFirst().orElseThrow();
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, "smt/modSpec.key"));
+        try {
+            Goal goal = env.getLoadedProof().openGoals().head();
+            Services services = goal.proof().getServices();
+            SMTTestSettings settings = new SMTTestSettings();
+
+            // the translations on the calling thread, one solver after the other
+            Map<SolverType, String> expected = new HashMap<>();
+            for (SolverType type : List.of(legacy, modular)) {
+                SMTSolver solver =
+                    type.createSolver(new SMTProblem(goal), new SolverLauncher(settings), services);
+                solver.prepare(settings);
+                assertTrue(solver.getTranslation().contains("(check-sat)"), type.getName());
+                expected.put(type, solver.getTranslation());
+            }
+
+            // the translations on the translation pool of the launcher
+            List<SMTProblem> problems = new ArrayList<>();
+            for (int i = 0; i < PROBLEMS; i++) {
+                problems.add(new SMTProblem(goal));
+            }
+            new SolverLauncher(settings).launch(List.of(installed(legacy), installed(modular)),
+                problems, services);
+            for (SMTProblem problem : problems) {
+                assertEquals(2, problem.getSolvers().size());
+                for (SMTSolver solver : problem.getSolvers()) {
+                    assertEquals(expected.get(solver.getType()), solver.getTranslation(),
+                        solver.name());
+                }
+            }
+        } finally {
+            env.dispose();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverSchedulerTest {
+
+    private static SMTSolver solver() {
+        return (SMTSolver) Proxy.newProxyInstance(SMTSolver.class.getClassLoader(),
+            new Class<?>[] { SMTSolver.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> null;
+            });
+    }
+
+    @Test
+    void testPriorityAndLimit() {
+        SolverScheduler scheduler = new SolverScheduler(1, 0);
+        List<String> started = new ArrayList<>();
+        SMTSolver a = solver();
+        SMTSolver b = solver();
+        SMTSolver c = solver();
+        SMTSolver d = solver();
+
+        scheduler.submit(a, 5, () -> started.add("a"));
+        // a occupies the only slot
+        scheduler.submit(b, 3, () -> started.add("b"));
+        scheduler.submit(c, 1, () -> started.add("c"));
+        scheduler.submit(d, 3, () -> started.add("d"));
+        assertEquals(List.of("a"), started);
+        assertEquals(3, scheduler.getStatistics().waiting());
+
+        scheduler.finished(a);
+        assertEquals(List.of("a", "c"), started);
+        // finishing twice must not free another slot
+        scheduler.finished(a);
+        assertEquals(List.of("a", "c"), started);
+
+        assertTrue(scheduler.cancel(d));
+        assertFalse(scheduler.cancel(c));
+        scheduler.finished(c);
+        scheduler.finished(b);
+        assertEquals(List.of("a", "c", "b"), started);
+
+        SolverScheduler.Statistics statistics = scheduler.getStatistics();
+        assertEquals(0, statistics.running());
+        assertEquals(0, statistics.waiting());
+        assertEquals(3, statistics.started());
+        assertEquals(3, statistics.finished());
+    }
+}
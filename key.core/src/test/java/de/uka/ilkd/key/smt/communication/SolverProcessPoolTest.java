@@ -0,0 +1,64 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+
+import de.uka.ilkd.key.smt.SMTSolverResult;
+import de.uka.ilkd.key.smt.solvertypes.SolverType;
+import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class SolverProcessPoolTest {
+
+    private static final String PREAMBLE =
+        """
+                (set-option :print-success true)
+                (set-option :produce-unsat-cores true)
+                (set-option :produce-models true)
+                (set-logic ALL)
+                (declare-const x Int)""";
+
+    private static SMTSolverResult.ThreeValuedTruth solve(PersistentSolverProcess process,
+            String goal) throws IOException, InterruptedException {
+        SolverCommunication sc = new SolverCommunication();
+        AbstractSolverSocket socket = new Z3Socket("Z3", null);
+        process.begin(sc, PREAMBLE);
+        process.sendMessage(goal);
+        String msg = process.readMessage();
+        while (msg != null) {
+            socket.messageIncoming(process, msg);
+            msg = process.readMessage();
+        }
+        return sc.getFinalResult().isValid();
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        SolverType z3 = SolverTypes.getSolverTypes().stream()
+                .filter(it -> it.getName().equals("Z3")).findFirst().orElseThrow();
+        assumeTrue(z3.isInstalled(true));
+        String[] command = { z3.getSolverCommand(), "-in", "-smt2" };
+        SolverProcessPool pool = SolverProcessPool.getInstance();
+
+        PersistentSolverProcess first = pool.acquire(command, z3.getDelimiters(), PREAMBLE);
+        assertEquals(SMTSolverResult.ThreeValuedTruth.FALSIFIABLE,
+            solve(first, "(assert (> x 0))\n(check-sat)"));
+        pool.release(first);
+
+        // the assertion of the first problem has been popped
+        PersistentSolverProcess second = pool.acquire(command, z3.getDelimiters(), PREAMBLE);
+        assertSame(first, second);
+        assertEquals(SMTSolverResult.ThreeValuedTruth.VALID,
+            solve(second, "(assert (< x 0))\n(assert (> x 0))\n(check-sat)"));
+        assertEquals(SMTSolverResult.ThreeValuedTruth.FALSIFIABLE,
+            solve(second, "(assert (< x 0))\n(check-sat)"));
+        pool.release(second);
+        pool.shutdown();
+    }
+}
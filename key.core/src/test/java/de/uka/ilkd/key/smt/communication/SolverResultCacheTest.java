@@ -0,0 +1,68 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import de.uka.ilkd.key.smt.SMTSolverResult;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+import de.uka.ilkd.key.smt.communication.SolverCommunication.Message;
+import de.uka.ilkd.key.smt.communication.SolverCommunication.MessageType;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverResultCacheTest {
+
+    @Test
+    void testNormalize() {
+        String problem = "; header\n(declare-fun  x () Int) ; comment\n\n(assert\n  (> x 0))\n";
+        assertEquals("(declare-fun x()Int)(assert(> x 0))", SolverResultCache.normalize(problem));
+        // literals are kept as they are
+        assertEquals("(echo \"a  ; b\"\"\")(|x  y|)",
+            SolverResultCache.normalize("(echo \"a  ; b\"\"\")  ( |x  y| )"));
+        assertEquals(SolverResultCache.key("Z3", "4.12", "-in", problem),
+            SolverResultCache.key("Z3", "4.12", "-in", "(declare-fun x () Int)(assert (> x 0))"));
+        assertNotEquals(SolverResultCache.key("Z3", "4.12", "-in", problem),
+            SolverResultCache.key("Z3", "4.13", "-in", problem));
+    }
+
+    @Test
+    void testStoreAndLookup(@TempDir Path dir) {
+        SolverResultCache cache = new SolverResultCache(dir);
+        String key = SolverResultCache.key("Z3", "4.12", "-in", "(check-sat)");
+        assertNull(cache.lookup(key));
+
+        SolverCommunication communication = new SolverCommunication();
+        communication.addMessage("(check-sat)", MessageType.INPUT);
+        communication.addMessage("unsat", MessageType.OUTPUT);
+        communication.addMessage("(L_1\nL_2)", MessageType.OUTPUT);
+        communication.setFinalResult(SMTSolverResult.createValidResult("Z3"));
+        cache.store(key, communication, 42);
+
+        SolverResultCache.Entry entry = cache.lookup(key);
+        assertNotNull(entry);
+        assertEquals(ThreeValuedTruth.VALID, entry.result());
+        assertEquals(42, entry.time());
+        assertEquals(List.of(new Message("unsat", MessageType.OUTPUT),
+            new Message("(L_1\nL_2)", MessageType.OUTPUT)), entry.output());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        SolverCommunication replayed = new SolverCommunication();
+        SolverResultCache.replay(entry, replayed, "Z3");
+        assertEquals(ThreeValuedTruth.VALID, replayed.getFinalResult().isValid());
+        assertEquals(entry.output(), replayed.getOutMessages());
+
+        // unknown results are not cached
+        String unknownKey = SolverResultCache.key("Z3", "4.12", "-in", "(assert false)");
+        SolverCommunication unknown = new SolverCommunication();
+        unknown.setFinalResult(SMTSolverResult.createUnknownResult("Z3"));
+        cache.store(unknownKey, unknown, 1);
+        assertNull(cache.lookup(unknownKey));
+    }
+}
@@ -0,0 +1,135 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.newsmt2;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermBuilder;
+import de.uka.ilkd.key.logic.op.JFunction;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.smt.SMTTestSettings;
+
+import org.key_project.logic.Name;
+import org.key_project.logic.sort.Sort;
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranslationCacheTest {
+
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    @Test
+    public void testReuse() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, "smt/modSpec.key"));
+        try {
+            Proof proof = env.getLoadedProof();
+            Goal goal = proof.openGoals().head();
+            Services services = proof.getServices();
+            List<Term> formulas = new ArrayList<>();
+            for (SequentFormula sf : goal.sequent().succedent()) {
+                formulas.add(services.getTermBuilder().not(sf.formula()));
+            }
+            formulas.add(services.getTermBuilder().tt());
+
+            ModularSMTLib2Translator translator = new ModularSMTLib2Translator();
+            SMTTestSettings settings = new SMTTestSettings();
+            TranslationCache cache = TranslationCache.get(proof, translator, services, settings,
+                new String[0], new String[0]);
+            assertSame(cache, TranslationCache.get(proof, translator, services, settings,
+                new String[0], new String[0]));
+
+            TranslationCache.Problem first = cache.translate(formulas);
+            TranslationCache.Problem second = cache.translate(formulas);
+            assertTrue(first.exceptions().isEmpty());
+            for (int i = 0; i < formulas.size(); i++) {
+                assertSame(first.assertions().get(i), second.assertions().get(i));
+            }
+            assertEquals(first.declarations().toString(), second.declarations().toString());
+            assertEquals(first.axioms().toString(), second.axioms().toString());
+
+            // a problem with fewer formulas needs at most the same declarations
+            TranslationCache.Problem part = cache.translate(formulas.subList(1, formulas.size()));
+            assertTrue(part.declarations().size() <= first.declarations().size());
+            assertTrue(part.axioms().size() <= first.axioms().size());
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    public void testOnlyNeededDeclarations() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, "smt/modSpec.key"));
+        try {
+            Proof proof = env.getLoadedProof();
+            Services services = proof.getServices();
+            TermBuilder tb = services.getTermBuilder();
+            Sort intSort = services.getTypeConverter().getIntegerLDT().targetSort();
+            Term a = tb.equals(tb.func(new JFunction(new Name("cacheA"), intSort)), tb.zero());
+            Term b = tb.equals(tb.func(new JFunction(new Name("cacheB"), intSort)), tb.one());
+
+            TranslationCache cache = cache(proof, services);
+            cache.translate(List.of(a));
+            TranslationCache.Problem problem = cache.translate(List.of(b));
+            assertFalse(problem.declarations().toString().contains("cacheA"));
+            assertFalse(problem.axioms().toString().contains("cacheA"));
+            // the problem is the same as if it had been translated on its own
+            assertSameProblem(cache(proof, services).translate(List.of(b)), problem);
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    public void testSymbolsOfSameName() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, "smt/modSpec.key"));
+        try {
+            Proof proof = env.getLoadedProof();
+            Services services = proof.getServices();
+            TermBuilder tb = services.getTermBuilder();
+            Sort intSort = services.getTypeConverter().getIntegerLDT().targetSort();
+            Sort boolSort = services.getTypeConverter().getBooleanLDT().targetSort();
+            // e.g., Skolem constants of different branches
+            Term intC = tb.equals(tb.func(new JFunction(new Name("cacheC"), intSort)), tb.zero());
+            Term boolC = tb.equals(tb.func(new JFunction(new Name("cacheC"), boolSort)), tb.TRUE());
+
+            TranslationCache cache = cache(proof, services);
+            cache.translate(List.of(intC));
+            TranslationCache.Problem problem = cache.translate(List.of(boolC));
+            assertSameProblem(cache(proof, services).translate(List.of(boolC)), problem);
+            assertTrue(problem.axioms().toString().contains(SExprs.sortExpr(boolSort).toString()));
+            // the first translation is still cached
+            TranslationCache.Problem again = cache.translate(List.of(intC));
+            assertSameProblem(cache(proof, services).translate(List.of(intC)), again);
+        } finally {
+            env.dispose();
+        }
+    }
+
+    /** creates a new cache, using a new translator */
+    private static TranslationCache cache(Proof proof, Services services) throws Exception {
+        return TranslationCache.get(proof, new ModularSMTLib2Translator(), services,
+            new SMTTestSettings(), new String[0], new String[0]);
+    }
+
+    private static void assertSameProblem(TranslationCache.Problem expected,
+            TranslationCache.Problem actual) {
+        assertEquals(expected.assertions().toString(), actual.assertions().toString());
+        assertEquals(expected.declarations().toString(), actual.declarations().toString());
+        assertEquals(expected.axioms().toString(), actual.axioms().toString());
+    }
+}
@@ -24,6 +24,7 @@ import de.uka.ilkd.key.macros.SkipMacro;
 import de.uka.ilkd.key.proof.init.AbstractProfile;
 import de.uka.ilkd.key.proof.io.AutoSaver;
 import de.uka.ilkd.key.proof.io.RuleSourceFactory;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.settings.GeneralSettings;
 import de.uka.ilkd.key.settings.PathConfig;
 import de.uka.ilkd.key.settings.ProofIndependentSettings;
@@ -80,6 +81,7 @@ public final class Main {
     private static final String TIMEOUT = "--timeout";
     private static final String EXAMPLES = "--examples";
     private static final String RIFL = "--rifl";
+    private static final String METRICS = "--metrics";
     public static final String JKEY_PREFIX = "--jr-";
     public static final String JMAX_RULES = JKEY_PREFIX + "maxRules";
     // deprecated
@@ -158,6 +160,12 @@ public final class Main {
 
     private static ProofMacro autoMacro = new SkipMacro();
 
+    /**
+     * Format (json or csv) in which the per-rule metrics of proofs run in auto mode are exported,
+     * or null if no metrics are collected.
+     */
+    private static String metricsFormat = null;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
 
     /**
@@ -277,6 +285,8 @@ public final class Main {
         cl.addOption(TIMEOUT, "<timeout>",
             "timeout for each automatic proof of a problem in ms (default: "
                 + LemmataAutoModeOptions.DEFAULT_TIMEOUT + ", i.e., no timeout)");
+        cl.addOption(METRICS, "<json/csv>",
+            "export per-rule performance metrics of auto mode proofs");
         cl.addSection("Options for justify rules:");
         cl.addOption(JUSTIFY_RULES, "<filename>",
             "autoprove taclets (options always with prefix --jr) needs the path to the rule file as argument");
@@ -410,6 +420,14 @@ public final class Main {
             setEnabledExperimentalFeatures(false);
         }
 
+        if (cl.isSet(METRICS)) {
+            metricsFormat = cl.getString(METRICS, "json").toLowerCase();
+            if (!"json".equals(metricsFormat) && !"csv".equals(metricsFormat)) {
+                printUsageAndExit(false, "Illegal metrics format (must be json or csv)", -5);
+            }
+            RuleMetrics.setEnabledByDefault(true);
+        }
+
         if (cl.isSet(RIFL)) {
             riflFileName = new File(cl.getString(RIFL, null));
             LOGGER.info("Loading RIFL specification from {}", riflFileName);
@@ -671,6 +689,14 @@ public final class Main {
         return filesOnStartup;
     }
 
+    /**
+     * @return the format (json or csv) of the exported per-rule metrics, or null if no metrics
+     *         are collected
+     */
+    public static String getMetricsFormat() {
+        return metricsFormat;
+    }
+
     public static String getExamplesDir() {
         return examplesDir;
     }
@@ -36,7 +36,8 @@ public final class KeYFileChooser extends JFileChooser {
         public boolean accept(File f) {
             String s = f.toString().toLowerCase(Locale.ROOT);
             return f.isDirectory() || s.endsWith(".java") || s.endsWith(".key")
-                    || s.endsWith(".proof") || s.endsWith(".proof.gz") || s.endsWith(".zproof");
+                    || s.endsWith(".proof") || s.endsWith(".proof.gz") || s.endsWith(".bproof")
+                    || s.endsWith(".zproof");
         }
 
         @Override
@@ -5,6 +5,7 @@ package de.uka.ilkd.key.ui;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 
 import de.uka.ilkd.key.control.AbstractProofControl;
@@ -37,6 +38,7 @@ import de.uka.ilkd.key.prover.TaskFinishedInfo;
 import de.uka.ilkd.key.prover.TaskStartedInfo;
 import de.uka.ilkd.key.prover.TaskStartedInfo.TaskKind;
 import de.uka.ilkd.key.prover.impl.DefaultTaskStartedInfo;
+import de.uka.ilkd.key.prover.impl.RuleMetrics;
 import de.uka.ilkd.key.rule.IBuiltInRuleApp;
 import de.uka.ilkd.key.speclang.PositionedString;
 import de.uka.ilkd.key.util.MiscTools;
@@ -402,6 +404,13 @@ public class ConsoleUserInterfaceControl extends AbstractMediatorUserInterfaceCo
                     new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
                 writer.write(ShowProofStatistics.getCSVStatisticsMessage(proof));
             }
+
+            // save per-rule metrics if requested on the command line
+            RuleMetrics metrics = RuleMetrics.of(proof);
+            if (metrics != null && Main.getMetricsFormat() != null) {
+                metrics.export(Path.of(MiscTools.toValidFileName(proof.name().toString())
+                    + ".metrics." + Main.getMetricsFormat()));
+            }
         } catch (IOException e) {
             LOGGER.error("Failed to write proof stats", e);
         }
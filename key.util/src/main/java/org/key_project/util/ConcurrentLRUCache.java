@@ -0,0 +1,400 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A thread-safe, size-bounded cache.
+ * <p>
+ * In contrast to {@link LRUCache}, callers do not have to synchronize on the cache. The entries are
+ * distributed by hash code over independently locked segments, each of which evicts its least
+ * recently used entries (so the eviction order is an approximation of LRU). The size of the cache
+ * is measured by a {@link Weigher}, e.g., in terms of the (estimated) memory consumption of the
+ * entries; by default each entry has weight 1.
+ * </p>
+ * <p>
+ * Optionally, new entries are only admitted if the cache is not full or if they are accessed at
+ * least as frequently as the entry they would evict (TinyLFU admission). The access frequencies are
+ * estimated by a small count-min sketch per segment that is aged periodically. This protects the
+ * cache from being flushed by entries that are used only once.
+ * </p>
+ * <p>
+ * Null keys and values are not supported. The views returned by {@link #entrySet()},
+ * {@link #keySet()} and {@link #values()} are snapshots.
+ * </p>
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public final class ConcurrentLRUCache<K, V> extends AbstractMap<K, V> {
+    /**
+     * Computes the weight of a cache entry.
+     *
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        /**
+         * @param key the key of the entry
+         * @param value the value of the entry
+         * @return the weight of the entry, at least 1
+         */
+        int weigh(K key, V value);
+    }
+
+    /**
+     * Statistics of a cache.
+     *
+     * @param hits number of successful lookups
+     * @param misses number of unsuccessful lookups
+     * @param evictions number of entries evicted to make room for new ones
+     * @param rejections number of entries not admitted to the cache
+     * @param weight current total weight of the entries
+     * @param size current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long rejections, long weight,
+            int size) {
+        /**
+         * @return the ratio of successful lookups, 0 if there were no lookups
+         */
+        public double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    /** the segments, their number is a power of two */
+    private final Segment<K, V>[] segments;
+    private final Weigher<? super K, ? super V> weigher;
+    private final boolean admission;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a cache of at most {@code maxEntries} entries without admission policy. It behaves
+     * like an {@link LRUCache} of the same size (up to the approximation of the LRU order).
+     *
+     * @param maxEntries the maximal number of entries
+     */
+    public ConcurrentLRUCache(int maxEntries) {
+        this(maxEntries, (k, v) -> 1, false);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxWeight the maximal total weight of the entries
+     * @param weigher computes the weight of an entry
+     * @param admission whether new entries are subject to TinyLFU admission
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLRUCache(long maxWeight, Weigher<? super K, ? super V> weigher,
+            boolean admission) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Negative maximal weight: " + maxWeight);
+        }
+        this.weigher = weigher;
+        this.admission = admission;
+        // caches of a weight below 512 are not segmented and keep their exact LRU order
+        final int count = Integer.highestOneBit(
+            (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2L,
+                maxWeight / 256)));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            final long segmentWeight = maxWeight / count + (i < maxWeight % count ? 1 : 0);
+            segments[i] = new Segment<>(segmentWeight, admission);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        return segments[spread(key.hashCode()) & (segments.length - 1)];
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    @Override
+    public @Nullable V get(Object key) {
+        final Segment<K, V> segment = segmentFor(key);
+        final Node<V> node;
+        synchronized (segment) {
+            if (segment.sketch != null) {
+                segment.sketch.increment(spread(key.hashCode()));
+            }
+            node = segment.map.get(key);
+        }
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.containsKey(key);
+        }
+    }
+
+    /**
+     * Adds an entry to the cache. The entry may be rejected if the cache uses an admission policy,
+     * or if its weight exceeds the capacity of the cache.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous value of the key, if any
+     */
+    @Override
+    public @Nullable V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public @Nullable V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private @Nullable V put(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        final int weight = Math.max(1, weigher.weigh(key, value));
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            final Node<V> old = segment.map.get(key);
+            if (old != null) {
+                if (onlyIfAbsent) {
+                    return old.value;
+                }
+                segment.weight -= old.weight;
+            } else if (weight > segment.maxWeight || !segment.admit(key, weight)) {
+                rejections.increment();
+                return null;
+            }
+            segment.map.put(key, new Node<>(value, weight));
+            segment.weight += weight;
+            evictions.add(segment.evict());
+            return old == null ? null : old.value;
+        }
+    }
+
+    @Override
+    public @Nullable V remove(Object key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            final Node<V> old = segment.map.remove(key);
+            if (old == null) {
+                return null;
+            }
+            segment.weight -= old.weight;
+            return old.value;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int result = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                result += segment.map.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the current total weight of the entries
+     */
+    public long weight() {
+        long result = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                result += segment.weight;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return whether new entries are subject to TinyLFU admission
+     */
+    public boolean usesAdmission() {
+        return admission;
+    }
+
+    /**
+     * @return a snapshot of the statistics of this cache
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), rejections.sum(), weight(),
+            size());
+    }
+
+    /**
+     * Returns a snapshot of the entries. Changes of the snapshot are not reflected in the cache.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        final Set<Entry<K, V>> result = new HashSet<>();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Entry<K, Node<V>> e : segment.map.entrySet()) {
+                    result.add(new SimpleImmutableEntry<>(e.getKey(), e.getValue().value));
+                }
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLRUCache" + stats();
+    }
+
+    /**
+     * A cached value with its weight.
+     */
+    private record Node<V>(V value, int weight) {
+    }
+
+    /**
+     * An independently locked part of the cache.
+     */
+    private static final class Segment<K, V> {
+        /** the entries in access order */
+        final LinkedHashMap<K, Node<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        final long maxWeight;
+        final @Nullable FrequencySketch sketch;
+        long weight;
+
+        Segment(long maxWeight, boolean admission) {
+            this.maxWeight = maxWeight;
+            this.sketch = admission ? new FrequencySketch(maxWeight) : null;
+        }
+
+        /**
+         * TinyLFU admission: a new entry that does not fit is only admitted if it is at least as
+         * frequent as the least recently used entry.
+         */
+        boolean admit(K key, int newWeight) {
+            if (sketch == null || weight + newWeight <= maxWeight || map.isEmpty()) {
+                return true;
+            }
+            final K victim = map.keySet().iterator().next();
+            return sketch.frequency(spread(key.hashCode())) >= sketch
+                    .frequency(spread(victim.hashCode()));
+        }
+
+        /**
+         * Removes the least recently used entries until the weight limit is respected.
+         *
+         * @return the number of removed entries
+         */
+        int evict() {
+            int evicted = 0;
+            final Iterator<Node<V>> it = map.values().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                weight -= it.next().weight;
+                it.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+    }
+
+    /**
+     * Count-min sketch with 4 bit counters and periodic aging, estimating how often a hash code
+     * has been accessed recently. Not thread-safe.
+     */
+    private static final class FrequencySketch {
+        private static final int MAX_COUNT = 15;
+        /** counters, two per byte */
+        private final byte[] table;
+        private final int mask;
+        /** number of increments after which all counters are halved */
+        private final int sampleSize;
+        private int increments;
+
+        FrequencySketch(long expectedEntries) {
+            final int counters = Integer.highestOneBit(
+                (int) Math.max(64, Math.min(1 << 24, expectedEntries * 4)) - 1) << 1;
+            table = new byte[counters / 2];
+            mask = counters - 1;
+            sampleSize = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(64, expectedEntries * 10));
+        }
+
+        private static int index(int hash, int i) {
+            int h = hash * (0x9E3779B9 + 2 * i) + i;
+            return h ^ (h >>> 15);
+        }
+
+        private int get(int counter) {
+            return (table[counter >>> 1] >>> ((counter & 1) << 2)) & 0xF;
+        }
+
+        private void set(int counter, int value) {
+            final int shift = (counter & 1) << 2;
+            table[counter >>> 1] =
+                (byte) ((table[counter >>> 1] & ~(0xF << shift)) | (value << shift));
+        }
+
+        void increment(int hash) {
+            for (int i = 0; i < 4; i++) {
+                final int counter = index(hash, i) & mask;
+                final int value = get(counter);
+                if (value < MAX_COUNT) {
+                    set(counter, value + 1);
+                }
+            }
+            if (++increments >= sampleSize) {
+                age();
+            }
+        }
+
+        int frequency(int hash) {
+            int result = MAX_COUNT;
+            for (int i = 0; i < 4; i++) {
+                result = Math.min(result, get(index(hash, i) & mask));
+            }
+            return result;
+        }
+
+        private void age() {
+            increments /= 2;
+            for (int i = 0; i < table.length; i++) {
+                // halve both counters of the byte
+                table[i] = (byte) ((table[i] >>> 1) & 0x77);
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A node of a persistent hash array mapped trie in the compressed (CHAMP) layout. It is the data
+ * structure underlying {@link ImmutableHashMap} and {@link ImmutableHashSet}.
+ * <p>
+ * Each level of the trie consumes five bits of the hash code of a key. A node stores the entries
+ * whose hash prefix is unique among the keys of the node inline as key-value pairs at the front
+ * of {@link #content} and the sub-tries at its back; two bitmaps tell which of the 32 branches
+ * holds an entry and which a sub-trie. Keys whose hash codes are equal end up in a collision node
+ * below the last level, which stores its pairs without bitmaps. Nodes are never modified, an
+ * update copies the nodes on the path to the changed entry and shares all others. Removals keep
+ * the trie canonical, i.e., equal sets of entries are represented by equal tries.
+ * </p>
+ * <p>
+ * The keys are compared by {@link Objects#equals(Object, Object)}; the value of a key is only
+ * replaced if it is not identical to the old one.
+ * </p>
+ */
+final class ChampNode implements Serializable {
+    private static final long serialVersionUID = 2270634938853390472L;
+
+    /** the empty trie */
+    static final ChampNode EMPTY = new ChampNode(0, 0, new Object[0]);
+
+    /** result of a failed lookup, as values may be {@code null} */
+    static final Object NOT_FOUND = new Object();
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    /** the shift of the last level that is indexed by the hash code */
+    private static final int MAX_SHIFT = 30;
+
+    /** branches holding an inline entry */
+    private final int dataMap;
+    /** branches holding a sub-trie */
+    private final int nodeMap;
+    /** the inline entries as key-value pairs followed by the sub-tries in reverse order */
+    private final Object[] content;
+
+    private ChampNode(int dataMap, int nodeMap, Object[] content) {
+        this.dataMap = dataMap;
+        this.nodeMap = nodeMap;
+        this.content = content;
+    }
+
+    /** the changes made by an update, to maintain the size of the trie */
+    static final class Change {
+        /** the number of entries has been increased (1) or decreased (-1) by the update */
+        int sizeDelta;
+    }
+
+    static int hash(@Nullable Object key) {
+        return Objects.hashCode(key);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int dataIndex(int bit) {
+        return Integer.bitCount(dataMap & (bit - 1));
+    }
+
+    private int nodeIndex(int bit) {
+        return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+    }
+
+    /** number of inline entries */
+    int payloadArity() {
+        return dataMap == 0 && nodeMap == 0 ? content.length / 2 : Integer.bitCount(dataMap);
+    }
+
+    /** number of sub-tries */
+    int nodeArity() {
+        return Integer.bitCount(nodeMap);
+    }
+
+    @Nullable
+    Object key(int index) {
+        return content[2 * index];
+    }
+
+    @Nullable
+    Object value(int index) {
+        return content[2 * index + 1];
+    }
+
+    ChampNode node(int index) {
+        return (ChampNode) content[content.length - 1 - index];
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key the key
+     * @param hash the hash code of the key
+     * @return the value of the key, {@link #NOT_FOUND} if this trie does not contain the key
+     */
+    @Nullable
+    Object get(@Nullable Object key, int hash) {
+        ChampNode node = this;
+        for (int shift = 0; shift <= MAX_SHIFT; shift += BITS) {
+            final int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                final int index = node.dataIndex(bit);
+                return Objects.equals(key, node.key(index)) ? node.value(index) : NOT_FOUND;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            node = (ChampNode) node.content[node.nodeIndex(bit)];
+        }
+        return node.findCollision(key);
+    }
+
+    @Nullable
+    private Object findCollision(@Nullable Object key) {
+        for (int i = 0; i < content.length; i += 2) {
+            if (Objects.equals(key, content[i])) {
+                return content[i + 1];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Maps a key to a value.
+     *
+     * @param key the key
+     * @param value the value
+     * @param hash the hash code of the key
+     * @param shift the shift of the level of this node
+     * @param change receives whether an entry has been added
+     * @return the updated trie, this one if it already maps the key to the value
+     */
+    ChampNode put(@Nullable Object key, @Nullable Object value, int hash, int shift,
+            Change change) {
+        if (shift > MAX_SHIFT) {
+            return putCollision(key, value, change);
+        }
+        final int bit = bit(hash, shift);
+        if ((dataMap & bit) != 0) {
+            final int index = dataIndex(bit);
+            final Object oldKey = key(index);
+            if (Objects.equals(key, oldKey)) {
+                if (value(index) == value) {
+                    return this;
+                }
+                final Object[] result = content.clone();
+                result[2 * index + 1] = value;
+                return new ChampNode(dataMap, nodeMap, result);
+            }
+            change.sizeDelta = 1;
+            final ChampNode sub = merge(oldKey, value(index), hash(oldKey), key, value, hash,
+                shift + BITS);
+            return migrateDataToNode(bit, index, sub);
+        }
+        if ((nodeMap & bit) != 0) {
+            final int index = nodeIndex(bit);
+            final ChampNode sub = (ChampNode) content[index];
+            final ChampNode newSub = sub.put(key, value, hash, shift + BITS, change);
+            if (newSub == sub) {
+                return this;
+            }
+            final Object[] result = content.clone();
+            result[index] = newSub;
+            return new ChampNode(dataMap, nodeMap, result);
+        }
+        change.sizeDelta = 1;
+        final int index = 2 * dataIndex(bit);
+        final Object[] result = new Object[content.length + 2];
+        System.arraycopy(content, 0, result, 0, index);
+        result[index] = key;
+        result[index + 1] = value;
+        System.arraycopy(content, index, result, index + 2, content.length - index);
+        return new ChampNode(dataMap | bit, nodeMap, result);
+    }
+
+    private ChampNode putCollision(@Nullable Object key, @Nullable Object value, Change change) {
+        for (int i = 0; i < content.length; i += 2) {
+            if (Objects.equals(key, content[i])) {
+                if (content[i + 1] == value) {
+                    return this;
+                }
+                final Object[] result = content.clone();
+                result[i + 1] = value;
+                return new ChampNode(0, 0, result);
+            }
+        }
+        change.sizeDelta = 1;
+        final Object[] result = Arrays.copyOf(content, content.length + 2);
+        result[content.length] = key;
+        result[content.length + 1] = value;
+        return new ChampNode(0, 0, result);
+    }
+
+    /** creates the trie of two entries with different keys */
+    private static ChampNode merge(@Nullable Object key0, @Nullable Object value0, int hash0,
+            @Nullable Object key1, @Nullable Object value1, int hash1, int shift) {
+        if (shift > MAX_SHIFT) {
+            return new ChampNode(0, 0, new Object[] { key0, value0, key1, value1 });
+        }
+        final int bit0 = bit(hash0, shift);
+        final int bit1 = bit(hash1, shift);
+        if (bit0 == bit1) {
+            return new ChampNode(0, bit0,
+                new Object[] { merge(key0, value0, hash0, key1, value1, hash1, shift + BITS) });
+        }
+        // entries are ordered by their branch
+        final Object[] content = Integer.compareUnsigned(bit0, bit1) < 0
+                ? new Object[] { key0, value0, key1, value1 }
+                : new Object[] { key1, value1, key0, value0 };
+        return new ChampNode(bit0 | bit1, 0, content);
+    }
+
+    private ChampNode migrateDataToNode(int bit, int dataIndex, ChampNode sub) {
+        final int oldIndex = 2 * dataIndex;
+        // the index of the new node in the array after removing the entry
+        final int newIndex = content.length - 2 - Integer.bitCount(nodeMap & (bit - 1));
+        final Object[] result = new Object[content.length - 1];
+        System.arraycopy(content, 0, result, 0, oldIndex);
+        System.arraycopy(content, oldIndex + 2, result, oldIndex, newIndex - oldIndex);
+        result[newIndex] = sub;
+        System.arraycopy(content, newIndex + 2, result, newIndex + 1,
+            content.length - newIndex - 2);
+        return new ChampNode(dataMap ^ bit, nodeMap | bit, result);
+    }
+
+    private ChampNode migrateNodeToData(int bit, int nodeIndex, @Nullable Object key,
+            @Nullable Object value) {
+        final int newIndex = 2 * dataIndex(bit);
+        final Object[] result = new Object[content.length + 1];
+        System.arraycopy(content, 0, result, 0, newIndex);
+        result[newIndex] = key;
+        result[newIndex + 1] = value;
+        System.arraycopy(content, newIndex, result, newIndex + 2, nodeIndex - newIndex);
+        System.arraycopy(content, nodeIndex + 1, result, nodeIndex + 2,
+            content.length - nodeIndex - 1);
+        return new ChampNode(dataMap | bit, nodeMap ^ bit, result);
+    }
+
+    /**
+     * Removes the entry of a key.
+     *
+     * @param key the key
+     * @param hash the hash code of the key
+     * @param shift the shift of the level of this node
+     * @param change receives whether an entry has been removed
+     * @return the updated trie, this one if it does not contain the key
+     */
+    ChampNode remove(@Nullable Object key, int hash, int shift, Change change) {
+        if (shift > MAX_SHIFT) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (Objects.equals(key, content[i])) {
+                    change.sizeDelta = -1;
+                    final Object[] result = new Object[content.length - 2];
+                    System.arraycopy(content, 0, result, 0, i);
+                    System.arraycopy(content, i + 2, result, i, content.length - i - 2);
+                    return new ChampNode(0, 0, result);
+                }
+            }
+            return this;
+        }
+        final int bit = bit(hash, shift);
+        if ((dataMap & bit) != 0) {
+            final int index = 2 * dataIndex(bit);
+            if (!Objects.equals(key, content[index])) {
+                return this;
+            }
+            change.sizeDelta = -1;
+            final Object[] result = new Object[content.length - 2];
+            System.arraycopy(content, 0, result, 0, index);
+            System.arraycopy(content, index + 2, result, index, content.length - index - 2);
+            return new ChampNode(dataMap ^ bit, nodeMap, result);
+        }
+        if ((nodeMap & bit) != 0) {
+            final int index = nodeIndex(bit);
+            final ChampNode sub = (ChampNode) content[index];
+            final ChampNode newSub = sub.remove(key, hash, shift + BITS, change);
+            if (newSub == sub) {
+                return this;
+            }
+            if (newSub.nodeArity() == 0 && newSub.payloadArity() == 1) {
+                // a sub-trie with a single entry is inlined to keep the trie canonical
+                return migrateNodeToData(bit, index, newSub.key(0), newSub.value(0));
+            }
+            final Object[] result = content.clone();
+            result[index] = newSub;
+            return new ChampNode(dataMap, nodeMap, result);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ChampNode other) || dataMap != other.dataMap
+                || nodeMap != other.nodeMap || content.length != other.content.length) {
+            return false;
+        }
+        if (isCollision()) {
+            // the order of the entries of a collision node depends on the order of the updates
+            for (int i = 0; i < content.length; i += 2) {
+                final Object value = other.findCollision(content[i]);
+                if (value == NOT_FOUND || !Objects.equals(content[i + 1], value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // canonical tries of equal entries have the same shape
+        return Arrays.equals(content, other.content);
+    }
+
+    @Override
+    public int hashCode() {
+        if (isCollision()) {
+            int result = 0;
+            for (int i = 0; i < content.length; i += 2) {
+                result += Objects.hashCode(content[i]) ^ Objects.hashCode(content[i + 1]);
+            }
+            return result;
+        }
+        return Arrays.hashCode(content);
+    }
+
+    /** whether this is a collision node (or the empty trie), which stores no bitmaps */
+    private boolean isCollision() {
+        return dataMap == 0 && nodeMap == 0;
+    }
+
+    /**
+     * Iterates over the entries of a trie in depth-first order. The current entry is given by
+     * {@link #currentKey()} and {@link #currentValue()} after {@link #advance()}.
+     */
+    abstract static class EntryIterator<E> implements Iterator<E> {
+        private final ArrayDeque<ChampNode> nodes = new ArrayDeque<>();
+        private final ArrayDeque<Integer> nextNode = new ArrayDeque<>();
+        private ChampNode current;
+        private int nextEntry;
+        private int currentIndex;
+
+        EntryIterator(ChampNode root) {
+            current = root;
+            nodes.push(root);
+            nextNode.push(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextEntry >= current.payloadArity()) {
+                // descend into the next sub-trie or go back up
+                if (nodes.isEmpty()) {
+                    return false;
+                }
+                final ChampNode top = nodes.peek();
+                final int index = nextNode.pop();
+                if (index < top.nodeArity()) {
+                    nextNode.push(index + 1);
+                    current = top.node(index);
+                    nodes.push(current);
+                    nextNode.push(0);
+                    nextEntry = 0;
+                } else {
+                    nodes.pop();
+                    if (nodes.isEmpty()) {
+                        return false;
+                    }
+                    current = nodes.peek();
+                    nextEntry = current.payloadArity();
+                }
+            }
+            return true;
+        }
+
+        /** moves to the next entry */
+        final void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            currentIndex = nextEntry++;
+        }
+
+        @Nullable
+        final Object currentKey() {
+            return current.key(currentIndex);
+        }
+
+        @Nullable
+        final Object currentValue() {
+            return current.value(currentIndex);
+        }
+    }
+}
@@ -26,6 +26,18 @@ public final class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
         return (DefaultImmutableMap<S, T>) EMPTY_MAP;
     }
 
+    /**
+     * The empty map of the hash-array-mapped-trie implementation {@link ImmutableHashMap}. Its
+     * lookups and updates take logarithmic instead of linear time, which pays off for maps with
+     * more than about eight entries (see {@code ImmutableCollectionsBenchmark}), but its iteration
+     * order is not most recent first.
+     *
+     * @return the empty hash map
+     */
+    public static <S, T> ImmutableMap<S, T> nilHashMap() {
+        return ImmutableHashMap.nilMap();
+    }
+
     /**
      * The map this map builds on. Lookups will also consider entries in this map if the key
      * does not match {@link #entry}.
@@ -369,6 +381,11 @@ public final class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
                     || (key.equals(cmpKey) && value.equals(cmpVal));
         }
 
+        /** @return the hash code, see also {@link ImmutableHashMap#hashCode()} */
+        public int hashCode() {
+            return 31 * key.hashCode() + value.hashCode();
+        }
+
         public String toString() {
             return key + "->" + value;
         }
@@ -39,6 +39,18 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
         return (DefaultImmutableSet<T>) NILSet.NIL;
     }
 
+    /**
+     * The empty set of the hash-array-mapped-trie implementation {@link ImmutableHashSet}. Its
+     * lookups and insertions take logarithmic instead of linear time, which pays off for sets with
+     * more than about eight elements (see {@code ImmutableCollectionsBenchmark}), but it does not
+     * preserve the insertion order of the elements.
+     *
+     * @return the empty hash set
+     */
+    public static <T extends @Nullable Object> ImmutableSet<T> nilHashSet() {
+        return ImmutableHashSet.nil();
+    }
+
     protected DefaultImmutableSet() {
         elementList = ImmutableSLList.nil();
     }
@@ -379,12 +391,15 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
          */
         @Override
         public boolean equals(@Nullable Object o) {
-            return o instanceof NILSet<?>;
+            return o instanceof ImmutableSet<?> set && set.isEmpty();
         }
 
+        /**
+         * @return the sum of the hash codes of the elements like for all other sets, i.e., 0
+         */
         @Override
         public int hashCode() {
-            return 23456;
+            return 0;
         }
 
         @Override
@@ -0,0 +1,227 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.Iterator;
+
+import org.key_project.util.Strings;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A persistent map based on a hash array mapped trie (see {@link ChampNode}). Lookups and updates
+ * take time logarithmic (to the base 32) in the size of the map, and updated maps share all
+ * untouched parts of the trie with the original one.
+ * <p>
+ * In contrast to {@link DefaultImmutableMap}, the order of iteration is unspecified (and not most
+ * recent first). For small maps, the linear {@link DefaultImmutableMap} is faster; see
+ * {@link DefaultImmutableMap#nilHashMap()}.
+ * </p>
+ *
+ * @param <S> type of the keys
+ * @param <T> type of the values
+ */
+public final class ImmutableHashMap<S, T> implements ImmutableMap<S, T> {
+
+    /** the empty map */
+    private static final ImmutableHashMap<?, ?> EMPTY = new ImmutableHashMap<>(ChampNode.EMPTY, 0);
+
+    private final ChampNode root;
+    private final int size;
+
+    private ImmutableHashMap(ChampNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** @return the empty map */
+    @SuppressWarnings("unchecked")
+    public static <S, T> ImmutableHashMap<S, T> nilMap() {
+        return (ImmutableHashMap<S, T>) EMPTY;
+    }
+
+    private ImmutableHashMap<S, T> update(ChampNode newRoot, int delta) {
+        if (newRoot == root) {
+            return this;
+        }
+        return size + delta == 0 ? nilMap() : new ImmutableHashMap<>(newRoot, size + delta);
+    }
+
+    @Override
+    public ImmutableHashMap<S, T> put(S key, T value) {
+        final ChampNode.Change change = new ChampNode.Change();
+        return update(root.put(key, value, ChampNode.hash(key), 0, change), change.sizeDelta);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(S key) {
+        final Object value = root.get(key, ChampNode.hash(key));
+        return value == ChampNode.NOT_FOUND ? null : (T) value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(S key) {
+        return root.get(key, ChampNode.hash(key)) != ChampNode.NOT_FOUND;
+    }
+
+    @Override
+    public boolean containsValue(T value) {
+        final Iterator<T> it = valueIterator();
+        while (it.hasNext()) {
+            final T v = it.next();
+            if (v == value || v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ImmutableHashMap<S, T> remove(S key) {
+        final ChampNode.Change change = new ChampNode.Change();
+        return update(root.remove(key, ChampNode.hash(key), 0, change), change.sizeDelta);
+    }
+
+    @Override
+    public ImmutableHashMap<S, T> removeAll(T value) {
+        ImmutableHashMap<S, T> result = this;
+        for (ImmutableMapEntry<S, T> entry : this) {
+            final T v = entry.value();
+            if (v == value || v.equals(value)) {
+                result = result.remove(entry.key());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<S> keyIterator() {
+        return new ChampNode.EntryIterator<>(root) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public S next() {
+                advance();
+                return (S) currentKey();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<T> valueIterator() {
+        return new ChampNode.EntryIterator<>(root) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                advance();
+                return (T) currentValue();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<ImmutableMapEntry<S, T>> iterator() {
+        return new ChampNode.EntryIterator<>(root) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public ImmutableMapEntry<S, T> next() {
+                advance();
+                return new Entry<>((S) currentKey(), (T) currentValue());
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return Strings.formatAsList(this, "[", ",", "]");
+    }
+
+    /**
+     * The equality checks if the argument is another immutable map with the same entries.
+     *
+     * @return true iff the other object is an immutable map with the same entries
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(@Nullable Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof ImmutableHashMap<?, ?> other) {
+            return size == other.size && root.equals(other.root);
+        }
+        if (!(o instanceof ImmutableMap)) {
+            return false;
+        }
+        final ImmutableMap<S, T> other = (ImmutableMap<S, T>) o;
+        if (other.size() != size) {
+            return false;
+        }
+        for (ImmutableMapEntry<S, T> e : this) {
+            if (!e.value().equals(other.get(e.key()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the hash code, which is the same as the one of a {@link DefaultImmutableMap} with
+     *         the same entries
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (ImmutableMapEntry<S, T> entry : this) {
+            hashCode += 7 * entry.hashCode();
+        }
+        return hashCode;
+    }
+
+    /**
+     * An entry of the map, created while iterating.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    // @formatter:off
+    private record Entry<S, T>(S key, T value) implements ImmutableMapEntry<S, T> {
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ImmutableMapEntry<?, ?> cmp)) {
+                return false;
+            }
+            final Object cmpKey = cmp.key();
+            final Object cmpVal = cmp.value();
+            return (key == cmpKey && value == cmpVal)
+                    || (key.equals(cmpKey) && value.equals(cmpVal));
+        }
+
+        /** @return the hash code of the corresponding entry of a {@link DefaultImmutableMap} */
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "->" + value;
+        }
+    }
+    // @formatter:on
+}
@@ -0,0 +1,234 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.lang.reflect.Array;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.key_project.util.Strings;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A persistent set based on a hash array mapped trie (see {@link ChampNode}). Lookups, insertions
+ * and removals take time logarithmic (to the base 32) in the size of the set, and updated sets
+ * share all untouched parts of the trie with the original one.
+ * <p>
+ * In contrast to {@link DefaultImmutableSet}, the order of iteration is unspecified. For small
+ * sets, the list-based {@link DefaultImmutableSet} is faster; see
+ * {@link DefaultImmutableSet#nilHashSet()}.
+ * </p>
+ *
+ * @param <T> type of the elements
+ */
+public final class ImmutableHashSet<T extends @Nullable Object> implements ImmutableSet<T> {
+    private static final long serialVersionUID = -4262365117095916253L;
+
+    /** the empty set */
+    private static final ImmutableHashSet<?> EMPTY = new ImmutableHashSet<>(ChampNode.EMPTY, 0);
+
+    /** the trie, mapping each element to itself */
+    private final ChampNode root;
+    private final int size;
+
+    private ImmutableHashSet(ChampNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** @return the empty set */
+    @SuppressWarnings("unchecked")
+    public static <T extends @Nullable Object> ImmutableHashSet<T> nil() {
+        return (ImmutableHashSet<T>) EMPTY;
+    }
+
+    /**
+     * @param elements the elements
+     * @return a set of the given elements
+     */
+    public static <T extends @Nullable Object> ImmutableHashSet<T> fromIterable(
+            Iterable<? extends T> elements) {
+        ImmutableHashSet<T> result = nil();
+        for (T element : elements) {
+            result = result.add(element);
+        }
+        return result;
+    }
+
+    private ImmutableHashSet<T> update(ChampNode newRoot, int delta) {
+        if (newRoot == root) {
+            return this;
+        }
+        return size + delta == 0 ? nil() : new ImmutableHashSet<>(newRoot, size + delta);
+    }
+
+    @Override
+    public ImmutableHashSet<T> add(T element) {
+        final ChampNode.Change change = new ChampNode.Change();
+        return update(root.put(element, element, ChampNode.hash(element), 0, change),
+            change.sizeDelta);
+    }
+
+    @Override
+    public ImmutableSet<T> addUnique(T element) throws NotUniqueException {
+        final ImmutableHashSet<T> result = add(element);
+        if (result == this) {
+            throw new NotUniqueException(element);
+        }
+        return result;
+    }
+
+    @Override
+    public ImmutableSet<T> union(ImmutableSet<? extends T> set) {
+        if (set.size() > size && set instanceof ImmutableHashSet<? extends T> other) {
+            // add the elements of the smaller set
+            @SuppressWarnings("unchecked")
+            final ImmutableHashSet<T> larger = (ImmutableHashSet<T>) other;
+            return larger.addAll(this);
+        }
+        return addAll(set);
+    }
+
+    private ImmutableHashSet<T> addAll(Iterable<? extends T> elements) {
+        ImmutableHashSet<T> result = this;
+        for (T element : elements) {
+            result = result.add(element);
+        }
+        return result;
+    }
+
+    @Override
+    public ImmutableSet<T> intersect(ImmutableSet<? extends T> set) {
+        ImmutableHashSet<T> result = nil();
+        for (T element : set) {
+            if (contains(element)) {
+                result = result.add(element);
+            }
+        }
+        return result.size == size ? this : result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        return new ChampNode.EntryIterator<>(root) {
+            @Override
+            public T next() {
+                advance();
+                return (T) currentKey();
+            }
+        };
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public boolean exists(Predicate<T> predicate) {
+        for (T element : this) {
+            if (predicate.test(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(T obj) {
+        return root.get(obj, ChampNode.hash(obj)) != ChampNode.NOT_FOUND;
+    }
+
+    @Override
+    public boolean subset(ImmutableSet<T> s) {
+        if (size > s.size()) {
+            return false;
+        }
+        for (T element : this) {
+            if (!s.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public ImmutableHashSet<T> remove(T element) {
+        final ChampNode.Change change = new ChampNode.Change();
+        return update(root.remove(element, ChampNode.hash(element), 0, change),
+            change.sizeDelta);
+    }
+
+    /**
+     * @return true iff the this set is subset of o and vice versa.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ImmutableHashSet<?> other) {
+            return size == other.size && root.equals(other.root);
+        }
+        if (!(obj instanceof ImmutableSet)) {
+            return false;
+        }
+        final ImmutableSet<T> o = (ImmutableSet<T>) obj;
+        return o.size() == size && subset(o);
+    }
+
+    /** @return the sum of the hash codes of the elements, like {@link DefaultImmutableSet} */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (T element : this) {
+            hashCode += element == null ? 0 : element.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S> S[] toArray(S[] array) {
+        final S[] result = array.length < size
+                ? (S[]) Array.newInstance(array.getClass().getComponentType(), size)
+                : array;
+        int i = 0;
+        for (T element : this) {
+            result[i++] = (S) element;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<T> toSet() {
+        final Set<T> result = new HashSet<>();
+        for (T element : this) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.formatAsList(this, "{", ",", "}");
+    }
+}
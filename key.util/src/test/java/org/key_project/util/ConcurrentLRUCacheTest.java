@@ -0,0 +1,107 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLRUCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals("a", cache.get(1));
+        cache.put(4, "d");
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("d", cache.get(4));
+
+        ConcurrentLRUCache.Stats stats = cache.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+    }
+
+    @Test
+    void respectsWeights() {
+        ConcurrentLRUCache<String, String> cache =
+            new ConcurrentLRUCache<>(10, (k, v) -> v.length(), false);
+        cache.put("a", "12345");
+        cache.put("b", "1234");
+        assertEquals(9, cache.weight());
+        cache.put("c", "12");
+        assertFalse(cache.containsKey("a"));
+        assertEquals(6, cache.weight());
+        // too heavy to be cached at all
+        assertNull(cache.put("d", "12345678901"));
+        assertFalse(cache.containsKey("d"));
+        assertEquals(1, cache.stats().rejections());
+    }
+
+    @Test
+    void admissionKeepsFrequentEntries() {
+        ConcurrentLRUCache<Integer, Integer> cache =
+            new ConcurrentLRUCache<>(2, (k, v) -> 1, true);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        for (int i = 0; i < 5; i++) {
+            cache.get(1);
+            cache.get(2);
+        }
+        // entries that are used only once do not flush the cache
+        for (int i = 3; i < 100; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(1, cache.get(1));
+        assertEquals(2, cache.get(2));
+    }
+
+    @Test
+    void putIfAbsentKeepsPresentValue() {
+        ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(10);
+        assertNull(cache.putIfAbsent(1, "a"));
+        assertEquals("a", cache.putIfAbsent(1, "b"));
+        assertEquals("a", cache.get(1));
+        assertEquals("a", cache.remove(1));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    void concurrentAccessRespectsBound() throws Exception {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 10000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        Integer key = offset + i;
+                        if (cache.get(key) == null) {
+                            cache.put(key, i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 1000);
+        assertEquals(40000, cache.stats().misses());
+    }
+}
@@ -0,0 +1,147 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableHashMapTest {
+
+    /** a key whose hash code can be chosen freely, to provoke collisions */
+    private record Key(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        ImmutableMap<String, Integer> map = DefaultImmutableMap.nilHashMap();
+        assertTrue(map.isEmpty());
+        map = map.put("one", 1).put("two", 2).put("two", 22);
+        assertEquals(2, map.size());
+        assertEquals(1, map.get("one"));
+        assertEquals(22, map.get("two"));
+        assertNull(map.get("three"));
+        assertTrue(map.containsKey("one"));
+        assertTrue(map.containsValue(22));
+        assertFalse(map.containsValue(2));
+
+        final ImmutableMap<String, Integer> removed = map.remove("one");
+        assertEquals(1, removed.size());
+        assertNull(removed.get("one"));
+        assertEquals(1, map.get("one"), "the original map must not change");
+        assertSame(removed, removed.remove("one"));
+        assertTrue(removed.remove("two").isEmpty());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        ImmutableMap<String, Integer> map = DefaultImmutableMap.nilHashMap();
+        map = map.put("a", 1).put("b", 2).put("c", 1);
+        final ImmutableMap<String, Integer> result = map.removeAll(1);
+        assertEquals(1, result.size());
+        assertEquals(2, result.get("b"));
+        assertSame(map, map.removeAll(3));
+    }
+
+    @Test
+    public void testAgreesWithHashMap() {
+        final Random random = new Random(42);
+        final Map<Key, Integer> expected = new HashMap<>();
+        ImmutableMap<Key, Integer> map = DefaultImmutableMap.nilHashMap();
+        for (int i = 0; i < 20000; i++) {
+            // few distinct hash codes, so that there are many collisions
+            final int id = random.nextInt(2000);
+            final Key key = new Key(id, random.nextBoolean() ? id : id % 7);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        final Map<Key, Integer> iterated = new HashMap<>();
+        for (ImmutableMapEntry<Key, Integer> entry : map) {
+            assertNull(iterated.put(entry.key(), entry.value()), "duplicate key");
+        }
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testCanonicalAfterRemoval() {
+        ImmutableMap<Integer, Integer> map = DefaultImmutableMap.nilHashMap();
+        ImmutableMap<Integer, Integer> other = DefaultImmutableMap.nilHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map = map.put(i, i);
+            if (i % 3 != 0) {
+                other = other.put(i, i);
+            }
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            map = map.remove(i);
+        }
+        assertEquals(other, map);
+        assertEquals(other.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testCollisionsIndependentOfOrder() {
+        ImmutableMap<Key, Integer> map = DefaultImmutableMap.nilHashMap();
+        ImmutableMap<Key, Integer> reversed = DefaultImmutableMap.nilHashMap();
+        for (int i = 0; i < 5; i++) {
+            map = map.put(new Key(i, 42), i);
+            reversed = reversed.put(new Key(4 - i, 42), 4 - i);
+        }
+        assertEquals(map, reversed);
+        assertEquals(reversed, map);
+        assertEquals(map.hashCode(), reversed.hashCode());
+        assertNotEquals(map, reversed.put(new Key(0, 42), 7));
+        assertEquals(map.remove(new Key(2, 42)), reversed.remove(new Key(2, 42)));
+    }
+
+    @Test
+    public void testEqualToDefaultImmutableMap() {
+        ImmutableMap<String, Integer> hashed = DefaultImmutableMap.nilHashMap();
+        ImmutableMap<String, Integer> linear = DefaultImmutableMap.nilMap();
+        for (int i = 0; i < 100; i++) {
+            hashed = hashed.put("k" + i, i);
+            linear = linear.put("k" + i, i);
+        }
+        assertEquals(linear, hashed);
+        assertEquals(hashed, linear);
+        assertEquals(linear.hashCode(), hashed.hashCode());
+    }
+
+    @Test
+    public void testIterators() {
+        ImmutableMap<Integer, String> map = DefaultImmutableMap.nilHashMap();
+        int sum = 0;
+        for (int i = 0; i < 500; i++) {
+            map = map.put(i, Integer.toString(i));
+            sum += i;
+        }
+        final Iterator<Integer> keys = map.keyIterator();
+        final Iterator<String> values = map.valueIterator();
+        int keySum = 0;
+        int valueSum = 0;
+        while (keys.hasNext()) {
+            keySum += keys.next();
+            valueSum += Integer.parseInt(values.next());
+        }
+        assertFalse(values.hasNext());
+        assertEquals(sum, keySum);
+        assertEquals(sum, valueSum);
+    }
+}
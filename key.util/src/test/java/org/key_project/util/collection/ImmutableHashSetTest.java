@@ -0,0 +1,125 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableHashSetTest {
+
+    /** an element whose hash code can be chosen freely, to provoke collisions */
+    private record Element(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testAddContainsRemove() throws NotUniqueException {
+        ImmutableSet<String> set = DefaultImmutableSet.nilHashSet();
+        set = set.add("a").add("b").add("a");
+        assertEquals(2, set.size());
+        assertTrue(set.contains("a"));
+        assertFalse(set.contains("c"));
+        assertThrows(NotUniqueException.class, () -> DefaultImmutableSet.<String>nilHashSet()
+                .add("a").addUnique("a"));
+        assertEquals(3, set.addUnique("c").size());
+
+        final ImmutableSet<String> removed = set.remove("a");
+        assertEquals(1, removed.size());
+        assertTrue(set.contains("a"), "the original set must not change");
+        assertTrue(removed.remove("b").isEmpty());
+    }
+
+    @Test
+    public void testNullElement() {
+        ImmutableSet<String> set = DefaultImmutableSet.nilHashSet();
+        set = set.add((String) null).add("a");
+        assertTrue(set.contains(null));
+        assertFalse(set.remove(null).contains(null));
+    }
+
+    @Test
+    public void testAgreesWithHashSet() {
+        final Random random = new Random(7);
+        final Set<Integer> expected = new HashSet<>();
+        ImmutableSet<Integer> set = DefaultImmutableSet.nilHashSet();
+        for (int i = 0; i < 20000; i++) {
+            final int element = random.nextInt(3000) - 1000;
+            if (random.nextInt(3) == 0) {
+                expected.remove(element);
+                set = set.remove(element);
+            } else {
+                expected.add(element);
+                set = set.add(element);
+            }
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.contains(element), set.contains(element));
+        }
+        assertEquals(expected, set.toSet());
+        assertEquals(expected.size(), set.toArray(new Integer[0]).length);
+    }
+
+    @Test
+    public void testUnionIntersectSubset() {
+        ImmutableSet<Integer> evens = DefaultImmutableSet.nilHashSet();
+        ImmutableSet<Integer> small = DefaultImmutableSet.nil();
+        for (int i = 0; i < 200; i += 2) {
+            evens = evens.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            small = small.add(i);
+        }
+        final ImmutableSet<Integer> union = evens.union(small);
+        assertEquals(105, union.size());
+        assertTrue(evens.subset(union));
+        assertTrue(small.subset(union));
+        assertEquals(5, evens.intersect(small).size());
+        assertTrue(DefaultImmutableSet.<Integer>nilHashSet().intersect(small).isEmpty());
+    }
+
+    @Test
+    public void testCollisionsIndependentOfOrder() {
+        ImmutableSet<Element> set = DefaultImmutableSet.nilHashSet();
+        ImmutableSet<Element> reversed = DefaultImmutableSet.nilHashSet();
+        for (int i = 0; i < 5; i++) {
+            set = set.add(new Element(i, 42));
+            reversed = reversed.add(new Element(4 - i, 42));
+        }
+        assertEquals(set, reversed);
+        assertEquals(reversed, set);
+        assertEquals(set.hashCode(), reversed.hashCode());
+        assertNotEquals(set, reversed.remove(new Element(0, 42)).add(new Element(5, 42)));
+    }
+
+    @Test
+    public void testEqualToDefaultImmutableSet() {
+        ImmutableSet<String> hashed = DefaultImmutableSet.nilHashSet();
+        ImmutableSet<String> linear = DefaultImmutableSet.nil();
+        assertEquals(linear, hashed);
+        assertEquals(hashed, linear);
+        assertEquals(linear.hashCode(), hashed.hashCode());
+        assertEquals(linear.hashCode(), linear.add("e").remove("e").hashCode());
+        assertEquals(hashed.hashCode(), hashed.add("e").remove("e").hashCode());
+        for (int i = 0; i < 50; i++) {
+            hashed = hashed.add("e" + i);
+            linear = linear.add("e" + i);
+        }
+        assertEquals(linear, hashed);
+        assertEquals(hashed, linear);
+        assertEquals(linear.hashCode(), hashed.hashCode());
+        for (int i = 0; i < 50; i += 2) {
+            hashed = hashed.remove("e" + i);
+            linear = linear.remove("e" + i);
+        }
+        assertEquals(linear, hashed);
+        assertEquals(linear.hashCode(), hashed.hashCode());
+    }
+}
@@ -34,6 +34,7 @@ import de.uka.ilkd.key.proof.ProofEvent;
 import de.uka.ilkd.key.proof.RuleAppListener;
 import de.uka.ilkd.key.proof.event.ProofDisposedEvent;
 import de.uka.ilkd.key.proof.event.ProofDisposedListener;
+import de.uka.ilkd.key.proof.reference.CachingDatabase;
 import de.uka.ilkd.key.proof.reference.ClosedBy;
 import de.uka.ilkd.key.proof.reference.CopyReferenceResolver;
 import de.uka.ilkd.key.proof.reference.ReferenceSearcher;
@@ -188,6 +189,11 @@ public class CachingExtension
     @Override
     public void init(MainWindow window, KeYMediator mediator) {
         cachingPruneHandler = new CachingPruneHandler(mediator);
+        // saved proofs are recorded by the database itself, only its settings live in the GUI
+        ProofCachingSettings settings = CachingSettingsProvider.getCachingSettings();
+        CachingDatabase.setRecording(settings.getPersistent());
+        settings.addPropertyChangeListener(
+            e -> CachingDatabase.setRecording(settings.getPersistent()));
     }
 
     @Override
@@ -4,25 +4,33 @@
 package de.uka.ilkd.key.gui.plugins.caching.actions;
 
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 
 import de.uka.ilkd.key.core.KeYMediator;
 import de.uka.ilkd.key.gui.MainWindow;
 import de.uka.ilkd.key.gui.actions.KeyAction;
 import de.uka.ilkd.key.gui.plugins.caching.CachingExtension;
+import de.uka.ilkd.key.gui.plugins.caching.settings.CachingSettingsProvider;
+import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.reference.CachingDatabase;
 import de.uka.ilkd.key.proof.reference.ClosedBy;
 import de.uka.ilkd.key.proof.reference.ReferenceSearcher;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Action to search for suitable references on a single node.
  *
  * @author Arne Keller
  */
 public final class CloseByReference extends KeyAction {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CloseByReference.class);
+
     /**
      * The caching extension.
      */
@@ -65,7 +73,7 @@ public final class CloseByReference extends KeyAction {
                 }
             });
         }
-        List<Integer> mismatches = new ArrayList<>();
+        List<Node> unmatched = new ArrayList<>();
         for (Node n : nodes) {
             // search other proofs for matching nodes
             ClosedBy c = ReferenceSearcher.findPreviousProof(
@@ -74,9 +82,64 @@ public final class CloseByReference extends KeyAction {
                 n.proof().closeGoal(n.proof().getOpenGoal(n));
                 n.register(c, ClosedBy.class);
             } else {
-                mismatches.add(n.serialNr());
+                unmatched.add(n);
             }
         }
+        if (unmatched.isEmpty()
+                || !CachingSettingsProvider.getCachingSettings().getPersistent()) {
+            finish(nodes, unmatched);
+            return;
+        }
+        // search proofs of previous KeY runs, their files are loaded in the background
+        mediator.stopInterface(true);
+        new SwingWorker<Map<Node, ClosedBy>, Void>() {
+            @Override
+            protected Map<Node, ClosedBy> doInBackground() {
+                Map<Node, ClosedBy> found = new HashMap<>();
+                for (Node n : unmatched) {
+                    ClosedBy c = CachingDatabase.findReference(n);
+                    if (c != null) {
+                        found.put(n, c);
+                    }
+                }
+                return found;
+            }
+
+            @Override
+            protected void done() {
+                List<Node> mismatches = new ArrayList<>();
+                try {
+                    Map<Node, ClosedBy> found = get();
+                    Set<Proof> referencedProofs = new HashSet<>();
+                    for (Node n : unmatched) {
+                        ClosedBy c = found.get(n);
+                        Goal goal = n.proof().isDisposed() ? null : n.proof().getOpenGoal(n);
+                        if (c == null || goal == null) {
+                            mismatches.add(n);
+                            continue;
+                        }
+                        n.proof().closeGoal(goal);
+                        n.register(c, ClosedBy.class);
+                        if (referencedProofs.add(c.proof())) {
+                            // the loaded proof is disposed once it is evicted from the database
+                            c.proof().addProofDisposedListenerFirst(
+                                new CachingExtension.CopyBeforeDispose(mediator, c.proof(),
+                                    n.proof()));
+                        }
+                    }
+                } catch (InterruptedException | ExecutionException exception) {
+                    LOGGER.warn("failed to search proof cache ", exception);
+                    mismatches.addAll(unmatched);
+                } finally {
+                    CachingDatabase.disposeEvicted();
+                    mediator.startInterface(true);
+                }
+                finish(nodes, mismatches);
+            }
+        }.execute();
+    }
+
+    private void finish(List<Node> nodes, List<Node> mismatches) {
         if (!nodes.isEmpty()) {
             cachingExtension.updateGUIState(nodes.get(0).proof());
         }
@@ -84,7 +147,8 @@ public final class CloseByReference extends KeyAction {
             // since e.getSource() is the popup menu, it is better to use the MainWindow
             // instance here as a parent
             JOptionPane.showMessageDialog(MainWindow.getInstance(),
-                "No matching branch found for node(s) " + Arrays.toString(mismatches.toArray()),
+                "No matching branch found for node(s) "
+                    + Arrays.toString(mismatches.stream().map(Node::serialNr).toArray()),
                 "Proof Caching error", JOptionPane.WARNING_MESSAGE);
         }
     }
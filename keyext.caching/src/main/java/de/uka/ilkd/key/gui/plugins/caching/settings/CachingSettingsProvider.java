@@ -47,6 +47,11 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
      */
     private static final String PRUNE_TITLE =
         "Behaviour when pruning into referenced proof";
+    /**
+     * Label for fourth option.
+     */
+    private static final String PERSISTENT =
+        "Remember closed branches of saved proofs across KeY runs";
 
     /**
      * Checkbox for first option.
@@ -60,6 +65,10 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
      * Combobox for third option (prune behaviour).
      */
     private final JComboBox<String> pruneOption;
+    /**
+     * Checkbox for fourth option.
+     */
+    private final JCheckBox persistent;
 
     /**
      * Construct a new settings provider.
@@ -81,6 +90,10 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
                  all cached branches that reference it.""",
             0, x -> {
             }, PRUNE_REOPEN, PRUNE_COPY);
+        persistent = addCheckBox(PERSISTENT, """
+                When a proof is saved, its closed branches are recorded
+                 in a cache file and may be referenced by later KeY runs.""",
+            false, emptyValidator());
     }
 
     @Override
@@ -102,6 +115,7 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
         strategySearch.setSelected(ss.getEnabled());
         disposeOption.setSelectedItem(ss.getDispose());
         pruneOption.setSelectedItem(ss.getPrune());
+        persistent.setSelected(ss.getPersistent());
         return this;
     }
 
@@ -111,6 +125,7 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
         ss.setEnabled(strategySearch.isEnabled());
         ss.setDispose(disposeOption.getSelectedItem().toString());
         ss.setPrune(pruneOption.getSelectedItem().toString());
+        ss.setPersistent(persistent.isSelected());
     }
 
 
@@ -28,6 +28,10 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
      * Key ID for {@link #prune}.
      */
     private static final String PRUNE_KEY = "Prune";
+    /**
+     * Key ID for {@link #persistent}.
+     */
+    private static final String PERSISTENT_KEY = "Persistent";
 
 
     /**
@@ -45,6 +49,11 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
      */
     private final AbstractPropertiesSettings.PropertyEntry<String> prune =
         createStringProperty(PRUNE_KEY, "");
+    /**
+     * Whether closed branches of saved proofs are recorded in the persistent cache.
+     */
+    private final AbstractPropertiesSettings.PropertyEntry<Boolean> persistent =
+        createBooleanProperty(PERSISTENT_KEY, false);
 
     public ProofCachingSettings() {
         super("ProofCaching");
@@ -95,4 +104,18 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
     public void setPrune(String operation) {
         prune.set(operation);
     }
+
+    public boolean getPersistent() {
+        return persistent.get();
+    }
+
+    /**
+     * Set whether closed branches of saved proofs are recorded in the persistent cache
+     * (see CachingDatabase).
+     *
+     * @param persistent value
+     */
+    public void setPersistent(boolean persistent) {
+        this.persistent.set(persistent);
+    }
 }
@@ -1,9 +1,10 @@
 /* This file is part of KeY - https://key-project.org
  * KeY is licensed under the GNU General Public License Version 2
  * SPDX-License-Identifier: GPL-2.0-only */
-package de.uka.ilkd.key.gui.plugins.caching;
+package de.uka.ilkd.key.proof.reference;
 
 import java.io.File;
+import java.util.Set;
 
 /**
  * Data object about a cached proof branch.
@@ -28,6 +29,15 @@ public class CachedProofBranch {
      */
     public final String sequent;
 
+    /**
+     * Fingerprints of the normalized antecedent formulas of the cached branch.
+     */
+    public final Set<String> antecedent;
+    /**
+     * Fingerprints of the normalized succedent formulas of the cached branch.
+     */
+    public final Set<String> succedent;
+
     /**
      * Create a new data object about a cached proof branch.
      *
@@ -35,11 +45,16 @@ public class CachedProofBranch {
      * @param choiceSettings choice settings of the proof
      * @param stepIndex step index of the referenced node
      * @param sequent sequent of that node
+     * @param antecedent fingerprints of the antecedent formulas of that node
+     * @param succedent fingerprints of the succedent formulas of that node
      */
-    CachedProofBranch(File proofFile, String choiceSettings, int stepIndex, String sequent) {
+    CachedProofBranch(File proofFile, String choiceSettings, int stepIndex, String sequent,
+            Set<String> antecedent, Set<String> succedent) {
         this.proofFile = proofFile;
         this.choiceSettings = choiceSettings;
         this.stepIndex = stepIndex;
         this.sequent = sequent;
+        this.antecedent = antecedent;
+        this.succedent = succedent;
     }
 }
@@ -0,0 +1,503 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Semisequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.label.TermLabelManager;
+import de.uka.ilkd.key.pp.LogicPrinter;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.ProofSaver;
+import de.uka.ilkd.key.proof.io.event.ProofSaverEvent;
+import de.uka.ilkd.key.proof.io.event.ProofSaverListener;
+import de.uka.ilkd.key.settings.Configuration;
+import de.uka.ilkd.key.settings.PathConfig;
+import de.uka.ilkd.key.util.KeYConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent database of closed proof branches, shared between KeY runs.
+ * <p>
+ * For every saved proof added to the database, the closed branches are recorded together with
+ * fingerprints of their normalized formulas (printed without proof-irrelevant term labels). The
+ * database is only valid for the KeY version (and thus the rule base) that created it, and each
+ * proof is only valid as long as its file is unchanged. Proofs are recorded when they are saved
+ * (see {@link #addProof(Proof, File)}), so the recorded branches are exactly those of the file.
+ * Once {@link #setRecording(boolean)} is enabled, every proof saved by a {@link ProofSaver} is
+ * recorded, whether it is saved by the GUI or by a headless client.
+ * </p>
+ * <p>
+ * A lookup returns the branches whose formulas are all contained in the sequent of a new node. Only
+ * the proof file of a matching branch has to be loaded to actually close the node by reference,
+ * see {@link #findReference(Node)}. At most {@value #MAX_LOADED_PROOFS} loaded proofs are kept;
+ * the least recently used ones are disposed by {@link #disposeEvicted()}.
+ * </p>
+ */
+public final class CachingDatabase {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDatabase.class);
+
+    /**
+     * Name of the file the database is stored in (in the KeY config directory).
+     */
+    private static final String DATABASE_FILE_NAME = "cachedProofs.json";
+    /**
+     * Key of the KeY version that created the database.
+     */
+    private static final String VERSION_KEY = "version";
+    /**
+     * Key of the list of cached proofs.
+     */
+    private static final String PROOFS_KEY = "proofs";
+
+    /**
+     * Cached proofs, indexed by the URI of their file.
+     */
+    private static final Map<String, CachedProof> PROOFS = new LinkedHashMap<>();
+    /**
+     * Cached branches, indexed by the fingerprint of their first formula.
+     */
+    private static final Map<String, List<CachedProofBranch>> BRANCH_INDEX = new HashMap<>();
+    /**
+     * Cached branches with an empty sequent.
+     */
+    private static final List<CachedProofBranch> EMPTY_BRANCHES = new ArrayList<>();
+    /**
+     * Maximum number of proofs kept loaded to realize references found in the database.
+     */
+    static final int MAX_LOADED_PROOFS = 4;
+    /**
+     * Environments of the proofs loaded to realize references found in the database, in access
+     * order.
+     */
+    private static final Map<File, KeYEnvironment<?>> LOADED_PROOFS =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, KeYEnvironment<?>> eldest) {
+                if (size() > MAX_LOADED_PROOFS) {
+                    EVICTED.add(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    /**
+     * Environments removed from {@link #LOADED_PROOFS} that still have to be disposed.
+     */
+    private static final List<KeYEnvironment<?>> EVICTED = new ArrayList<>();
+    /**
+     * Records the proofs saved by a {@link ProofSaver}, see {@link #setRecording(boolean)}.
+     */
+    private static final ProofSaverListener RECORDER = CachingDatabase::proofSaved;
+    /**
+     * Whether the database file has been read.
+     */
+    private static boolean initialized = false;
+    /**
+     * Whether {@link #RECORDER} is registered.
+     */
+    private static boolean recording = false;
+
+    private CachingDatabase() {
+
+    }
+
+    /**
+     * Set whether the proofs saved by a {@link ProofSaver} are recorded in the database.
+     *
+     * @param enabled whether to record saved proofs
+     */
+    public static synchronized void setRecording(boolean enabled) {
+        if (enabled == recording) {
+            return;
+        }
+        recording = enabled;
+        if (enabled) {
+            ProofSaver.addProofSaverListener(RECORDER);
+        } else {
+            ProofSaver.removeProofSaverListener(RECORDER);
+        }
+    }
+
+    private static void proofSaved(ProofSaverEvent e) {
+        // record the proof as written, unsaved changes must not end up in the database
+        if (e.getErrorMsg() != null || !e.isProofStepsSaved()) {
+            return;
+        }
+        try {
+            addProof(e.getProof(), new File(e.getFilename()));
+        } catch (RuntimeException exception) {
+            LOGGER.warn("failed to record proof in cache ", exception);
+        }
+    }
+
+    /**
+     * Record the closed branches of the given proof. Has to be called right after the proof was
+     * saved to the given file, since the size and modification time of the file are recorded to
+     * detect later changes. Files other than proof files are ignored. Previous entries for the same
+     * file are replaced.
+     *
+     * @param proof the proof
+     * @param file the file the proof was just saved to
+     */
+    public static synchronized void addProof(Proof proof, File file) {
+        if (!file.isFile()
+                || !(file.getName().endsWith(".proof") || file.getName().endsWith(".proof.gz"))) {
+            return;
+        }
+        init();
+        Services services = proof.getServices();
+        String choiceSettings = choiceSettings(proof);
+        List<CachedProofBranch> branches = new ArrayList<>();
+        for (Node n : ReferenceSearcher.closedBranches(proof)) {
+            if (!ReferenceSearcher.suitableForCloseByReference(n)) {
+                continue;
+            }
+            Set<String> ante = fingerprints(n.sequent().antecedent(), services);
+            Set<String> succ = fingerprints(n.sequent().succedent(), services);
+            branches.add(new CachedProofBranch(file, choiceSettings, n.serialNr(),
+                sequentFingerprint(ante, succ), ante, succ));
+        }
+        removeProof(file);
+        if (!branches.isEmpty()) {
+            addProof(new CachedProof(file, file.length(), file.lastModified(), branches));
+        }
+        save();
+    }
+
+    /**
+     * Find cached branches that may be used to close the given node.
+     *
+     * @param node an open goal
+     * @return cached branches whose formulas are all contained in the sequent of the node
+     */
+    public static synchronized List<CachedProofBranch> findMatches(Node node) {
+        init();
+        if (PROOFS.isEmpty() || !ReferenceSearcher.suitableForCloseByReference(node)) {
+            return List.of();
+        }
+        Services services = node.proof().getServices();
+        String choiceSettings = choiceSettings(node.proof());
+        Set<String> ante = fingerprints(node.sequent().antecedent(), services);
+        Set<String> succ = fingerprints(node.sequent().succedent(), services);
+
+        Set<CachedProofBranch> candidates = new LinkedHashSet<>(EMPTY_BRANCHES);
+        for (String fingerprint : ante) {
+            candidates.addAll(BRANCH_INDEX.getOrDefault(fingerprint, List.of()));
+        }
+        for (String fingerprint : succ) {
+            candidates.addAll(BRANCH_INDEX.getOrDefault(fingerprint, List.of()));
+        }
+        List<CachedProofBranch> result = new ArrayList<>();
+        for (CachedProofBranch branch : candidates) {
+            if (branch.choiceSettings.equals(choiceSettings)
+                    && !branch.proofFile.equals(node.proof().getProofFile())
+                    && ante.containsAll(branch.antecedent)
+                    && succ.containsAll(branch.succedent)) {
+                result.add(branch);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Try to close the given node by reference to a proof recorded in the database. Only the
+     * proof files of matching branches are loaded. As loading may take a while, this should not be
+     * called on the event dispatch thread. The node is not modified.
+     *
+     * @param node an open goal
+     * @return a reference (or null, if none found)
+     */
+    public static ClosedBy findReference(Node node) {
+        Set<File> files = new LinkedHashSet<>();
+        for (CachedProofBranch branch : findMatches(node)) {
+            files.add(branch.proofFile);
+        }
+        for (File file : files) {
+            Proof proof = loadProof(file);
+            if (proof == null) {
+                continue;
+            }
+            ClosedBy c = ReferenceSearcher.findPreviousProof(List.of(proof), node);
+            if (c != null) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return all proofs recorded in the database
+     */
+    public static synchronized Collection<File> getCachedProofFiles() {
+        init();
+        List<File> files = new ArrayList<>();
+        for (CachedProof proof : PROOFS.values()) {
+            files.add(proof.file);
+        }
+        return files;
+    }
+
+    /**
+     * Remove all entries from the database.
+     */
+    public static synchronized void clear() {
+        init();
+        PROOFS.clear();
+        BRANCH_INDEX.clear();
+        EMPTY_BRANCHES.clear();
+        EVICTED.addAll(LOADED_PROOFS.values());
+        LOADED_PROOFS.clear();
+        save();
+    }
+
+    /**
+     * Dispose the proofs no longer kept loaded. Disposing a proof notifies its listeners, e.g.
+     * those copying the referenced steps into the referencing proofs, so this should be called
+     * on the event dispatch thread once the references found were registered.
+     */
+    public static void disposeEvicted() {
+        List<KeYEnvironment<?>> evicted;
+        synchronized (CachingDatabase.class) {
+            evicted = new ArrayList<>(EVICTED);
+            EVICTED.clear();
+        }
+        for (KeYEnvironment<?> env : evicted) {
+            env.dispose();
+        }
+    }
+
+    /**
+     * Load the given proof file or return the proof loaded previously. The file is loaded without
+     * holding the lock of the database.
+     *
+     * @param file a proof file recorded in the database
+     * @return the loaded proof (or null, if loading failed)
+     */
+    static Proof loadProof(File file) {
+        synchronized (CachingDatabase.class) {
+            KeYEnvironment<?> env = LOADED_PROOFS.get(file);
+            if (env != null && !env.getLoadedProof().isDisposed()) {
+                return env.getLoadedProof();
+            }
+        }
+        KeYEnvironment<?> env;
+        try {
+            env = KeYEnvironment.load(file);
+        } catch (Exception e) {
+            LOGGER.warn("failed to load cached proof {}", file, e);
+            synchronized (CachingDatabase.class) {
+                removeProof(file);
+                save();
+            }
+            return null;
+        }
+        synchronized (CachingDatabase.class) {
+            KeYEnvironment<?> previous = LOADED_PROOFS.put(file, env);
+            if (previous != null) {
+                EVICTED.add(previous);
+            }
+        }
+        return env.getLoadedProof();
+    }
+
+    /**
+     * Forget all state read from the database file and release the loaded proofs, so that the
+     * next access reads the database file again.
+     */
+    static synchronized void reset() {
+        PROOFS.clear();
+        BRANCH_INDEX.clear();
+        EMPTY_BRANCHES.clear();
+        EVICTED.addAll(LOADED_PROOFS.values());
+        LOADED_PROOFS.clear();
+        initialized = false;
+    }
+
+    private static void addProof(CachedProof proof) {
+        PROOFS.put(proof.file.toURI().toString(), proof);
+        for (CachedProofBranch branch : proof.branches) {
+            String key = indexKey(branch);
+            if (key == null) {
+                EMPTY_BRANCHES.add(branch);
+            } else {
+                BRANCH_INDEX.computeIfAbsent(key, x -> new ArrayList<>()).add(branch);
+            }
+        }
+    }
+
+    private static void removeProof(File file) {
+        CachedProof proof = PROOFS.remove(file.toURI().toString());
+        if (proof == null) {
+            return;
+        }
+        for (CachedProofBranch branch : proof.branches) {
+            String key = indexKey(branch);
+            if (key == null) {
+                EMPTY_BRANCHES.remove(branch);
+                continue;
+            }
+            List<CachedProofBranch> bucket = BRANCH_INDEX.get(key);
+            bucket.remove(branch);
+            if (bucket.isEmpty()) {
+                BRANCH_INDEX.remove(key);
+            }
+        }
+    }
+
+    private static String indexKey(CachedProofBranch branch) {
+        if (!branch.succedent.isEmpty()) {
+            return branch.succedent.iterator().next();
+        } else if (!branch.antecedent.isEmpty()) {
+            return branch.antecedent.iterator().next();
+        }
+        return null;
+    }
+
+    /**
+     * Read the database file, dropping entries of other KeY versions and of changed proof files.
+     */
+    private static void init() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        File databaseFile = databaseFile();
+        if (!databaseFile.isFile()) {
+            return;
+        }
+        try {
+            Configuration config = Configuration.load(databaseFile);
+            if (!KeYConstants.INTERNAL_VERSION.equals(config.getString(VERSION_KEY, ""))) {
+                LOGGER.info("Discarding proof cache of another KeY version");
+                return;
+            }
+            List<Configuration> proofs = config.getList(PROOFS_KEY, Configuration.class);
+            if (proofs == null) {
+                return;
+            }
+            for (Configuration c : proofs) {
+                CachedProof proof = CachedProof.fromConfiguration(c);
+                if (proof.file.isFile() && proof.file.length() == proof.size
+                        && proof.file.lastModified() == proof.lastModified) {
+                    addProof(proof);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read proof cache {}", databaseFile, e);
+        }
+    }
+
+    private static void save() {
+        Configuration config = new Configuration();
+        config.set(VERSION_KEY, KeYConstants.INTERNAL_VERSION);
+        List<Configuration> proofs = new ArrayList<>();
+        for (CachedProof proof : PROOFS.values()) {
+            proofs.add(proof.toConfiguration());
+        }
+        config.set(PROOFS_KEY, proofs);
+        File databaseFile = databaseFile();
+        try {
+            Files.createDirectories(databaseFile.toPath().getParent());
+            try (var writer = new PrintWriter(
+                Files.newBufferedWriter(databaseFile.toPath(), StandardCharsets.UTF_8))) {
+                config.save(writer, "Proof cache of KeY, do not edit");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write proof cache {}", databaseFile, e);
+        }
+    }
+
+    private static File databaseFile() {
+        return new File(PathConfig.getKeyConfigDir(), DATABASE_FILE_NAME);
+    }
+
+    private static String choiceSettings(Proof proof) {
+        return proof.getServices().getProfile().name() + " "
+            + new TreeMap<>(proof.getSettings().getChoiceSettings().getDefaultChoices());
+    }
+
+    private static Set<String> fingerprints(Semisequent semisequent, Services services) {
+        Set<String> result = new LinkedHashSet<>();
+        for (SequentFormula sf : semisequent) {
+            Term t = TermLabelManager.removeIrrelevantLabels(sf.formula(), services);
+            result.add(digest(LogicPrinter.quickPrintTerm(t, services, false, false)));
+        }
+        return result;
+    }
+
+    private static String sequentFingerprint(Set<String> ante, Set<String> succ) {
+        return digest(new TreeSet<>(ante) + "==>" + new TreeSet<>(succ));
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A proof recorded in the database.
+     *
+     * @param file the proof file
+     * @param size size of the file when it was recorded
+     * @param lastModified modification time of the file when it was recorded
+     * @param branches the closed branches of the proof
+     */
+    private record CachedProof(File file, long size, long lastModified,
+            List<CachedProofBranch> branches) {
+        private Configuration toConfiguration() {
+            Configuration c = new Configuration();
+            c.set("file", file.toURI().toString());
+            c.set("size", size);
+            c.set("lastModified", lastModified);
+            List<Configuration> list = new ArrayList<>();
+            for (CachedProofBranch branch : branches) {
+                Configuration b = new Configuration();
+                b.set("choiceSettings", branch.choiceSettings);
+                b.set("stepIndex", branch.stepIndex);
+                b.set("sequent", branch.sequent);
+                b.set("antecedent", new ArrayList<>(branch.antecedent));
+                b.set("succedent", new ArrayList<>(branch.succedent));
+                list.add(b);
+            }
+            c.set("branches", list);
+            return c;
+        }
+
+        private static CachedProof fromConfiguration(Configuration c) {
+            File file = new File(URI.create(c.getString("file")));
+            List<CachedProofBranch> branches = new ArrayList<>();
+            List<Configuration> list = c.getList("branches", Configuration.class);
+            if (list != null) {
+                for (Configuration b : list) {
+                    branches.add(new CachedProofBranch(file, b.getString("choiceSettings"),
+                        b.getInt("stepIndex"), b.getString("sequent"),
+                        new LinkedHashSet<>(b.getStringList("antecedent")),
+                        new LinkedHashSet<>(b.getStringList("succedent"))));
+                }
+            }
+            return new CachedProof(file, c.getLong("size"), c.getLong("lastModified"), branches);
+        }
+    }
+}
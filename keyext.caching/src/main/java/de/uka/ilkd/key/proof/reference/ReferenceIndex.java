@@ -0,0 +1,448 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.uka.ilkd.key.logic.Semisequent;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.ProofTreeEvent;
+import de.uka.ilkd.key.proof.ProofTreeListener;
+import de.uka.ilkd.key.proof.event.ProofDisposedEvent;
+import de.uka.ilkd.key.proof.event.ProofDisposedListener;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+
+import org.key_project.slicing.DependencyTracker;
+import org.key_project.slicing.analysis.AnalysisResults;
+
+/**
+ * Index of the closed branches of proofs, used by {@link ReferenceSearcher} to find a closed branch
+ * whose sequent is a subset of the sequent of a new node.
+ * <p>
+ * Every closed branch is stored in a bucket identified by the hash code (modulo proof
+ * irrelevancy) of one of its formulas. A branch can only be a reference for a new node if this
+ * formula is part of the new sequent, so a query only visits the buckets of the formulas of the
+ * new node instead of every closed branch of every proof. The remaining candidates are filtered by
+ * comparing the hash codes of all their formulas before the exact check is performed.
+ * </p>
+ * <p>
+ * The branches of a proof are indexed on demand. They are removed as soon as the proof tree
+ * changes, and re-indexed by the next query. When a proof is disposed, the index drops all
+ * references to it immediately.
+ * </p>
+ */
+public final class ReferenceIndex {
+    /**
+     * Indexed proofs.
+     */
+    private final Map<Proof, ProofEntry> proofs = new HashMap<>();
+    /**
+     * Proofs observed by {@link #listener}.
+     */
+    private final Set<Proof> observedProofs = new HashSet<>();
+    /**
+     * Branches indexed by a formula hash of their antecedent.
+     */
+    private final Map<Integer, List<BranchEntry>> antecedentBuckets = new HashMap<>();
+    /**
+     * Branches indexed by a formula hash of their succedent.
+     */
+    private final Map<Integer, List<BranchEntry>> succedentBuckets = new HashMap<>();
+    /**
+     * Branches with an empty sequent.
+     */
+    private final List<BranchEntry> emptyBranches = new ArrayList<>();
+    /**
+     * Proofs changed since they were indexed. Filled by {@link #listener} without acquiring the
+     * lock of this index, which would otherwise be prone to deadlocks with the proof listener
+     * lists. Disposed proofs are removed right away, since the proof does not hold any lock while
+     * notifying its {@link ProofDisposedListener}s.
+     */
+    private final Set<Proof> changedProofs = ConcurrentHashMap.newKeySet();
+    /**
+     * Listener recording changed or disposed proofs.
+     */
+    private final Listener listener = new Listener();
+
+    /**
+     * Try to find a closed branch in another proof whose sequent is contained in the sequent of
+     * <code>newNode</code>. The result is the same as that of a linear search through the proofs
+     * (in the given order) and their closed branches (starting at the closed goals).
+     *
+     * @param previousProofs old proofs
+     * @param newNode new node (must be an open goal)
+     * @return a reference (or null, if none found)
+     */
+    public synchronized ClosedBy findPreviousProof(List<Proof> previousProofs, Node newNode) {
+        removeOutdatedEntries();
+        Proof newProof = newNode.proof();
+        Map<Proof, Integer> proofOrder = new HashMap<>();
+        for (int i = 0; i < previousProofs.size(); i++) {
+            Proof p = previousProofs.get(i);
+            if (p == newProof || p.isDisposed() || proofOrder.containsKey(p)) {
+                continue; // doesn't make sense to cache in the same proof
+            }
+            proofOrder.put(p, i);
+            ensureIndexed(p);
+        }
+        if (proofOrder.isEmpty()) {
+            return null;
+        }
+
+        Sequent seq = newNode.sequent();
+        Set<Integer> anteNew = formulaHashes(seq.antecedent());
+        Set<Integer> succNew = formulaHashes(seq.succedent());
+
+        List<BranchEntry> candidates = new ArrayList<>(emptyBranches);
+        for (Integer hash : anteNew) {
+            candidates.addAll(antecedentBuckets.getOrDefault(hash, List.of()));
+        }
+        for (Integer hash : succNew) {
+            candidates.addAll(succedentBuckets.getOrDefault(hash, List.of()));
+        }
+
+        Map<Proof, Boolean> compatible = new HashMap<>();
+        Set<String> newTaclets = null;
+        BranchEntry best = null;
+        int bestProof = Integer.MAX_VALUE;
+        for (BranchEntry candidate : candidates) {
+            Integer order = proofOrder.get(candidate.proof.proof);
+            if (order == null || order > bestProof
+                    || (order == bestProof && candidate.rank >= best.rank)) {
+                continue;
+            }
+            if (!anteNew.containsAll(candidate.anteHashes)
+                    || !succNew.containsAll(candidate.succHashes)) {
+                continue;
+            }
+            Boolean ok = compatible.get(candidate.proof.proof);
+            if (ok == null) {
+                if (newTaclets == null && !candidate.proof.userTaclets.isEmpty()) {
+                    newTaclets = tacletNames(newProof);
+                }
+                ok = candidate.proof.compatibleWith(newProof, newTaclets);
+                compatible.put(candidate.proof.proof, ok);
+            }
+            if (!ok || !candidate.node.isClosed()
+                    || !ReferenceSearcher.containedIn(seq.antecedent(), candidate.ante)
+                    || !ReferenceSearcher.containedIn(seq.succedent(), candidate.succ)) {
+                continue;
+            }
+            best = candidate;
+            bestProof = order;
+        }
+        return best != null ? best.toClosedBy() : null;
+    }
+
+    /**
+     * Removes all entries of the given proof from this index.
+     *
+     * @param proof the proof
+     */
+    public synchronized void invalidate(Proof proof) {
+        ProofEntry entry = proofs.remove(proof);
+        if (entry == null) {
+            return;
+        }
+        for (BranchEntry branch : entry.branches) {
+            if (branch.keyHash == null) {
+                emptyBranches.remove(branch);
+                continue;
+            }
+            var buckets = branch.keyInSuccedent ? succedentBuckets : antecedentBuckets;
+            List<BranchEntry> bucket = buckets.get(branch.keyHash);
+            bucket.remove(branch);
+            if (bucket.isEmpty()) {
+                buckets.remove(branch.keyHash);
+            }
+        }
+    }
+
+    /**
+     * Removes all references to the given proof from this index, so that it can be garbage
+     * collected.
+     *
+     * @param proof the disposed proof
+     */
+    private synchronized void forget(Proof proof) {
+        invalidate(proof);
+        observedProofs.remove(proof);
+        changedProofs.remove(proof);
+    }
+
+    /**
+     * @param proof a proof
+     * @return whether this index holds any reference to the given proof
+     */
+    synchronized boolean isIndexed(Proof proof) {
+        return proofs.containsKey(proof) || observedProofs.contains(proof);
+    }
+
+    /**
+     * Removes the entries of the proofs that changed since the last query.
+     */
+    private void removeOutdatedEntries() {
+        for (Iterator<Proof> it = changedProofs.iterator(); it.hasNext();) {
+            invalidate(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Index the closed branches of the given proof, unless it is already indexed.
+     *
+     * @param p the proof
+     */
+    private void ensureIndexed(Proof p) {
+        ProofEntry entry = proofs.get(p);
+        if (entry != null && entry.depTracker == p.lookup(DependencyTracker.class)) {
+            return;
+        }
+        invalidate(p);
+        if (observedProofs.add(p)) {
+            p.addProofTreeListener(listener);
+            p.addProofDisposedListener(listener);
+        }
+        entry = new ProofEntry(p);
+        proofs.put(p, entry);
+        for (BranchEntry branch : entry.branches) {
+            if (branch.keyHash == null) {
+                emptyBranches.add(branch);
+            } else {
+                (branch.keyInSuccedent ? succedentBuckets : antecedentBuckets)
+                        .computeIfAbsent(branch.keyHash, x -> new ArrayList<>()).add(branch);
+            }
+        }
+    }
+
+    private static Set<Integer> formulaHashes(Semisequent semisequent) {
+        Set<Integer> result = new HashSet<>();
+        for (SequentFormula sf : semisequent) {
+            result.add(sf.hashCodeModProofIrrelevancy());
+        }
+        return result;
+    }
+
+    private static Set<String> tacletNames(Proof proof) {
+        var tacletIndex = proof.allGoals().head().ruleAppIndex().tacletIndex();
+        Set<String> result = new HashSet<>();
+        for (NoPosTacletApp app : tacletIndex.allNoPosTacletApps()) {
+            result.add(app.taclet().toString());
+        }
+        return result;
+    }
+
+    /**
+     * The indexed information about one proof.
+     */
+    private static final class ProofEntry {
+        /**
+         * The proof.
+         */
+        private final Proof proof;
+        /**
+         * String representation of the user-defined taclets of the proof.
+         */
+        private final Set<String> userTaclets = new HashSet<>();
+        /**
+         * The dependency tracker available when the proof was indexed.
+         */
+        private final DependencyTracker depTracker;
+        /**
+         * Dependency analysis results, if available.
+         */
+        private final AnalysisResults results;
+        /**
+         * The closed branches of the proof.
+         */
+        private final List<BranchEntry> branches = new ArrayList<>();
+
+        private ProofEntry(Proof p) {
+            this.proof = p;
+            var proofFile = p.getProofFile() != null ? p.getProofFile().toString() : "////";
+            var tacletIndex = p.allGoals().head().ruleAppIndex().tacletIndex();
+            for (NoPosTacletApp app : tacletIndex.allNoPosTacletApps()) {
+                if (app.taclet().getOrigin() != null
+                        && app.taclet().getOrigin().contains(proofFile)) {
+                    userTaclets.add(app.taclet().toString());
+                }
+            }
+
+            depTracker = p.lookup(DependencyTracker.class);
+            AnalysisResults analysis = null;
+            // only try to get analysis results if it is a pure proof
+            if (depTracker != null && p.closedGoals().stream()
+                    .noneMatch(x -> x.node().lookup(ClosedBy.class) != null)) {
+                try {
+                    analysis = depTracker.analyze(true, false);
+                } catch (Exception ignored) {
+                    // if the analysis for some reason fails, we simply proceed as usual
+                }
+            }
+            results = analysis;
+            indexBranches();
+        }
+
+        /**
+         * Collect the closed branches of the proof.
+         */
+        private void indexBranches() {
+            for (Node n : ReferenceSearcher.closedBranches(proof)) {
+                Sequent seq = results != null ? results.reduceSequent(n) : n.sequent();
+                branches.add(new BranchEntry(this, n, branches.size(), seq));
+            }
+        }
+
+        /**
+         * @param newProof the proof containing the node to close
+         * @param newTaclets string representation of all taclets of the new proof, may be null if
+         *        this proof has no user-defined taclets
+         * @return whether branches of this proof may be referenced in the new proof
+         */
+        private boolean compatibleWith(Proof newProof, Set<String> newTaclets) {
+            // conservative check: all user-defined rules in a previous proof
+            // have to also be available in the new proof
+            if (!userTaclets.isEmpty() && !newTaclets.containsAll(userTaclets)) {
+                return false;
+            }
+            // only search in compatible proofs
+            return proof.getSettings().getChoiceSettings()
+                    .equals(newProof.getSettings().getChoiceSettings());
+        }
+    }
+
+    /**
+     * A closed branch.
+     */
+    private static final class BranchEntry {
+        /**
+         * The proof of this branch.
+         */
+        private final ProofEntry proof;
+        /**
+         * The first node of the branch.
+         */
+        private final Node node;
+        /**
+         * Position of this branch in the search order of its proof.
+         */
+        private final int rank;
+        /**
+         * The (possibly reduced) antecedent of the branch.
+         */
+        private final Semisequent ante;
+        /**
+         * The (possibly reduced) succedent of the branch.
+         */
+        private final Semisequent succ;
+        /**
+         * Formula hashes of {@link #ante}.
+         */
+        private final Set<Integer> anteHashes;
+        /**
+         * Formula hashes of {@link #succ}.
+         */
+        private final Set<Integer> succHashes;
+        /**
+         * Hash of the formula used as key in the index, null if the sequent is empty.
+         */
+        private final Integer keyHash;
+        /**
+         * Whether {@link #keyHash} belongs to a formula in the succedent.
+         */
+        private final boolean keyInSuccedent;
+
+        private BranchEntry(ProofEntry proof, Node node, int rank, Sequent seq) {
+            this.proof = proof;
+            this.node = node;
+            this.rank = rank;
+            this.ante = seq.antecedent();
+            this.succ = seq.succedent();
+            this.anteHashes = formulaHashes(ante);
+            this.succHashes = formulaHashes(succ);
+            if (!succ.isEmpty()) {
+                keyHash = succ.get(0).hashCodeModProofIrrelevancy();
+                keyInSuccedent = true;
+            } else if (!ante.isEmpty()) {
+                keyHash = ante.get(0).hashCodeModProofIrrelevancy();
+                keyInSuccedent = false;
+            } else {
+                keyHash = null;
+                keyInSuccedent = false;
+            }
+        }
+
+        private ClosedBy toClosedBy() {
+            Set<Node> toSkip = new HashSet<>();
+            if (proof.results != null) {
+                // computed skipped nodes by iterating through all nodes
+                node.subtreeIterator().forEachRemaining(x -> {
+                    if (!proof.results.usefulSteps.contains(x)) {
+                        toSkip.add(x);
+                    }
+                });
+            }
+            return new ClosedBy(proof.proof, node, toSkip);
+        }
+    }
+
+    /**
+     * Records proofs that change or are disposed.
+     */
+    private final class Listener implements ProofTreeListener, ProofDisposedListener {
+        @Override
+        public void proofExpanded(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofPruned(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofStructureChanged(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofClosed(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofGoalRemoved(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofGoalsAdded(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofGoalsChanged(ProofTreeEvent e) {
+            changedProofs.add(e.getSource());
+        }
+
+        @Override
+        public void proofDisposing(ProofDisposedEvent e) {
+            Proof p = e.getSource();
+            // the proof is released right away instead of on the next query, because the index
+            // is static and might not be queried again
+            p.removeProofTreeListener(this);
+            forget(p);
+        }
+
+        @Override
+        public void proofDisposed(ProofDisposedEvent e) {
+            // a query running during the disposal might have indexed the proof again
+            forget(e.getSource());
+        }
+    }
+}
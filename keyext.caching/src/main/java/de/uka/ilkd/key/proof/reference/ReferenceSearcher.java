@@ -4,8 +4,6 @@
 package de.uka.ilkd.key.proof.reference;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import javax.swing.*;
 
 import de.uka.ilkd.key.logic.Semisequent;
 import de.uka.ilkd.key.logic.Sequent;
@@ -13,18 +11,19 @@ import de.uka.ilkd.key.logic.SequentFormula;
 import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
-import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.merge.CloseAfterMerge;
 
-import org.key_project.slicing.DependencyTracker;
-import org.key_project.slicing.analysis.AnalysisResults;
-
 /**
  * Utility class for proof caching.
  *
  * @author Arne Keller
  */
 public final class ReferenceSearcher {
+    /**
+     * Index of the closed branches of all searched proofs.
+     */
+    private static final ReferenceIndex INDEX = new ReferenceIndex();
+
     private ReferenceSearcher() {
 
     }
@@ -42,100 +41,47 @@ public final class ReferenceSearcher {
         if (!suitableForCloseByReference(newNode)) {
             return null;
         }
-        for (int i = 0; i < previousProofs.size(); i++) {
-            Proof p = previousProofs.get(i);
-            if (p == newNode.proof()) {
-                continue; // doesn't make sense to cache in the same proof
-            }
-            // conservative check: all user-defined rules in a previous proof
-            // have to also be available in the new proof
-            var proofFile = p.getProofFile() != null ? p.getProofFile().toString() : "////";
-            var tacletIndex = p.allGoals().head().ruleAppIndex().tacletIndex();
-            var newTacletIndex = newNode.proof().allGoals().head().ruleAppIndex().tacletIndex();
-            Set<NoPosTacletApp> newTaclets = newTacletIndex.allNoPosTacletApps();
-            var tacletsOk = true;
-            for (var taclet : tacletIndex.allNoPosTacletApps().stream()
-                    .filter(x -> x.taclet().getOrigin() != null
-                            && x.taclet().getOrigin().contains(proofFile))
-                    .toList()) {
-                if (newTaclets.stream().noneMatch(newTaclet -> Objects
-                        .equals(taclet.taclet().toString(), newTaclet.taclet().toString()))) {
-                    tacletsOk = false;
-                    break;
-                }
-            }
-            if (!tacletsOk) {
-                continue;
-            }
+        return INDEX.findPreviousProof(previousProofs, newNode);
+    }
 
-            // only search in compatible proofs
-            if (!p.getSettings().getChoiceSettings()
-                    .equals(newNode.proof().getSettings().getChoiceSettings())) {
+    /**
+     * Collect the first nodes of the closed branches of a proof that may be referenced, starting at
+     * the closed goals and moving upwards. This is the order in which
+     * {@link #findPreviousProof(List, Node)} considers the branches of a proof.
+     *
+     * @param proof the proof
+     * @return the first node of each closed branch
+     */
+    public static List<Node> closedBranches(Proof proof) {
+        List<Node> result = new ArrayList<>();
+        Set<Node> checkedNodes = new HashSet<>();
+        Queue<Node> nodesToCheck = new ArrayDeque<>();
+        for (var goal : proof.closedGoals()) {
+            Node n = goal.node();
+            if (n.parent() != null
+                    && n.parent().getAppliedRuleApp().rule() == CloseAfterMerge.INSTANCE) {
+                // cannot reference this kind of branch
                 continue;
             }
-            Set<Node> checkedNodes = new HashSet<>();
-            Queue<Node> nodesToCheck = p.closedGoals().stream().map(goal -> {
-                // first, find the initial node in this branch
-                Node n = goal.node();
-                if (n.parent() != null
-                        && n.parent().getAppliedRuleApp().rule() == CloseAfterMerge.INSTANCE) {
-                    // cannot reference this kind of branch
-                    return null;
-                }
-                return n;
-            }).filter(Objects::nonNull).collect(Collectors.toCollection(ArrayDeque::new));
-            var depTracker = p.lookup(DependencyTracker.class);
-            AnalysisResults results = null;
-            // only try to get analysis results if it is a pure proof
-            if (depTracker != null && p.closedGoals().stream()
-                    .noneMatch(x -> x.node().lookup(ClosedBy.class) != null)) {
-                try {
-                    results = depTracker.analyze(true, false);
-                } catch (Exception ignored) {
-                    // if the analysis for some reason fails, we simply proceed as usual
-                }
+            nodesToCheck.add(n);
+        }
+        while (!nodesToCheck.isEmpty()) {
+            Node n = nodesToCheck.remove();
+            if (checkedNodes.contains(n) || !n.isClosed()) {
+                continue;
             }
-            while (!nodesToCheck.isEmpty()) {
-                // for each node, check that the sequent in the reference is
-                // a subset of the new sequent
-                Node n = nodesToCheck.remove();
-                if (checkedNodes.contains(n) || !n.isClosed()) {
-                    continue;
-                }
-                checkedNodes.add(n);
+            checkedNodes.add(n);
 
-                // find the first node in the branch
-                while (n.parent() != null && n.parent().childrenCount() == 1) {
-                    n = n.parent();
-                }
-                if (n.parent() != null) {
-                    nodesToCheck.add(n.parent());
-                }
-                Sequent seq = n.sequent();
-                if (results != null) {
-                    seq = results.reduceSequent(n);
-                }
-                Semisequent ante = seq.antecedent();
-                Semisequent succ = seq.succedent();
-                Semisequent anteNew = newNode.sequent().antecedent();
-                Semisequent succNew = newNode.sequent().succedent();
-                if (!containedIn(anteNew, ante) || !containedIn(succNew, succ)) {
-                    continue;
-                }
-                Set<Node> toSkip = new HashSet<>();
-                if (results != null) {
-                    // computed skipped nodes by iterating through all nodes
-                    AnalysisResults finalResults = results;
-                    n.subtreeIterator().forEachRemaining(x -> {
-                        if (!finalResults.usefulSteps.contains(x)) {
-                            toSkip.add(x);
-                        }
-                    });
-                }
-                return new ClosedBy(p, n, toSkip);
+            // find the first node in the branch
+            while (n.parent() != null && n.parent().childrenCount() == 1) {
+                n = n.parent();
+            }
+            if (n.parent() != null) {
+                nodesToCheck.add(n.parent());
             }
+            result.add(n);
         }
-        return null;
+        return result;
     }
 
     /**
@@ -145,7 +91,7 @@ public final class ReferenceSearcher {
      * @param subset Semisequent supposed to be in {@code superset}
      * @return whether all formulas are present
      */
-    private static boolean containedIn(Semisequent superset, Semisequent subset) {
+    static boolean containedIn(Semisequent superset, Semisequent subset) {
         for (SequentFormula sf : subset) {
             boolean found = false;
             for (SequentFormula sf2 : superset) {
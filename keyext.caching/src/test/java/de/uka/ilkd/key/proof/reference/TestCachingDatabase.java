@@ -0,0 +1,148 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.ProofSaver;
+import de.uka.ilkd.key.settings.GeneralSettings;
+import de.uka.ilkd.key.settings.PathConfig;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCachingDatabase {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    @TempDir
+    Path tempDir;
+
+    private String keyConfigDir;
+
+    @BeforeEach
+    void setUp() {
+        keyConfigDir = PathConfig.getKeyConfigDir();
+        PathConfig.setKeyConfigDir(tempDir.resolve("config").toString());
+        CachingDatabase.reset();
+        CachingDatabase.disposeEvicted();
+        CachingDatabase.setRecording(true);
+        GeneralSettings.noPruningClosed = false;
+    }
+
+    @AfterEach
+    void tearDown() {
+        GeneralSettings.noPruningClosed = true;
+        CachingDatabase.setRecording(false);
+        CachingDatabase.reset();
+        CachingDatabase.disposeEvicted();
+        PathConfig.setKeyConfigDir(keyConfigDir);
+    }
+
+    @Test
+    void findsSavedProofInLaterRun() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = load();
+        KeYEnvironment<DefaultUserInterfaceControl> env2 = load();
+        try {
+            File file = save(env.getLoadedProof(), "saved.proof");
+            assertEquals(List.of(file), new ArrayList<>(CachingDatabase.getCachedProofFiles()));
+            env.dispose();
+
+            // a new KeY run reads the database file again
+            CachingDatabase.reset();
+            Proof proof = env2.getLoadedProof();
+            proof.pruneProof(proof.root());
+            assertFalse(CachingDatabase.findMatches(proof.root()).isEmpty());
+            ClosedBy c = CachingDatabase.findReference(proof.root());
+            assertNotNull(c);
+            assertNotSame(proof, c.proof());
+            assertEquals(0, c.node().serialNr());
+        } finally {
+            env.dispose();
+            env2.dispose();
+        }
+    }
+
+    @Test
+    void dropsChangedProofFiles() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = load();
+        try {
+            File file = save(env.getLoadedProof(), "changed.proof");
+            Files.writeString(file.toPath(), "\n", StandardOpenOption.APPEND);
+
+            CachingDatabase.reset();
+            assertTrue(CachingDatabase.getCachedProofFiles().isEmpty());
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    void ignoresProofObligations() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = load();
+        try {
+            File file = tempDir.resolve("obligation.proof").toFile();
+            ProofSaver.saveProofObligationToFile(file, env.getLoadedProof());
+            assertTrue(CachingDatabase.getCachedProofFiles().isEmpty());
+
+            CachingDatabase.setRecording(false);
+            save(env.getLoadedProof(), "unrecorded.proof");
+            assertTrue(CachingDatabase.getCachedProofFiles().isEmpty());
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    void boundsLoadedProofs() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = load();
+        List<File> files = new ArrayList<>();
+        try {
+            for (int i = 0; i <= CachingDatabase.MAX_LOADED_PROOFS; i++) {
+                files.add(save(env.getLoadedProof(), "copy" + i + ".proof"));
+            }
+        } finally {
+            env.dispose();
+        }
+
+        List<Proof> proofs = new ArrayList<>();
+        for (File file : files) {
+            proofs.add(CachingDatabase.loadProof(file));
+        }
+        assertSame(proofs.get(1), CachingDatabase.loadProof(files.get(1)));
+        CachingDatabase.disposeEvicted();
+        // the least recently used proof is disposed, the others are kept
+        assertTrue(proofs.get(0).isDisposed());
+        for (Proof proof : proofs.subList(1, proofs.size())) {
+            assertFalse(proof.isDisposed());
+        }
+        Proof reloaded = CachingDatabase.loadProof(files.get(0));
+        assertNotNull(reloaded);
+        assertFalse(reloaded.isDisposed());
+    }
+
+    private static KeYEnvironment<DefaultUserInterfaceControl> load() throws Exception {
+        return KeYEnvironment.load(new File(testCaseDirectory, "proofCaching/proofWithRule.proof"));
+    }
+
+    private File save(Proof proof, String name) throws Exception {
+        File file = tempDir.resolve(name).toFile();
+        // recorded by the database, no user interface involved
+        ProofSaver.saveToFile(file, proof);
+        return file;
+    }
+}
@@ -0,0 +1,61 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.File;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.settings.GeneralSettings;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReferenceIndex {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    @Test
+    void updatesEntriesOnChangeAndDispose() throws Exception {
+        GeneralSettings.noPruningClosed = false;
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment
+                .load(new File(testCaseDirectory, "proofCaching/proofWithRule.proof"));
+        KeYEnvironment<DefaultUserInterfaceControl> env2 = KeYEnvironment
+                .load(new File(testCaseDirectory, "proofCaching/proofWithRule.proof"));
+        try {
+            Proof previous = env.getLoadedProof();
+            Proof proof = env2.getLoadedProof();
+            proof.pruneProof(proof.root());
+            ReferenceIndex index = new ReferenceIndex();
+
+            // the previous proof is indexed on demand
+            assertFalse(index.isIndexed(previous));
+            ClosedBy c = index.findPreviousProof(List.of(previous), proof.root());
+            assertNotNull(c);
+            assertSame(previous, c.proof());
+            assertEquals(0, c.node().serialNr());
+            assertTrue(index.isIndexed(previous));
+            // the proof containing the node is never a reference
+            assertNull(index.findPreviousProof(List.of(proof), proof.root()));
+
+            // changes of the previous proof are picked up by the next query
+            previous.pruneProof(previous.root());
+            assertNull(index.findPreviousProof(List.of(previous), proof.root()));
+
+            // a disposed proof is released right away
+            previous.dispose();
+            assertFalse(index.isIndexed(previous));
+            assertNull(index.findPreviousProof(List.of(previous), proof.root()));
+            assertFalse(index.isIndexed(previous));
+        } finally {
+            GeneralSettings.noPruningClosed = true;
+            env.dispose();
+            env2.dispose();
+        }
+    }
+}
@@ -52,12 +52,12 @@ class CheckConfigDialog extends JDialog {
                 }
             }
 
-            Main.check(missingProofsCheck.isSelected(),
-                settingsCheck.isSelected(),
-                replayCheck.isSelected(),
-                dependencyCheck.isSelected(),
-                Paths.get(bundleFileField.getText()),
-                reportPath);
+            Main.check(Paths.get(bundleFileField.getText()), new CheckOptions()
+                    .setMissing(missingProofsCheck.isSelected())
+                    .setSettings(settingsCheck.isSelected())
+                    .setReplay(replayCheck.isSelected())
+                    .setDependency(dependencyCheck.isSelected())
+                    .setReportPath(reportPath));
             if (reportPath != null) {
                 // automatically open the report in browser
                 Desktop.getDesktop().open(reportPath.toFile());
@@ -0,0 +1,126 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement;
+
+import java.nio.file.Path;
+
+/**
+ * The options of the check command, i.e., the checks to apply to a proof bundle and how to run
+ * them. By default, no check is selected, no report is generated, no results are stored, and the
+ * proofs are loaded one after the other.
+ */
+public final class CheckOptions {
+    /** the default heap size (in MB) reserved for each proof loaded in parallel */
+    public static final long DEFAULT_MEMORY_PER_PROOF = 1024;
+
+    /** checks if there are any unproven contracts in the bundle */
+    private boolean missing;
+
+    /** checks if the settings for the proofs are compatible */
+    private boolean settings;
+
+    /** checks whether the proofs in the bundle are replayable */
+    private boolean replay;
+
+    /** checks for unsound dependencies between contracts and proofs */
+    private boolean dependency;
+
+    /** the output path for the HTML report (null if no report is generated) */
+    private Path reportPath;
+
+    /** the number of proofs loaded and replayed in parallel */
+    private int jobs = 1;
+
+    /** the heap size needed for a single proof (in MB) */
+    private long memoryPerProof = DEFAULT_MEMORY_PER_PROOF;
+
+    /** the file the check results are stored in (null if the results are not stored) */
+    private Path cachePath;
+
+    public boolean isMissing() {
+        return missing;
+    }
+
+    public CheckOptions setMissing(boolean missing) {
+        this.missing = missing;
+        return this;
+    }
+
+    public boolean isSettings() {
+        return settings;
+    }
+
+    public CheckOptions setSettings(boolean settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public CheckOptions setReplay(boolean replay) {
+        this.replay = replay;
+        return this;
+    }
+
+    public boolean isDependency() {
+        return dependency;
+    }
+
+    public CheckOptions setDependency(boolean dependency) {
+        this.dependency = dependency;
+        return this;
+    }
+
+    public Path getReportPath() {
+        return reportPath;
+    }
+
+    public CheckOptions setReportPath(Path reportPath) {
+        this.reportPath = reportPath;
+        return this;
+    }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Sets the number of proofs loaded and replayed in parallel. The number is reduced if the
+     * heap does not provide {@link #getMemoryPerProof()} for each of them.
+     *
+     * @param jobs the number of threads
+     * @return this object
+     */
+    public CheckOptions setJobs(int jobs) {
+        this.jobs = jobs;
+        return this;
+    }
+
+    public long getMemoryPerProof() {
+        return memoryPerProof;
+    }
+
+    public CheckOptions setMemoryPerProof(long memoryPerProof) {
+        this.memoryPerProof = memoryPerProof;
+        return this;
+    }
+
+    public Path getCachePath() {
+        return cachePath;
+    }
+
+    /**
+     * Sets the file the check results are stored in. The results of proofs which have not changed
+     * since they were stored are reused instead of loading and replaying the proofs again.
+     *
+     * @param cachePath the file (need not exist), or null to check all proofs
+     * @return this object
+     */
+    public CheckOptions setCachePath(Path cachePath) {
+        this.cachePath = cachePath;
+        return this;
+    }
+}
@@ -32,6 +32,9 @@ import org.key_project.proofmanagement.merge.ProofBundleMerger;
  * --explicit (implies --auto) stores automatically found proofs explicitly as files
  * --report generate html report, needs the target filename as parameter
  * --missing check for contracts that have no proof
+ * --jobs number of proofs loaded and replayed in parallel
+ * --memory heap size (in MB) reserved for each proof loaded in parallel
+ * --cache file storing the check results, such that only changed proofs are checked again
  * checks that are always enabled:
  * - check for duplicate proofs of the same contracts
  * individually and independently trigger different checks
@@ -88,6 +91,9 @@ public final class Main {
         // check.addOption("--auto", null, STRINGS.getString("check_auto_desc"));
         // check.addOption("--explicit", null, STRINGS.getString("check_explicit_desc"));
         CL_CHECK.addOption("--report", "out_path", STRINGS.getString("check_report_desc"));
+        CL_CHECK.addOption("--jobs", "n", STRINGS.getString("check_jobs_desc"));
+        CL_CHECK.addOption("--memory", "mb", STRINGS.getString("check_memory_desc"));
+        CL_CHECK.addOption("--cache", "file", STRINGS.getString("check_cache_desc"));
 
         CL_MERGE = CL.addSubCommand("merge");
         CL_MERGE.addText(USAGE_MERGE, false);
@@ -103,6 +109,9 @@ public final class Main {
         // CL_MERGE_CHECK.addOption("--auto", null, STRINGS.getString("check_auto_desc"));
         // CL_MERGE_CHECK.addOption("--explicit", null, STRINGS.getString("check_explicit_desc"));
         CL_MERGE_CHECK.addOption("--report", "out_path", STRINGS.getString("check_report_desc"));
+        CL_MERGE_CHECK.addOption("--jobs", "n", STRINGS.getString("check_jobs_desc"));
+        CL_MERGE_CHECK.addOption("--memory", "mb", STRINGS.getString("check_memory_desc"));
+        CL_MERGE_CHECK.addOption("--cache", "file", STRINGS.getString("check_cache_desc"));
 
         // TODO: bundle subcommand
         // CL.addSubCommand("bundle");
@@ -153,18 +162,20 @@ public final class Main {
      * The check subcommand applies the selected checks to the proof bundle and generates an HTML
      * report if desired.
      *
-     * @param missing checks if there are any unproven contracts in the bundle
-     * @param settings checks if the settings for the proofs are compatible
-     * @param replay checks whether the proofs in the bundle are replayable
-     * @param dependency checks for unsound dependencies between contracts and proofs
      * @param bundlePath the path of the bundle (directory or zip file)
-     * @param reportPath the output path for the HTML report (if selected)
+     * @param options the checks to apply and how to run them
      */
-    public static void check(boolean missing, boolean settings, boolean replay, boolean dependency,
-            Path bundlePath, Path reportPath) {
+    public static void check(Path bundlePath, CheckOptions options) {
+        final boolean replay = options.isReplay();
+        final boolean dependency = options.isDependency();
+        final Path reportPath = options.getReportPath();
 
         // we accumulate results in this variable
         CheckerData globalResult = new CheckerData(LogLevel.DEBUG);
+        globalResult.setJobs(options.getJobs());
+        globalResult.setMemoryPerProof(options.getMemoryPerProof() * 1024 * 1024);
+        // the dependency checker replays the proofs as well, which have to be loaded only once
+        globalResult.setReplayRequested(replay || dependency);
         try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundlePath)) {
 
             globalResult.setPbh(pbh);
@@ -172,10 +183,16 @@ public final class Main {
             // add file tree to result
             globalResult.setFileTree(pbh.getFileTree());
 
-            if (missing) {
+            CheckResultStore store = null;
+            if (options.getCachePath() != null) {
+                store = CheckResultStore.load(options.getCachePath(), pbh, globalResult);
+                store.restore(globalResult, replay);
+            }
+
+            if (options.isMissing()) {
                 new MissingProofsChecker().check(pbh, globalResult);
             }
-            if (settings) {
+            if (options.isSettings()) {
                 new SettingsChecker().check(pbh, globalResult);
             }
             if (replay) {
@@ -184,6 +201,9 @@ public final class Main {
             if (dependency) {
                 new DependencyChecker().check(pbh, globalResult);
             }
+            if (store != null) {
+                saveResults(store, globalResult);
+            }
             globalResult.print("All checks done!");
             globalResult.print("Global result: " + globalResult.getGlobalState());
 
@@ -206,6 +226,15 @@ public final class Main {
         }
     }
 
+    private static void saveResults(CheckResultStore store, CheckerData globalResult) {
+        try {
+            store.save(globalResult);
+        } catch (IOException e) {
+            globalResult.print(LogLevel.WARNING,
+                "Could not store the check results: " + e.getMessage());
+        }
+    }
+
     private static void generateReport(CheckerData globalResult, Path reportPath) {
         try {
             HTMLReport.print(globalResult, reportPath);
@@ -215,25 +244,34 @@ public final class Main {
         }
     }
 
-    // check [--settings] [--dependency] [--missing] [--replay] [--report <out_path>] <bundle_path>
-    private static void check(CommandLine commandLine) {
+    // check [--settings] [--dependency] [--missing] [--replay] [--report <out_path>]
+    // [--jobs <n>] [--memory <mb>] [--cache <file>] <bundle_path>
+    private static void check(CommandLine commandLine) throws CommandLineException {
         List<String> arguments = commandLine.getArguments();
         if (arguments.size() != 1) {
             commandLine.printUsage(System.out);
             return;
         }
 
-        Path reportPath = null;
+        CheckOptions options = new CheckOptions()
+                .setMissing(commandLine.isSet("--missing"))
+                .setSettings(commandLine.isSet("--settings"))
+                .setReplay(commandLine.isSet("--replay"))
+                .setDependency(commandLine.isSet("--dependency"))
+                .setJobs(commandLine.getInteger("--jobs", 1))
+                .setMemoryPerProof(
+                    commandLine.getLong("--memory", CheckOptions.DEFAULT_MEMORY_PER_PROOF));
         if (commandLine.isSet("--report")) {
             String outFileName = commandLine.getString("--report", "");
-            reportPath = Paths.get(outFileName).toAbsolutePath();
+            options.setReportPath(Paths.get(outFileName).toAbsolutePath());
+        }
+        if (commandLine.isSet("--cache")) {
+            options.setCachePath(Paths.get(commandLine.getString("--cache", "")).toAbsolutePath());
         }
 
         String pathStr = arguments.get(0);
         Path bundlePath = Paths.get(pathStr);
-        check(commandLine.isSet("--missing"), commandLine.isSet("--settings"),
-            commandLine.isSet("--replay"), commandLine.isSet("--dependency"),
-            bundlePath, reportPath);
+        check(bundlePath, options);
     }
 
     // merge [--force] [--check "<check_args>"] <bundle1> <bundle2> ... <output>
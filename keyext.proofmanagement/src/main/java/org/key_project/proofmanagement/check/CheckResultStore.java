@@ -0,0 +1,477 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement.check;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.java.Recoder2KeY;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.proof.init.AbstractProfile;
+import de.uka.ilkd.key.proof.io.RuleSource;
+import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
+import de.uka.ilkd.key.settings.Configuration;
+import de.uka.ilkd.key.speclang.Contract;
+import de.uka.ilkd.key.util.KeYResourceManager;
+
+import org.key_project.proofmanagement.check.dependency.DependencyGraph;
+import org.key_project.proofmanagement.check.dependency.DependencyGraphBuilder;
+import org.key_project.proofmanagement.check.dependency.DependencyNode;
+import org.key_project.proofmanagement.io.LogLevel;
+import org.key_project.proofmanagement.io.ProofBundleHandler;
+
+/**
+ * Persists the results of checking the proofs of a bundle, such that a later check of the
+ * bundle only has to load and replay the proofs which have changed.
+ * <p>
+ * All results are only valid in the same environment, which consists of the rule base (the
+ * sources of the taclet base and of KeY's built-in Java classes), the classpath and bootclasspath
+ * of the bundle, and the names of its Java sources (adding or removing a type may change the
+ * dispatch of method calls). Within an environment, the results of a proof are keyed by a hash of
+ * the proof file, and additionally record the hashes of the sources the proof refers to (the file
+ * declaring the type of its contract and the files whose methods have been inlined). The store
+ * also records a fingerprint of each contract which is proven or applied by a proof. A proof
+ * whose contract has changed, as well as all proofs applying it, are found via the
+ * {@link DependencyGraph} of the stored results and are checked again. The checks working on the
+ * dependency graph are always repeated, but use the stored dependencies of unchanged proofs.
+ * </p>
+ * The results are stored in the KeY configuration format.
+ */
+public final class CheckResultStore {
+    /** the version of the file format */
+    private static final int VERSION = 2;
+
+    /** the file the results are stored in */
+    private final Path file;
+
+    /** the fingerprint of the environment of the proofs */
+    private final String environment;
+
+    /** the stored results by proof file (relative to the bundle root) */
+    private final Map<String, Configuration> results;
+
+    /** the stored fingerprints of the proven and applied contracts by name */
+    private final Map<String, String> contracts;
+
+    private CheckResultStore(Path file, String environment, Map<String, Configuration> results,
+            Map<String, String> contracts) {
+        this.file = file;
+        this.environment = environment;
+        this.results = results;
+        this.contracts = contracts;
+    }
+
+    /**
+     * Loads the results stored in the given file for the given bundle. Results stored for a
+     * different environment are discarded.
+     *
+     * @param file the file the results are stored in (need not exist)
+     * @param pbh the bundle to check
+     * @param logger the logger to print messages
+     * @return the store
+     * @throws IOException if the bundle can not be accessed
+     */
+    public static CheckResultStore load(Path file, ProofBundleHandler pbh, CheckerData logger)
+            throws IOException {
+        String environment = environmentFingerprint(pbh);
+        Map<String, Configuration> results = new HashMap<>();
+        Map<String, String> contracts = new HashMap<>();
+        if (Files.exists(file)) {
+            try {
+                Configuration stored = Configuration.load(file.toFile());
+                if (stored.getInt("version", 0) == VERSION
+                        && environment.equals(stored.getString("environment"))) {
+                    Configuration proofs = stored.getTable("proofs");
+                    for (Map.Entry<String, Object> entry : proofs.getEntries()) {
+                        results.put(entry.getKey(), proofs.getTable(entry.getKey()));
+                    }
+                    for (Map.Entry<String, Object> entry : stored.getTable("contracts")
+                            .getEntries()) {
+                        contracts.put(entry.getKey(), entry.getValue().toString());
+                    }
+                } else {
+                    logger.print(LogLevel.INFO, "Rule base, classpath or Java source files "
+                        + "changed, stored check results are discarded.");
+                }
+            } catch (Exception e) {
+                logger.print(LogLevel.WARNING,
+                    "Could not read stored check results from " + file + ": " + e);
+            }
+        }
+        return new CheckResultStore(file, environment, results, contracts);
+    }
+
+    /**
+     * Creates entries from the stored results of all proofs of the bundle which are unchanged and
+     * whose results cover the requested checks. A proof is unchanged if its file and the sources
+     * it refers to are unchanged, and neither its contract nor a contract it applies has changed.
+     *
+     * @param data the CheckerData object to store the entries
+     * @param replay whether the proofs have to be replayed
+     * @throws ProofManagementException if the bundle can not be accessed
+     */
+    public void restore(CheckerData data, boolean replay)
+            throws ProofManagementException {
+        ProofBundleHandler pbh = data.getPbh();
+        Services services = null;
+        List<CheckerData.ProofEntry> candidates = new ArrayList<>();
+        Set<String> changedContracts = new HashSet<>();
+        for (Path proofPath : data.getProofPaths()) {
+            Configuration result = results.get(key(pbh, proofPath));
+            // the dependencies are needed to find the proofs applying a changed contract, the
+            // sources to find out whether the replay is still valid
+            if (result == null || !hash(proofPath).equals(result.getString("hash"))
+                    || !result.exists("dependencies") || (replay
+                            && !(result.exists("replayState") && result.exists("sources")))) {
+                continue;
+            }
+            Set<Path> sources = null;
+            if (result.exists("sources")) {
+                sources = unchangedSources(pbh, result.getTable("sources"));
+                if (sources == null) {
+                    data.print(LogLevel.DEBUG, "Sources of " + proofPath + " have changed.");
+                    continue;
+                }
+            }
+            if (services == null) {
+                // the contracts are taken from the sources of the bundle
+                services = KeYFacade.ensureSourceInitialized(data).getServices();
+            }
+            SpecificationRepository specRepo = services.getSpecificationRepository();
+            Contract contract = specRepo.getContractByName(result.getString("contract"));
+            if (contract == null) {
+                continue;
+            }
+
+            CheckerData.ProofEntry line = data.new ProofEntry();
+            line.proofFile = proofPath;
+            line.proofName = result.getString("name");
+            KeYFacade.setContract(line, contract);
+            line.choices = new HashMap<>();
+            for (Map.Entry<String, Object> choice : result.getTable("choices").getEntries()) {
+                line.choices.put(choice.getKey(), choice.getValue().toString());
+            }
+            line.dependencies = new LinkedHashMap<>();
+            Configuration deps = result.getTable("dependencies");
+            for (Map.Entry<String, Object> dep : deps.getEntries()) {
+                line.dependencies.put(dep.getKey(),
+                    DependencyGraph.EdgeType.valueOf(dep.getValue().toString()));
+            }
+            line.referencedSources = sources;
+            line.loadingState = CheckerData.LoadingState.SUCCESS;
+            line.replayState =
+                result.getEnum("replayState", CheckerData.ReplayState.UNKNOWN);
+            line.proofState = result.getEnum("proofState", CheckerData.ProofState.UNKNOWN);
+            if (result.exists("statistics")) {
+                Configuration statistics = result.getTable("statistics");
+                line.statistics = new CheckerData.ProofStatistics(statistics.getInt("nodes"),
+                    statistics.getInt("interactiveSteps"),
+                    statistics.getLong("autoModeTimeInMillis"));
+            }
+
+            boolean applicable = true;
+            for (String name : line.dependencies.keySet()) {
+                if (specRepo.getContractByName(name) == null) {
+                    // an applied contract has been removed
+                    applicable = false;
+                }
+            }
+            for (String name : contractNames(line)) {
+                Contract c = specRepo.getContractByName(name);
+                if (c != null && !fingerprint(c, services).equals(contracts.get(name))) {
+                    changedContracts.add(name);
+                }
+            }
+            if (applicable) {
+                candidates.add(line);
+            }
+        }
+
+        // the proofs of changed contracts and the proofs applying them have to be checked again
+        Set<String> invalid = new HashSet<>(changedContracts);
+        if (!changedContracts.isEmpty()) {
+            DependencyGraph graph = DependencyGraphBuilder.buildGraph(candidates, data);
+            for (DependencyNode node : graph.getNodes()) {
+                for (DependencyNode dep : node.getDependencies().keySet()) {
+                    if (changedContracts.contains(dep.getContract().getName())) {
+                        invalid.add(node.getContract().getName());
+                    }
+                }
+            }
+        }
+
+        int restored = 0;
+        for (CheckerData.ProofEntry line : candidates) {
+            if (invalid.contains(line.contract.getName())) {
+                data.print(LogLevel.DEBUG, "Contracts of " + line.proofFile + " have changed.");
+                continue;
+            }
+            data.getProofEntries().add(line);
+            data.print(LogLevel.DEBUG, "Reusing stored check results of " + line.proofFile);
+            restored++;
+        }
+        data.print(LogLevel.INFO, "Reused stored check results of " + restored + " of "
+            + data.getProofPaths().size() + " proofs.");
+    }
+
+    /**
+     * Stores the results of all successfully loaded proofs in the given CheckerData object and
+     * writes the store to its file. Results of other proofs are discarded.
+     *
+     * @param data the CheckerData object containing the results
+     * @throws IOException if the file can not be written
+     */
+    public void save(CheckerData data) throws IOException {
+        ProofBundleHandler pbh = data.getPbh();
+        // the sources of the bundle by their real paths
+        Map<Path, Path> bundleSources = new HashMap<>();
+        for (Path p : pbh.getSourceFiles()) {
+            bundleSources.put(KeYFacade.realPath(p), p);
+        }
+        results.clear();
+        contracts.clear();
+        Services services = null;
+        for (CheckerData.ProofEntry line : data.getProofEntries()) {
+            if (line.loadingState != CheckerData.LoadingState.SUCCESS || line.contract == null) {
+                continue;
+            }
+            if (line.dependencies == null && line.proof != null && line.parseResult != null) {
+                DependencyGraphBuilder.collectDependencies(line, data);
+            }
+            if (line.dependencies == null) {
+                // the proof could not be restored without its dependencies
+                continue;
+            }
+            if (services == null) {
+                try {
+                    services = KeYFacade.ensureSourceInitialized(data).getServices();
+                } catch (ProofManagementException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+            Configuration result = new Configuration();
+            result.set("hash", hash(line.proofFile));
+            result.set("name", line.proofName);
+            result.set("contract", line.contract.getName());
+            result.set("choices", new Configuration(new HashMap<>(line.choices)));
+            Map<String, Object> deps = new LinkedHashMap<>();
+            line.dependencies.forEach((name, type) -> deps.put(name, type.name()));
+            result.set("dependencies", new Configuration(deps));
+            if (line.referencedSources != null) {
+                Map<String, Object> sources = new TreeMap<>();
+                for (Path p : line.referencedSources) {
+                    Path source = bundleSources.get(p);
+                    if (source != null) {
+                        sources.put(key(pbh, source), hash(source));
+                    }
+                }
+                result.set("sources", new Configuration(sources));
+            }
+            if (line.replayState != CheckerData.ReplayState.UNKNOWN) {
+                result.set("replayState", line.replayState.name());
+                result.set("proofState", line.proofState.name());
+            }
+            if (line.statistics != null) {
+                Configuration statistics = new Configuration();
+                statistics.set("nodes", line.statistics.nodes);
+                statistics.set("interactiveSteps", line.statistics.interactiveSteps);
+                statistics.set("autoModeTimeInMillis", line.statistics.autoModeTimeInMillis);
+                result.set("statistics", statistics);
+            }
+            results.put(key(pbh, line.proofFile), result);
+
+            SpecificationRepository specRepo = services.getSpecificationRepository();
+            for (String name : contractNames(line)) {
+                Contract c = specRepo.getContractByName(name);
+                if (c != null) {
+                    contracts.put(name, fingerprint(c, services));
+                }
+            }
+        }
+
+        Configuration proofs = new Configuration(new LinkedHashMap<>(results));
+        Configuration stored = new Configuration();
+        stored.set("version", VERSION);
+        stored.set("environment", environment);
+        stored.set("contracts", new Configuration(new TreeMap<>(contracts)));
+        stored.set("proofs", proofs);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            stored.save(writer, "check results of proof bundle " + pbh.getBundleName());
+        }
+    }
+
+    private static String key(ProofBundleHandler pbh, Path path) {
+        return pbh.relativize(path).toString().replace('\\', '/');
+    }
+
+    /**
+     * @return the names of the contract proven by the proof of the given entry and of the
+     *         contracts applied in the proof
+     */
+    private static Set<String> contractNames(CheckerData.ProofEntry line) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(line.contract.getName());
+        names.addAll(line.dependencies.keySet());
+        return names;
+    }
+
+    /**
+     * Computes the fingerprint of a contract, i.e., a hash of its specification.
+     */
+    private static String fingerprint(Contract contract, Services services) {
+        MessageDigest digest = newDigest();
+        digest.update(contract.getPlainText(services).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Checks that the given sources of a proof are unchanged.
+     *
+     * @param pbh the bundle
+     * @param sources the stored hashes of the sources by path relative to the bundle root
+     * @return the real paths of the sources, or null if one of them has changed
+     */
+    private static Set<Path> unchangedSources(ProofBundleHandler pbh, Configuration sources) {
+        Set<Path> paths = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> entry : sources.getEntries()) {
+            Path path = pbh.getPath(entry.getKey());
+            if (path == null || !hash(path).equals(entry.getValue().toString())) {
+                return null;
+            }
+            paths.add(KeYFacade.realPath(path));
+        }
+        return paths;
+    }
+
+    /**
+     * Computes the fingerprint of the environment of the proofs: the content of the taclet base
+     * and of KeY's built-in Java classes, the content of the classpath and bootclasspath, and the
+     * names of the Java sources of the bundle.
+     */
+    private static String environmentFingerprint(ProofBundleHandler pbh) throws IOException {
+        List<String> entries = new ArrayList<>();
+        RuleSource tacletBase =
+            AbstractProfile.getDefaultProfile().getStandardRules().getTacletBase();
+        if (tacletBase != null) {
+            hashResources("rules:", tacletBase.url(), entries);
+        }
+        URL redux = KeYResourceManager.getManager().getResourceFile(Recoder2KeY.class,
+            "JavaRedux/");
+        if (redux != null) {
+            hashResources("redux:", redux, entries);
+        }
+
+        List<Path> files = new ArrayList<>(pbh.getClasspathFiles());
+        Path bootclasspath = pbh.getBootclasspath();
+        if (bootclasspath != null) {
+            try (Stream<Path> s = Files.walk(bootclasspath)) {
+                s.filter(Files::isRegularFile).forEach(files::add);
+            }
+        }
+        for (Path p : files) {
+            entries.add(key(pbh, p) + "=" + hash(p));
+        }
+        // the content of the sources is covered by the results of the proofs referring to them
+        for (Path p : pbh.getSourceFiles()) {
+            entries.add(key(pbh, p));
+        }
+        // the order of the files must not matter
+        entries.sort(null);
+
+        MessageDigest digest = newDigest();
+        for (String entry : entries) {
+            digest.update((entry + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the hashes of all files in the given directory of KeY's resources (or in the
+     * directory containing the given resource), which may reside in a jar file.
+     *
+     * @param prefix the prefix of the added entries
+     * @param resource the URL of the resource
+     * @param entries the list to add the entries to
+     * @throws IOException if the resources can not be read
+     */
+    private static void hashResources(String prefix, URL resource, List<String> entries)
+            throws IOException {
+        final URI uri;
+        try {
+            uri = resource.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        FileSystem fs = null;
+        if ("jar".equals(uri.getScheme())) {
+            try {
+                fs = FileSystems.newFileSystem(uri, Map.of());
+            } catch (FileSystemAlreadyExistsException e) {
+                // the jar file is already open and stays open
+            }
+        }
+        try {
+            Path path = Path.of(uri);
+            Path root = Files.isDirectory(path) ? path : path.getParent();
+            try (Stream<Path> s = Files.walk(root)) {
+                for (Path p : (Iterable<Path>) s.filter(Files::isRegularFile)::iterator) {
+                    entries.add(prefix + root.relativize(p).toString().replace('\\', '/')
+                        + "=" + hash(p));
+                }
+            }
+        } finally {
+            if (fs != null) {
+                fs.close();
+            }
+        }
+    }
+
+    private static String hash(Path path) {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            // a file which can not be read never matches
+            return "";
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
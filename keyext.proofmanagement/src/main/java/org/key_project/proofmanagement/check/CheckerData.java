@@ -17,6 +17,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 
 import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.InitConfig;
 import de.uka.ilkd.key.proof.init.KeYUserProblemFile;
 import de.uka.ilkd.key.proof.init.ProblemInitializer;
 import de.uka.ilkd.key.proof.io.AbstractProblemLoader;
@@ -58,6 +59,17 @@ public final class CheckerData implements Logger {
     // TODO: side effects: may be changed by checkers (e.g. remove paths of taclet proofs)
     private List<Path> proofPaths;
 
+    ////////////////////////////////// configuration of proof loading
+
+    /** the maximal number of proofs loaded and replayed concurrently */
+    private int jobs = 1;
+
+    /** the estimated heap size needed for loading and replaying a single proof (in bytes) */
+    private long memoryPerProof = 1024L * 1024 * 1024;
+
+    /** whether the proofs are going to be replayed (by the replay or the dependency checker) */
+    private boolean replayRequested = false;
+
     ////////////////////////////////// results from dependency checker
 
     private DependencyGraph dependencyGraph;
@@ -173,6 +185,8 @@ public final class CheckerData implements Logger {
     private PathNode fileTree;
     private final List<ProofEntry> proofEntries = new ArrayList<>();
     private SLEnvInput slenv;
+    /** the Java sources of the bundle read into an InitConfig (gives access to all contracts) */
+    private InitConfig sourceInitConfig;
 
     public SLEnvInput getSlenv() {
         return slenv;
@@ -182,6 +196,14 @@ public final class CheckerData implements Logger {
         this.slenv = slenv;
     }
 
+    public InitConfig getSourceInitConfig() {
+        return sourceInitConfig;
+    }
+
+    public void setSourceInitConfig(InitConfig sourceInitConfig) {
+        this.sourceInitConfig = sourceInitConfig;
+    }
+
     // we rely on the order of the enums (from worst to best)!!!
     public enum GlobalState {
         ERROR,
@@ -265,6 +287,21 @@ public final class CheckerData implements Logger {
         }
     }
 
+    /**
+     * The statistics of a replayed proof shown in the report.
+     */
+    public static final class ProofStatistics {
+        public final int nodes;
+        public final int interactiveSteps;
+        public final long autoModeTimeInMillis;
+
+        public ProofStatistics(int nodes, int interactiveSteps, long autoModeTimeInMillis) {
+            this.nodes = nodes;
+            this.interactiveSteps = interactiveSteps;
+            this.autoModeTimeInMillis = autoModeTimeInMillis;
+        }
+    }
+
     public class ProofEntry {
         public LoadingState loadingState = LoadingState.UNKNOWN;
         public ReplayState replayState = ReplayState.UNKNOWN;
@@ -280,20 +317,61 @@ public final class CheckerData implements Logger {
         public ProblemInitializer problemInitializer;
         public Proof proof;
 
+        /**
+         * the contract proven by the proof; once the proof has been disposed, it is taken from the
+         * sources of the bundle (see {@link #getSourceInitConfig()})
+         */
         public Contract contract;
         public URL sourceFile;
         public String shortSrc;
         public IntermediatePresentationProofFileParser.Result parseResult;
         public AbstractProblemLoader.ReplayResult replayResult;
 
+        // the following data is extracted from the proof, such that it is available after the
+        // proof has been disposed
+
+        /** the name of the proof */
+        public String proofName;
+        /** the choices the proof was conducted with */
+        public Map<String, String> choices;
+        /** the contracts applied in the proof, by name, with the type of the dependency */
+        public Map<String, DependencyGraph.EdgeType> dependencies;
+        /** the statistics of the proof (only available after replay) */
+        public ProofStatistics statistics;
+        /**
+         * the source files the proof refers to, i.e., the file declaring the type of its contract
+         * and the files declaring the methods inlined in the proof (only available after replay)
+         */
+        public Set<Path> referencedSources;
+
         public Integer settingsId() {
-            return choices2Id.get(proof.getSettings().getChoiceSettings().getDefaultChoices());
+            return choices2Id.get(choices);
+        }
+
+        /**
+         * Disposes the proof and releases all data needed only for loading and replaying it.
+         * Afterwards, only the extracted data of this entry is available.
+         */
+        public void dispose() {
+            if (proof != null && !proof.isDisposed()) {
+                proof.dispose();
+            }
+            proof = null;
+            envInput = null;
+            problemInitializer = null;
+            parseResult = null;
+            if (replayResult != null) {
+                // the last touched node belongs to the proof
+                replayResult = new AbstractProblemLoader.ReplayResult(replayResult.getStatus(),
+                    replayResult.getErrorList(), null);
+            }
         }
     }
 
     public ProofEntry getProofEntryByContract(Contract contract) {
+        // the contracts may stem from different specification repositories
         for (ProofEntry p : proofEntries) {
-            if (p.contract.equals(contract)) {
+            if (p.contract.getName().equals(contract.getName())) {
                 return p;
             }
         }
@@ -320,7 +398,7 @@ public final class CheckerData implements Logger {
     }
 
     @Override
-    public void print(LogLevel level, String message) {
+    public synchronized void print(LogLevel level, String message) {
         // suppress message if level is smaller than current log level
         if (level.compareTo(minLogLevel) >= 0) {
             // for multiline strings, every line should have correct prefix
@@ -511,4 +589,28 @@ public final class CheckerData implements Logger {
     public void setDependencyGraph(DependencyGraph dependencyGraph) {
         this.dependencyGraph = dependencyGraph;
     }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(int jobs) {
+        this.jobs = Math.max(1, jobs);
+    }
+
+    public long getMemoryPerProof() {
+        return memoryPerProof;
+    }
+
+    public void setMemoryPerProof(long memoryPerProof) {
+        this.memoryPerProof = memoryPerProof;
+    }
+
+    public boolean isReplayRequested() {
+        return replayRequested;
+    }
+
+    public void setReplayRequested(boolean replayRequested) {
+        this.replayRequested = replayRequested;
+    }
 }
@@ -129,7 +129,7 @@ public class DependencyChecker implements Checker {
                             // update status in data object
                             entry.dependencyState = CheckerData.DependencyState.OK;
                             data.print(LogLevel.INFO, "Proof is closed and has no" +
-                                " unproven dependencies: " + entry.proof.name());
+                                " unproven dependencies: " + entry.proofName);
 
                             changed = true;
                         }
@@ -151,7 +151,7 @@ public class DependencyChecker implements Checker {
                     && entry.replayState == CheckerData.ReplayState.SUCCESS) {
                 entry.dependencyState = CheckerData.DependencyState.UNPROVEN_DEP;
                 data.print(LogLevel.WARNING, "Unproven dependencies found for proof "
-                    + entry.proof.name());
+                    + entry.proofName);
                 hasUnprovenDeps = true;
             }
         }
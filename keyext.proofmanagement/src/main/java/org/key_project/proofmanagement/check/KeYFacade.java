@@ -5,21 +5,34 @@ package org.key_project.proofmanagement.check;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
 import de.uka.ilkd.key.java.JavaSourceElement;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.java.abstraction.Type;
+import de.uka.ilkd.key.java.statement.MethodBodyStatement;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.proof.Statistics;
 import de.uka.ilkd.key.proof.init.*;
 import de.uka.ilkd.key.proof.init.loader.ProofObligationLoader;
 import de.uka.ilkd.key.proof.io.AbstractProblemLoader.ReplayResult;
@@ -31,6 +44,7 @@ import de.uka.ilkd.key.proof.io.consistency.FileRepo;
 import de.uka.ilkd.key.proof.io.consistency.TrivialFileRepo;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.rule.RuleApp;
 import de.uka.ilkd.key.settings.Configuration;
 import de.uka.ilkd.key.speclang.Contract;
 import de.uka.ilkd.key.speclang.SLEnvInput;
@@ -46,10 +60,34 @@ import org.key_project.proofmanagement.io.ProofBundleHandler;
 
 /**
  * This class provides static methods to access the prover (KeY).
+ * <p>
+ * If more than one job is configured in the {@link CheckerData}, the proofs are loaded and
+ * replayed concurrently. Each proof is disposed as soon as the data needed by the checkers and the
+ * report has been extracted, so at most one proof per thread is kept in memory. The contracts of
+ * the entries are then taken from the sources of the bundle, which are read only once. The number
+ * of threads is limited such that each thread has the configured amount of memory available.
+ * </p>
  *
  * @author Wolfram Pfeifer
  */
 public final class KeYFacade {
+    /**
+     * The profile used by a thread checking proofs in parallel. Each thread needs its own
+     * instance, since the {@link OneStepSimplifier} of a profile can not be used for different
+     * proofs at the same time. The rules are read only once and shared by all instances.
+     */
+    private static final ThreadLocal<Profile> WORKER_PROFILE =
+        ThreadLocal.withInitial(JavaProfile::new);
+
+    /**
+     * Loading proofs is done by one thread at a time, since recoder and the Java parsers rely on
+     * static state. Replaying proofs (usually the expensive part) is done in parallel.
+     */
+    private static final Object LOADING_LOCK = new Object();
+
+    /** the name of the taclet inlining the body of a method */
+    private static final String METHOD_BODY_EXPAND = "methodBodyExpand";
+
     // prevents from instantiating this class
     private KeYFacade() {
     }
@@ -59,9 +97,20 @@ public final class KeYFacade {
      * Does not update an existing DependencyGraph!
      *
      * @param data the CheckerData object to store the result
+     * @throws ProofManagementException if the dependencies of a proof are not available
      */
-    public static void ensureDependencyGraphBuilt(CheckerData data) {
+    public static void ensureDependencyGraphBuilt(CheckerData data)
+            throws ProofManagementException {
         if (data.getDependencyGraph() == null) {
+            for (CheckerData.ProofEntry line : data.getProofEntries()) {
+                if (line.dependencies == null) {
+                    if (line.proof == null) {
+                        throw new ProofManagementException(
+                            "Dependencies of proof " + line.proofFile + " are not available!");
+                    }
+                    DependencyGraphBuilder.collectDependencies(line, data);
+                }
+            }
             // construct dependency graph from data stored in CheckerData object
             // TODO: the analysis as currently implemented assumes there is
             // exactly one proof for each contract!!!
@@ -79,6 +128,10 @@ public final class KeYFacade {
      * @throws ProofManagementException
      */
     public static void ensureProofsLoaded(CheckerData data) throws ProofManagementException {
+        if (data.getJobs() > 1) {
+            checkProofsInParallel(data);
+            return;
+        }
         List<Path> proofPaths = data.getProofPaths();
         try {
             // for each proof: parse and construct intermediate AST
@@ -89,7 +142,8 @@ public final class KeYFacade {
                 CheckerData.ProofEntry line = ensureProofEntryExists(proofPath, data);
                 // only load every line once
                 if (line.loadingState == CheckerData.LoadingState.UNKNOWN) {
-                    if (!loadProofTree(proofPath, line, data)) {
+                    if (!loadProofTree(proofPath, line, data,
+                        AbstractProfile.getDefaultProfile(), false)) {
                         // remove invalid line (e.g. from taclet proof)
                         data.getProofEntries().remove(line);
                         // TODO: code quality (hidden side effect):
@@ -123,12 +177,12 @@ public final class KeYFacade {
         return null;
     }
 
-    private static boolean loadProofTree(Path path, CheckerData.ProofEntry line, Logger logger)
-            throws Exception {
+    private static boolean loadProofTree(Path path, CheckerData.ProofEntry line, Logger logger,
+            Profile profile, boolean shareRules) throws Exception {
 
         logger.print(LogLevel.DEBUG, "Loading proof from " + path);
         line.proofFile = path;
-        Proof[] proofs = loadProofFile(path, line);
+        Proof[] proofs = loadProofFile(path, line, profile, shareRules);
 
         // TODO: ignore taclet proofs
         if (proofs == null || proofs.length == 0) {
@@ -140,6 +194,8 @@ public final class KeYFacade {
         // Proof proof = proofList.getProof(poContainer.getProofNum());
         Proof proof = proofs[0];
         line.proof = proof;
+        line.proofName = proof.name().toString();
+        line.choices = proof.getSettings().getChoiceSettings().getDefaultChoices();
 
         // parse the actual proof tree to an intermediate representation (without replay!)
         IntermediatePresentationProofFileParser parser =
@@ -155,10 +211,8 @@ public final class KeYFacade {
         return true;
     }
 
-    private static Proof[] loadProofFile(Path path, CheckerData.ProofEntry line)
-            throws Exception {
-        Profile profile = AbstractProfile.getDefaultProfile();
-
+    private static Proof[] loadProofFile(Path path, CheckerData.ProofEntry line,
+            Profile profile, boolean shareRules) throws Exception {
         // TODO: FileRepo/InitConfig/ProblemInitializer reuse possible?
         FileRepo fileRepo = new TrivialFileRepo();
         fileRepo.setBaseDir(path);
@@ -173,11 +227,16 @@ public final class KeYFacade {
 
         /////////////////// createEnvInput
         // TODO: do we need this?
-        profile = keyFile.getProfile() == null ? profile : keyFile.getProfile();
+        Profile fileProfile = keyFile.getProfile();
+        if (fileProfile != null && !fileProfile.name().equals(profile.name())) {
+            profile = fileProfile;
+        }
 
         ProblemInitializer pi = new ProblemInitializer(control, new Services(profile),
             new DefaultUserInterfaceControl());
         pi.setFileRepo(fileRepo);
+        // the profiles of the worker threads differ in their one step simplifiers only
+        pi.setShareRulesAmongProfileInstances(shareRules);
         line.problemInitializer = pi;
 
         ///////////////////
@@ -211,6 +270,18 @@ public final class KeYFacade {
             return null;
         }
         Contract contract = contractPO.getContract();
+        setContract(line, contract);
+
+        return proofList.getProofs();
+    }
+
+    /**
+     * Stores the given contract and the source file it is declared in in the given entry.
+     *
+     * @param line the entry to update
+     * @param contract the contract proven by the proof of the entry
+     */
+    static void setContract(CheckerData.ProofEntry line, Contract contract) {
         line.contract = contract;
         Type type = contract.getTarget().getContainerType().getJavaType();
         if (type instanceof JavaSourceElement jse) {
@@ -218,8 +289,6 @@ public final class KeYFacade {
             String str = line.sourceFile.toString();
             line.shortSrc = str.substring(str.lastIndexOf('/') + 1);
         }
-
-        return proofList.getProofs();
     }
 
     // TODO: adapted copy from AbstractProblemLoader
@@ -295,6 +364,11 @@ public final class KeYFacade {
      * @throws ProofManagementException
      */
     public static void ensureProofsReplayed(CheckerData data) throws ProofManagementException {
+        if (data.getJobs() > 1) {
+            data.setReplayRequested(true);
+            checkProofsInParallel(data);
+            return;
+        }
         List<Path> proofPaths = data.getProofPaths();
         ensureProofsLoaded(data);
 
@@ -303,22 +377,208 @@ public final class KeYFacade {
             if (proofPaths.contains(line.proofFile)) {
                 // skip proofs that have already been replayed
                 if (line.replayState == CheckerData.ReplayState.UNKNOWN) {
-                    Proof proof = line.proof;
-                    EnvInput envInput = line.envInput;
-
-                    if (proof != null) {
-                        OneStepSimplifier.refreshOSS(proof);
-                        try {
-                            // store result in CheckerData
-                            line.replayResult = replayProof(line, envInput, data);
-                        } catch (ProofInputException e) {
-                            throw new ProofManagementException(
-                                "Could not replay proof from " + envInput
-                                    + System.lineSeparator() + e);
-                        }
+                    replay(line, data);
+                }
+            }
+        }
+    }
+
+    private static void replay(CheckerData.ProofEntry line, Logger logger)
+            throws ProofManagementException {
+        Proof proof = line.proof;
+        EnvInput envInput = line.envInput;
+
+        if (proof != null) {
+            OneStepSimplifier.refreshOSS(proof);
+            try {
+                // store result in CheckerData
+                line.replayResult = replayProof(line, envInput, logger);
+                line.referencedSources = collectReferencedSources(line);
+            } catch (ProofInputException e) {
+                throw new ProofManagementException(
+                    "Could not replay proof from " + envInput + System.lineSeparator() + e);
+            }
+        }
+    }
+
+    /**
+     * Collects the source files the replayed proof of the given entry refers to: the file
+     * declaring the type of its contract and the files declaring the methods whose bodies have been
+     * inlined. Files which are not stored in the file system (e.g. KeY's built-in classes) are
+     * ignored.
+     *
+     * @param line the proof entry
+     * @return the real paths of the source files (see {@link #realPath(Path)})
+     */
+    private static Set<Path> collectReferencedSources(CheckerData.ProofEntry line) {
+        final Set<Path> sources = new LinkedHashSet<>();
+        addSourceFile(sources, line.sourceFile);
+        final Iterator<Node> it = line.proof.root().subtreeIterator();
+        while (it.hasNext()) {
+            final Node node = it.next();
+            final RuleApp app = node.getAppliedRuleApp();
+            if (app != null && METHOD_BODY_EXPAND.equals(app.rule().name().toString())
+                    && node.getNodeInfo().getActiveStatement() instanceof MethodBodyStatement mbs
+                    && mbs.getBodySource().getJavaType() instanceof JavaSourceElement jse) {
+                addSourceFile(sources, jse.getPositionInfo().getURL().orElse(null));
+            }
+        }
+        return sources;
+    }
+
+    private static void addSourceFile(Set<Path> sources, URL url) {
+        if (url != null && "file".equals(url.getProtocol())) {
+            try {
+                sources.add(realPath(Path.of(url.toURI())));
+            } catch (URISyntaxException e) {
+                // not a file of the bundle
+            }
+        }
+    }
+
+    /**
+     * Returns the real path of the given file, such that paths obtained from the bundle and from
+     * the Java model can be compared.
+     *
+     * @param path the path of an existing file
+     * @return the real path, or the absolute and normalized path if the file can not be accessed
+     */
+    static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Loads (and replays, if requested) the proofs of the bundle on a pool of threads. Each proof
+     * is disposed right after its data has been extracted.
+     *
+     * @param data the CheckerData object to store the results
+     * @throws ProofManagementException if a proof could not be loaded or replayed
+     */
+    private static void checkProofsInParallel(CheckerData data) throws ProofManagementException {
+        final boolean replay = data.isReplayRequested();
+        final List<Path> proofPaths = data.getProofPaths();
+
+        // the entries are created up front, since the list of entries is not thread safe
+        final Map<Path, CheckerData.ProofEntry> todo = new LinkedHashMap<>();
+        for (Path proofPath : proofPaths) {
+            CheckerData.ProofEntry line = ensureProofEntryExists(proofPath, data);
+            line.proofFile = proofPath;
+            if (line.loadingState == CheckerData.LoadingState.UNKNOWN
+                    || (replay && line.replayState == CheckerData.ReplayState.UNKNOWN)) {
+                todo.put(proofPath, line);
+            }
+        }
+        if (todo.isEmpty()) {
+            return;
+        }
+        // the contracts of the disposed proofs are replaced by those of the sources
+        final SpecificationRepository sourceSpecs =
+            ensureSourceInitialized(data).getServices().getSpecificationRepository();
+
+        // limit the number of threads such that each has the configured memory available
+        final long maxMemory = Runtime.getRuntime().maxMemory();
+        final int threads = (int) Math.max(1,
+            Math.min(data.getJobs(), maxMemory / Math.max(1, data.getMemoryPerProof())));
+        data.print(LogLevel.INFO, "Checking " + todo.size() + " proofs using " + threads
+            + " threads ...");
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ProofChecker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final Map<Path, Future<Boolean>> results = new LinkedHashMap<>();
+            for (Map.Entry<Path, CheckerData.ProofEntry> entry : todo.entrySet()) {
+                results.put(entry.getKey(), pool.submit(() -> checkProof(entry.getKey(),
+                    entry.getValue(), replay, sourceSpecs, data)));
+            }
+            for (Map.Entry<Path, Future<Boolean>> result : results.entrySet()) {
+                if (!result.getValue().get()) {
+                    // remove invalid line (e.g. from taclet proof)
+                    data.getProofEntries().remove(todo.get(result.getKey()));
+                    proofPaths.remove(result.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProofManagementException("Interrupted while checking proofs!");
+        } catch (ExecutionException e) {
+            throw new ProofManagementException(
+                "Could not load proof! " + System.lineSeparator() + e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads and replays a single proof on the current thread, extracts the data of the proof and
+     * disposes it.
+     *
+     * @param sourceSpecs the specification repository of the sources of the bundle
+     * @return false if the proof has to be ignored (e.g. a taclet proof)
+     */
+    private static boolean checkProof(Path path, CheckerData.ProofEntry line, boolean replay,
+            SpecificationRepository sourceSpecs, CheckerData data) throws Exception {
+        final Profile profile = WORKER_PROFILE.get();
+        try {
+            if (line.proof == null) {
+                synchronized (LOADING_LOCK) {
+                    if (!loadProofTree(path, line, data, profile, true)) {
+                        return false;
+                    }
+                }
+            }
+            if (line.dependencies == null) {
+                try {
+                    DependencyGraphBuilder.collectDependencies(line, data);
+                } catch (RuntimeException e) {
+                    data.print(LogLevel.WARNING, "Could not collect the dependencies of proof "
+                        + path + System.lineSeparator() + e);
+                }
+            }
+            if (replay && line.replayState == CheckerData.ReplayState.UNKNOWN) {
+                Profile proofProfile = line.proof.getServices().getProfile();
+                if (proofProfile == profile) {
+                    replay(line, data);
+                } else {
+                    // the profile (and its one step simplifier) is shared with other threads
+                    synchronized (proofProfile) {
+                        replay(line, data);
                     }
                 }
             }
+        } finally {
+            detachContract(line, sourceSpecs, data);
+            line.dispose();
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the contract of the given entry, which belongs to the specification repository of
+     * its proof, by the contract of the same name from the sources of the bundle. Otherwise, the
+     * contract would keep the Java model of the disposed proof reachable.
+     */
+    private static void detachContract(CheckerData.ProofEntry line,
+            SpecificationRepository sourceSpecs, Logger logger) {
+        if (line.contract == null) {
+            return;
+        }
+        final Contract contract;
+        synchronized (sourceSpecs) {
+            contract = sourceSpecs.getContractByName(line.contract.getName());
+        }
+        if (contract != null) {
+            line.contract = contract;
+        } else {
+            logger.print(LogLevel.WARNING, "Contract " + line.contract.getName()
+                + " of proof " + line.proofFile + " not found in the sources of the bundle!");
         }
     }
 
@@ -401,6 +661,9 @@ public final class KeYFacade {
             logger.print(LogLevel.WARNING, "... failed!");
         } else {
             line.replayState = CheckerData.ReplayState.SUCCESS;
+            Statistics statistics = proof.getStatistics();
+            line.statistics = new CheckerData.ProofStatistics(statistics.nodes,
+                statistics.interactiveSteps, statistics.autoModeTimeInMillis);
             // update status from UNKNOWN to OPEN/CLOSED depending on replay result
             if (line.proof.closed()) {
                 line.proofState = CheckerData.ProofState.CLOSED;
@@ -422,6 +685,9 @@ public final class KeYFacade {
      * @throws ProofManagementException
      */
     public static void ensureSourceLoaded(CheckerData data) throws ProofManagementException {
+        if (data.getSlenv() != null) {
+            return;
+        }
         data.print(LogLevel.DEBUG, "Loading Java sources ...");
         try {
             // load all contracts from source files
@@ -451,4 +717,33 @@ public final class KeYFacade {
                 + System.lineSeparator() + e.getMessage());
         }
     }
+
+    /**
+     * Ensures that the source files contained by the bundle stored in the given CheckerData
+     * object are read into an InitConfig, which gives access to all contracts of the bundle. The
+     * result is stored in the CheckerData object.
+     *
+     * @param data the CheckerData object to store the results
+     * @return the InitConfig of the Java sources
+     * @throws ProofManagementException if the sources could not be loaded
+     */
+    public static InitConfig ensureSourceInitialized(CheckerData data)
+            throws ProofManagementException {
+        if (data.getSourceInitConfig() == null) {
+            ensureSourceLoaded(data);
+
+            Profile profile = AbstractProfile.getDefaultProfile();
+            ProgressMonitor control = ProgressMonitor.Empty.getInstance();
+            ProblemInitializer pi = new ProblemInitializer(control, new Services(profile),
+                new DefaultUserInterfaceControl());
+            pi.setFileRepo(new TrivialFileRepo());
+            try {
+                data.setSourceInitConfig(pi.prepare(data.getSlenv()));
+            } catch (ProofInputException e) {
+                throw new ProofManagementException("EnvInput could not be loaded!"
+                    + System.lineSeparator() + e.getMessage());
+            }
+        }
+        return data.getSourceInitConfig();
+    }
 }
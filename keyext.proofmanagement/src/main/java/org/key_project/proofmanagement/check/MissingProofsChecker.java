@@ -6,18 +6,12 @@ package org.key_project.proofmanagement.check;
 import java.net.URI;
 import java.util.*;
 
-import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
 import de.uka.ilkd.key.java.PositionInfo;
-import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.java.abstraction.Type;
 import de.uka.ilkd.key.java.declaration.TypeDeclaration;
-import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.init.*;
-import de.uka.ilkd.key.proof.io.consistency.TrivialFileRepo;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.speclang.Contract;
-import de.uka.ilkd.key.speclang.SLEnvInput;
-import de.uka.ilkd.key.util.ProgressMonitor;
 
 import org.key_project.proofmanagement.io.LogLevel;
 import org.key_project.proofmanagement.io.ProofBundleHandler;
@@ -36,36 +30,22 @@ public class MissingProofsChecker implements Checker {
         data.addCheck("missing_proofs");
         data.print("Running missing proofs checker ...");
 
-        KeYFacade.ensureSourceLoaded(data);
         KeYFacade.ensureProofsLoaded(data);
-
-        Profile profile = AbstractProfile.getDefaultProfile();
-        ProgressMonitor control = ProgressMonitor.Empty.getInstance();
-        ProblemInitializer pi = new ProblemInitializer(control, new Services(profile),
-            new DefaultUserInterfaceControl());
-        pi.setFileRepo(new TrivialFileRepo());
-
-        SLEnvInput slenv = data.getSlenv();
+        InitConfig ic = KeYFacade.ensureSourceInitialized(data);
 
         /*
          * check that for all contracts found in Java source (in directory "src" in bundle)
          * there is a proof
          */
-        try {
-            InitConfig ic = pi.prepare(slenv);
-            SpecificationRepository specRepo = ic.getServices().getSpecificationRepository();
-            Set<Contract> contracts = specRepo.getAllContracts().toSet();
+        SpecificationRepository specRepo = ic.getServices().getSpecificationRepository();
+        Set<Contract> contracts = specRepo.getAllContracts().toSet();
 
-            // Remove all contracts that have a corresponding proof file from set.
-            // The proof is not checked to be closed here!
-            removeContractsWithProof(contracts, data);
+        // Remove all contracts that have a corresponding proof file from set.
+        // The proof is not checked to be closed here!
+        removeContractsWithProof(contracts, data);
 
-            // report all contracts that are left without proof, store check results in data
-            reportContractsWithoutProof(contracts, data);
-        } catch (ProofInputException e) {
-            throw new ProofManagementException("EnvInput could not be loaded!"
-                + System.lineSeparator() + e.getMessage());
-        }
+        // report all contracts that are left without proof, store check results in data
+        reportContractsWithoutProof(contracts, data);
     }
 
     private static void removeContractsWithProof(Set<Contract> contracts, CheckerData data)
@@ -73,14 +53,13 @@ public class MissingProofsChecker implements Checker {
 
         // compare: Is there a proof for every contract?
         for (CheckerData.ProofEntry entry : data.getProofEntries()) {
-            Proof p = entry.proof;
-            SpecificationRepository sr = p.getServices().getSpecificationRepository();
-            ContractPO cpo = sr.getPOForProof(p);
-            Contract foundContract = cpo.getContract();
+            // the contract has been extracted when loading the proof
+            Contract foundContract = entry.contract;
 
             if (foundContract == null) {
                 // should not happen
-                throw new ProofManagementException("Missing contract for proof: " + p.name());
+                throw new ProofManagementException("Missing contract for proof: "
+                    + entry.proofName);
             } else {
                 // search for matching contract and delete it (this contract has a proof)
                 Iterator<Contract> it = contracts.iterator();
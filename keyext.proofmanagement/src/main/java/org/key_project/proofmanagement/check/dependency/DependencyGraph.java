@@ -11,7 +11,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.key_project.proofmanagement.io.Logger;
+import org.key_project.proofmanagement.check.CheckerData;
 
 /**
  * Represents a graph of dependencies between contracts/proofs, i.e. which proof depends on
@@ -131,7 +131,7 @@ public class DependencyGraph {
 
     /**
      * This constructor exists only to restrict visibility.
-     * Use {@link DependencyGraphBuilder#buildGraph(List, Logger)} to build a graph.
+     * Use {@link DependencyGraphBuilder#buildGraph(List, CheckerData)} to build a graph.
      */
     DependencyGraph() {
     }
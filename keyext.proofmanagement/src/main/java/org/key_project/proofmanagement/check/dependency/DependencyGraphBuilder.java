@@ -6,13 +6,14 @@ package org.key_project.proofmanagement.check.dependency;
 import java.util.List;
 import java.util.Map;
 
-import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.io.intermediate.BranchNodeIntermediate;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.speclang.Contract;
 
 import org.key_project.proofmanagement.check.CheckerData;
+import org.key_project.proofmanagement.check.KeYFacade;
+import org.key_project.proofmanagement.check.ProofManagementException;
 import org.key_project.proofmanagement.io.Logger;
 
 /**
@@ -22,60 +23,76 @@ import org.key_project.proofmanagement.io.Logger;
  */
 public abstract class DependencyGraphBuilder {
     /**
-     * Builds a new DependencyGraph from the given proof entries.
+     * Collects the contracts applied in the proof of the given entry and stores them in the entry,
+     * such that the graph can be built after the proof has been disposed. The proof has to be
+     * loaded (it need not be replayed).
+     *
+     * @param line the proof entry
+     * @param logger the logger to print out error messages generated during collection
+     */
+    public static void collectDependencies(CheckerData.ProofEntry line, Logger logger) {
+        Proof proof = line.proof;
+        BranchNodeIntermediate node = line.parseResult.parsedResult();
+
+        // collect all contracts the current proof refers to
+        ContractAppCollector collector = new ContractAppCollector(node, proof, logger);
+        collector.start();
+        line.dependencies = collector.getResult();
+    }
+
+    /**
+     * Builds a new DependencyGraph from the given proof entries. The dependencies of the entries
+     * have to be collected already (see {@link #collectDependencies(CheckerData.ProofEntry,
+     * Logger)}). Applied contracts without a proof in the bundle are looked up by name, in the
+     * specification repository of the proof if it is still loaded, otherwise in the sources of
+     * the bundle.
      *
      * @param proofEntries the proof entries to build the graph from
-     * @param logger the logger to print out error messages generated during graph creation
+     * @param data the CheckerData object giving access to the sources of the bundle
      * @return the newly created DependencyGraph
+     * @throws ProofManagementException if an applied contract can not be found
      */
     public static DependencyGraph buildGraph(List<CheckerData.ProofEntry> proofEntries,
-            Logger logger) {
+            CheckerData data) throws ProofManagementException {
 
         DependencyGraph graph = new DependencyGraph();
 
         // first create the nodes of the graph (one for each loaded proof)
         for (CheckerData.ProofEntry line : proofEntries) {
-
-            Proof proof = line.proof;
-            String contractName = proof.name().toString();
-            Services services = proof.getServices();
-            SpecificationRepository specRepo = services.getSpecificationRepository();
-            Contract contract = specRepo.getContractByName(contractName);
-
             // create fresh node for current contract
-            DependencyNode node = new DependencyNode(contract);
+            DependencyNode node = new DependencyNode(line.contract);
             graph.addNode(node);
         }
 
         // add dependencies between nodes
         for (CheckerData.ProofEntry line : proofEntries) {
-            // get current node and root of proof
-            Proof proof = line.proof;
-            DependencyNode currentNode = graph.getNodeByName(proof.name().toString());
-            BranchNodeIntermediate node = line.parseResult.parsedResult();
-
-            // collect all contracts the current proof refers to
-            Services services = proof.getServices();
-            SpecificationRepository specRepo = services.getSpecificationRepository();
-            ContractAppCollector collector = new ContractAppCollector(node, proof, logger);
-            collector.start();
-            Map<String, DependencyGraph.EdgeType> dependentContracts = collector.getResult();
+            // get current node
+            DependencyNode currentNode = graph.getNodeByName(line.contract.getName());
 
             // add actual dependency edges
-            for (String depName : dependentContracts.keySet()) {
+            for (Map.Entry<String, DependencyGraph.EdgeType> dep : line.dependencies.entrySet()) {
+                String depName = dep.getKey();
                 DependencyNode dependentNode = graph.getNodeByName(depName);
 
                 // If no node for this contract exists, create one.
                 // This is the case for contracts that have no proof in bundle,
                 // particularly those from JavaRedux shipped with KeY.
                 if (dependentNode == null) {
+                    SpecificationRepository specRepo = line.proof != null
+                            ? line.proof.getServices().getSpecificationRepository()
+                            : KeYFacade.ensureSourceInitialized(data).getServices()
+                                    .getSpecificationRepository();
                     Contract contract = specRepo.getContractByName(depName);
+                    if (contract == null) {
+                        throw new ProofManagementException("Contract " + depName
+                            + " applied in proof " + line.proofFile + " not found!");
+                    }
                     dependentNode = new DependencyNode(contract);
                     graph.addNode(dependentNode);
                 }
 
                 // add edge
-                currentNode.addEdge(dependentNode, dependentContracts.get(depName));
+                currentNode.addEdge(dependentNode, dep.getValue());
             }
         }
         return graph;
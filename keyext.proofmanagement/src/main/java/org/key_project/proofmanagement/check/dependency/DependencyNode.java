@@ -11,13 +11,13 @@ import java.util.stream.Collectors;
 
 import de.uka.ilkd.key.speclang.Contract;
 
-import org.key_project.proofmanagement.io.Logger;
+import org.key_project.proofmanagement.check.CheckerData;
 
 import static org.key_project.proofmanagement.check.dependency.DependencyGraph.EdgeType.TERMINATION_SENSITIVE;
 
 /**
  * Represents a node in the graph of dependencies between proofs/contracts.
- * Use {@link DependencyGraphBuilder#buildGraph(List, Logger)} to build a graph.
+ * Use {@link DependencyGraphBuilder#buildGraph(List, CheckerData)} to build a graph.
  *
  * @author Wolfram Pfeifer
  */
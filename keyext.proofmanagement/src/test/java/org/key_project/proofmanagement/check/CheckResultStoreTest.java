@@ -0,0 +1,175 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement.check;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.settings.Configuration;
+
+import org.key_project.proofmanagement.io.LogLevel;
+import org.key_project.proofmanagement.io.ProofBundleHandler;
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the stored results of a bundle are reused exactly for the proofs whose file, sources
+ * and contracts (including the applied ones) have not changed since.
+ */
+public class CheckResultStoreTest {
+    /** a bundle of two closed proofs of mutually recursive methods */
+    private static final Path BUNDLE =
+        new File(FindResources.getTestCasesDirectory(), "MultipleRecursion").toPath();
+
+    @TempDir
+    Path tmp;
+
+    /** a copy of the bundle, which the tests may modify */
+    private Path bundle;
+
+    /** the file the results are stored in */
+    private Path cache;
+
+    @BeforeEach
+    void copyBundle() throws IOException {
+        bundle = tmp.resolve("bundle");
+        cache = tmp.resolve("results");
+        try (Stream<Path> s = Files.walk(BUNDLE)) {
+            for (Path p : (Iterable<Path>) s::iterator) {
+                Files.copy(p, bundle.resolve(BUNDLE.relativize(p).toString()));
+            }
+        }
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        final CheckerData first = check(0);
+        assertTrue(Files.exists(cache));
+        final CheckerData second = check(2);
+
+        final Map<String, CheckerData.ProofEntry> expected = new HashMap<>();
+        for (CheckerData.ProofEntry line : first.getProofEntries()) {
+            expected.put(line.proofName, line);
+        }
+        assertEquals(2, second.getProofEntries().size());
+        for (CheckerData.ProofEntry line : second.getProofEntries()) {
+            final CheckerData.ProofEntry e = expected.get(line.proofName);
+            assertNotNull(e, line.proofName);
+            // restored entries are not loaded again
+            assertNull(line.proof);
+            assertEquals(e.proofFile, line.proofFile);
+            assertEquals(e.contract.getName(), line.contract.getName());
+            assertEquals(e.choices, line.choices);
+            assertEquals(e.dependencies, line.dependencies);
+            assertEquals(e.referencedSources, line.referencedSources);
+            assertEquals(e.replayState, line.replayState);
+            assertEquals(CheckerData.ProofState.CLOSED, line.proofState);
+            assertEquals(e.proofState, line.proofState);
+            assertEquals(e.dependencyState, line.dependencyState);
+            assertEquals(e.statistics.nodes, line.statistics.nodes);
+            assertEquals(e.statistics.interactiveSteps, line.statistics.interactiveSteps);
+        }
+        assertEquals(first.getDependencyGraph().getNodes().size(),
+            second.getDependencyGraph().getNodes().size());
+    }
+
+    @Test
+    void changedProofIsCheckedAgain() throws Exception {
+        check(0);
+        final Path proof = proofFiles().get(0);
+        Files.writeString(proof, "\n", StandardOpenOption.APPEND);
+
+        final CheckerData data = check(1);
+        for (CheckerData.ProofEntry line : data.getProofEntries()) {
+            assertEquals(line.proofFile.getFileName().equals(proof.getFileName()),
+                line.proof != null, line.proofName);
+            assertEquals(CheckerData.ProofState.CLOSED, line.proofState);
+        }
+        // the results of the changed proof have been stored again
+        check(2);
+    }
+
+    @Test
+    void changedSourceInvalidatesReferringProofs() throws Exception {
+        final Path source = bundle.resolve("src").resolve("MultipleRecursion.java");
+        for (CheckerData.ProofEntry line : check(0).getProofEntries()) {
+            // both methods are declared in the same file
+            assertEquals(Set.of(source.toRealPath()), line.referencedSources);
+        }
+        Files.writeString(source, "\n", StandardOpenOption.APPEND);
+        check(0);
+        check(2);
+    }
+
+    @Test
+    void changedContractInvalidatesApplyingProofs() throws Exception {
+        String contractOfB = null;
+        for (CheckerData.ProofEntry line : check(0).getProofEntries()) {
+            if (line.proofFile.getFileName().toString().contains("__b()")) {
+                contractOfB = line.contract.getName();
+            }
+        }
+        assertNotNull(contractOfB);
+
+        // pretend the specification of b has changed since: the proof of b as well as the proof
+        // of a, which applies the contract of b, are checked again
+        final Configuration stored = Configuration.load(cache.toFile());
+        stored.getTable("contracts").set(contractOfB, "changed");
+        try (Writer writer = Files.newBufferedWriter(cache)) {
+            stored.save(writer, "");
+        }
+        check(0);
+        check(2);
+    }
+
+    @Test
+    void corruptStoreIsIgnored() throws Exception {
+        Files.writeString(cache, "{ version : ");
+        check(0);
+        check(2);
+    }
+
+    private List<Path> proofFiles() throws IOException {
+        try (Stream<Path> s = Files.list(bundle)) {
+            return s.filter(p -> p.toString().endsWith(".proof")).sorted().toList();
+        }
+    }
+
+    /**
+     * Checks the bundle like the check command with replay and dependency check does.
+     *
+     * @param restored the number of proofs expected to be restored from the store
+     * @return the results of the check
+     */
+    private CheckerData check(int restored) throws Exception {
+        final CheckerData data = new CheckerData(LogLevel.DEBUG);
+        data.setReplayRequested(true);
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            data.setPbh(pbh);
+            final CheckResultStore store = CheckResultStore.load(cache, pbh, data);
+            store.restore(data, true);
+            assertEquals(restored, data.getProofEntries().size());
+
+            new ReplayChecker().check(pbh, data);
+            new DependencyChecker().check(pbh, data);
+            store.save(data);
+        }
+        assertEquals(2, data.getProofEntries().size());
+        return data;
+    }
+}
@@ -0,0 +1,74 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement.check;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
+
+import org.key_project.proofmanagement.io.LogLevel;
+import org.key_project.proofmanagement.io.ProofBundleHandler;
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that checking the proofs of a bundle in parallel yields the same results as checking them
+ * one after the other.
+ */
+public class KeYFacadeTest {
+    /** a bundle of two closed proofs of mutually recursive methods */
+    private static final Path BUNDLE =
+        new File(FindResources.getTestCasesDirectory(), "MultipleRecursion").toPath();
+
+    @Test
+    public void parallelCheckEqualsSequential() throws Exception {
+        final CheckerData sequential = check(1);
+        final CheckerData parallel = check(2);
+
+        assertEquals(2, parallel.getProofEntries().size());
+        final Map<String, CheckerData.ProofEntry> expected = new HashMap<>();
+        for (CheckerData.ProofEntry line : sequential.getProofEntries()) {
+            expected.put(line.proofName, line);
+        }
+        final SpecificationRepository sourceSpecs =
+            parallel.getSourceInitConfig().getServices().getSpecificationRepository();
+        for (CheckerData.ProofEntry line : parallel.getProofEntries()) {
+            final CheckerData.ProofEntry e = expected.get(line.proofName);
+            assertNotNull(e, line.proofName);
+            assertEquals(e.loadingState, line.loadingState);
+            assertEquals(e.replayState, line.replayState);
+            assertEquals(CheckerData.ProofState.CLOSED, line.proofState);
+            assertEquals(e.proofState, line.proofState);
+            assertEquals(e.dependencyState, line.dependencyState);
+            assertEquals(e.dependencies, line.dependencies);
+            assertEquals(e.choices, line.choices);
+            assertEquals(e.statistics.nodes, line.statistics.nodes);
+            assertEquals(e.contract.getName(), line.contract.getName());
+
+            // the proof is disposed and its contract is taken from the sources of the bundle
+            assertNull(line.proof);
+            assertSame(sourceSpecs.getContractByName(line.contract.getName()), line.contract);
+        }
+        assertEquals(sequential.getDependencyGraph().getNodes().size(),
+            parallel.getDependencyGraph().getNodes().size());
+    }
+
+    private static CheckerData check(int jobs) throws Exception {
+        final CheckerData data = new CheckerData(LogLevel.DEBUG);
+        data.setJobs(jobs);
+        data.setReplayRequested(true);
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(BUNDLE)) {
+            data.setPbh(pbh);
+            new ReplayChecker().check(pbh, data);
+            new DependencyChecker().check(pbh, data);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,11 @@
+public class MultipleRecursion {
+    //@ public normal_behavior ensures false;
+    public void a() {
+        b();
+    }
+
+    //@ public normal_behavior ensures false;
+    public void b() {
+        a();
+    }
+}